@@ -0,0 +1,115 @@
+package org.testng.collections;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/** A growable list of <code>int</code>s, which does not box them. */
+public final class IntArrayList {
+
+  private static final int[] EMPTY = {};
+
+  private int[] values;
+  private int size = 0;
+
+  public IntArrayList() {
+    this.values = EMPTY;
+  }
+
+  public IntArrayList(int capacity) {
+    this.values = capacity == 0 ? EMPTY : new int[capacity];
+  }
+
+  public static IntArrayList of(int... values) {
+    IntArrayList result = new IntArrayList(values.length);
+    System.arraycopy(values, 0, result.values, 0, values.length);
+    result.size = values.length;
+    return result;
+  }
+
+  public static IntArrayList of(List<Integer> values) {
+    IntArrayList result = new IntArrayList(values.size());
+    for (Integer value : values) {
+      result.add(value);
+    }
+    return result;
+  }
+
+  public void add(int value) {
+    if (size == values.length) {
+      values = Arrays.copyOf(values, Math.max(8, size + (size >> 1)));
+    }
+    values[size++] = value;
+  }
+
+  public int get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+    return values[index];
+  }
+
+  public boolean contains(int value) {
+    for (int i = 0; i < size; i++) {
+      if (values[i] == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    size = 0;
+  }
+
+  public void forEach(IntConsumer action) {
+    for (int i = 0; i < size; i++) {
+      action.accept(values[i]);
+    }
+  }
+
+  public int[] toArray() {
+    return Arrays.copyOf(values, size);
+  }
+
+  /** @return a (boxed) copy of this list. */
+  public List<Integer> toList() {
+    List<Integer> result = Lists.newArrayList(size);
+    forEach(result::add);
+    return result;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof IntArrayList)) {
+      return false;
+    }
+    IntArrayList that = (IntArrayList) o;
+    return Arrays.equals(values, 0, size, that.values, 0, that.size);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 1;
+    for (int i = 0; i < size; i++) {
+      result = 31 * result + values[i];
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(toArray());
+  }
+}
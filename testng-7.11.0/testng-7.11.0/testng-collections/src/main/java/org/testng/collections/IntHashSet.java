@@ -0,0 +1,181 @@
+package org.testng.collections;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A set of <code>int</code>s, which does not box them. The values are kept in an open addressing
+ * hash table (with linear probing), in which <code>0</code> marks a free slot and is kept track of
+ * on its own.
+ */
+public final class IntHashSet {
+
+  private int[] table;
+  private int size = 0;
+  private boolean containsZero = false;
+
+  public IntHashSet() {
+    this(8);
+  }
+
+  public IntHashSet(int expectedSize) {
+    this.table = new int[capacityFor(expectedSize)];
+  }
+
+  public static IntHashSet of(int... values) {
+    IntHashSet result = new IntHashSet(values.length);
+    for (int value : values) {
+      result.add(value);
+    }
+    return result;
+  }
+
+  public static IntHashSet of(Collection<Integer> values) {
+    IntHashSet result = new IntHashSet(values.size());
+    for (Integer value : values) {
+      result.add(value);
+    }
+    return result;
+  }
+
+  /** @return <code>true</code> if the value was not in the set yet. */
+  public boolean add(int value) {
+    if (value == 0) {
+      boolean added = !containsZero;
+      containsZero = true;
+      if (added) {
+        size++;
+      }
+      return added;
+    }
+    int mask = table.length - 1;
+    int i = mix(value) & mask;
+    while (table[i] != 0) {
+      if (table[i] == value) {
+        return false;
+      }
+      i = (i + 1) & mask;
+    }
+    table[i] = value;
+    size++;
+    if (size > table.length >> 1) {
+      rehash(table.length << 1);
+    }
+    return true;
+  }
+
+  public boolean contains(int value) {
+    if (value == 0) {
+      return containsZero;
+    }
+    int mask = table.length - 1;
+    int i = mix(value) & mask;
+    while (table[i] != 0) {
+      if (table[i] == value) {
+        return true;
+      }
+      i = (i + 1) & mask;
+    }
+    return false;
+  }
+
+  /** @return <code>true</code> if the value was in the set. */
+  public boolean remove(int value) {
+    if (value == 0) {
+      boolean removed = containsZero;
+      containsZero = false;
+      if (removed) {
+        size--;
+      }
+      return removed;
+    }
+    int mask = table.length - 1;
+    int i = mix(value) & mask;
+    while (table[i] != value) {
+      if (table[i] == 0) {
+        return false;
+      }
+      i = (i + 1) & mask;
+    }
+    table[i] = 0;
+    size--;
+    // Moves the values after it back, so that none of them is cut off from its slot by the hole
+    int next = (i + 1) & mask;
+    while (table[next] != 0) {
+      int moved = table[next];
+      table[next] = 0;
+      table[insertionSlot(moved)] = moved;
+      next = (next + 1) & mask;
+    }
+    return true;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    Arrays.fill(table, 0);
+    containsZero = false;
+    size = 0;
+  }
+
+  public int[] toArray() {
+    int[] result = new int[size];
+    int n = 0;
+    if (containsZero) {
+      result[n++] = 0;
+    }
+    for (int value : table) {
+      if (value != 0) {
+        result[n++] = value;
+      }
+    }
+    return result;
+  }
+
+  private int insertionSlot(int value) {
+    int mask = table.length - 1;
+    int i = mix(value) & mask;
+    while (table[i] != 0) {
+      i = (i + 1) & mask;
+    }
+    return i;
+  }
+
+  private void rehash(int capacity) {
+    int[] old = table;
+    table = new int[capacity];
+    for (int value : old) {
+      if (value != 0) {
+        table[insertionSlot(value)] = value;
+      }
+    }
+  }
+
+  static int mix(int value) {
+    // Spreads consecutive values (indices...) over the table
+    int h = value * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  static int capacityFor(int expectedSize) {
+    int capacity = 8;
+    // Keeps the table at most half full
+    while (capacity < expectedSize * 2) {
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+
+  @Override
+  public String toString() {
+    int[] values = toArray();
+    Arrays.sort(values);
+    return Arrays.toString(values);
+  }
+}
@@ -0,0 +1,141 @@
+package org.testng.collections;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ToIntFunction;
+
+/**
+ * A map of (non <code>null</code>) keys to <code>int</code>s, which does not box them. The entries
+ * are kept in an open addressing hash table (with linear probing).
+ *
+ * @param <K> The type of the keys
+ */
+public final class Object2IntMap<K> {
+
+  private final int defaultValue;
+  private Object[] keys;
+  private int[] values;
+  private int size = 0;
+
+  /** @param defaultValue - The value of the keys that are not in the map */
+  public Object2IntMap(int defaultValue) {
+    this(defaultValue, 8);
+  }
+
+  public Object2IntMap(int defaultValue, int expectedSize) {
+    this.defaultValue = defaultValue;
+    int capacity = IntHashSet.capacityFor(expectedSize);
+    this.keys = new Object[capacity];
+    this.values = new int[capacity];
+  }
+
+  /** @return the value of the key, or the default value of the map if it is not in the map. */
+  public int get(K key) {
+    int i = slotOf(key);
+    return keys[i] == null ? defaultValue : values[i];
+  }
+
+  public boolean containsKey(K key) {
+    return keys[slotOf(key)] != null;
+  }
+
+  /** @return the previous value of the key, or the default value of the map. */
+  public int put(K key, int value) {
+    int i = slotOf(key);
+    if (keys[i] != null) {
+      int previous = values[i];
+      values[i] = value;
+      return previous;
+    }
+    keys[i] = key;
+    values[i] = value;
+    size++;
+    if (size > keys.length >> 1) {
+      rehash(keys.length << 1);
+    }
+    return defaultValue;
+  }
+
+  /** @return the value of the key, computing it (and putting it in the map) if needed. */
+  public int computeIfAbsent(K key, ToIntFunction<? super K> function) {
+    int i = slotOf(key);
+    if (keys[i] != null) {
+      return values[i];
+    }
+    int value = function.applyAsInt(key);
+    put(key, value);
+    return value;
+  }
+
+  /** @return the value of the key, once the increment is added to it. */
+  public int addTo(K key, int increment) {
+    int i = slotOf(key);
+    if (keys[i] != null) {
+      values[i] += increment;
+      return values[i];
+    }
+    int value = defaultValue + increment;
+    put(key, value);
+    return value;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public void clear() {
+    Arrays.fill(keys, null);
+    size = 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  public void forEach(ObjIntConsumer<? super K> action) {
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != null) {
+        action.accept((K) keys[i], values[i]);
+      }
+    }
+  }
+
+  private int slotOf(Object key) {
+    Objects.requireNonNull(key, "key");
+    int mask = keys.length - 1;
+    int i = IntHashSet.mix(key.hashCode()) & mask;
+    while (keys[i] != null && !keys[i].equals(key)) {
+      i = (i + 1) & mask;
+    }
+    return i;
+  }
+
+  private void rehash(int capacity) {
+    Object[] oldKeys = keys;
+    int[] oldValues = values;
+    keys = new Object[capacity];
+    values = new int[capacity];
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != null) {
+        int slot = slotOf(oldKeys[i]);
+        keys[slot] = oldKeys[i];
+        values[slot] = oldValues[i];
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("{");
+    forEach(
+        (key, value) -> {
+          if (sb.length() > 1) {
+            sb.append(", ");
+          }
+          sb.append(key).append('=').append(value);
+        });
+    return sb.append('}').toString();
+  }
+}
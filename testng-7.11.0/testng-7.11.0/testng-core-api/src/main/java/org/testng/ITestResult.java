@@ -115,6 +115,23 @@ public interface ITestResult extends IAttributes, Comparable<ITestResult> {
    */
   String id();
 
+  /**
+   * @return - The metrics captured around the invocation of the method body itself, or {@link
+   *     InvocationMetrics#NONE} if metrics were not captured.
+   */
+  default InvocationMetrics getInvocationMetrics() {
+    return InvocationMetrics.NONE;
+  }
+
+  /**
+   * @return - The metrics captured around all the <code>@BeforeMethod</code> and <code>
+   *     &#64;AfterMethod</code> configurations that ran for this test result, or {@link
+   *     InvocationMetrics#NONE} if metrics were not captured.
+   */
+  default InvocationMetrics getConfigurationMetrics() {
+    return InvocationMetrics.NONE;
+  }
+
   /**
    * @return - <code>true</code> if the current test result is either {@link ITestResult#STARTED} or
    *     {@link ITestResult#CREATED}
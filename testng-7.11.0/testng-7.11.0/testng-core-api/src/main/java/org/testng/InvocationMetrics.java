@@ -0,0 +1,86 @@
+package org.testng;
+
+/**
+ * Timing and resource consumption captured on the worker thread around a method invocation. Metrics
+ * are only captured when TestNG runs with <code>-Dtestng.invocation.metrics=true</code>; otherwise
+ * {@link #NONE} is reported.
+ *
+ * <p>Any individual figure is <code>-1</code> when the JVM does not support measuring it (e.g.,
+ * thread allocation counters on non HotSpot based JVMs). Only the duration is captured for methods
+ * with a time out (which run on a thread of their own) and for methods run by an {@link IHookable}
+ * or an {@link IConfigurable}.
+ */
+public final class InvocationMetrics {
+
+  /** Represents metrics that were not captured. */
+  public static final InvocationMetrics NONE = new InvocationMetrics(-1L, -1L, -1L);
+
+  private final long durationNanos;
+  private final long cpuTimeNanos;
+  private final long allocatedBytes;
+
+  public InvocationMetrics(long durationNanos, long cpuTimeNanos, long allocatedBytes) {
+    this.durationNanos = durationNanos;
+    this.cpuTimeNanos = cpuTimeNanos;
+    this.allocatedBytes = allocatedBytes;
+  }
+
+  /** @return - The wall clock time in nanoseconds, or <code>-1</code> if not captured. */
+  public long getDurationNanos() {
+    return durationNanos;
+  }
+
+  /** @return - The CPU time consumed by the thread in nanoseconds, or <code>-1</code>. */
+  public long getCpuTimeNanos() {
+    return cpuTimeNanos;
+  }
+
+  /** @return - The number of bytes allocated by the thread, or <code>-1</code>. */
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  /** @return - <code>true</code> if these metrics were actually captured. */
+  public boolean isCaptured() {
+    return durationNanos >= 0;
+  }
+
+  /**
+   * @param other - The metrics to add to this one.
+   * @return - A new object that represents the sum of both metrics. Figures that were not captured
+   *     on either side are ignored.
+   */
+  public InvocationMetrics plus(InvocationMetrics other) {
+    if (!other.isCaptured()) {
+      return this;
+    }
+    if (!isCaptured()) {
+      return other;
+    }
+    return new InvocationMetrics(
+        sum(durationNanos, other.durationNanos),
+        sum(cpuTimeNanos, other.cpuTimeNanos),
+        sum(allocatedBytes, other.allocatedBytes));
+  }
+
+  private static long sum(long a, long b) {
+    if (a < 0) {
+      return b;
+    }
+    if (b < 0) {
+      return a;
+    }
+    return a + b;
+  }
+
+  @Override
+  public String toString() {
+    return "[duration="
+        + durationNanos
+        + "ns, cpu="
+        + cpuTimeNanos
+        + "ns, allocated="
+        + allocatedBytes
+        + "B]";
+  }
+}
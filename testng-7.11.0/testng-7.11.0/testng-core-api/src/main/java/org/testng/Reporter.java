@@ -3,6 +3,7 @@ package org.testng;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import org.testng.collections.IntArrayList;
 import org.testng.collections.Lists;
 import org.testng.collections.Maps;
 import org.testng.internal.AutoCloseableLock;
@@ -32,9 +33,9 @@ public class Reporter {
       new InheritableThreadLocal<>();
 
   /** All output logged in a sequential order. */
-  private static final List<String> m_output = new LinkedList<>();
+  private static final List<String> m_output = Lists.newArrayList();
 
-  private static final Map<String, List<Integer>> m_methodOutputMap = Maps.newConcurrentMap();
+  private static final Map<String, IntArrayList> m_methodOutputMap = Maps.newConcurrentMap();
 
   private static boolean m_escapeHtml = false;
   // This variable is responsible for persisting all output that is yet to be associated with any
@@ -94,7 +95,7 @@ public class Reporter {
     // Synchronization needed to ensure the line number and m_output are updated atomically.
     int n = getOutput().size();
 
-    List<Integer> lines = m_methodOutputMap.computeIfAbsent(m.id(), k -> Lists.newLinkedList());
+    IntArrayList lines = m_methodOutputMap.computeIfAbsent(m.id(), k -> new IntArrayList());
 
     // Check if there was already some orphaned output for the current thread.
     if (m_orphanedOutput.get() != null) {
@@ -181,10 +182,10 @@ public class Reporter {
       // null value.
       return result;
     }
-    List<Integer> lines = m_methodOutputMap.get(tr.id());
+    IntArrayList lines = m_methodOutputMap.get(tr.id());
     if (lines != null) {
-      for (Integer n : lines) {
-        result.add(getOutput().get(n));
+      for (int i = 0; i < lines.size(); i++) {
+        result.add(getOutput().get(lines.get(i)));
       }
     }
 
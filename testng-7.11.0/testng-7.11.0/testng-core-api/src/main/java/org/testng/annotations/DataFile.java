@@ -0,0 +1,39 @@
+package org.testng.annotations;
+
+import static java.lang.annotation.ElementType.METHOD;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * The file that the rows of a test method are read from, when it uses the data provider named
+ * <code>file</code> of <code>org.testng.FileDataProviders</code>:
+ *
+ * <pre>
+ * &#64;DataFile("fixtures/orders.csv")
+ * &#64;Test(dataProvider = "file", dataProviderClass = FileDataProviders.class)
+ * public void order(String id, int quantity, double price) {...}
+ * </pre>
+ *
+ * Every line of the file is a row, whose values are converted to the types of the parameters of the
+ * test method. Files whose name ends with <code>.jsonl</code> or <code>.ndjson</code> hold a JSON
+ * array of values per line, any other file comma separated values.
+ */
+@Retention(java.lang.annotation.RetentionPolicy.RUNTIME)
+@Target({METHOD})
+public @interface DataFile {
+
+  /**
+   * The path of the file, relative to the working directory or to the directory of the suite file.
+   *
+   * @return the path of the file
+   */
+  String value();
+
+  /**
+   * Whether the first line of the file names the columns, in which case it is not a row.
+   *
+   * @return true if the first line of the file is a header
+   */
+  boolean header() default false;
+}
@@ -17,6 +17,8 @@ import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import org.testng.collections.Lists;
+import org.testng.internal.index.TestIndex;
+import org.testng.internal.protocols.ClasspathScanIndex;
 import org.testng.internal.protocols.Input;
 import org.testng.internal.protocols.Processor;
 import org.testng.internal.protocols.UnhandledIOException;
@@ -47,6 +49,26 @@ public class PackageUtils {
    */
   public static String[] findClassesInPackage(
       String packageName, List<String> included, List<String> excluded) throws IOException {
+    return findClassesInPackage(packageName, included, excluded, null, new TestIndex.Cache());
+  }
+
+  /**
+   * @param packageName - The package name
+   * @param included - The inclusion list.
+   * @param excluded - The exclusion list
+   * @param scanIndex - The classpath scan index of the current run, or <code>null</code> if the
+   *     classpath entries are to be scanned for this package only
+   * @param testIndices - The test indices of the current run
+   * @return - The list of all the classes inside this package
+   * @throws IOException - if there is an exception.
+   */
+  public static String[] findClassesInPackage(
+      String packageName,
+      List<String> included,
+      List<String> excluded,
+      ClasspathScanIndex scanIndex,
+      TestIndex.Cache testIndices)
+      throws IOException {
     String packageNameWithoutWildCards = packageName;
     boolean recursive = packageName.endsWith(".*");
     if (recursive) {
@@ -73,12 +95,21 @@ public class PackageUtils {
 
     return allClassLoaders.stream()
         .filter(Objects::nonNull)
-        .flatMap(asURLs(packageDirName))
-        .filter(url -> matchTestClasspath(url, packageDirName, recursive))
-        .flatMap(url -> Processor.newInstance(url.getProtocol()).process(input, url).stream())
+        .flatMap(cl -> findClasses(cl, input, scanIndex, testIndices))
         .toArray(String[]::new);
   }
 
+  private static Stream<String> findClasses(
+      ClassLoader cl, Input input, ClasspathScanIndex scanIndex, TestIndex.Cache testIndices) {
+    // Classpath roots that carry a test index are listed from it rather than walked
+    TestIndex index = testIndices.forClassLoader(cl);
+    return asURLs(input.getPackageDirName())
+        .apply(cl)
+        .filter(url -> matchTestClasspath(url, input.getPackageDirName(), input.isRecursive()))
+        .map(url -> Processor.newInstance(url.getProtocol(), index, scanIndex).process(input, url))
+        .flatMap(List::stream);
+  }
+
   private static String[] getTestClasspath() {
     if (null != testClassPaths) {
       return testClassPaths;
@@ -11,6 +11,7 @@ public final class RuntimeBehavior {
   public static final String TESTNG_THREAD_AFFINITY = "testng.thread.affinity";
   public static final String TESTNG_MODE_DRYRUN = "testng.mode.dryrun";
   private static final String TEST_CLASSPATH = "testng.test.classpath";
+  public static final String CLASSPATH_SCAN_CACHE = "testng.classpath.scan.cache";
   private static final String SKIP_CALLER_CLS_LOADER = "skip.caller.clsLoader";
   public static final String TESTNG_USE_UNSECURED_URL = "testng.dtd.http";
   public static final String SHOW_TESTNG_STACK_FRAMES = "testng.show.stack.frames";
@@ -22,6 +23,23 @@ public final class RuntimeBehavior {
   public static final String PREFERENTIAL_LISTENERS = "testng.preferential.listeners.package";
   public static final String FAVOR_CUSTOM_THREAD_POOL_EXECUTOR =
       "testng.favor.custom.thread-pool.executor";
+  public static final String CAPTURE_INVOCATION_METRICS = "testng.invocation.metrics";
+  public static final String EXPOSE_RUN_METRICS_VIA_JMX = "testng.jmx";
+  public static final String PROFILE_PHASES = "testng.phase.profile";
+  public static final String USE_TEST_INDEX = "testng.test.index";
+  public static final String PARAMETER_RETENTION = "testng.parameters.retention";
+  public static final String PARAMETER_SNAPSHOT_LENGTH = "testng.parameters.snapshot.length";
+  public static final String RELEASE_FINISHED_INSTANCES = "testng.instances.release";
+  public static final String LAZY_SUITE_RUNNERS = "testng.suites.lazy";
+  public static final String TEAR_DOWN_FINISHED_TESTS = "testng.tests.teardown";
+  public static final String DATA_PROVIDER_CHUNK_DURATION = "testng.dataprovider.chunk.duration";
+  public static final String DATA_PROVIDER_PREFETCH = "testng.dataprovider.prefetch";
+  public static final String DATA_PROVIDER_PREFETCH_THREADS =
+      "testng.dataprovider.prefetch.threads";
+  public static final String DATA_PROVIDER_PREFETCH_BUDGET = "testng.dataprovider.prefetch.budget";
+  public static final String DATA_PROVIDER_CACHE = "testng.dataprovider.cache";
+  public static final String DATA_PROVIDER_CACHE_ROWS = "testng.dataprovider.cache.rows";
+  public static final String DATA_PROVIDER_CACHE_SPILL = "testng.dataprovider.cache.spill";
 
   private RuntimeBehavior() {}
 
@@ -52,6 +70,159 @@ public final class RuntimeBehavior {
     return !Boolean.getBoolean(TESTNG_USE_UNSECURED_URL);
   }
 
+  /**
+   * @return - <code>true</code> if TestNG should capture nanosecond timing, thread CPU time and
+   *     allocated bytes around every test and configuration method invocation.
+   */
+  public static boolean captureInvocationMetrics() {
+    return Boolean.getBoolean(CAPTURE_INVOCATION_METRICS);
+  }
+
+  /**
+   * @return - <code>true</code> if TestNG should register MBeans (under the <code>org.testng</code>
+   *     domain, keyed by the id of the run) that expose live counters for the run and every suite
+   *     and test.
+   */
+  public static boolean exposeRunMetricsViaJmx() {
+    return Boolean.getBoolean(EXPOSE_RUN_METRICS_VIA_JMX);
+  }
+
+  /**
+   * @return - <code>true</code> if TestNG should measure the time it spends in each of its phases
+   *     (parsing, discovery, selection, scheduling etc.,) and report it at the end of the run.
+   */
+  public static boolean profilePhases() {
+    return Boolean.getBoolean(PROFILE_PHASES);
+  }
+
+  /**
+   * @return - <code>true</code> if TestNG should consult the test index that its annotation
+   *     processor writes into <code>META-INF/testng</code> (when one is present) instead of
+   *     scanning packages and reflecting over every method. The index is trusted as is: test
+   *     classes that were compiled without the processor are not listed in it, and are therefore
+   *     not found in <code>&lt;package&gt;</code> elements.
+   */
+  public static boolean useTestIndex() {
+    return Boolean.getBoolean(USE_TEST_INDEX);
+  }
+
+  /**
+   * @return - The file in which the classes found in the jars of the classpath should be cached
+   *     between runs (or <code>null</code> if they should not be).
+   */
+  public static String getClasspathScanCache() {
+    return System.getProperty(CLASSPATH_SCAN_CACHE);
+  }
+
+  /**
+   * @return - What test results should keep of their parameters once they are complete: <code>full
+   *     </code> (the default), <code>to_string</code>, <code>failures</code> or <code>none</code>.
+   */
+  public static String getParameterRetention() {
+    return System.getProperty(PARAMETER_RETENTION, "full");
+  }
+
+  /**
+   * @return - The maximum length of the string form that test results keep of each of their
+   *     parameters when they only keep a snapshot of them.
+   */
+  public static int getParameterSnapshotLength() {
+    return Integer.getInteger(PARAMETER_SNAPSHOT_LENGTH, 1024);
+  }
+
+  /**
+   * @return - <code>true</code> if TestNG should drop its references to a test class instance as
+   *     soon as its last method and its <code>@AfterClass</code> methods have run, so that it can
+   *     be garbage collected before the end of the run. {@link
+   *     org.testng.ITestResult#getInstance()} then returns <code>null</code> for its results.
+   */
+  public static boolean releaseFinishedInstances() {
+    return Boolean.getBoolean(RELEASE_FINISHED_INSTANCES);
+  }
+
+  /**
+   * @return - <code>true</code> if TestNG should only create the runner of a suite when the suite
+   *     is about to run, rather than all of them before running the first suite (when the suites
+   *     are run one after the other), and the runner of each <code>&lt;test&gt;</code> right before
+   *     it runs (when the <code>&lt;test&gt;</code> tags of a suite are run one after the other).
+   *     The beforeSuite methods of a <code>&lt;test&gt;</code> then run right before it (unless
+   *     they already have), suite listeners only see the methods of the <code>&lt;test&gt;</code>
+   *     tags whose runner has been created, and the test listeners of a {@code @Listeners}
+   *     annotation are only notified of the <code>&lt;test&gt;</code> tags from its own onwards.
+   *     Creating the runners up front is also how TestNG makes sure that no suite has a
+   *     configuration issue (such as a class that cannot be found) before running any test: with
+   *     this flag, the issues of a <code>&lt;test&gt;</code> are only reported when its turn
+   *     comes.
+   */
+  public static boolean createSuiteRunnersLazily() {
+    return Boolean.getBoolean(LAZY_SUITE_RUNNERS);
+  }
+
+  /**
+   * @return - <code>true</code> if TestNG should drop the state that it only needs to run a <code>
+   *     &lt;test&gt;</code> (test classes, class method maps, class finders, invokers, method
+   *     interceptors...) as soon as it has run, rather than at the end of the run.
+   */
+  public static boolean tearDownFinishedTests() {
+    return Boolean.getBoolean(TEAR_DOWN_FINISHED_TESTS);
+  }
+
+  /**
+   * @return - How long (in microseconds) the rows of a parallel data provider that a thread runs
+   *     back to back should take, <code>1000</code> by default. <code>0</code> hands every row over
+   *     to the thread pool as a task of its own.
+   */
+  public static long getDataProviderChunkDuration() {
+    return Long.getLong(DATA_PROVIDER_CHUNK_DURATION, 1000);
+  }
+
+  /**
+   * @return - <code>true</code> if TestNG should invoke the (static) data providers of the test
+   *     methods that are about to run ahead of time, while the test methods before them run. The
+   *     data providers of a class are only prefetched once its <code>@BeforeClass</code> methods
+   *     have run, but they may still run before the earlier test methods of the class and their
+   *     <code>@BeforeGroups</code> and <code>@BeforeMethod</code> methods: data providers that
+   *     read static state set up by any of those must not be prefetched.
+   */
+  public static boolean prefetchDataProviders() {
+    return Boolean.getBoolean(DATA_PROVIDER_PREFETCH);
+  }
+
+  /** @return - The number of threads that data providers are prefetched with, 2 by default. */
+  public static int getDataProviderPrefetchThreadCount() {
+    return Integer.getInteger(DATA_PROVIDER_PREFETCH_THREADS, 2);
+  }
+
+  /**
+   * @return - The number of prefetched data providers whose rows may be waiting for their test
+   *     method at a time, 4 by default.
+   */
+  public static int getDataProviderPrefetchBudget() {
+    return Integer.getInteger(DATA_PROVIDER_PREFETCH_BUDGET, 4);
+  }
+
+  /**
+   * @return - <code>test</code> or <code>suite</code> if the rows of a data provider should be
+   *     shared between the test methods of a <code>&lt;test&gt;</code> (or of a suite) that use it,
+   *     rather than invoking it for each of them. Empty by default (not shared).
+   */
+  public static String getDataProviderCacheScope() {
+    return System.getProperty(DATA_PROVIDER_CACHE, "");
+  }
+
+  /** @return - The number of data provider rows that are cached at most, 10000 by default. */
+  public static long getDataProviderCacheMaxRows() {
+    return Long.getLong(DATA_PROVIDER_CACHE_ROWS, 10_000);
+  }
+
+  /**
+   * @return - <code>true</code> if the rows of a data provider that are evicted from the cache
+   *     should be serialized to a file (when they can be) rather than dropped.
+   */
+  public static boolean spillDataProviderCache() {
+    return Boolean.getBoolean(DATA_PROVIDER_CACHE_SPILL);
+  }
+
   public static boolean isMemoryFriendlyMode() {
     return Boolean.parseBoolean(System.getProperty(MEMORY_FRIENDLY_MODE, "false"));
   }
@@ -0,0 +1,65 @@
+package org.testng.internal.index;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A TestNG annotation (<code>@Test</code>, <code>@BeforeMethod</code>, <code>@DataProvider</code>
+ * ...) as it was found on a class, method or constructor by the {@link TestIndex} annotation
+ * processor, together with the attributes that matter for discovery (groups, dependencies and data
+ * provider bindings).
+ */
+public final class IndexedAnnotation {
+
+  /** The element name used for annotations found on the class itself. */
+  public static final String CLASS = "<class>";
+
+  /** The element name used for annotations found on a constructor. */
+  public static final String CONSTRUCTOR = "<init>";
+
+  private final String annotation;
+  private final String element;
+  private final Map<String, String> attributes;
+
+  public IndexedAnnotation(String annotation, String element, Map<String, String> attributes) {
+    this.annotation = annotation;
+    this.element = element;
+    this.attributes = Collections.unmodifiableMap(new LinkedHashMap<>(attributes));
+  }
+
+  /** @return the simple name of the annotation, for e.g., <code>Test</code> */
+  public String getAnnotation() {
+    return annotation;
+  }
+
+  /**
+   * @return the name of the annotated method, {@link #CLASS} or {@link #CONSTRUCTOR}.
+   */
+  public String getElement() {
+    return element;
+  }
+
+  public Map<String, String> getAttributes() {
+    return attributes;
+  }
+
+  /**
+   * @param name - The annotation attribute, for e.g., <code>groups</code>
+   * @return the values of the attribute (an empty list if it was not specified).
+   */
+  public List<String> getValues(String name) {
+    String value = attributes.get(name);
+    if (value == null || value.isEmpty()) {
+      return Collections.emptyList();
+    }
+    return Arrays.asList(value.split(","));
+  }
+
+  @Override
+  public String toString() {
+    return "@" + annotation + " " + element + " " + attributes;
+  }
+}
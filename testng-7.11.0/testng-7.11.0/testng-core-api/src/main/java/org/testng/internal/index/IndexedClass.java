@@ -0,0 +1,140 @@
+package org.testng.internal.index;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import org.testng.collections.Lists;
+import org.testng.collections.Sets;
+
+/**
+ * A class recorded in a {@link TestIndex}: the TestNG annotations declared on it and the kinds of
+ * TestNG annotations found anywhere in its hierarchy (superclasses and interfaces), along with
+ * enough of its shape to tell whether the index still matches the compiled class.
+ */
+public final class IndexedClass {
+
+  private final String root;
+  private final String name;
+  private final int declaredMethods;
+  private final Set<String> kinds;
+  private final Set<String> supertypes;
+  private final List<IndexedAnnotation> annotations;
+
+  public IndexedClass(
+      String root,
+      String name,
+      int declaredMethods,
+      Set<String> kinds,
+      Set<String> supertypes,
+      List<IndexedAnnotation> annotations) {
+    this.root = root;
+    this.name = name;
+    this.declaredMethods = declaredMethods;
+    this.kinds = Collections.unmodifiableSet(Sets.newLinkedHashSet(kinds));
+    this.supertypes = Collections.unmodifiableSet(Sets.newLinkedHashSet(supertypes));
+    this.annotations = Collections.unmodifiableList(Lists.newArrayList(annotations));
+  }
+
+  /** @return the classpath root (directory or jar) whose index listed this class. */
+  public String getRoot() {
+    return root;
+  }
+
+  /** @return the binary name of the class. */
+  public String getName() {
+    return name;
+  }
+
+  public String getPackageName() {
+    int index = name.lastIndexOf('.');
+    return index == -1 ? "" : name.substring(0, index);
+  }
+
+  /** @return the binary name of the class without its package. */
+  public String getSimpleBinaryName() {
+    return name.substring(name.lastIndexOf('.') + 1);
+  }
+
+  /** @return the number of (non synthetic) methods that the class declares. */
+  public int getDeclaredMethods() {
+    return declaredMethods;
+  }
+
+  /**
+   * @return the simple names of all the TestNG annotations found on the class, its methods and
+   *     constructors, or on any of its supertypes.
+   */
+  public Set<String> getKinds() {
+    return kinds;
+  }
+
+  /** @return the binary names of all the superclasses and interfaces (except Object). */
+  public Set<String> getSupertypes() {
+    return supertypes;
+  }
+
+  /** @return the TestNG annotations declared by the class itself. */
+  public List<IndexedAnnotation> getAnnotations() {
+    return annotations;
+  }
+
+  /**
+   * @param annotation - The simple name of a TestNG annotation, for e.g., <code>BeforeClass</code>
+   * @return <code>true</code> if the annotation appears anywhere in the hierarchy of the class.
+   */
+  public boolean hasKind(String annotation) {
+    return kinds.contains(annotation);
+  }
+
+  /**
+   * @param cls - The compiled class
+   * @return <code>true</code> if the class still has the shape that was indexed, that is, the same
+   *     supertypes, the same number of methods and every indexed method is still there.
+   */
+  public boolean isCurrent(Class<?> cls) {
+    if (!name.equals(cls.getName()) || !supertypes.equals(supertypesOf(cls))) {
+      return false;
+    }
+    Set<String> names = Sets.newHashSet();
+    int count = 0;
+    for (Method method : cls.getDeclaredMethods()) {
+      if (!method.isSynthetic()) {
+        count++;
+        names.add(method.getName());
+      }
+    }
+    if (count != declaredMethods) {
+      return false;
+    }
+    return annotations.stream()
+        .map(IndexedAnnotation::getElement)
+        .filter(it -> !IndexedAnnotation.CLASS.equals(it))
+        .filter(it -> !IndexedAnnotation.CONSTRUCTOR.equals(it))
+        .allMatch(names::contains);
+  }
+
+  /** @return the binary names of the superclasses and interfaces of the class, except Object. */
+  public static Set<String> supertypesOf(Class<?> cls) {
+    Set<String> result = Sets.newLinkedHashSet();
+    collectSupertypes(cls, result);
+    return result;
+  }
+
+  private static void collectSupertypes(Class<?> cls, Set<String> result) {
+    Class<?> superclass = cls.getSuperclass();
+    if (superclass != null && superclass != Object.class && result.add(superclass.getName())) {
+      collectSupertypes(superclass, result);
+    }
+    for (Class<?> each : cls.getInterfaces()) {
+      if (result.add(each.getName())) {
+        collectSupertypes(each, result);
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "[IndexedClass " + name + " kinds:" + kinds + "]";
+  }
+}
@@ -0,0 +1,268 @@
+package org.testng.internal.index;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.WeakHashMap;
+import org.testng.collections.Lists;
+import org.testng.collections.Maps;
+import org.testng.collections.Sets;
+import org.testng.internal.RuntimeBehavior;
+import org.testng.internal.Utils;
+
+/**
+ * The test index that TestNG's annotation processor (<code>
+ * org.testng.internal.index.TestIndexProcessor</code>) writes into {@value #LOCATION} of every
+ * compilation output it runs on. It lists the TestNG classes of that output along with their
+ * annotations, so that package discovery and method lookup do not have to scan the classpath or
+ * reflect over every method. The index is only consulted when enabled via <code>
+ * -Dtestng.test.index=true</code>.
+ *
+ * <p>The index is a plain UTF-8 text file. After a version header, every class is described by a
+ * <code>class</code> line which is followed by one <code>annotation</code> line per TestNG
+ * annotation that the class declares. Fields are tab separated and attributes are written as
+ * <code>name=value</code> pairs (multiple values are comma separated):
+ *
+ * <pre>
+ * testng-index 1
+ * class   com.acme.LoginTest   4   kinds=BeforeMethod,Test   supertypes=com.acme.BaseTest
+ * annotation   BeforeMethod   setUp
+ * annotation   Test   login   groups=smoke   dataProvider=users
+ * </pre>
+ */
+public final class TestIndex {
+
+  public static final String LOCATION = "META-INF/testng/test-index";
+
+  private static final String HEADER = "testng-index 1";
+  private static final String CLASS = "class";
+  private static final String ANNOTATION = "annotation";
+  private static final String KINDS = "kinds";
+  private static final String SUPERTYPES = "supertypes";
+  private static final String CLS_NAME = TestIndex.class.getSimpleName();
+
+  private static final TestIndex EMPTY = new TestIndex(Collections.emptyList());
+
+  private final Map<String, List<IndexedClass>> classesByRoot = Maps.newLinkedHashMap();
+  private final Map<String, IndexedClass> classesByName = Maps.newHashMap();
+
+  private TestIndex(Collection<IndexedClass> classes) {
+    for (IndexedClass each : classes) {
+      classesByRoot.computeIfAbsent(each.getRoot(), k -> Lists.newArrayList()).add(each);
+      classesByName.putIfAbsent(each.getName(), each);
+    }
+  }
+
+  private static TestIndex load(ClassLoader loader) {
+    List<IndexedClass> classes = Lists.newArrayList();
+    try {
+      Enumeration<URL> resources = loader.getResources(LOCATION);
+      while (resources.hasMoreElements()) {
+        URL url = resources.nextElement();
+        String location = url.toString();
+        String root = location.substring(0, location.length() - LOCATION.length());
+        try (Reader reader = new InputStreamReader(url.openStream(), UTF_8)) {
+          classes.addAll(read(root, reader));
+        }
+        Utils.log(CLS_NAME, 3, "Loaded the test index " + url);
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      Utils.log(CLS_NAME, 2, "Ignoring the test index: " + e.getMessage());
+      return EMPTY;
+    }
+    return classes.isEmpty() ? EMPTY : new TestIndex(classes);
+  }
+
+  /**
+   * The indices loaded for every class loader. A new cache is meant to be created for every run, so
+   * that the indices written since the previous run are picked up.
+   */
+  public static final class Cache {
+
+    private final Map<ClassLoader, TestIndex> indices =
+        Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * @param loader - The class loader to look up indices in
+     * @return the combined index of all the {@value #LOCATION} resources visible to the class
+     *     loader (an empty index if there are none or if the index was disabled).
+     */
+    public TestIndex forClassLoader(ClassLoader loader) {
+      if (loader == null || !RuntimeBehavior.useTestIndex()) {
+        return EMPTY;
+      }
+      return indices.computeIfAbsent(loader, TestIndex::load);
+    }
+  }
+
+  public boolean isEmpty() {
+    return classesByName.isEmpty();
+  }
+
+  /**
+   * @param root - A classpath root (directory or jar) as a URL string ending with a <code>/</code>
+   * @return <code>true</code> if the root has its own index.
+   */
+  public boolean covers(String root) {
+    return classesByRoot.containsKey(root);
+  }
+
+  /** @return the classes listed by the index of the given classpath root. */
+  public List<IndexedClass> getClasses(String root) {
+    return classesByRoot.getOrDefault(root, Collections.emptyList());
+  }
+
+  /**
+   * @param cls - The class to look up
+   * @return the index entry of the class, provided it was indexed from the classpath root the
+   *     class was actually loaded from.
+   */
+  public Optional<IndexedClass> find(Class<?> cls) {
+    IndexedClass result = classesByName.get(cls.getName());
+    if (result == null) {
+      return Optional.empty();
+    }
+    URL location = cls.getResource("/" + cls.getName().replace('.', '/') + ".class");
+    if (location == null || !location.toString().startsWith(result.getRoot())) {
+      return Optional.empty();
+    }
+    return Optional.of(result);
+  }
+
+  /**
+   * Parses an index.
+   *
+   * @param root - The classpath root that the index belongs to
+   * @param reader - The contents of the index
+   * @return the classes listed in the index.
+   * @throws IOException - if the index cannot be read.
+   * @throws IllegalArgumentException - if the index is not in a format that can be understood.
+   */
+  public static List<IndexedClass> read(String root, Reader reader) throws IOException {
+    List<IndexedClass> result = Lists.newArrayList();
+    BufferedReader in = new BufferedReader(reader);
+    String line = in.readLine();
+    if (!HEADER.equals(line)) {
+      throw new IllegalArgumentException("Unsupported test index version: " + line);
+    }
+    String[] current = null;
+    List<IndexedAnnotation> annotations = Lists.newArrayList();
+    while ((line = in.readLine()) != null) {
+      if (line.isEmpty() || line.startsWith("#")) {
+        continue;
+      }
+      String[] fields = line.split("\t");
+      if (CLASS.equals(fields[0]) && fields.length >= 3) {
+        if (current != null) {
+          result.add(newClass(root, current, annotations));
+        }
+        current = fields;
+        annotations = Lists.newArrayList();
+      } else if (ANNOTATION.equals(fields[0]) && fields.length >= 3 && current != null) {
+        annotations.add(new IndexedAnnotation(fields[1], fields[2], attributes(fields, 3)));
+      } else {
+        throw new IllegalArgumentException("Malformed test index entry: " + line);
+      }
+    }
+    if (current != null) {
+      result.add(newClass(root, current, annotations));
+    }
+    return result;
+  }
+
+  private static IndexedClass newClass(
+      String root, String[] fields, List<IndexedAnnotation> annotations) {
+    Map<String, String> attributes = attributes(fields, 3);
+    return new IndexedClass(
+        root,
+        fields[1],
+        Integer.parseInt(fields[2]),
+        values(attributes.get(KINDS)),
+        values(attributes.get(SUPERTYPES)),
+        annotations);
+  }
+
+  private static Map<String, String> attributes(String[] fields, int from) {
+    Map<String, String> result = Maps.newLinkedHashMap();
+    for (int i = from; i < fields.length; i++) {
+      int index = fields[i].indexOf('=');
+      if (index > 0) {
+        result.put(fields[i].substring(0, index), unescape(fields[i].substring(index + 1)));
+      }
+    }
+    return result;
+  }
+
+  private static Set<String> values(String value) {
+    Set<String> result = Sets.newLinkedHashSet();
+    if (value != null && !value.isEmpty()) {
+      Collections.addAll(result, value.split(","));
+    }
+    return result;
+  }
+
+  /**
+   * Writes an index.
+   *
+   * @param classes - The classes to be listed
+   * @param writer - Where to write the index to
+   * @throws IOException - if the index cannot be written.
+   */
+  public static void write(Collection<IndexedClass> classes, Writer writer) throws IOException {
+    writer.write(HEADER);
+    writer.write('\n');
+    for (IndexedClass each : classes) {
+      writer.write(CLASS + "\t" + each.getName() + "\t" + each.getDeclaredMethods());
+      writeAttribute(writer, KINDS, String.join(",", each.getKinds()));
+      writeAttribute(writer, SUPERTYPES, String.join(",", each.getSupertypes()));
+      writer.write('\n');
+      for (IndexedAnnotation annotation : each.getAnnotations()) {
+        writer.write(ANNOTATION + "\t" + annotation.getAnnotation());
+        writer.write("\t" + annotation.getElement());
+        for (Map.Entry<String, String> attribute : annotation.getAttributes().entrySet()) {
+          writeAttribute(writer, attribute.getKey(), attribute.getValue());
+        }
+        writer.write('\n');
+      }
+    }
+  }
+
+  private static void writeAttribute(Writer writer, String name, String value) throws IOException {
+    if (value != null && !value.isEmpty()) {
+      writer.write("\t" + name + "=" + escape(value));
+    }
+  }
+
+  private static String escape(String value) {
+    return value.replace("\\", "\\\\").replace("\t", "\\t").replace("\n", "\\n");
+  }
+
+  private static String unescape(String value) {
+    if (value.indexOf('\\') == -1) {
+      return value;
+    }
+    StringBuilder result = new StringBuilder(value.length());
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '\\' && i + 1 < value.length()) {
+        char next = value.charAt(++i);
+        result.append(next == 't' ? '\t' : next == 'n' ? '\n' : next);
+      } else {
+        result.append(c);
+      }
+    }
+    return result.toString();
+  }
+}
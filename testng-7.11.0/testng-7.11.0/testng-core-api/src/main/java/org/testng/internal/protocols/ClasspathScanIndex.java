@@ -0,0 +1,356 @@
+package org.testng.internal.protocols;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import org.testng.collections.Lists;
+import org.testng.internal.RuntimeBehavior;
+import org.testng.internal.Utils;
+
+/**
+ * An in-memory index of the classes found in every classpath entry (directory or jar) that a
+ * package lookup has touched, so that each entry is walked only once no matter how many <code>
+ * &lt;package&gt;</code> tags refer to it. Every entry is held as a tree of package names that
+ * leads to the classes of each package. A new index is meant to be created for every run, and is
+ * handed to the package lookups of that run only.
+ *
+ * <p>Jars are keyed by their last modification time and size, so they are scanned again should
+ * they change. When the <code>testng.classpath.scan.cache</code> JVM argument points to a file, the
+ * jar entries are also written to (and read back from) that file, to be reused by later runs.
+ * Directories can change without their own timestamp changing, so they are never persisted.
+ */
+public final class ClasspathScanIndex {
+
+  private static final String CLS_NAME = ClasspathScanIndex.class.getSimpleName();
+  private static final String HEADER = "testng-scan-index 1";
+  private static final String JAR = "jar";
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private volatile boolean loaded;
+  private volatile boolean modified;
+
+  /**
+   * @param input - The package that is being looked for
+   * @param url - The location of the package in one of the classpath entries
+   * @return the names of the classes of the package in that classpath entry, or an empty optional
+   *     if the entry could not be indexed (in which case the caller should scan it by itself).
+   */
+  public Optional<List<String>> findClasses(Input input, URL url) {
+    String location = url.toString();
+    String packageDirName = input.getPackageDirName();
+    if (!location.endsWith(packageDirName)) {
+      return Optional.empty();
+    }
+    String root = location.substring(0, location.length() - packageDirName.length());
+    return entryFor(root, url.getProtocol()).map(it -> it.findClasses(input));
+  }
+
+  private Optional<Entry> entryFor(String root, String protocol) {
+    loadIfNeeded();
+    Entry entry = entries.get(root);
+    if (entry != null && entry.isCurrent()) {
+      return Optional.of(entry);
+    }
+    try {
+      if ("jar".equalsIgnoreCase(protocol)) {
+        entry = scanJar(root);
+      } else if ("file".equalsIgnoreCase(protocol)) {
+        entry = scanDirectory(root);
+      } else {
+        return Optional.empty();
+      }
+    } catch (IOException | UncheckedIOException e) {
+      Utils.log(CLS_NAME, 3, "Could not index " + root + ": " + e.getMessage());
+      return Optional.empty();
+    }
+    entries.put(root, entry);
+    modified |= entry.isJar();
+    return Optional.of(entry);
+  }
+
+  private static Entry scanJar(String root) throws IOException {
+    Utils.log(CLS_NAME, 4, "Indexing the jar " + root);
+    JarURLConnection connection = (JarURLConnection) new URL(root).openConnection();
+    File file = toFile(connection.getJarFileURL());
+    if (file.isFile()) {
+      // Read the jar afresh rather than through the (cached) connection, it may have changed
+      try (JarFile jar = new JarFile(file)) {
+        return new Entry(file, classesIn(jar));
+      }
+    }
+    // Jars that are not plain files (for e.g., nested jars) are only kept for the current run
+    return new Entry(null, classesIn(connection.getJarFile()));
+  }
+
+  private static List<String> classesIn(JarFile jar) {
+    List<String> classes = Lists.newArrayList();
+    Enumeration<JarEntry> jarEntries = jar.entries();
+    while (jarEntries.hasMoreElements()) {
+      JarEntry jarEntry = jarEntries.nextElement();
+      String name = jarEntry.getName();
+      if (name.startsWith("module-info") || name.startsWith("META-INF")) {
+        continue;
+      }
+      if (name.endsWith(".class") && !jarEntry.isDirectory()) {
+        classes.add(toClassName(name, ".class"));
+      }
+    }
+    return classes;
+  }
+
+  private static Entry scanDirectory(String root) throws IOException {
+    Utils.log(CLS_NAME, 4, "Indexing the directory " + root);
+    Path directory = toFile(new URL(root)).toPath();
+    if (!Files.isDirectory(directory)) {
+      throw new IOException("Not a directory");
+    }
+    List<String> classes = Lists.newArrayList();
+    Files.walkFileTree(
+        directory,
+        EnumSet.of(FileVisitOption.FOLLOW_LINKS),
+        Integer.MAX_VALUE,
+        new SimpleFileVisitor<Path>() {
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+            String path = directory.relativize(file).toString().replace(File.separatorChar, '/');
+            if (attrs.isRegularFile() && path.endsWith(".class")) {
+              classes.add(toClassName(path, ".class"));
+            } else if (attrs.isRegularFile() && path.endsWith(".groovy")) {
+              classes.add(toClassName(path, ".groovy"));
+            }
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult visitFileFailed(Path file, IOException e) {
+            // For e.g., a directory that cannot be read or a symbolic link that loops
+            Utils.log(CLS_NAME, 3, "Skipping " + file + ": " + e);
+            return FileVisitResult.CONTINUE;
+          }
+        });
+    return new Entry(null, classes);
+  }
+
+  private static String toClassName(String path, String extension) {
+    if (path.charAt(0) == '/') {
+      path = path.substring(1);
+    }
+    return path.substring(0, path.length() - extension.length()).replace('/', '.');
+  }
+
+  private static File toFile(URL url) {
+    return new File(URLDecoder.decode(url.getFile(), UTF_8));
+  }
+
+  private void loadIfNeeded() {
+    if (loaded) {
+      return;
+    }
+    synchronized (this) {
+      if (loaded) {
+        return;
+      }
+      loaded = true;
+      String cache = RuntimeBehavior.getClasspathScanCache();
+      if (cache == null || !new File(cache).isFile()) {
+        return;
+      }
+      try (BufferedReader reader = Files.newBufferedReader(Paths.get(cache), UTF_8)) {
+        entries.putAll(read(reader));
+        Utils.log(CLS_NAME, 3, "Loaded the classpath scan cache " + cache);
+      } catch (IOException | RuntimeException e) {
+        Utils.log(CLS_NAME, 2, "Ignoring the classpath scan cache " + cache + ": " + e);
+      }
+    }
+  }
+
+  private static Map<String, Entry> read(BufferedReader reader) throws IOException {
+    Map<String, Entry> result = new TreeMap<>();
+    if (!HEADER.equals(reader.readLine())) {
+      return result;
+    }
+    String[] current = null;
+    List<String> classes = Lists.newArrayList();
+    String line;
+    while ((line = reader.readLine()) != null) {
+      if (line.startsWith(JAR + "\t")) {
+        addEntry(result, current, classes);
+        current = line.split("\t");
+        classes = Lists.newArrayList();
+      } else if (!line.isEmpty()) {
+        classes.add(line);
+      }
+    }
+    addEntry(result, current, classes);
+    return result;
+  }
+
+  private static void addEntry(Map<String, Entry> result, String[] fields, List<String> classes) {
+    if (fields == null) {
+      return;
+    }
+    Entry entry = new Entry(new File(fields[2]), classes);
+    boolean unchanged =
+        entry.lastModified == Long.parseLong(fields[3])
+            && entry.length == Long.parseLong(fields[4]);
+    if (unchanged) {
+      result.put(fields[1], entry);
+    }
+  }
+
+  /**
+   * Writes the jars that were indexed to the file that the <code>testng.classpath.scan.cache
+   * </code> JVM argument points to (if any), provided something was indexed since the file was
+   * read.
+   */
+  public void persist() {
+    String cache = RuntimeBehavior.getClasspathScanCache();
+    if (cache == null || !modified) {
+      return;
+    }
+    Map<String, Entry> jars = new TreeMap<>();
+    entries.forEach(
+        (root, entry) -> {
+          if (entry.isJar()) {
+            jars.put(root, entry);
+          }
+        });
+    Path path = Paths.get(cache);
+    try {
+      if (path.getParent() != null) {
+        Files.createDirectories(path.getParent());
+      }
+      try (BufferedWriter writer = Files.newBufferedWriter(path, UTF_8)) {
+        writer.write(HEADER);
+        writer.newLine();
+        for (Map.Entry<String, Entry> each : jars.entrySet()) {
+          Entry entry = each.getValue();
+          writer.write(
+              String.join(
+                  "\t",
+                  JAR,
+                  each.getKey(),
+                  entry.file.getPath(),
+                  Long.toString(entry.lastModified),
+                  Long.toString(entry.length)));
+          writer.newLine();
+          for (String name : entry.classes) {
+            writer.write(name);
+            writer.newLine();
+          }
+        }
+      }
+      modified = false;
+    } catch (IOException e) {
+      Utils.log(CLS_NAME, 2, "Could not write the classpath scan cache " + cache + ": " + e);
+    }
+  }
+
+  /** The classes of a single classpath entry. */
+  private static final class Entry {
+
+    private final File file;
+    private final long lastModified;
+    private final long length;
+    private final List<String> classes;
+    private final PackageNode packages = new PackageNode();
+
+    Entry(File file, List<String> classes) {
+      this.file = file;
+      this.lastModified = file == null ? -1 : file.lastModified();
+      this.length = file == null ? -1 : file.length();
+      this.classes = classes;
+      classes.forEach(packages::add);
+    }
+
+    boolean isJar() {
+      return file != null;
+    }
+
+    boolean isCurrent() {
+      return file == null || (file.lastModified() == lastModified && file.length() == length);
+    }
+
+    List<String> findClasses(Input input) {
+      String packageOnly = input.getPackageWithoutWildCards();
+      PackageNode node = packages.find(packageOnly);
+      if (node == null) {
+        return Collections.emptyList();
+      }
+      List<String> result = Lists.newArrayList();
+      node.collect(packageOnly, input, result);
+      return result;
+    }
+  }
+
+  /** A package along with its classes and sub packages. */
+  private static final class PackageNode {
+
+    private final Map<String, PackageNode> packages = new TreeMap<>();
+    private final List<String> classes = Lists.newArrayList();
+
+    void add(String className) {
+      PackageNode node = this;
+      int start = 0;
+      int end;
+      while ((end = className.indexOf('.', start)) != -1) {
+        String name = className.substring(start, end);
+        node = node.packages.computeIfAbsent(name, k -> new PackageNode());
+        start = end + 1;
+      }
+      node.classes.add(className.substring(start));
+    }
+
+    PackageNode find(String packageName) {
+      PackageNode node = this;
+      if (packageName.isEmpty()) {
+        return node;
+      }
+      for (String each : packageName.split("\\.")) {
+        node = node.packages.get(each);
+        if (node == null) {
+          return null;
+        }
+      }
+      return node;
+    }
+
+    void collect(String packageName, Input input, List<String> result) {
+      for (String each : classes) {
+        result.addAll(
+            Processor.includeOrExcludeClass(
+                packageName, each, input.getIncluded(), input.getExcluded()));
+      }
+      if (input.isRecursive()) {
+        packages.forEach(
+            (name, node) ->
+                node.collect(
+                    packageName.isEmpty() ? name : packageName + "." + name, input, result));
+      }
+    }
+  }
+}
@@ -5,11 +5,23 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.util.List;
+import java.util.Optional;
 
 class FileProcessor extends Processor {
 
+  private final ClasspathScanIndex scanIndex;
+
+  FileProcessor(ClasspathScanIndex scanIndex) {
+    this.scanIndex = scanIndex;
+  }
+
   @Override
   public List<String> process(Input input, URL url) {
+    Optional<List<String>> indexed =
+        scanIndex == null ? Optional.empty() : scanIndex.findClasses(input, url);
+    if (indexed.isPresent()) {
+      return indexed.get();
+    }
     return findClassesInDirPackage(
         input.getPackageWithoutWildCards(),
         input.getIncluded(),
@@ -0,0 +1,77 @@
+package org.testng.internal.protocols;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.util.List;
+import org.testng.collections.Lists;
+import org.testng.internal.Utils;
+import org.testng.internal.index.IndexedClass;
+import org.testng.internal.index.TestIndex;
+
+/**
+ * Lists the classes of a package from the {@link TestIndex} of the classpath root that the package
+ * lives in, so that neither the directory nor the jar has to be walked. Roots that have no index,
+ * or whose index refers to classes that no longer exist, are scanned by the protocol specific
+ * processor instead.
+ */
+class IndexProcessor extends Processor {
+
+  private final TestIndex index;
+  private final Processor fallback;
+
+  IndexProcessor(TestIndex index, Processor fallback) {
+    this.index = index;
+    this.fallback = fallback;
+  }
+
+  @Override
+  public List<String> process(Input input, URL url) {
+    String location = url.toString();
+    String packageDirName = input.getPackageDirName();
+    if (!location.endsWith(packageDirName)) {
+      return fallback.process(input, url);
+    }
+    String root = location.substring(0, location.length() - packageDirName.length());
+    if (!index.covers(root)) {
+      return fallback.process(input, url);
+    }
+    String packageOnly = input.getPackageWithoutWildCards();
+    List<String> classes = Lists.newArrayList();
+    for (IndexedClass each : index.getClasses(root)) {
+      String packageName = each.getPackageName();
+      boolean matches =
+          packageName.equals(packageOnly)
+              || (input.isRecursive()
+                  && (packageOnly.isEmpty() || packageName.startsWith(packageOnly + ".")));
+      if (!matches) {
+        continue;
+      }
+      if (!exists(root, each)) {
+        Utils.log(CLS_NAME, 3, "The test index of " + root + " is stale, scanning " + location);
+        return fallback.process(input, url);
+      }
+      classes.addAll(
+          includeOrExcludeClass(
+              packageName, each.getSimpleBinaryName(), input.getIncluded(), input.getExcluded()));
+    }
+    return classes;
+  }
+
+  private static boolean exists(String root, IndexedClass indexedClass) {
+    String path = indexedClass.getName().replace('.', '/') + ".class";
+    try {
+      URL url = new URL(root + path);
+      if ("file".equalsIgnoreCase(url.getProtocol())) {
+        return new File(URLDecoder.decode(url.getFile(), UTF_8)).isFile();
+      }
+      url.openStream().close();
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+}
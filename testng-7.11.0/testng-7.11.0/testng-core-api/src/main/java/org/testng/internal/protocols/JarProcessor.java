@@ -5,14 +5,27 @@ import java.net.JarURLConnection;
 import java.net.URL;
 import java.util.Enumeration;
 import java.util.List;
+import java.util.Optional;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import org.testng.collections.Lists;
 import org.testng.internal.Utils;
 
 class JarProcessor extends Processor {
+
+  private final ClasspathScanIndex scanIndex;
+
+  JarProcessor(ClasspathScanIndex scanIndex) {
+    this.scanIndex = scanIndex;
+  }
+
   @Override
   public List<String> process(Input input, URL url) {
+    Optional<List<String>> indexed =
+        scanIndex == null ? Optional.empty() : scanIndex.findClasses(input, url);
+    if (indexed.isPresent()) {
+      return indexed.get();
+    }
     try {
       return processJar(
           url,
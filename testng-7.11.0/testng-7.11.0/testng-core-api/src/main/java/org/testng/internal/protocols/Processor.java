@@ -6,19 +6,24 @@ import java.util.List;
 import java.util.regex.Pattern;
 import org.testng.collections.Lists;
 import org.testng.internal.Utils;
+import org.testng.internal.index.TestIndex;
 
 public abstract class Processor {
 
   protected static final String CLS_NAME = Processor.class.getSimpleName();
 
   public static Processor newInstance(String protocol) {
+    return newInstance(protocol, (ClasspathScanIndex) null);
+  }
+
+  private static Processor newInstance(String protocol, ClasspathScanIndex scanIndex) {
     Processor instance;
     switch (protocol.toLowerCase()) {
       case "file":
-        instance = new FileProcessor();
+        instance = new FileProcessor(scanIndex);
         break;
       case "jar":
-        instance = new JarProcessor();
+        instance = new JarProcessor(scanIndex);
         break;
       case "bundleresource":
         instance = new BundledResourceProcessor();
@@ -29,6 +34,20 @@ public abstract class Processor {
     return instance;
   }
 
+  /**
+   * @param protocol - The protocol of the URL to be processed
+   * @param index - The test index of the class loader that the URL was obtained from
+   * @param scanIndex - The classpath scan index of the current run, or <code>null</code> if
+   *     directories and jars are to be scanned for every package
+   * @return a processor that lists the classes from the index wherever the URL is covered by it and
+   *     that falls back to the protocol specific processor otherwise.
+   */
+  public static Processor newInstance(
+      String protocol, TestIndex index, ClasspathScanIndex scanIndex) {
+    Processor instance = newInstance(protocol, scanIndex);
+    return index.isEmpty() ? instance : new IndexProcessor(index, instance);
+  }
+
   public abstract List<String> process(Input input, URL url);
 
   protected static List<String> findClassesInDirPackage(
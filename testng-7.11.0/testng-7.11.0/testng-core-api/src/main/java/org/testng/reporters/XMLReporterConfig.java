@@ -51,6 +51,12 @@ public class XMLReporterConfig implements IReporterConfig {
   public static final String ATTR_DEPENDS_ON_METHODS = "depends-on-methods";
   public static final String ATTR_DEPENDS_ON_GROUPS = "depends-on-groups";
   public static final String ATTR_DATA_PROVIDER = "data-provider";
+  public static final String ATTR_DURATION_NS = "duration-ns";
+  public static final String ATTR_CPU_TIME_NS = "cpu-time-ns";
+  public static final String ATTR_ALLOCATED_BYTES = "allocated-bytes";
+  public static final String ATTR_CONFIG_DURATION_NS = "config-duration-ns";
+  public static final String ATTR_CONFIG_CPU_TIME_NS = "config-cpu-time-ns";
+  public static final String ATTR_CONFIG_ALLOCATED_BYTES = "config-allocated-bytes";
 
   public static final String TEST_PASSED = "PASS";
   public static final String TEST_FAILED = "FAIL";
@@ -0,0 +1,169 @@
+package org.testng.xml;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import org.testng.collections.Maps;
+
+/**
+ * The parameters that apply at some level of a suite (suite, test, class or method), as a stack of
+ * the <code>&lt;parameter&gt;</code> maps of that level and of the levels above it. Looking up a
+ * parameter goes from the most specific map down to the least specific one, so a scope is built
+ * once per level and never copies the parameters themselves. The maps are the live maps of the
+ * tags, so a scope sees the parameters that are added to the tags after it was built.
+ *
+ * <p>Scopes are immutable: {@link #with(Map)} and {@link #over(ParameterScope)} return new scopes.
+ */
+public final class ParameterScope {
+
+  public static final ParameterScope EMPTY = new ParameterScope(newLayers(0));
+
+  // The most specific parameters come first
+  private final Map<String, String>[] layers;
+
+  private ParameterScope(Map<String, String>[] layers) {
+    this.layers = layers;
+  }
+
+  /** @return a scope made of the given parameters alone. */
+  public static ParameterScope of(Map<String, String> parameters) {
+    return EMPTY.with(parameters);
+  }
+
+  /**
+   * @param map - A map that may have been returned by {@link #asMap()}
+   * @return the scope that the map is a view of, or a scope made of the map if it is not a view.
+   */
+  public static ParameterScope from(Map<String, String> map) {
+    if (map instanceof View) {
+      return ((View) map).scope;
+    }
+    return of(map);
+  }
+
+  /** @return a new scope in which the given parameters override the ones of this scope. */
+  public ParameterScope with(Map<String, String> parameters) {
+    Map<String, String>[] result = newLayers(layers.length + 1);
+    result[0] = parameters;
+    System.arraycopy(layers, 0, result, 1, layers.length);
+    return new ParameterScope(result);
+  }
+
+  /** @return a new scope in which the parameters of this scope override the ones of the other. */
+  public ParameterScope over(ParameterScope other) {
+    if (other.layers.length == 0 || other == this) {
+      return this;
+    }
+    Map<String, String>[] result = newLayers(layers.length + other.layers.length);
+    System.arraycopy(layers, 0, result, 0, layers.length);
+    System.arraycopy(other.layers, 0, result, layers.length, other.layers.length);
+    return new ParameterScope(result);
+  }
+
+  /**
+   * @return <code>true</code> if this scope is made of the given parameters over the given parent,
+   *     in which case it does not need to be built again.
+   */
+  boolean isBuiltFrom(Map<String, String> parameters, ParameterScope parent) {
+    if (layers.length != parent.layers.length + 1 || layers[0] != parameters) {
+      return false;
+    }
+    for (int i = 0; i < parent.layers.length; i++) {
+      if (layers[i + 1] != parent.layers[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** @return the value of the parameter, or <code>null</code> if it is not defined. */
+  public String get(String name) {
+    for (Map<String, String> layer : layers) {
+      String result = layer.get(name);
+      if (result != null || layer.containsKey(name)) {
+        return result;
+      }
+    }
+    return null;
+  }
+
+  public boolean containsKey(String name) {
+    for (Map<String, String> layer : layers) {
+      if (layer.containsKey(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public boolean isEmpty() {
+    for (Map<String, String> layer : layers) {
+      if (!layer.isEmpty()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Invokes the action once per parameter, with the value that applies in this scope. */
+  public void forEach(BiConsumer<String, String> action) {
+    if (layers.length == 1) {
+      layers[0].forEach(action);
+      return;
+    }
+    toMap().forEach(action);
+  }
+
+  /** @return a new (mutable) map of the parameters that apply in this scope. */
+  public Map<String, String> toMap() {
+    Map<String, String> result = Maps.newHashMap();
+    for (int i = layers.length - 1; i >= 0; i--) {
+      result.putAll(layers[i]);
+    }
+    return result;
+  }
+
+  /**
+   * @return a read only view of the parameters that apply in this scope. Looking up a parameter
+   *     does not copy anything; only iterating over the view does.
+   */
+  public Map<String, String> asMap() {
+    return new View(this);
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  private static Map<String, String>[] newLayers(int size) {
+    return (Map<String, String>[]) new Map[size];
+  }
+
+  private static final class View extends AbstractMap<String, String> {
+
+    private final ParameterScope scope;
+
+    View(ParameterScope scope) {
+      this.scope = scope;
+    }
+
+    @Override
+    public String get(Object key) {
+      return key instanceof String ? scope.get((String) key) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+      return key instanceof String && scope.containsKey((String) key);
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return scope.isEmpty();
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+      return Collections.unmodifiableMap(scope.toMap()).entrySet();
+    }
+  }
+}
@@ -6,6 +6,8 @@ import java.util.Properties;
 import org.testng.collections.Lists;
 import org.testng.internal.PackageUtils;
 import org.testng.internal.Utils;
+import org.testng.internal.index.TestIndex;
+import org.testng.internal.protocols.ClasspathScanIndex;
 import org.testng.internal.protocols.UnhandledIOException;
 import org.testng.reporters.XMLStringBuffer;
 
@@ -55,17 +57,29 @@ public class XmlPackage {
   }
 
   public List<XmlClass> getXmlClasses() {
+    return getXmlClasses(null, new TestIndex.Cache());
+  }
+
+  /**
+   * @param scanIndex - The classpath scan index of the current run, or <code>null</code> if the
+   *     classpath entries are to be scanned for this package only
+   * @param testIndices - The test indices of the current run
+   * @return the classes of the package (which are only looked up the first time).
+   */
+  public List<XmlClass> getXmlClasses(ClasspathScanIndex scanIndex, TestIndex.Cache testIndices) {
     if (null == m_xmlClasses) {
-      m_xmlClasses = initializeXmlClasses();
+      m_xmlClasses = initializeXmlClasses(scanIndex, testIndices);
     }
 
     return m_xmlClasses;
   }
 
-  private List<XmlClass> initializeXmlClasses() {
+  private List<XmlClass> initializeXmlClasses(
+      ClasspathScanIndex scanIndex, TestIndex.Cache testIndices) {
     List<XmlClass> result = Lists.newArrayList();
     try {
-      String[] classes = PackageUtils.findClassesInPackage(m_name, m_include, m_exclude);
+      String[] classes =
+          PackageUtils.findClassesInPackage(m_name, m_include, m_exclude, scanIndex, testIndices);
 
       int index = 0;
       for (String className : classes) {
@@ -171,6 +171,8 @@ public class XmlSuite implements Cloneable {
   /** Suite level parameters. */
   private Map<String, String> m_parameters = Maps.newHashMap();
 
+  private volatile ParameterScope m_parameterScope;
+
   /** Name of the XML file. */
   private String m_fileName;
 
@@ -416,6 +418,16 @@ public class XmlSuite implements Cloneable {
     return m_parameters;
   }
 
+  /** @return the parameters that apply to tests in this suite, as a scope to look them up in. */
+  public ParameterScope getParameterScope() {
+    ParameterScope result = m_parameterScope;
+    if (result == null || !result.isBuiltFrom(m_parameters, ParameterScope.EMPTY)) {
+      result = ParameterScope.of(m_parameters);
+      m_parameterScope = result;
+    }
+    return result;
+  }
+
   /** @return The parameters defined in this suite and all its XmlTests. */
   public Map<String, String> getAllParameters() {
     Map<String, String> result = Maps.newHashMap();
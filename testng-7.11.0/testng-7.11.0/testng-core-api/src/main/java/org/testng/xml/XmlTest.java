@@ -19,6 +19,7 @@ public class XmlTest implements Cloneable {
   private List<XmlClass> m_xmlClasses = Lists.newArrayList();
 
   private Map<String, String> m_parameters = Maps.newHashMap();
+  private volatile ParameterScope m_parameterScope;
   private XmlSuite.ParallelMode m_parallel;
 
   private List<XmlMethodSelector> m_methodSelectors = Lists.newArrayList();
@@ -307,9 +308,20 @@ public class XmlTest implements Cloneable {
 
   /** @return the parameters defined in this test tag and the tags above it. */
   public Map<String, String> getAllParameters() {
-    Map<String, String> result = Maps.newHashMap();
-    result.putAll(getSuite().getParameters());
-    result.putAll(m_parameters);
+    return getParameterScope().toMap();
+  }
+
+  /**
+   * @return the parameters defined in this test tag and the tags above it, as a scope to look them
+   *     up in (without copying them).
+   */
+  public ParameterScope getParameterScope() {
+    ParameterScope suiteScope = getSuite().getParameterScope();
+    ParameterScope result = m_parameterScope;
+    if (result == null || !result.isBuiltFrom(m_parameters, suiteScope)) {
+      result = suiteScope.with(m_parameters);
+      m_parameterScope = result;
+    }
     return result;
   }
 
@@ -60,6 +60,24 @@ public class ClassMethodMap {
     return true;
   }
 
+  /**
+   * Forgets an instance whose last method has run.
+   *
+   * @param testClass The test class
+   * @param instance The test instance
+   */
+  public void release(ITestClass testClass, Object instance) {
+    classMap.remove(instance);
+    Set<Object> instances = beforeClassMethods.get(testClass);
+    if (instances != null) {
+      instances.remove(instance);
+    }
+    instances = afterClassMethods.get(testClass);
+    if (instances != null) {
+      instances.remove(instance);
+    }
+  }
+
   public Map<ITestClass, Set<Object>> getInvokedBeforeClassMethods() {
     return beforeClassMethods;
   }
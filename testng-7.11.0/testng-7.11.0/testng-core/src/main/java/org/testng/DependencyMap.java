@@ -4,44 +4,26 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 import org.testng.collections.ListMultiMap;
 import org.testng.collections.Maps;
+import org.testng.internal.GroupIndex;
 import org.testng.internal.MethodHelper;
 import org.testng.internal.RuntimeBehavior;
 
 /** Helper class to keep track of dependencies. */
 public class DependencyMap {
   private final ListMultiMap<String, ITestNGMethod> m_dependencies = Maps.newListMultiMap();
-  private final ListMultiMap<String, ITestNGMethod> m_groups = Maps.newListMultiMap();
+  private final GroupIndex m_groups;
 
   public DependencyMap(ITestNGMethod[] methods) {
     for (ITestNGMethod m : methods) {
       m_dependencies.put(m.getQualifiedName(), m);
-      for (String g : m.getGroups()) {
-        m_groups.put(g, m);
-      }
     }
+    m_groups = new GroupIndex(methods);
   }
 
   public List<ITestNGMethod> getMethodsThatBelongTo(String group, ITestNGMethod fromMethod) {
-    Set<String> uniqueKeys = m_groups.keySet();
-    Pattern pattern = Pattern.compile(group);
-
-    List<ITestNGMethod> result =
-        m_groups.keySet().stream()
-            .parallel()
-            .filter(k -> pattern.matcher(k).matches())
-            .flatMap(k -> m_groups.get(k).stream())
-            .collect(Collectors.toList());
-
-    for (String k : uniqueKeys) {
-      if (Pattern.matches(group, k)) {
-        result.addAll(m_groups.get(k));
-      }
-    }
+    List<ITestNGMethod> result = m_groups.getMethodsInGroupsMatching(group);
 
     if (result.isEmpty() && !fromMethod.ignoreMissingDependencies()) {
       throw new TestNGException(
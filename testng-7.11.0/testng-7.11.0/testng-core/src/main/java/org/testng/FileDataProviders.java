@@ -0,0 +1,97 @@
+package org.testng;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.Map;
+import org.testng.annotations.DataFile;
+import org.testng.annotations.DataProvider;
+import org.testng.internal.MappedFileRows;
+
+/**
+ * Data providers that stream the rows of a file, without loading it in memory. The file of a test
+ * method is named by its {@link DataFile} annotation, or by the <code>testng.dataprovider.file
+ * </code> parameter of its <code>&lt;test&gt;</code> (or suite) otherwise:
+ *
+ * <pre>
+ * &lt;parameter name="testng.dataprovider.file" value="fixtures/orders.csv"/&gt;
+ * &lt;parameter name="testng.dataprovider.file.header" value="true"/&gt;
+ * &lt;parameter name="testng.dataprovider.file.shard" value="2/4"/&gt;
+ * </pre>
+ *
+ * The <code>testng.dataprovider.file.shard</code> parameter splits the file into shards (of about
+ * the same size) and only provides the rows of one of them, which lets separate runs share the rows
+ * of a file out between them.
+ */
+public final class FileDataProviders {
+
+  public static final String FILE = "testng.dataprovider.file";
+  public static final String HEADER = "testng.dataprovider.file.header";
+  public static final String SHARD = "testng.dataprovider.file.shard";
+
+  private FileDataProviders() {}
+
+  @DataProvider(name = "file")
+  public static Iterator<Object[]> file(ITestContext context, Method method) {
+    Map<String, String> parameters = context.getCurrentXmlTest().getAllParameters();
+    DataFile dataFile = method.getAnnotation(DataFile.class);
+    String path = dataFile != null ? dataFile.value() : parameters.get(FILE);
+    if (path == null) {
+      throw new TestNGException(
+          method.getName() + " has no @DataFile, and no " + FILE + " parameter is defined");
+    }
+    boolean header =
+        dataFile != null ? dataFile.header() : Boolean.parseBoolean(parameters.get(HEADER));
+    int shard = 0;
+    int shardCount = 1;
+    String shardParameter = parameters.get(SHARD);
+    if (shardParameter != null) {
+      String[] parts = shardParameter.split("/");
+      try {
+        shard = Integer.parseInt(parts[0].trim());
+        shardCount = Integer.parseInt(parts[1].trim());
+      } catch (RuntimeException e) {
+        throw new TestNGException(
+            "Invalid " + SHARD + " parameter: " + shardParameter + " (expected index/count)", e);
+      }
+    }
+    Path file = resolve(path, context.getSuite().getXmlSuite().getFileName());
+    return rows(file, header, shard, shardCount, method.getParameterTypes());
+  }
+
+  /**
+   * @param file - A CSV or JSON Lines file
+   * @param types - The types to convert the values of a row to
+   * @return the rows of the file, which are read as they are consumed.
+   */
+  public static Iterator<Object[]> rows(Path file, Class<?>... types) {
+    return rows(file, false, 0, 1, types);
+  }
+
+  /**
+   * @param file - A CSV or JSON Lines file
+   * @param header - Whether the first line of the file names the columns (and is not a row)
+   * @param shard - The index of the shard whose rows to provide
+   * @param shardCount - The number of shards that the file is split into
+   * @param types - The types to convert the values of a row to
+   * @return the rows of the shard of the file, which are read as they are consumed.
+   */
+  public static Iterator<Object[]> rows(
+      Path file, boolean header, int shard, int shardCount, Class<?>... types) {
+    return MappedFileRows.open(
+        file, MappedFileRows.Format.of(file), header, shard, shardCount, types);
+  }
+
+  private static Path resolve(String path, String suiteFileName) {
+    Path file = Paths.get(path);
+    if (file.isAbsolute() || Files.exists(file) || suiteFileName == null) {
+      return file;
+    }
+    File suiteDirectory = new File(suiteFileName).getAbsoluteFile().getParentFile();
+    Path relativeToSuite = suiteDirectory.toPath().resolve(path);
+    return Files.exists(relativeToSuite) ? relativeToSuite : file;
+  }
+}
@@ -7,6 +7,7 @@ import java.io.File;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.stream.Collectors;
 import org.testng.collections.Lists;
 import org.testng.collections.Maps;
@@ -18,7 +19,11 @@ import org.testng.internal.invokers.ConfigMethodArguments.Builder;
 import org.testng.internal.invokers.IInvocationStatus;
 import org.testng.internal.invokers.IInvoker;
 import org.testng.internal.invokers.InvokedMethod;
+import org.testng.internal.jfr.FlightRecorderEvents;
+import org.testng.internal.jmx.RunMetrics;
 import org.testng.internal.objects.ObjectFactoryImpl;
+import org.testng.internal.profiling.Phase;
+import org.testng.internal.profiling.PhaseProfiler;
 import org.testng.internal.thread.ThreadUtil;
 import org.testng.reporters.JUnitXMLReporter;
 import org.testng.reporters.TestHTMLReporter;
@@ -35,7 +40,7 @@ public class SuiteRunner implements ISuite, ISuiteRunnerListener {
   private static final String DEFAULT_OUTPUT_DIR = "test-output";
 
   private final Map<String, ISuiteResult> suiteResults = Maps.newLinkedHashMap();
-  private final List<TestRunner> testRunners = Lists.newArrayList();
+  private final List<TestRunner> testRunners = new CopyOnWriteArrayList<>();
   private final Map<Class<? extends ISuiteListener>, ISuiteListener> listeners =
       Maps.newLinkedHashMap();
 
@@ -47,6 +52,11 @@ public class SuiteRunner implements ISuite, ISuiteRunnerListener {
   private final Map<Class<? extends IClassListener>, IClassListener> classListeners =
       Maps.newLinkedHashMap();
   private final ITestRunnerFactory tmpRunnerFactory;
+  private final ITestRunnerFactory testRunnerFactory;
+  private final List<IMethodInterceptor> methodInterceptors;
+  // The test listeners added to the suite, which the runners created afterwards get as well
+  private final List<ITestListener> addedTestListeners = new CopyOnWriteArrayList<>();
+  private final boolean createTestRunnersLazily;
   private final DataProviderHolder holder;
 
   private boolean useDefaultListeners = true;
@@ -69,6 +79,7 @@ public class SuiteRunner implements ISuite, ISuiteRunnerListener {
   private final IAttributes attributes = new Attributes();
   private final Set<IExecutionVisualiser> visualisers = Sets.newHashSet();
   private final ITestListener exitCodeListener;
+  private final RunMetrics runMetrics = RunMetrics.newInstance();
 
   public SuiteRunner(
       IConfiguration configuration,
@@ -186,30 +197,46 @@ public class SuiteRunner implements ISuite, ISuiteRunnerListener {
         Optional.ofNullable(classListeners).orElse(Collections.emptyList())) {
       this.classListeners.put(classListener.getClass(), classListener);
     }
-    ITestRunnerFactory iTestRunnerFactory = buildRunnerFactory(comparator);
+    this.testRunnerFactory = buildRunnerFactory(comparator);
+    this.methodInterceptors = localMethodInterceptors;
 
     // Order the <test> tags based on their order of appearance in testng.xml
     List<XmlTest> xmlTests = xmlSuite.getTests();
     xmlTests.sort(Comparator.comparingInt(XmlTest::getIndex));
 
-    for (XmlTest test : xmlTests) {
-      TestRunner tr =
-          iTestRunnerFactory.newTestRunner(
-              this,
-              test,
-              invokedMethodListeners.values(),
-              Lists.newArrayList(this.classListeners.values()),
-              this.holder);
+    // <test>s that run one after the other can have their runner created when their turn comes
+    createTestRunnersLazily = RuntimeBehavior.createSuiteRunnersLazily() && !runTestsInParallel();
+    if (!createTestRunnersLazily) {
+      xmlTests.forEach(this::newTestRunner);
+    }
+  }
 
-      //
-      // Install the method interceptor, if any was passed
-      //
-      for (IMethodInterceptor methodInterceptor : localMethodInterceptors) {
-        tr.addMethodInterceptor(methodInterceptor);
-      }
+  private TestRunner newTestRunner(XmlTest test) {
+    TestRunner tr =
+        testRunnerFactory.newTestRunner(
+            this,
+            test,
+            invokedMethodListeners.values(),
+            Lists.newArrayList(this.classListeners.values()),
+            this.holder);
+
+    //
+    // Install the method interceptor, if any was passed
+    //
+    for (IMethodInterceptor methodInterceptor : methodInterceptors) {
+      tr.addMethodInterceptor(methodInterceptor);
+    }
+    addedTestListeners.forEach(tr::addTestListener);
 
-      testRunners.add(tr);
+    testRunners.add(tr);
+    return tr;
+  }
+
+  private boolean runTestsInParallel() {
+    if (RuntimeBehavior.strictParallelism()) {
+      return !XmlSuite.ParallelMode.NONE.equals(xmlSuite.getParallel());
     }
+    return XmlSuite.ParallelMode.TESTS.equals(xmlSuite.getParallel());
   }
 
   @Override
@@ -235,6 +262,19 @@ public class SuiteRunner implements ISuite, ISuiteRunnerListener {
   }
 
   private void invokeListeners(boolean start) {
+    if (listeners.isEmpty()) {
+      return;
+    }
+    PhaseProfiler.Sample sample =
+        configuration.getPhaseProfiler().start(Phase.LISTENER_DISPATCH, this);
+    try {
+      invokeListenersInternal(start);
+    } finally {
+      sample.close();
+    }
+  }
+
+  private void invokeListenersInternal(boolean start) {
     if (start) {
       for (ISuiteListener sl :
           ListenerOrderDeterminer.order(
@@ -307,15 +347,34 @@ public class SuiteRunner implements ISuite, ISuiteRunnerListener {
 
   @Override
   public void run() {
+    FlightRecorderEvents.Scope scope = FlightRecorderEvents.suite(getName());
+    try {
+      runSuite();
+    } finally {
+      scope.close();
+    }
+  }
+
+  private void runSuite() {
+    runMetrics.registerSuite(getName());
     invokeListeners(true /* start */);
     try {
       privateRun();
     } finally {
       invokeListeners(false /* stop */);
+      runMetrics.unregister();
     }
   }
 
+  RunMetrics getRunMetrics() {
+    return runMetrics;
+  }
+
   private void privateRun() {
+    if (createTestRunnersLazily) {
+      privateRunLazily();
+      return;
+    }
 
     // Map for unicity, Linked for guaranteed order
     Map<Method, ITestNGMethod> beforeSuiteMethods = new LinkedHashMap<>();
@@ -348,26 +407,14 @@ public class SuiteRunner implements ISuite, ISuiteRunnerListener {
     // a <file-suite> tag and no real tests)
     //
     if (invoker != null) {
-      if (!beforeSuiteMethods.values().isEmpty()) {
-        ConfigMethodArguments arguments =
-            new Builder()
-                .usingConfigMethodsAs(beforeSuiteMethods.values())
-                .forSuite(xmlSuite)
-                .usingParameters(xmlSuite.getParameters())
-                .build();
-        invoker.getConfigInvoker().invokeConfigurations(arguments);
-      }
+      invokeSuiteConfigurations(invoker, beforeSuiteMethods.values(), xmlSuite.getParameters());
 
       Utils.log("SuiteRunner", 3, "Created " + testRunners.size() + " TestRunners");
 
       //
       // Run all the test runners
       //
-      boolean testsInParallel = XmlSuite.ParallelMode.TESTS.equals(xmlSuite.getParallel());
-      if (RuntimeBehavior.strictParallelism()) {
-        testsInParallel = !XmlSuite.ParallelMode.NONE.equals(xmlSuite.getParallel());
-      }
-      if (testsInParallel) {
+      if (runTestsInParallel()) {
         runInParallelTestMode();
       } else {
         runSequentially();
@@ -376,16 +423,60 @@ public class SuiteRunner implements ISuite, ISuiteRunnerListener {
       //
       // Invoke afterSuite methods
       //
-      if (!afterSuiteMethods.values().isEmpty()) {
-        ConfigMethodArguments arguments =
-            new Builder()
-                .usingConfigMethodsAs(afterSuiteMethods.values())
-                .forSuite(xmlSuite)
-                .usingParameters(xmlSuite.getAllParameters())
-                .build();
-        invoker.getConfigInvoker().invokeConfigurations(arguments);
+      invokeSuiteConfigurations(invoker, afterSuiteMethods.values(), xmlSuite.getAllParameters());
+    }
+  }
+
+  /**
+   * Runs the &lt;test&gt;s one after the other, creating the runner of each of them right before it
+   * runs. The suite level methods of a &lt;test&gt; are only known once its runner is created: its
+   * beforeSuite methods that have not run yet are invoked right before it, and the afterSuite
+   * methods of all the &lt;test&gt;s once they have all run.
+   */
+  private void privateRunLazily() {
+    Set<Method> beforeSuiteMethods = Sets.newHashSet();
+    // Map for unicity, Linked for guaranteed order
+    Map<Method, ITestNGMethod> afterSuiteMethods = new LinkedHashMap<>();
+
+    // The invoker of the last runner is kept for the afterSuite methods
+    IInvoker invoker = null;
+
+    for (XmlTest test : xmlSuite.getTests()) {
+      TestRunner tr = newTestRunner(test);
+      invoker = tr.getInvoker();
+      this.configuration.getConfigurationListeners().forEach(tr::addConfigurationListener);
+
+      List<ITestNGMethod> pendingBeforeSuiteMethods = Lists.newArrayList();
+      for (ITestNGMethod m : tr.getBeforeSuiteMethods()) {
+        if (beforeSuiteMethods.add(m.getConstructorOrMethod().getMethod())) {
+          pendingBeforeSuiteMethods.add(m);
+        }
+      }
+      for (ITestNGMethod m : tr.getAfterSuiteMethods()) {
+        afterSuiteMethods.put(m.getConstructorOrMethod().getMethod(), m);
       }
+
+      invokeSuiteConfigurations(invoker, pendingBeforeSuiteMethods, xmlSuite.getParameters());
+      runTest(tr);
     }
+
+    if (invoker != null) {
+      invokeSuiteConfigurations(invoker, afterSuiteMethods.values(), xmlSuite.getAllParameters());
+    }
+  }
+
+  private void invokeSuiteConfigurations(
+      IInvoker invoker, Collection<ITestNGMethod> methods, Map<String, String> parameters) {
+    if (methods.isEmpty()) {
+      return;
+    }
+    ConfigMethodArguments arguments =
+        new Builder()
+            .usingConfigMethodsAs(methods)
+            .forSuite(xmlSuite)
+            .usingParameters(parameters)
+            .build();
+    invoker.getConfigInvoker().invokeConfigurations(arguments);
   }
 
   private void addVisualiser(IExecutionVisualiser visualiser) {
@@ -503,6 +594,9 @@ public class SuiteRunner implements ISuite, ISuiteRunnerListener {
       for (TestRunner testRunner : testRunners) {
         testRunner.addTestListener((ITestListener) listener);
       }
+      if (createTestRunnersLazily) {
+        addedTestListeners.add((ITestListener) listener);
+      }
     }
   }
 
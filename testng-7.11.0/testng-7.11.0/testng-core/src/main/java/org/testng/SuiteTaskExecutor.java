@@ -5,6 +5,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 import org.testng.internal.IConfiguration;
 import org.testng.internal.Utils;
+import org.testng.internal.jmx.RunMetrics;
 import org.testng.internal.thread.TestNGThreadFactory;
 import org.testng.internal.thread.graph.GraphOrchestrator;
 import org.testng.log4testng.Logger;
@@ -17,6 +18,7 @@ class SuiteTaskExecutor {
   private final IConfiguration configuration;
 
   private final int threadPoolSize;
+  private final RunMetrics runMetrics;
 
   private ExecutorService service;
 
@@ -27,12 +29,14 @@ class SuiteTaskExecutor {
       IThreadWorkerFactory<ISuite> factory,
       BlockingQueue<Runnable> queue,
       IDynamicGraph<ISuite> graph,
-      int threadPoolSize) {
+      int threadPoolSize,
+      RunMetrics runMetrics) {
     this.configuration = configuration;
     this.factory = factory;
     this.queue = queue;
     this.graph = graph;
     this.threadPoolSize = threadPoolSize;
+    this.runMetrics = runMetrics;
   }
 
   public void execute() {
@@ -47,6 +51,8 @@ class SuiteTaskExecutor {
                 TimeUnit.MILLISECONDS,
                 queue,
                 new TestNGThreadFactory(name));
+    runMetrics.watch(service, queue);
+    runMetrics.watch(graph);
     GraphOrchestrator<ISuite> executor = new GraphOrchestrator<>(service, factory, graph, null);
     executor.run();
   }
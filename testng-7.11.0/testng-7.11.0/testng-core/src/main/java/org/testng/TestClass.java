@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Optional;
 import org.testng.collections.Lists;
 import org.testng.collections.Objects;
 import org.testng.internal.*;
@@ -35,37 +36,68 @@ class TestClass extends NoOpTestClass implements ITestClass, ITestClassConfigInf
   private final IdentityHashMap<Object, List<ITestNGMethod>> afterClassConfig =
       new IdentityHashMap<>();
 
+  // The class level config methods of the instances that were released
+  private final List<ITestNGMethod> releasedBeforeClassConfig = Lists.newArrayList();
+  private final List<ITestNGMethod> releasedAfterClassConfig = Lists.newArrayList();
+
   @Override
   public List<ITestNGMethod> getAllBeforeClassMethods() {
-    return getAllClassLevelConfigs(beforeClassConfig);
+    synchronized (beforeClassConfig) {
+      return getAllClassLevelConfigs(beforeClassConfig, releasedBeforeClassConfig);
+    }
   }
 
   @Override
   public List<ITestNGMethod> getAllAfterClassMethods() {
-    return getAllClassLevelConfigs(afterClassConfig);
+    synchronized (afterClassConfig) {
+      return getAllClassLevelConfigs(afterClassConfig, releasedAfterClassConfig);
+    }
   }
 
   private static List<ITestNGMethod> getAllClassLevelConfigs(
-      IdentityHashMap<Object, List<ITestNGMethod>> map) {
-    return map.values()
-        .parallelStream()
-        .reduce(
-            (a, b) -> {
-              List<ITestNGMethod> methodList = new ArrayList<>(a);
-              methodList.addAll(b);
-              return methodList;
-            })
-        .orElse(Lists.newArrayList());
+      IdentityHashMap<Object, List<ITestNGMethod>> map, List<ITestNGMethod> released) {
+    List<ITestNGMethod> result =
+        map.values()
+            .parallelStream()
+            .reduce(
+                (a, b) -> {
+                  List<ITestNGMethod> methodList = new ArrayList<>(a);
+                  methodList.addAll(b);
+                  return methodList;
+                })
+            .orElse(Lists.newArrayList());
+    if (released.isEmpty()) {
+      return result;
+    }
+    List<ITestNGMethod> all = new ArrayList<>(released);
+    all.addAll(result);
+    return all;
   }
 
   @Override
   public List<ITestNGMethod> getInstanceBeforeClassMethods(Object instance) {
-    return beforeClassConfig.get(instance);
+    synchronized (beforeClassConfig) {
+      return beforeClassConfig.get(instance);
+    }
   }
 
   @Override
   public List<ITestNGMethod> getInstanceAfterClassMethods(Object instance) {
-    return afterClassConfig.get(instance);
+    synchronized (afterClassConfig) {
+      return afterClassConfig.get(instance);
+    }
+  }
+
+  @Override
+  public void releaseInstance(Object instance) {
+    synchronized (beforeClassConfig) {
+      Optional.ofNullable(beforeClassConfig.remove(instance))
+          .ifPresent(releasedBeforeClassConfig::addAll);
+    }
+    synchronized (afterClassConfig) {
+      Optional.ofNullable(afterClassConfig.remove(instance))
+          .ifPresent(releasedAfterClassConfig::addAll);
+    }
   }
 
   private static final Logger LOG = Logger.getLogger(TestClass.class);
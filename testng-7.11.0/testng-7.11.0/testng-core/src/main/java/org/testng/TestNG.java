@@ -43,13 +43,19 @@ import org.testng.internal.Version;
 import org.testng.internal.annotations.DefaultAnnotationTransformer;
 import org.testng.internal.annotations.IAnnotationFinder;
 import org.testng.internal.annotations.JDK15AnnotationFinder;
+import org.testng.internal.index.TestIndex;
 import org.testng.internal.invokers.SuiteRunnerMap;
 import org.testng.internal.invokers.objects.GuiceContext;
+import org.testng.internal.jfr.FlightRecorderEvents;
+import org.testng.internal.jmx.RunMetrics;
 import org.testng.internal.objects.DefaultTestObjectFactory;
 import org.testng.internal.objects.Dispenser;
 import org.testng.internal.objects.IObjectDispenser;
 import org.testng.internal.objects.pojo.BasicAttributes;
 import org.testng.internal.objects.pojo.CreationAttributes;
+import org.testng.internal.profiling.Phase;
+import org.testng.internal.profiling.PhaseProfiler;
+import org.testng.internal.protocols.ClasspathScanIndex;
 import org.testng.internal.thread.graph.SuiteWorkerFactory;
 import org.testng.log4testng.Logger;
 import org.testng.reporters.EmailableReporter2;
@@ -823,6 +829,8 @@ public class TestNG {
 
   private Integer m_suiteThreadPoolSize = CommandLineArgs.SUITE_THREAD_POOL_SIZE_DEFAULT;
 
+  private RunMetrics m_runMetrics = RunMetrics.newInstance();
+
   private boolean m_randomizeSuites = Boolean.FALSE;
 
   private boolean m_alwaysRun = Boolean.TRUE;
@@ -1056,7 +1064,12 @@ public class TestNG {
       return;
     }
 
-    initializeSuitesAndJarFile();
+    PhaseProfiler.Sample sample = m_configuration.getPhaseProfiler().start(Phase.SUITE_PARSING);
+    try {
+      initializeSuitesAndJarFile();
+    } finally {
+      sample.close();
+    }
     initializeConfiguration();
     initializeDefaultListeners();
     initializeCommandLineSuites();
@@ -1068,6 +1081,10 @@ public class TestNG {
 
   /** Run TestNG. */
   public void run() {
+    m_configuration.setPhaseProfiler(PhaseProfiler.newProfiler());
+    ClasspathScanIndex scanIndex = new ClasspathScanIndex();
+    m_configuration.setClasspathScanIndex(scanIndex);
+    m_configuration.setTestIndices(new TestIndex.Cache());
     initializeEverything();
     sanityCheck();
 
@@ -1083,9 +1100,13 @@ public class TestNG {
     if (null != suiteRunners) {
       suiteRunners.forEach(ObjectBag::cleanup);
       generateReports(suiteRunners);
+      m_configuration
+          .getPhaseProfiler()
+          .report(m_outputDir, m_configuration.getAnnotationFinder());
     }
 
     runExecutionListeners(false /* finish */);
+    scanIndex.persist();
     exitCode = this.exitCodeListener.getStatus();
 
     if (exitCodeListener.noTestsFound()) {
@@ -1155,6 +1176,8 @@ public class TestNG {
     // whatever changes were done by a user's reporting listener
     reporters.add(exitCodeListener);
     for (IReporter reporter : reporters) {
+      FlightRecorderEvents.Scope scope = FlightRecorderEvents.reporter(reporter);
+      PhaseProfiler.Sample sample = m_configuration.getPhaseProfiler().start(Phase.REPORTING);
       try {
         long start = System.currentTimeMillis();
         reporter.generateReport(m_suites, suiteRunners, m_outputDir);
@@ -1165,6 +1188,9 @@ public class TestNG {
       } catch (Exception ex) {
         System.err.println("[TestNG] Reporter " + reporter + " failed");
         ex.printStackTrace(System.err);
+      } finally {
+        sample.close();
+        scope.close();
       }
     }
   }
@@ -1181,12 +1207,26 @@ public class TestNG {
       return Collections.emptyList();
     }
 
+    m_runMetrics = RunMetrics.newInstance();
+    m_runMetrics.registerRun();
+    try {
+      return runSuiteRunners();
+    } finally {
+      m_runMetrics.unregister();
+    }
+  }
+
+  private List<ISuite> runSuiteRunners() {
     SuiteRunnerMap suiteRunnerMap = new SuiteRunnerMap();
 
     if (m_suites.get(0).getVerbose() >= 2) {
       Version.displayBanner();
     }
 
+    boolean sequential = m_suiteThreadPoolSize == 1 && !m_randomizeSuites;
+    // Suites that run one after the other can have their runner created when their turn comes
+    boolean lazily = sequential && RuntimeBehavior.createSuiteRunnersLazily();
+
     // First initialize the suite runners to ensure there are no configuration issues.
     // Create a map with XmlSuite as key and corresponding SuiteRunner as value
     for (XmlSuite xmlSuite : m_suites) {
@@ -1196,13 +1236,16 @@ public class TestNG {
       if (m_configuration.useGlobalThreadPool()) {
         xmlSuite.shouldUseGlobalThreadPool(true);
       }
-      createSuiteRunners(suiteRunnerMap, xmlSuite);
+      // Lazily created runners only report their configuration issues when their suite runs
+      if (!lazily) {
+        createSuiteRunners(suiteRunnerMap, xmlSuite);
+      }
     }
 
     //
     // Run suites
     //
-    if (m_suiteThreadPoolSize == 1 && !m_randomizeSuites) {
+    if (sequential) {
       // Single threaded and not randomized: run the suites in order
       for (XmlSuite xmlSuite : m_suites) {
         runSuitesSequentially(
@@ -1230,7 +1273,8 @@ public class TestNG {
             factory,
             new LinkedBlockingQueue<>(),
             suiteGraph,
-            m_suiteThreadPoolSize);
+            m_suiteThreadPoolSize,
+            m_runMetrics);
     taskExecutor.execute();
     taskExecutor.awaitCompletion();
 
@@ -1268,9 +1312,13 @@ public class TestNG {
     for (XmlSuite childSuite : xmlSuite.getChildSuites()) {
       runSuitesSequentially(childSuite, suiteRunnerMap, verbose, defaultSuiteName);
     }
+    ISuite suiteRunner = suiteRunnerMap.get(xmlSuite);
+    if (suiteRunner == null) {
+      // The suite runners are created lazily
+      suiteRunner = createSuiteRunnerOf(suiteRunnerMap, xmlSuite);
+    }
     SuiteRunnerWorker srw =
-        new SuiteRunnerWorker(
-            suiteRunnerMap.get(xmlSuite), suiteRunnerMap, verbose, defaultSuiteName);
+        new SuiteRunnerWorker(suiteRunner, suiteRunnerMap, verbose, defaultSuiteName);
     srw.run();
   }
 
@@ -1305,6 +1353,24 @@ public class TestNG {
    * @param xmlSuite Xml Suite (and its children) for which {@code SuiteRunner}s are created
    */
   private void createSuiteRunners(SuiteRunnerMap suiteRunnerMap /* OUT */, XmlSuite xmlSuite) {
+    createSuiteRunnerOf(suiteRunnerMap, xmlSuite);
+
+    for (XmlSuite childSuite : xmlSuite.getChildSuites()) {
+      createSuiteRunners(suiteRunnerMap, childSuite);
+    }
+  }
+
+  /**
+   * Creates the {@code SuiteRunner} of a suite (but not of its children) and adds it to the suite
+   * runner map
+   *
+   * @param suiteRunnerMap Map with XMLSuite as key and it's respective SuiteRunner as value. This
+   *     is updated as part of this method call
+   * @param xmlSuite Xml Suite for which the {@code SuiteRunner} is created
+   * @return the {@code SuiteRunner}
+   */
+  private SuiteRunner createSuiteRunnerOf(
+      SuiteRunnerMap suiteRunnerMap /* OUT */, XmlSuite xmlSuite) {
     // If the skip flag was invoked on the command line, it
     // takes precedence
     if (null != m_skipFailedInvocationCounts) {
@@ -1336,11 +1402,10 @@ public class TestNG {
       t.getMethodSelectors().addAll(Lists.newArrayList(selectors));
     }
 
-    suiteRunnerMap.put(xmlSuite, createSuiteRunner(xmlSuite));
-
-    for (XmlSuite childSuite : xmlSuite.getChildSuites()) {
-      createSuiteRunners(suiteRunnerMap, childSuite);
-    }
+    SuiteRunner suiteRunner = createSuiteRunner(xmlSuite);
+    suiteRunner.getRunMetrics().setParent(m_runMetrics);
+    suiteRunnerMap.put(xmlSuite, suiteRunner);
+    return suiteRunner;
   }
 
   /** Creates a suite runner and configures its initial state */
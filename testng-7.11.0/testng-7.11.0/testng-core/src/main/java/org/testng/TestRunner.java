@@ -17,7 +17,6 @@ import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.PriorityBlockingQueue;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.testng.collections.Lists;
@@ -27,7 +26,9 @@ import org.testng.internal.Attributes;
 import org.testng.internal.BaseTestMethod;
 import org.testng.internal.ClassBasedWrapper;
 import org.testng.internal.ClassInfoMap;
+import org.testng.internal.ClassMetadataRegistry;
 import org.testng.internal.ConfigurationGroupMethods;
+import org.testng.internal.DataProviderPrefetcher;
 import org.testng.internal.DefaultListenerFactory;
 import org.testng.internal.DynamicGraphHelper;
 import org.testng.internal.GroupsHelper;
@@ -36,7 +37,9 @@ import org.testng.internal.IConfiguration;
 import org.testng.internal.IContainer;
 import org.testng.internal.ITestClassConfigInfo;
 import org.testng.internal.ITestResultNotifier;
+import org.testng.internal.IndexedTestMethodFinder;
 import org.testng.internal.ListenerOrderDeterminer;
+import org.testng.internal.LiteWeightTestNGMethod;
 import org.testng.internal.MethodGroupsHelper;
 import org.testng.internal.MethodHelper;
 import org.testng.internal.MethodSorting;
@@ -57,11 +60,14 @@ import org.testng.internal.invokers.ConfigMethodArguments;
 import org.testng.internal.invokers.ConfigMethodArguments.Builder;
 import org.testng.internal.invokers.IInvoker;
 import org.testng.internal.invokers.Invoker;
+import org.testng.internal.jfr.FlightRecorderEvents;
+import org.testng.internal.jmx.RunMetrics;
 import org.testng.internal.objects.IObjectDispenser;
+import org.testng.internal.profiling.Phase;
+import org.testng.internal.profiling.PhaseProfiler;
 import org.testng.thread.IThreadWorkerFactory;
 import org.testng.thread.IWorker;
 import org.testng.util.Strings;
-import org.testng.util.TimeUtils;
 import org.testng.xml.XmlClass;
 import org.testng.xml.XmlPackage;
 import org.testng.xml.XmlSuite;
@@ -99,6 +105,7 @@ public class TestRunner
   private final Map<Class<? extends IClassListener>, IClassListener> m_classListeners =
       Maps.newLinkedHashMap();
   private final DataProviderHolder holder;
+  private DataProviderPrefetcher m_prefetcher = null;
 
   private Date m_startDate = new Date();
   private Date m_endDate = null;
@@ -140,6 +147,7 @@ public class TestRunner
   private final IResultMap m_failedTests = new ResultMap();
   private final IResultMap m_failedButWithinSuccessPercentageTests = new ResultMap();
   private final IResultMap m_skippedTests = new ResultMap();
+  private final RunMetrics m_runMetrics = RunMetrics.newInstance();
 
   private final RunInfo m_runInfo = new RunInfo(this::getCurrentXmlTest);
 
@@ -153,6 +161,10 @@ public class TestRunner
   private TestNGClassFinder m_testClassFinder;
   private IConfiguration m_configuration;
 
+  // The templates of the snapshots that results keep of their methods in memory friendly mode
+  private final LiteWeightTestNGMethod.Snapshots m_methodSnapshots =
+      new LiteWeightTestNGMethod.Snapshots();
+
   public enum PriorityWeight {
     groupByInstance,
     preserveOrder,
@@ -273,7 +285,9 @@ public class TestRunner
 
     List<XmlPackage> m_packageNamesFromXml = getAllPackages();
     for (XmlPackage xp : m_packageNamesFromXml) {
-      m_testClassesFromXml.addAll(xp.getXmlClasses());
+      m_testClassesFromXml.addAll(
+          xp.getXmlClasses(
+              m_configuration.getClasspathScanIndex(), m_configuration.getTestIndices()));
     }
 
     m_annotationFinder = annotationFinder;
@@ -435,6 +449,10 @@ public class TestRunner
     }
   }
 
+  private PhaseProfiler.Sample startPhase(Phase phase) {
+    return m_configuration.getPhaseProfiler().start(phase, this);
+  }
+
   private void initMethods() {
 
     //
@@ -448,41 +466,58 @@ public class TestRunner
     List<ITestNGMethod> beforeXmlTestMethods = Lists.newArrayList();
     List<ITestNGMethod> afterXmlTestMethods = Lists.newArrayList();
 
-    ClassInfoMap classMap = new ClassInfoMap(m_testClassesFromXml);
-    m_testClassFinder =
-        new TestNGClassFinder(classMap, Maps.newHashMap(), m_configuration, this, holder);
+    ClassMetadataRegistry registry =
+        ClassMetadataRegistry.forSuite(m_xmlTest.getSuite(), m_annotationFinder);
+    ClassInfoMap classMap;
+    IClass[] classes;
+    PhaseProfiler.Sample discovery = startPhase(Phase.CLASS_DISCOVERY);
+    try {
+      classMap = new ClassInfoMap(m_testClassesFromXml);
+      m_testClassFinder =
+          new TestNGClassFinder(
+              classMap, Maps.newHashMap(), m_configuration, this, holder, registry);
+      classes = m_testClassFinder.findTestClasses();
+    } finally {
+      discovery.close();
+    }
     ITestMethodFinder testMethodFinder =
-        new TestNGMethodFinder(m_objectFactory, m_runInfo, m_annotationFinder, comparator);
+        new IndexedTestMethodFinder(
+            new TestNGMethodFinder(
+                m_objectFactory, m_runInfo, m_annotationFinder, comparator, registry),
+            m_configuration.getTestIndices());
 
     m_runInfo.setTestMethods(testMethods);
 
     //
     // Initialize TestClasses
     //
-    IClass[] classes = m_testClassFinder.findTestClasses();
-
-    for (IClass ic : classes) {
-
-      // Create TestClass
-      ITestClass tc =
-          new TestClass(
-              m_objectFactory,
-              ic,
-              testMethodFinder,
-              m_annotationFinder,
-              m_xmlTest,
-              classMap.getXmlClass(ic.getRealClass()),
-              m_testClassFinder.getFactoryCreationFailedMessage());
-      m_classMap.put(ic.getRealClass(), tc);
-    }
+    Map<String, List<ITestNGMethod>> beforeGroupMethods;
+    Map<String, List<ITestNGMethod>> afterGroupMethods;
+    PhaseProfiler.Sample scanning = startPhase(Phase.ANNOTATION_SCANNING);
+    try {
+      for (IClass ic : classes) {
+
+        // Create TestClass
+        ITestClass tc =
+            new TestClass(
+                m_objectFactory,
+                ic,
+                testMethodFinder,
+                m_annotationFinder,
+                m_xmlTest,
+                classMap.getXmlClass(ic.getRealClass()),
+                m_testClassFinder.getFactoryCreationFailedMessage());
+        m_classMap.put(ic.getRealClass(), tc);
+      }
 
-    //
-    // Calculate groups methods
-    //
-    Map<String, List<ITestNGMethod>> beforeGroupMethods =
-        MethodGroupsHelper.findGroupsMethods(m_classMap.values(), true);
-    Map<String, List<ITestNGMethod>> afterGroupMethods =
-        MethodGroupsHelper.findGroupsMethods(m_classMap.values(), false);
+      //
+      // Calculate groups methods
+      //
+      beforeGroupMethods = MethodGroupsHelper.findGroupsMethods(m_classMap.values(), true);
+      afterGroupMethods = MethodGroupsHelper.findGroupsMethods(m_classMap.values(), false);
+    } finally {
+      scanning.close();
+    }
 
     //
     // Walk through all the TestClasses, store their method
@@ -512,6 +547,27 @@ public class TestRunner
     //
     // Sort the methods
     //
+    PhaseProfiler.Sample selection = startPhase(Phase.METHOD_SELECTION);
+    try {
+      sortConfigurationMethods(
+          beforeSuiteMethods,
+          afterSuiteMethods,
+          beforeXmlTestMethods,
+          afterXmlTestMethods,
+          beforeGroupMethods,
+          afterGroupMethods);
+    } finally {
+      selection.close();
+    }
+  }
+
+  private void sortConfigurationMethods(
+      List<ITestNGMethod> beforeSuiteMethods,
+      List<ITestNGMethod> afterSuiteMethods,
+      List<ITestNGMethod> beforeXmlTestMethods,
+      List<ITestNGMethod> afterXmlTestMethods,
+      Map<String, List<ITestNGMethod>> beforeGroupMethods,
+      Map<String, List<ITestNGMethod>> afterGroupMethods) {
     m_beforeSuiteMethods =
         MethodHelper.collectAndOrderMethods(
             beforeSuiteMethods,
@@ -567,6 +623,15 @@ public class TestRunner
   }
 
   private ITestNGMethod[] computeAndGetAllTestMethods() {
+    PhaseProfiler.Sample sample = startPhase(Phase.METHOD_SELECTION);
+    try {
+      return computeAndGetAllTestMethodsInternal();
+    } finally {
+      sample.close();
+    }
+  }
+
+  private ITestNGMethod[] computeAndGetAllTestMethodsInternal() {
     List<ITestNGMethod> testMethods = Lists.newArrayList();
     for (ITestClass tc : m_classMap.values()) {
       fixMethodsWithClass(tc.getTestMethods(), tc, testMethods);
@@ -609,14 +674,32 @@ public class TestRunner
    * methods - Catch exceptions - Collect results - Invoke listeners - etc...
    */
   public void run() {
+    FlightRecorderEvents.Scope scope = FlightRecorderEvents.test(m_suite.getName(), getName());
+    try {
+      runTest();
+    } finally {
+      scope.close();
+    }
+  }
+
+  private void runTest() {
+    if (m_suite instanceof SuiteRunner) {
+      m_runMetrics.setParent(((SuiteRunner) m_suite).getRunMetrics());
+    }
+    m_runMetrics.registerTest(m_suite.getName(), getName());
     beforeRun();
 
     try {
       XmlTest test = getTest();
       privateRun(test);
     } finally {
+      if (m_prefetcher != null) {
+        m_prefetcher.close();
+        m_prefetcher = null;
+      }
       afterRun();
       forgetHeavyReferencesIfNeeded();
+      m_runMetrics.unregister();
     }
   }
 
@@ -625,9 +708,33 @@ public class TestRunner
       testMethodsContainer.clearItems();
       m_groupMethods = null;
       m_classMethodMap = null;
+      m_methodSnapshots.clear();
+    }
+    if (RuntimeBehavior.tearDownFinishedTests()) {
+      tearDown();
     }
   }
 
+  /**
+   * Drops the state that is only needed to run this test, now that its results are known. What
+   * {@link ITestContext} exposes (results and methods) is kept for the reporters. The test classes
+   * and the invoker are dropped: {@link #getTestClasses()} is empty and {@link #getInvoker()}
+   * returns <code>null</code> afterwards.
+   */
+  private void tearDown() {
+    if (m_classMethodMap != null) {
+      m_classMethodMap.clear();
+      m_classMethodMap = null;
+    }
+    m_classMap.clear();
+    m_groupMethods = null;
+    m_testClassFinder = null;
+    // Its invocation results hold on to the test instances. The suite keeps the invoker it needs
+    // for the afterSuite methods.
+    m_invoker = null;
+    m_methodInterceptors.clear();
+  }
+
   /** Before run preparements. */
   private void beforeRun() {
     //
@@ -682,16 +789,21 @@ public class TestRunner
     // Make sure we create a graph based on the intercepted methods, otherwise an interceptor
     // removing methods would cause the graph never to terminate (because it would expect
     // termination from methods that never get invoked).
-    ITestNGMethod[] interceptedOrder = intercept(getAllTestMethods());
-    AtomicReference<IDynamicGraph<ITestNGMethod>> reference = new AtomicReference<>();
-    TimeUtils.computeAndShowTime(
-        "DynamicGraphHelper.createDynamicGraph()",
-        () -> {
-          IDynamicGraph<ITestNGMethod> ref =
-              DynamicGraphHelper.createDynamicGraph(interceptedOrder, getCurrentXmlTest());
-          reference.set(ref);
-        });
-    IDynamicGraph<ITestNGMethod> graph = reference.get();
+    ITestNGMethod[] interceptedOrder;
+    PhaseProfiler.Sample scheduling = startPhase(Phase.SCHEDULING);
+    try {
+      interceptedOrder = intercept(getAllTestMethods());
+    } finally {
+      scheduling.close();
+    }
+    IDynamicGraph<ITestNGMethod> graph;
+    PhaseProfiler.Sample graphBuilding = startPhase(Phase.GRAPH_BUILDING);
+    try {
+      graph = DynamicGraphHelper.createDynamicGraph(interceptedOrder, getCurrentXmlTest());
+    } finally {
+      graphBuilding.close();
+    }
+    m_runMetrics.watch(graph);
 
     for (ITestNGMethod each : interceptedOrder) {
       if (each instanceof BaseTestMethod) {
@@ -712,13 +824,22 @@ public class TestRunner
     // priority on them, we need to sort.
     boolean needPrioritySort = sortOnPriority(interceptedOrder);
     Comparator<ITestNGMethod> methodComparator = newComparator(needPrioritySort);
+    if (RuntimeBehavior.prefetchDataProviders()) {
+      prefetchDataProviders(interceptedOrder, methodComparator);
+    }
     if (parallel) {
       if (graph.getNodeCount() <= 0) {
         return;
       }
       TestTaskExecutor taskExecutor =
           new TestTaskExecutor(
-              m_configuration, xmlTest, this, newQueue(needPrioritySort), graph, methodComparator);
+              m_configuration,
+              xmlTest,
+              this,
+              newQueue(needPrioritySort),
+              graph,
+              methodComparator,
+              m_runMetrics);
       taskExecutor.execute();
       taskExecutor.awaitCompletion();
       return;
@@ -744,6 +865,31 @@ public class TestRunner
     }
   }
 
+  private void prefetchDataProviders(
+      ITestNGMethod[] methods, Comparator<ITestNGMethod> methodComparator) {
+    // The same listeners as the invoker notifies around the data providers it invokes itself
+    DataProviderHolder prefetchHolder = new DataProviderHolder(m_configuration);
+    prefetchHolder.addListeners(holder.getListeners());
+    if (m_suite instanceof SuiteRunner) {
+      prefetchHolder.addListeners(((SuiteRunner) m_suite).getDataProviderListeners());
+    }
+    m_prefetcher =
+        new DataProviderPrefetcher(
+            this,
+            m_objectFactory,
+            m_annotationFinder,
+            prefetchHolder,
+            RuntimeBehavior.getDataProviderPrefetchThreadCount(),
+            RuntimeBehavior.getDataProviderPrefetchBudget());
+    // In the order the methods are (most likely) going to run in, so that the budget goes to the
+    // data providers that are needed first
+    List<ITestNGMethod> inOrder = Lists.newArrayList(methods);
+    if (methodComparator != null) {
+      inOrder.sort(methodComparator);
+    }
+    m_prefetcher.prefetch(inOrder);
+  }
+
   /** Apply the method interceptor (if applicable) to the list of methods. */
   private ITestNGMethod[] intercept(ITestNGMethod[] methods) {
 
@@ -799,6 +945,15 @@ public class TestRunner
    */
   @Override
   public List<IWorker<ITestNGMethod>> createWorkers(List<ITestNGMethod> methods) {
+    PhaseProfiler.Sample sample = startPhase(Phase.SCHEDULING);
+    try {
+      return createWorkersInternal(methods);
+    } finally {
+      sample.close();
+    }
+  }
+
+  private List<IWorker<ITestNGMethod>> createWorkersInternal(List<ITestNGMethod> methods) {
     AbstractParallelWorker.Arguments args =
         new AbstractParallelWorker.Arguments.Builder()
             .classMethodMap(this.m_classMethodMap)
@@ -885,6 +1040,15 @@ public class TestRunner
    *     finish
    */
   private void fireEvent(boolean isStart) {
+    PhaseProfiler.Sample sample = startPhase(Phase.LISTENER_DISPATCH);
+    try {
+      fireEventInternal(isStart);
+    } finally {
+      sample.close();
+    }
+  }
+
+  private void fireEventInternal(boolean isStart) {
     if (isStart) {
       for (ITestListener itl :
           ListenerOrderDeterminer.order(m_testListeners, m_configuration.getListenerComparator())) {
@@ -1027,6 +1191,7 @@ public class TestRunner
   @Override
   public void addPassedTest(ITestNGMethod tm, ITestResult tr) {
     m_passedTests.addResult(tr);
+    m_runMetrics.onTestResult(tr);
   }
 
   @Override
@@ -1047,6 +1212,7 @@ public class TestRunner
   @Override
   public void addSkippedTest(ITestNGMethod tm, ITestResult tr) {
     m_skippedTests.addResult(tr);
+    m_runMetrics.onTestResult(tr);
   }
 
   @Override
@@ -1085,6 +1251,7 @@ public class TestRunner
     } else {
       m_failedTests.addResult(tr);
     }
+    m_runMetrics.onTestResult(tr);
   }
 
   private static void log(String s) {
@@ -1171,6 +1338,11 @@ public class TestRunner
     return Objects.requireNonNull(exitCodeListener, "ExitCodeListener cannot be null.");
   }
 
+  @Override
+  public LiteWeightTestNGMethod.Snapshots getMethodSnapshots() {
+    return m_methodSnapshots;
+  }
+
   private void dumpInvokedMethods() {
     MethodHelper.dumpInvokedMethodInfoToConsole(getAllTestMethods(), getVerbose());
   }
@@ -8,6 +8,7 @@ import java.util.function.Supplier;
 import org.testng.internal.IConfiguration;
 import org.testng.internal.ObjectBag;
 import org.testng.internal.Utils;
+import org.testng.internal.jmx.RunMetrics;
 import org.testng.internal.thread.TestNGThreadFactory;
 import org.testng.internal.thread.graph.GraphOrchestrator;
 import org.testng.log4testng.Logger;
@@ -22,6 +23,7 @@ class TestTaskExecutor {
   private final IThreadWorkerFactory<ITestNGMethod> factory;
   private final IConfiguration configuration;
   private final long timeOut;
+  private final RunMetrics runMetrics;
 
   private ExecutorService service;
 
@@ -33,13 +35,15 @@ class TestTaskExecutor {
       IThreadWorkerFactory<ITestNGMethod> factory,
       BlockingQueue<Runnable> queue,
       IDynamicGraph<ITestNGMethod> graph,
-      Comparator<ITestNGMethod> comparator) {
+      Comparator<ITestNGMethod> comparator,
+      RunMetrics runMetrics) {
     this.configuration = configuration;
     this.xmlTest = xmlTest;
     this.factory = factory;
     this.queue = queue;
     this.graph = graph;
     this.comparator = comparator;
+    this.runMetrics = runMetrics;
     this.timeOut = xmlTest.getTimeOut(XmlTest.DEFAULT_TIMEOUT_MS);
   }
 
@@ -64,6 +68,7 @@ class TestTaskExecutor {
     } else {
       service = (ExecutorService) supplier.get();
     }
+    runMetrics.watch(service, queue);
     GraphOrchestrator<ITestNGMethod> executor =
         new GraphOrchestrator<>(service, factory, graph, comparator);
     executor.run();
@@ -33,6 +33,8 @@ import org.testng.internal.invokers.IInvocationStatus;
 import org.testng.internal.objects.Dispenser;
 import org.testng.internal.objects.pojo.BasicAttributes;
 import org.testng.internal.objects.pojo.CreationAttributes;
+import org.testng.xml.ParameterScope;
+import org.testng.xml.XmlClass;
 import org.testng.xml.XmlTest;
 
 /** Superclass to represent both &#64;Test and &#64;Configuration methods. */
@@ -50,6 +52,7 @@ public abstract class BaseTestMethod
   protected final Class<?> m_methodClass;
   protected final ConstructorOrMethod m_method;
   private String m_signature;
+  private volatile MethodParameterScope m_parameterScope;
   protected String m_id = "";
   protected long m_date = -1;
   protected final IAnnotationFinder m_annotationFinder;
@@ -157,6 +160,29 @@ public abstract class BaseTestMethod
         .orElse(null);
   }
 
+  /**
+   * @return the instance of this method as its clones should see it: through the {@link
+   *     IParameterInfo} it may be wrapped in, while still sharing it with this method.
+   */
+  protected IObject.IdentifiableObject embeddedInstance() {
+    if (m_instance == null) {
+      return new IObject.IdentifiableObject(null, null);
+    }
+    return m_instance.embedded();
+  }
+
+  /**
+   * Drops the references that this method, its clones and every other method of the same instance
+   * hold to the instance, once TestNG is done with it.
+   *
+   * @see RuntimeBehavior#RELEASE_FINISHED_INSTANCES
+   */
+  public void releaseInstance() {
+    if (m_instance != null) {
+      m_instance.release();
+    }
+  }
+
   @Override
   public UUID getInstanceId() {
     return Optional.ofNullable(m_instance)
@@ -379,7 +405,7 @@ public abstract class BaseTestMethod
             ? other.m_testClass == null
             : other.m_testClass != null
                 && m_testClass.getRealClass().equals(other.m_testClass.getRealClass())
-                && getInstance() == other.getInstance();
+                && IObject.IdentifiableObject.sameInstance(m_instance, other.m_instance);
 
     return isEqual && getConstructorOrMethod().equals(other.getConstructorOrMethod());
   }
@@ -392,8 +418,10 @@ public abstract class BaseTestMethod
   @Override
   public int hashCode() {
     int hash = m_method.hashCode();
-    if (getInstance() != null) {
-      hash = hash * 31 + System.identityHashCode(getInstance());
+    // Not the instance itself, which may have been released since
+    int instanceHash = IObject.IdentifiableObject.identityHashCode(m_instance);
+    if (instanceHash != 0) {
+      hash = hash * 31 + instanceHash;
     }
     return hash;
   }
@@ -796,6 +824,20 @@ public abstract class BaseTestMethod
     return XmlTestUtils.findMethodParameters(test, getTestClass().getName(), getMethodName());
   }
 
+  /**
+   * @return the parameters that apply to this method in the given test. The scope is built once and
+   *     then reused for as long as the test keeps the same parameters and classes.
+   */
+  public ParameterScope findMethodParameterScope(XmlTest test) {
+    MethodParameterScope cached = m_parameterScope;
+    if (cached != null && cached.isFor(test)) {
+      return cached.scope;
+    }
+    cached = new MethodParameterScope(test, getTestClass().getName(), getMethodName());
+    m_parameterScope = cached;
+    return cached.scope;
+  }
+
   @Override
   public String getQualifiedName() {
     return getRealClass().getName() + "." + getMethodName();
@@ -867,4 +909,29 @@ public abstract class BaseTestMethod
     CreationAttributes attributes = new CreationAttributes(tr.getTestContext(), ba, null);
     return (IRetryAnalyzer) Dispenser.newInstance(m_objectFactory).dispense(attributes);
   }
+
+  /** The parameter scope of the method, along with what it was built from. */
+  private static final class MethodParameterScope {
+
+    private final XmlTest test;
+    private final ParameterScope testScope;
+    private final List<XmlClass> xmlClasses;
+    private final int classCount;
+    private final ParameterScope scope;
+
+    MethodParameterScope(XmlTest test, String className, String methodName) {
+      this.test = test;
+      this.testScope = test.getParameterScope();
+      this.xmlClasses = test.getXmlClasses();
+      this.classCount = xmlClasses.size();
+      this.scope = XmlTestUtils.findMethodParameterScope(test, className, methodName);
+    }
+
+    boolean isFor(XmlTest test) {
+      return this.test == test
+          && testScope == test.getParameterScope()
+          && xmlClasses == test.getXmlClasses()
+          && classCount == xmlClasses.size();
+    }
+  }
 }
@@ -0,0 +1,102 @@
+package org.testng.internal;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import org.testng.annotations.IAnnotation;
+import org.testng.annotations.IConfigurationAnnotation;
+import org.testng.collections.Lists;
+import org.testng.internal.annotations.AnnotationHelper;
+import org.testng.internal.annotations.IAnnotationFinder;
+import org.testng.internal.annotations.JDK15AnnotationFinder;
+import org.testng.internal.collections.Pair;
+import org.testng.xml.XmlSuite;
+
+/**
+ * Holds what TestNG learns about a test class by reflecting over it and over its annotations: if it
+ * is a TestNG class at all, which of its methods are test methods and which of them are
+ * configuration methods. None of this depends on the <code>&lt;test&gt;</code> that the class
+ * belongs to, so a single registry is shared by all the {@link org.testng.TestRunner}s of a suite,
+ * each of which only builds its own view (methods bound to its parameters and instances) on top.
+ *
+ * <p>User supplied {@link org.testng.IAnnotationTransformer}s are invoked every time the class
+ * level annotations are looked up and may expect to be, so the registry is only shared when
+ * annotations are transformed by TestNG alone. Otherwise every runner gets a registry of its own.
+ */
+public final class ClassMetadataRegistry {
+
+  private final Map<Class<?>, Boolean> testNGClasses = new ConcurrentHashMap<>();
+  private final Map<Pair<Class<?>, Class<?>>, List<Method>> testMethods =
+      new ConcurrentHashMap<>();
+  private final Map<Class<?>, List<Pair<Method, IConfigurationAnnotation>>> configurations =
+      new ConcurrentHashMap<>();
+
+  /**
+   * @param suite - The suite whose runners should share the registry
+   * @param annotationFinder - The annotation finder that the suite uses
+   * @return the registry of the suite, or a new registry if it cannot be shared.
+   */
+  public static ClassMetadataRegistry forSuite(XmlSuite suite, IAnnotationFinder annotationFinder) {
+    boolean shareable =
+        annotationFinder instanceof JDK15AnnotationFinder
+            && ((JDK15AnnotationFinder) annotationFinder).hasStatelessTransformer();
+    if (suite == null || !shareable) {
+      return new ClassMetadataRegistry();
+    }
+    return (ClassMetadataRegistry)
+        ObjectBag.getInstance(suite)
+            .createIfRequired(ClassMetadataRegistry.class, ClassMetadataRegistry::new);
+  }
+
+  /**
+   * @param cls - The class to look up
+   * @param detector - Tells if a class that was not looked up yet is a TestNG class
+   * @return <code>true</code> if the class (or one of its superclasses) carries TestNG annotations.
+   */
+  public boolean isTestNGClass(Class<?> cls, Predicate<Class<?>> detector) {
+    return testNGClasses.computeIfAbsent(cls, detector::test);
+  }
+
+  /**
+   * @return the methods of the class (and of its superclasses) that carry the annotation, from the
+   *     class up to its topmost superclass.
+   * @see AnnotationHelper#findMethodsWithAnnotation(Class, Class, IAnnotationFinder)
+   */
+  public List<Method> getMethodsWithAnnotation(
+      Class<?> cls,
+      Class<? extends IAnnotation> annotationClass,
+      IAnnotationFinder annotationFinder) {
+    return testMethods.computeIfAbsent(
+        new Pair<>(cls, annotationClass),
+        key ->
+            Collections.unmodifiableList(
+                AnnotationHelper.findMethodsWithAnnotation(
+                    cls, annotationClass, annotationFinder)));
+  }
+
+  /**
+   * @return the methods available to the class that carry a configuration annotation, along with
+   *     the annotation.
+   */
+  public List<Pair<Method, IConfigurationAnnotation>> getConfigurationMethods(
+      Class<?> cls, IAnnotationFinder annotationFinder) {
+    return configurations.computeIfAbsent(
+        cls, key -> findConfigurationMethods(key, annotationFinder));
+  }
+
+  private static List<Pair<Method, IConfigurationAnnotation>> findConfigurationMethods(
+      Class<?> cls, IAnnotationFinder annotationFinder) {
+    List<Pair<Method, IConfigurationAnnotation>> result = Lists.newArrayList();
+    for (Method m : ClassHelper.getAvailableMethodsExcludingDefaults(cls)) {
+      IConfigurationAnnotation configuration =
+          AnnotationHelper.findConfiguration(annotationFinder, m);
+      if (configuration != null) {
+        result.add(new Pair<>(m, configuration));
+      }
+    }
+    return Collections.unmodifiableList(result);
+  }
+}
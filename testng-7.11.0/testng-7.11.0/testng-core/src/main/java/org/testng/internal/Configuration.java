@@ -19,6 +19,9 @@ import org.testng.internal.annotations.DefaultAnnotationTransformer;
 import org.testng.internal.annotations.IAnnotationFinder;
 import org.testng.internal.annotations.JDK15AnnotationFinder;
 import org.testng.internal.objects.GuiceBackedInjectorFactory;
+import org.testng.internal.index.TestIndex;
+import org.testng.internal.profiling.PhaseProfiler;
+import org.testng.internal.protocols.ClasspathScanIndex;
 
 public class Configuration implements IConfiguration {
 
@@ -48,6 +51,12 @@ public class Configuration implements IConfiguration {
 
   private boolean useGlobalThreadPool = false;
 
+  private PhaseProfiler phaseProfiler = PhaseProfiler.DISABLED;
+
+  private ClasspathScanIndex classpathScanIndex;
+
+  private TestIndex.Cache testIndices = new TestIndex.Cache();
+
   public Configuration() {
     init(new JDK15AnnotationFinder(new DefaultAnnotationTransformer()));
   }
@@ -219,4 +228,34 @@ public class Configuration implements IConfiguration {
   public void shouldUseGlobalThreadPool(boolean flag) {
     this.useGlobalThreadPool = flag;
   }
+
+  @Override
+  public PhaseProfiler getPhaseProfiler() {
+    return this.phaseProfiler;
+  }
+
+  @Override
+  public void setPhaseProfiler(PhaseProfiler profiler) {
+    this.phaseProfiler = profiler;
+  }
+
+  @Override
+  public ClasspathScanIndex getClasspathScanIndex() {
+    return this.classpathScanIndex;
+  }
+
+  @Override
+  public void setClasspathScanIndex(ClasspathScanIndex scanIndex) {
+    this.classpathScanIndex = scanIndex;
+  }
+
+  @Override
+  public TestIndex.Cache getTestIndices() {
+    return this.testIndices;
+  }
+
+  @Override
+  public void setTestIndices(TestIndex.Cache testIndices) {
+    this.testIndices = testIndices;
+  }
 }
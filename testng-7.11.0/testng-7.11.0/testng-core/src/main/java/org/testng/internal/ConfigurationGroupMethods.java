@@ -1,9 +1,11 @@
 package org.testng.internal;
 
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -12,9 +14,6 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.stream.Collectors;
 import org.testng.ITestNGMethod;
-import org.testng.collections.CollectionUtils;
-import org.testng.collections.Lists;
-import org.testng.collections.Maps;
 import org.testng.log4testng.Logger;
 
 /**
@@ -42,8 +41,14 @@ public class ConfigurationGroupMethods {
   /** The list of all test methods */
   private final ITestNGMethod[] m_allMethods;
 
-  /** A map that returns the last method belonging to the given group */
-  private volatile Map<String, List<ITestNGMethod>> m_afterGroupsMap = null;
+  /** The groups of all test methods */
+  private volatile GroupIndex m_groupIndex = null;
+
+  /** The positions of the test methods of every group that did not run yet, by group id */
+  private BitSet[] m_remainingMethods;
+
+  /** The positions of every test method, to find them without comparing them one by one */
+  private Map<ITestNGMethod, BitSet> m_positions;
 
   public ConfigurationGroupMethods(
       IContainer<ITestNGMethod> container,
@@ -83,8 +88,8 @@ public class ConfigurationGroupMethods {
 
     Set<String> methodGroups = new HashSet<>(Arrays.asList(testMethod.getGroups()));
     try (AutoCloseableLock ignore = afterGroups.lock()) {
-      if (m_afterGroupsMap == null) {
-        m_afterGroupsMap = initializeAfterGroupsMap();
+      if (m_groupIndex == null) {
+        initializeGroupIndex();
       }
 
       return methodGroups.stream()
@@ -106,9 +111,7 @@ public class ConfigurationGroupMethods {
     }
     return Arrays.stream(afterGroupMethodGroups)
         .allMatch(
-            t ->
-                testMethodGroups.contains(t)
-                    || !CollectionUtils.hasElements(m_afterGroupsMap.get(t)));
+            t -> testMethodGroups.contains(t) || !hasRemainingMethods(m_groupIndex.idOf(t)));
   }
 
   public void removeBeforeGroups(String[] groups) {
@@ -131,33 +134,63 @@ public class ConfigurationGroupMethods {
    *     figure out when is the right time to invoke afterGroups methods.
    */
   private boolean isLastMethodForGroup(String group, ITestNGMethod method) {
-    List<ITestNGMethod> methodsInGroup = m_afterGroupsMap.get(group);
-
-    if (null == methodsInGroup || methodsInGroup.isEmpty()) {
+    int id = m_groupIndex.idOf(group);
+    if (!hasRemainingMethods(id)) {
       return true;
     }
 
-    methodsInGroup.remove(method);
+    BitSet remaining = m_remainingMethods[id];
+    int position = findRemaining(m_positions.get(method), remaining);
+    if (position == -1) {
+      // Note:  == is not good enough here as we may work with ITestNGMethod clones
+      ITestNGMethod[] methods = m_groupIndex.getMethods();
+      for (int i = remaining.nextSetBit(0); i >= 0; i = remaining.nextSetBit(i + 1)) {
+        if (method.equals(methods[i])) {
+          position = i;
+          break;
+        }
+      }
+    }
+    if (position != -1) {
+      remaining.clear(position);
+    }
 
-    // Note:  == is not good enough here as we may work with ITestNGMethod clones
-    return methodsInGroup.isEmpty();
+    return remaining.isEmpty();
   }
 
-  private Map<String, List<ITestNGMethod>> initializeAfterGroupsMap() {
-    Map<String, List<ITestNGMethod>> result = Maps.newConcurrentMap();
-    for (ITestNGMethod m : m_allMethods) {
-      String[] groups = m.getGroups();
-      for (String g : groups) {
-        List<ITestNGMethod> methodsInGroup = result.computeIfAbsent(g, key -> Lists.newArrayList());
-        methodsInGroup.add(m);
+  private static int findRemaining(BitSet positions, BitSet remaining) {
+    if (positions != null) {
+      for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+        if (remaining.get(i)) {
+          return i;
+        }
       }
     }
+    return -1;
+  }
+
+  private boolean hasRemainingMethods(int groupId) {
+    return groupId != -1 && !m_remainingMethods[groupId].isEmpty();
+  }
+
+  private void initializeGroupIndex() {
+    GroupIndex index = new GroupIndex(m_allMethods);
+    BitSet[] remaining = new BitSet[index.getGroupCount()];
+    for (int id = 0; id < remaining.length; id++) {
+      remaining[id] = (BitSet) index.membersOf(id).clone();
+    }
+    Map<ITestNGMethod, BitSet> positions = new IdentityHashMap<>();
+    for (int i = 0; i < m_allMethods.length; i++) {
+      positions.computeIfAbsent(m_allMethods[i], k -> new BitSet()).set(i);
+    }
 
     try (AutoCloseableLock ignore = afterGroups.lock()) {
       afterGroupsThatHaveAlreadyRun.clear();
     }
 
-    return result;
+    m_remainingMethods = remaining;
+    m_positions = positions;
+    m_groupIndex = index;
   }
 
   private static List<ITestNGMethod> retrieve(
@@ -0,0 +1,242 @@
+package org.testng.internal;
+
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import org.testng.DataProviderHolder;
+import org.testng.IDataProviderMethod;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestObjectFactory;
+import org.testng.TestNGException;
+import org.testng.collections.Lists;
+import org.testng.internal.annotations.IAnnotationFinder;
+import org.testng.internal.thread.TestNGThreadFactory;
+
+/**
+ * Invokes the data providers of the test methods that are about to run ahead of time, on a pool of
+ * its own, so that they are (being) worked out while earlier test methods run. The {@link
+ * org.testng.IDataProviderListener}s are invoked around every data provider in the same order as
+ * they would be otherwise, only earlier and on another thread.
+ *
+ * <p>Only static data providers are prefetched, since the data provider of an instance may rely on
+ * state that its configuration methods have not set up yet. For the same reason, the data providers
+ * of a test class (instance) are only prefetched once the data provider of one of its test methods
+ * is needed, by which time its <code>@BeforeClass</code> methods have run. The number of prefetched
+ * row sets that may be waiting for their test method (or being worked out) is capped by a budget,
+ * and the test methods that could not be prefetched because of it wait in line for the budget to
+ * free up. The data provider of a test method that is skipped is given up on.
+ */
+public final class DataProviderPrefetcher implements AutoCloseable {
+
+  private final ITestContext context;
+  private final ITestObjectFactory objectFactory;
+  private final IAnnotationFinder finder;
+  private final DataProviderHolder holder;
+  private final ExecutorService service;
+  private final Semaphore budget;
+  // The data providers that have not been prefetched yet, in the order they are needed
+  private final List<Prefetch> line = Lists.newArrayList();
+  // The data providers that have not been claimed by their test method yet
+  private final List<Prefetch> all = Lists.newArrayList();
+  private boolean closed;
+
+  public DataProviderPrefetcher(
+      ITestContext context,
+      ITestObjectFactory objectFactory,
+      IAnnotationFinder finder,
+      DataProviderHolder holder,
+      int threadCount,
+      int budget) {
+    this.context = context;
+    this.objectFactory = objectFactory;
+    this.finder = finder;
+    this.holder = holder;
+    this.service =
+        Executors.newFixedThreadPool(
+            Math.max(threadCount, 1), new TestNGThreadFactory("data-provider-prefetch"));
+    this.budget = new Semaphore(Math.max(budget, 1));
+  }
+
+  /** @param methods - Test methods that are about to run, in the order they are going to run. */
+  public synchronized void prefetch(Collection<ITestNGMethod> methods) {
+    for (ITestNGMethod method : methods) {
+      if (method instanceof TestNGMethod && method.isDataDriven()) {
+        Prefetch prefetch = new Prefetch(this, (TestNGMethod) method);
+        if (prefetch.method.offerPrefetch(prefetch)) {
+          line.add(prefetch);
+          all.add(prefetch);
+        }
+      }
+    }
+  }
+
+  private synchronized void startPrefetching() {
+    for (Iterator<Prefetch> iterator = line.iterator(); !closed && iterator.hasNext(); ) {
+      Prefetch prefetch = iterator.next();
+      if (!prefetch.ready) {
+        continue;
+      }
+      if (!budget.tryAcquire()) {
+        return;
+      }
+      iterator.remove();
+      if (!start(prefetch)) {
+        budget.release();
+      }
+    }
+  }
+
+  private boolean start(Prefetch prefetch) {
+    TestNGMethod method = prefetch.method;
+    IDataProviderMethod dataProviderMethod;
+    try {
+      dataProviderMethod = Parameters.findDataProvider(objectFactory, method, finder, context);
+    } catch (TestNGException e) {
+      // Reported when the test method runs
+      return false;
+    }
+    if (dataProviderMethod == null
+        || !Modifier.isStatic(dataProviderMethod.getMethod().getModifiers())) {
+      return false;
+    }
+    Object instance = prefetch.instance;
+    FutureTask<Iterator<Object[]>> task =
+        new FutureTask<>(
+            () ->
+                Parameters.invokeDataProvider(
+                    objectFactory, dataProviderMethod, method, context, instance, finder, holder));
+    try {
+      service.execute(task);
+    } catch (RejectedExecutionException e) {
+      // Closed in the meantime
+      return false;
+    }
+    prefetch.task = task;
+    return true;
+  }
+
+  /**
+   * @param testMethod - The test method whose data provider is about to be invoked
+   * @param fedInstance - The instance that the data provider is invoked with
+   * @return the rows of the data provider if it was prefetched (waiting for it to complete if
+   *     needed), or <code>null</code> if it should be invoked.
+   */
+  static Iterator<Object[]> take(ITestNGMethod testMethod, Object fedInstance) {
+    Prefetch prefetch = claim(testMethod);
+    if (prefetch == null || prefetch.task == null || prefetch.instance != fedInstance) {
+      return null;
+    }
+    return await(prefetch.task);
+  }
+
+  /**
+   * Gives up on the data provider of a test method that is skipped without invoking it, so that
+   * it no longer counts against the budget.
+   *
+   * @param testMethod - The test method that is skipped
+   */
+  public static void discard(ITestNGMethod testMethod) {
+    Prefetch prefetch = claim(testMethod);
+    if (prefetch != null && prefetch.task != null) {
+      prefetch.task.cancel(true);
+    }
+  }
+
+  /** @return the data provider of the test method (only once), or <code>null</code>. */
+  private static Prefetch claim(ITestNGMethod testMethod) {
+    if (!(testMethod instanceof TestNGMethod)) {
+      return null;
+    }
+    Prefetch prefetch = ((TestNGMethod) testMethod).takePrefetch();
+    if (prefetch == null) {
+      return null;
+    }
+    prefetch.owner.claimed(prefetch);
+    return prefetch;
+  }
+
+  private synchronized void claimed(Prefetch prefetch) {
+    all.remove(prefetch);
+    if (prefetch.task == null) {
+      line.remove(prefetch);
+    } else {
+      budget.release();
+    }
+    // Its test method has started, so the configuration methods of its class (instance) have run
+    for (Prefetch each : line) {
+      if (each.method.getTestClass() == prefetch.method.getTestClass()
+          && each.instance == prefetch.instance) {
+        each.ready = true;
+      }
+    }
+    startPrefetching();
+  }
+
+  private static Iterator<Object[]> await(FutureTask<Iterator<Object[]>> task) {
+    // Runs the data provider right away if the pool has not got to it yet
+    task.run();
+    try {
+      return task.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TestNGException(e);
+    } catch (CancellationException e) {
+      return null;
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException) {
+        // What the data provider would have thrown had it not been prefetched
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw new TestNGException(cause);
+    }
+  }
+
+  /** Forgets about the prefetched data providers that were not used (and stops prefetching). */
+  @Override
+  public void close() {
+    List<Prefetch> left;
+    synchronized (this) {
+      closed = true;
+      line.clear();
+      left = Lists.newArrayList(all);
+      all.clear();
+    }
+    service.shutdownNow();
+    for (Prefetch prefetch : left) {
+      // The method only ever holds a prefetch of this prefetcher
+      Prefetch notTaken = prefetch.method.takePrefetch();
+      if (notTaken != null && notTaken.task != null) {
+        notTaken.task.cancel(true);
+      }
+    }
+  }
+
+  /** The data provider of a test method, which is (being) invoked ahead of time once started. */
+  static final class Prefetch {
+    private final DataProviderPrefetcher owner;
+    private final TestNGMethod method;
+    private final Object instance;
+    // Guarded by the owner
+    private boolean ready;
+    private FutureTask<Iterator<Object[]>> task;
+
+    private Prefetch(DataProviderPrefetcher owner, TestNGMethod method) {
+      this.owner = owner;
+      this.method = method;
+      this.instance = method.getInstance();
+    }
+  }
+}
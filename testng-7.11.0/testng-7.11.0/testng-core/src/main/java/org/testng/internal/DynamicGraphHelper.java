@@ -13,6 +13,7 @@ import org.testng.TestRunner;
 import org.testng.collections.ListMultiMap;
 import org.testng.collections.Lists;
 import org.testng.collections.Maps;
+import org.testng.collections.Object2IntMap;
 import org.testng.xml.XmlClass;
 import org.testng.xml.XmlSuite;
 import org.testng.xml.XmlSuite.ParallelMode;
@@ -148,24 +149,22 @@ public final class DynamicGraphHelper {
     // Sort the classes based on their order of appearance in the XML
     sortedClasses.sort(classComparator());
 
-    Map<String, Integer> indexedClasses1 = Maps.newHashMap();
-    Map<Integer, String> indexedClasses2 = Maps.newHashMap();
-    int i = 0;
+    Object2IntMap<String> indexedClasses1 = new Object2IntMap<>(-1, sortedClasses.size());
+    List<String> indexedClasses2 = Lists.newArrayList(sortedClasses.size());
     for (XmlClass c : sortedClasses) {
-      indexedClasses1.put(c.getName(), i);
-      indexedClasses2.put(i, c.getName());
-      i++;
+      indexedClasses1.put(c.getName(), indexedClasses2.size());
+      indexedClasses2.add(c.getName());
     }
 
     ListMultiMap<ITestNGMethod, ITestNGMethod> result = Maps.newListMultiMap();
     for (ITestNGMethod m : methods) {
       String name = m.getTestClass().getName();
-      Integer index = indexedClasses1.get(name);
-      // The index could be null if the classes listed in the XML are different
+      int index = indexedClasses1.get(name);
+      // The index could be missing (-1) if the classes listed in the XML are different
       // from the methods being run (e.g. the .xml only contains a factory that
       // instantiates methods from a different class). In this case, we cannot
       // perform any ordering.
-      if (index != null && index > 0) {
+      if (index > 0) {
         // Make this method depend on all the methods of the class in the previous
         // index
         String classDependedUpon = indexedClasses2.get(index - 1);
@@ -20,6 +20,7 @@ import org.testng.ITestObjectFactory;
 import org.testng.TestNGException;
 import org.testng.annotations.IFactoryAnnotation;
 import org.testng.annotations.IListenersAnnotation;
+import org.testng.collections.IntHashSet;
 import org.testng.collections.Lists;
 import org.testng.collections.Maps;
 import org.testng.internal.annotations.IAnnotationFinder;
@@ -173,6 +174,7 @@ public class FactoryMethod extends BaseTestMethod {
 
     try {
       List<Integer> indices = factoryAnnotation.getIndices();
+      IntHashSet included = indices == null ? null : IntHashSet.of(indices);
       int position = 0;
       while (parameterIterator.hasNext()) {
         Object[] parameters = parameterIterator.next();
@@ -208,7 +210,7 @@ public class FactoryMethod extends BaseTestMethod {
           }
           position += testInstances.length;
         } else {
-          if (indices == null || indices.isEmpty() || indices.contains(position)) {
+          if (included == null || included.isEmpty() || included.contains(position)) {
             Object instance = m_objectFactory.newInstance(com.getConstructor(), parameters);
             result.add(new ParameterInfo(instance, position, parameters));
           }
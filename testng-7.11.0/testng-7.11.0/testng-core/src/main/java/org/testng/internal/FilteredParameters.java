@@ -1,9 +1,9 @@
 package org.testng.internal;
 
 import java.util.Iterator;
-import java.util.List;
 import org.testng.ITestNGMethod;
 import org.testng.TestNGException;
+import org.testng.collections.IntHashSet;
 
 class FilteredParameters implements Iterator<Object[]> {
 
@@ -12,13 +12,13 @@ class FilteredParameters implements Iterator<Object[]> {
   private final Iterator<Object[]> parameters;
   private final ITestNGMethod testMethod;
   private final String dataProviderName;
-  private final List<Integer> indices;
+  private final IntHashSet indices;
 
   public FilteredParameters(
       Iterator<Object[]> parameters,
       ITestNGMethod testMethod,
       String dataProviderName,
-      List<Integer> indices) {
+      IntHashSet indices) {
     this.parameters = parameters;
     this.testMethod = testMethod;
     this.dataProviderName = dataProviderName;
@@ -0,0 +1,123 @@
+package org.testng.internal;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import org.testng.ITestNGMethod;
+import org.testng.collections.Lists;
+import org.testng.collections.Object2IntMap;
+
+/**
+ * An index of the groups that a set of methods belongs to. Every group name is given an integer id,
+ * every method a set of the ids of its groups and every group the set of the positions (in the
+ * array the index was built from) of the methods it contains, so that looking up the members of a
+ * group does not have to go through all the methods and compare their group names.
+ *
+ * <p>The sets that the index hands out are shared and must not be modified.
+ */
+public final class GroupIndex {
+
+  private final ITestNGMethod[] methods;
+  private final Object2IntMap<String> ids = new Object2IntMap<>(-1);
+  private final List<String> names = Lists.newArrayList();
+  private final List<BitSet> members = Lists.newArrayList();
+  private final BitSet[] groupsOf;
+  private final Map<String, BitSet> matchingGroups = new ConcurrentHashMap<>();
+
+  public GroupIndex(ITestNGMethod[] methods) {
+    this.methods = methods;
+    this.groupsOf = new BitSet[methods.length];
+    for (int i = 0; i < methods.length; i++) {
+      BitSet groups = new BitSet();
+      for (String group : methods[i].getGroups()) {
+        int id = ids.computeIfAbsent(group, this::newGroup);
+        groups.set(id);
+        members.get(id).set(i);
+      }
+      groupsOf[i] = groups;
+    }
+  }
+
+  private int newGroup(String name) {
+    names.add(name);
+    members.add(new BitSet());
+    return names.size() - 1;
+  }
+
+  /** @return the methods that the index was built from. */
+  public ITestNGMethod[] getMethods() {
+    return methods;
+  }
+
+  /** @return the number of distinct groups. */
+  public int getGroupCount() {
+    return names.size();
+  }
+
+  /** @return the id of the group, or <code>-1</code> if none of the methods belongs to it. */
+  public int idOf(String group) {
+    return ids.get(group);
+  }
+
+  public String nameOf(int id) {
+    return names.get(id);
+  }
+
+  /** @return the ids of the groups of the method found at the given position. */
+  public BitSet groupsOf(int position) {
+    return groupsOf[position];
+  }
+
+  /** @return the positions of the methods that belong to the group with the given id. */
+  public BitSet membersOf(int id) {
+    return members.get(id);
+  }
+
+  /**
+   * @param regexp - A regular expression that group names should match (as a whole)
+   * @return the ids of the groups whose name matches the expression.
+   */
+  public BitSet groupsMatching(String regexp) {
+    return matchingGroups.computeIfAbsent(
+        regexp,
+        key -> {
+          BitSet result = new BitSet();
+          Pattern pattern = Pattern.compile(key);
+          for (int i = 0; i < names.size(); i++) {
+            if (pattern.matcher(names.get(i)).matches()) {
+              result.set(i);
+            }
+          }
+          return result;
+        });
+  }
+
+  /**
+   * @param regexp - A regular expression that group names should match (as a whole)
+   * @return the methods that belong to at least one of the groups whose name matches the
+   *     expression, in the order the index was built from.
+   */
+  public List<ITestNGMethod> getMethodsInGroupsMatching(String regexp) {
+    BitSet groups = groupsMatching(regexp);
+    if (groups.isEmpty()) {
+      return Collections.emptyList();
+    }
+    BitSet positions;
+    if (groups.cardinality() == 1) {
+      positions = members.get(groups.nextSetBit(0));
+    } else {
+      positions = new BitSet(methods.length);
+      for (int id = groups.nextSetBit(0); id >= 0; id = groups.nextSetBit(id + 1)) {
+        positions.or(members.get(id));
+      }
+    }
+    List<ITestNGMethod> result = Lists.newArrayList(positions.cardinality());
+    for (int i = positions.nextSetBit(0); i >= 0; i = positions.nextSetBit(i + 1)) {
+      result.add(methods[i]);
+    }
+    return result;
+  }
+}
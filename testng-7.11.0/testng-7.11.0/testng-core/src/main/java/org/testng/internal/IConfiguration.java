@@ -3,6 +3,9 @@ package org.testng.internal;
 import java.util.List;
 import org.testng.*;
 import org.testng.internal.annotations.IAnnotationFinder;
+import org.testng.internal.index.TestIndex;
+import org.testng.internal.profiling.PhaseProfiler;
+import org.testng.internal.protocols.ClasspathScanIndex;
 
 public interface IConfiguration {
   IAnnotationFinder getAnnotationFinder();
@@ -74,4 +77,27 @@ public interface IConfiguration {
   boolean useGlobalThreadPool();
 
   void shouldUseGlobalThreadPool(boolean flag);
+
+  default PhaseProfiler getPhaseProfiler() {
+    return PhaseProfiler.DISABLED;
+  }
+
+  default void setPhaseProfiler(PhaseProfiler profiler) {}
+
+  /**
+   * @return the classpath scan index shared by the package lookups of the current run, or <code>
+   *     null</code> if every package is to be scanned by itself.
+   */
+  default ClasspathScanIndex getClasspathScanIndex() {
+    return null;
+  }
+
+  default void setClasspathScanIndex(ClasspathScanIndex scanIndex) {}
+
+  /** @return the test indices loaded during the current run. */
+  default TestIndex.Cache getTestIndices() {
+    return new TestIndex.Cache();
+  }
+
+  default void setTestIndices(TestIndex.Cache testIndices) {}
 }
@@ -72,9 +72,15 @@ public interface IObject {
     return Optional.empty();
   }
 
-  /** A wrapper object that associates a unique id to every unique test class object. */
+  /**
+   * A wrapper object that associates a unique id to every unique test class object. Copies of it
+   * ({@link #embedded()}) share the object, so that {@link #release() releasing} it from any of
+   * them drops the references that all of them hold.
+   */
   class IdentifiableObject {
-    private final Object instance;
+    private final Cell cell;
+    // Whether the object is seen through the IParameterInfo it may be wrapped in
+    private final boolean embedded;
     private final UUID instanceId;
 
     public IdentifiableObject(Object instance) {
@@ -82,7 +88,12 @@ public interface IObject {
     }
 
     public IdentifiableObject(Object instance, UUID instanceId) {
-      this.instance = instance;
+      this(new Cell(instance), false, instanceId);
+    }
+
+    private IdentifiableObject(Cell cell, boolean embedded, UUID instanceId) {
+      this.cell = cell;
+      this.embedded = embedded;
       this.instanceId = instanceId;
     }
 
@@ -93,12 +104,70 @@ public interface IObject {
       return object.getInstance();
     }
 
+    /**
+     * @param left - An object (can be <code>null</code>)
+     * @param right - Another object (can be <code>null</code>)
+     * @return <code>true</code> if both represent the same test class object (embedded in an {@link
+     *     IParameterInfo} or not), which released objects only do with copies of themselves.
+     */
+    public static boolean sameInstance(IdentifiableObject left, IdentifiableObject right) {
+      if (left != null && right != null && left.cell == right.cell) {
+        return true;
+      }
+      if (isReleased(left) || isReleased(right)) {
+        return false;
+      }
+      return embeddedInstance(left) == embeddedInstance(right);
+    }
+
+    /**
+     * @param object - An object (can be <code>null</code>)
+     * @return the identity hash code of the test class object, which does not change when it is
+     *     released, or <code>0</code> if there is none.
+     */
+    public static int identityHashCode(IdentifiableObject object) {
+      return object == null ? 0 : object.cell.identityHashCode;
+    }
+
+    private static boolean isReleased(IdentifiableObject object) {
+      return object != null && object.cell.released;
+    }
+
+    private static Object embeddedInstance(IdentifiableObject object) {
+      return object == null ? null : IParameterInfo.embeddedInstance(object.getInstance());
+    }
+
     public UUID getInstanceId() {
       return instanceId;
     }
 
     public Object getInstance() {
-      return instance;
+      Object instance = cell.instance;
+      return embedded ? IParameterInfo.embeddedInstance(instance) : instance;
+    }
+
+    /**
+     * @return a copy that shares the object, but sees it through the {@link IParameterInfo} that it
+     *     may be wrapped in.
+     */
+    public IdentifiableObject embedded() {
+      return new IdentifiableObject(cell, true, instanceId);
+    }
+
+    /**
+     * Drops the reference to the object, once TestNG is done with it, so that it can be garbage
+     * collected even though methods and results still refer to this wrapper (or to its copies). The
+     * index and parameters of a factory created object remain available.
+     */
+    public void release() {
+      cell.released = true;
+      Object instance = cell.instance;
+      if (instance instanceof ParameterInfo) {
+        // Methods (configuration methods in particular) may hold on to it
+        ((ParameterInfo) instance).release();
+      } else {
+        cell.instance = null;
+      }
     }
 
     @Override
@@ -113,6 +182,18 @@ public interface IObject {
     public int hashCode() {
       return Objects.hash(instanceId);
     }
+
+    private static final class Cell {
+      private volatile Object instance;
+      private volatile boolean released;
+      private final int identityHashCode;
+
+      Cell(Object instance) {
+        this.instance = instance;
+        Object embedded = IParameterInfo.embeddedInstance(instance);
+        this.identityHashCode = embedded == null ? 0 : System.identityHashCode(embedded);
+      }
+    }
   }
 
   /**
@@ -26,6 +26,13 @@ public interface ITestClassConfigInfo {
 
   List<ITestNGMethod> getInstanceAfterClassMethods(Object instance);
 
+  /**
+   * Forgets the class level config methods of an instance whose last method has run.
+   *
+   * @param instance The test instance
+   */
+  default void releaseInstance(Object instance) {}
+
   static List<ITestNGMethod> allBeforeClassMethods(ITestClass tc) {
     if (tc instanceof ITestClassConfigInfo) {
       return ((ITestClassConfigInfo) tc).getAllBeforeClassMethods();
@@ -0,0 +1,117 @@
+package org.testng.internal;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import org.testng.ITestMethodFinder;
+import org.testng.ITestNGMethod;
+import org.testng.internal.index.IndexedClass;
+import org.testng.internal.index.TestIndex;
+import org.testng.xml.XmlTest;
+
+/**
+ * A {@link ITestMethodFinder} that consults the {@link TestIndex} before delegating to another
+ * (reflection based) finder: the kinds of methods that the index says a class (and its supertypes)
+ * do not have, are not looked for. Classes that are not in the index, or whose entry no longer
+ * matches the compiled class, are always searched by the delegate.
+ */
+public class IndexedTestMethodFinder implements ITestMethodFinder {
+
+  private static final ITestNGMethod[] NONE = new ITestNGMethod[0];
+
+  private final ITestMethodFinder delegate;
+  private final TestIndex.Cache testIndices;
+  private final Map<Class<?>, Optional<IndexedClass>> entries = new ConcurrentHashMap<>();
+
+  public IndexedTestMethodFinder(ITestMethodFinder delegate, TestIndex.Cache testIndices) {
+    this.delegate = delegate;
+    this.testIndices = testIndices;
+  }
+
+  @Override
+  public ITestNGMethod[] getTestMethods(Class<?> cls, XmlTest xmlTest) {
+    return find(cls, "Test", it -> delegate.getTestMethods(it, xmlTest));
+  }
+
+  @Override
+  public ITestNGMethod[] getBeforeTestMethods(Class<?> cls) {
+    return find(cls, "BeforeMethod", delegate::getBeforeTestMethods);
+  }
+
+  @Override
+  public ITestNGMethod[] getAfterTestMethods(Class<?> cls) {
+    return find(cls, "AfterMethod", delegate::getAfterTestMethods);
+  }
+
+  @Override
+  public ITestNGMethod[] getBeforeClassMethods(Class<?> cls) {
+    return find(cls, "BeforeClass", delegate::getBeforeClassMethods);
+  }
+
+  @Override
+  public ITestNGMethod[] getAfterClassMethods(Class<?> cls) {
+    return find(cls, "AfterClass", delegate::getAfterClassMethods);
+  }
+
+  @Override
+  public ITestNGMethod[] getBeforeSuiteMethods(Class<?> cls) {
+    return find(cls, "BeforeSuite", delegate::getBeforeSuiteMethods);
+  }
+
+  @Override
+  public ITestNGMethod[] getAfterSuiteMethods(Class<?> cls) {
+    return find(cls, "AfterSuite", delegate::getAfterSuiteMethods);
+  }
+
+  @Override
+  public ITestNGMethod[] getBeforeTestConfigurationMethods(Class<?> cls) {
+    return find(cls, "BeforeTest", delegate::getBeforeTestConfigurationMethods);
+  }
+
+  @Override
+  public ITestNGMethod[] getAfterTestConfigurationMethods(Class<?> cls) {
+    return find(cls, "AfterTest", delegate::getAfterTestConfigurationMethods);
+  }
+
+  @Override
+  public ITestNGMethod[] getBeforeGroupsConfigurationMethods(Class<?> cls) {
+    return find(cls, "BeforeGroups", delegate::getBeforeGroupsConfigurationMethods);
+  }
+
+  @Override
+  public ITestNGMethod[] getAfterGroupsConfigurationMethods(Class<?> cls) {
+    return find(cls, "AfterGroups", delegate::getAfterGroupsConfigurationMethods);
+  }
+
+  private ITestNGMethod[] find(
+      Class<?> cls, String annotation, Function<Class<?>, ITestNGMethod[]> finder) {
+    boolean absent =
+        entries.computeIfAbsent(cls, this::lookup).map(it -> !it.hasKind(annotation)).orElse(false);
+    return absent ? NONE : finder.apply(cls);
+  }
+
+  private Optional<IndexedClass> lookup(Class<?> cls) {
+    TestIndex index = testIndices.forClassLoader(cls.getClassLoader());
+    Optional<IndexedClass> result = index.find(cls).filter(it -> it.isCurrent(cls));
+    if (result.isPresent() && !supertypesAreCurrent(index, cls)) {
+      return Optional.empty();
+    }
+    return result;
+  }
+
+  /**
+   * Supertypes that come from the same index must not have changed either, since their annotations
+   * were folded into the kinds of the class. Supertypes outside the index (for e.g., from a
+   * library) are taken as they were at compile time.
+   */
+  private static boolean supertypesAreCurrent(TestIndex index, Class<?> cls) {
+    for (Class<?> each = cls.getSuperclass(); each != null; each = each.getSuperclass()) {
+      Class<?> supertype = each;
+      if (!index.find(supertype).map(it -> it.isCurrent(supertype)).orElse(true)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,350 @@
+package org.testng.internal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import org.testng.TestNGException;
+import org.testng.collections.Lists;
+
+/**
+ * The rows of a CSV or JSON Lines file, read from a memory mapping of the file and decoded one at a
+ * time as they are consumed, so that the file is never loaded in memory as a whole. Every line of
+ * the file is a row, whose values are converted to the types of the parameters of the test method.
+ *
+ * <p>A file can be split into shards of about the same size (in bytes) without reading it: a shard
+ * holds the rows that start within its range of bytes, which only takes looking for the end of the
+ * row that its range starts in.
+ */
+public final class MappedFileRows implements Iterator<Object[]> {
+
+  /** The formats that the rows of a file can be in. */
+  public enum Format {
+    /** Comma separated values, which may be double quoted (but not span lines). */
+    CSV,
+    /** A JSON array of scalar values per line. */
+    JSONL;
+
+    /** @return the format of a file, according to its extension. */
+    public static Format of(Path file) {
+      String name = file.getFileName().toString().toLowerCase();
+      if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) {
+        return JSONL;
+      }
+      return CSV;
+    }
+  }
+
+  // The most that a single mapping can hold is Integer.MAX_VALUE bytes
+  private static final int REGION_SHIFT = 30;
+  private static final long REGION_SIZE = 1L << REGION_SHIFT;
+
+  private final Path file;
+  private final Format format;
+  private final Class<?>[] types;
+  private final MappedByteBuffer[] regions;
+  private final long size;
+  private final long end;
+  private long position;
+
+  private MappedFileRows(
+      Path file,
+      Format format,
+      Class<?>[] types,
+      MappedByteBuffer[] regions,
+      long size,
+      long start,
+      long end) {
+    this.file = file;
+    this.format = format;
+    this.types = types;
+    this.regions = regions;
+    this.size = size;
+    this.end = end;
+    this.position = start;
+  }
+
+  /**
+   * @param file - The file to read the rows of
+   * @param format - The format of the rows
+   * @param header - Whether the first line of the file names the columns (and is not a row)
+   * @param shard - The index of the shard to read, from <code>0</code> to <code>shardCount - 1
+   *     </code>
+   * @param shardCount - The number of shards that the file is split into
+   * @param types - The types to convert the values of a row to
+   * @return the rows of the shard of the file.
+   */
+  public static MappedFileRows open(
+      Path file, Format format, boolean header, int shard, int shardCount, Class<?>... types) {
+    if (shardCount < 1 || shard < 0 || shard >= shardCount) {
+      throw new TestNGException("Invalid shard " + shard + " of " + shardCount + " for " + file);
+    }
+    MappedByteBuffer[] regions;
+    long size;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      size = channel.size();
+      regions = new MappedByteBuffer[(int) ((size + REGION_SIZE - 1) >>> REGION_SHIFT)];
+      for (int i = 0; i < regions.length; i++) {
+        long offset = i * REGION_SIZE;
+        // The mappings stay valid once the channel is closed
+        long length = Math.min(REGION_SIZE, size - offset);
+        regions[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, length);
+      }
+    } catch (IOException e) {
+      throw new TestNGException("Could not read the rows of " + file, e);
+    }
+    MappedFileRows rows = new MappedFileRows(file, format, types, regions, size, 0, size);
+    long shardSize = size / shardCount;
+    long start = rows.rowStartingAt(shardSize * shard);
+    long end = shard == shardCount - 1 ? size : rows.rowStartingAt(shardSize * (shard + 1));
+    if (header && start == 0) {
+      start = rows.endOfLine(0);
+    }
+    return new MappedFileRows(file, format, types, regions, size, start, end);
+  }
+
+  /** @return the position of the first row that starts at (or after) a position. */
+  private long rowStartingAt(long position) {
+    if (position == 0) {
+      return 0;
+    }
+    // Unless the previous byte ends a line, the row that the position is in belongs to the shard
+    // before
+    return endOfLine(position - 1);
+  }
+
+  /** @return the position right after the end of the line that a position is in. */
+  private long endOfLine(long position) {
+    for (long i = position; i < size; i++) {
+      if (byteAt(i) == '\n') {
+        return i + 1;
+      }
+    }
+    return size;
+  }
+
+  private byte byteAt(long position) {
+    return regions[(int) (position >>> REGION_SHIFT)].get((int) (position & (REGION_SIZE - 1)));
+  }
+
+  @Override
+  public boolean hasNext() {
+    // Blank lines are skipped
+    while (position < end) {
+      byte b = byteAt(position);
+      if (b != '\n' && b != '\r') {
+        return true;
+      }
+      position++;
+    }
+    return false;
+  }
+
+  @Override
+  public Object[] next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    long start = position;
+    long next = endOfLine(start);
+    long stop = next;
+    while (stop > start && (byteAt(stop - 1) == '\n' || byteAt(stop - 1) == '\r')) {
+      stop--;
+    }
+    position = next;
+    if (stop - start > Integer.MAX_VALUE) {
+      throw new TestNGException("The row at byte " + start + " of " + file + " is too long");
+    }
+    byte[] bytes = new byte[(int) (stop - start)];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = byteAt(start + i);
+    }
+    String line = new String(bytes, StandardCharsets.UTF_8);
+    List<String> values = format == Format.CSV ? csv(line) : jsonl(line, start);
+    return convert(values, start);
+  }
+
+  private Object[] convert(List<String> values, long start) {
+    if (values.size() != types.length) {
+      throw new TestNGException(
+          "The row at byte "
+              + start
+              + " of "
+              + file
+              + " has "
+              + values.size()
+              + " values, but "
+              + types.length
+              + " are expected");
+    }
+    Object[] row = new Object[types.length];
+    for (int i = 0; i < row.length; i++) {
+      String value = values.get(i);
+      if (types[i] == String.class || types[i] == Object.class) {
+        row[i] = value;
+      } else if (value == null || value.isEmpty()) {
+        // An empty CSV value (or a JSON null) stands for a missing value
+        row[i] = PropertyUtils.convertType(types[i], null, file + "[" + start + "][" + i + "]");
+      } else {
+        row[i] = PropertyUtils.convertType(types[i], value, file + "[" + start + "][" + i + "]");
+      }
+    }
+    return row;
+  }
+
+  private static List<String> csv(String line) {
+    List<String> values = Lists.newArrayList();
+    StringBuilder value = new StringBuilder();
+    boolean quoted = false;
+    for (int i = 0; i < line.length(); i++) {
+      char c = line.charAt(i);
+      if (quoted) {
+        if (c != '"') {
+          value.append(c);
+        } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+          value.append('"');
+          i++;
+        } else {
+          quoted = false;
+        }
+      } else if (c == '"') {
+        quoted = true;
+      } else if (c == ',') {
+        values.add(value.toString());
+        value.setLength(0);
+      } else {
+        value.append(c);
+      }
+    }
+    values.add(value.toString());
+    return values;
+  }
+
+  /** @return the values of a JSON array of scalars, <code>null</code> for a JSON null. */
+  private List<String> jsonl(String line, long start) {
+    List<String> values = Lists.newArrayList();
+    JsonArrayParser parser = new JsonArrayParser(line);
+    try {
+      parser.parse(values);
+    } catch (RuntimeException e) {
+      throw new TestNGException(
+          "The row at byte " + start + " of " + file + " is not a JSON array of values", e);
+    }
+    return values;
+  }
+
+  private static final class JsonArrayParser {
+    private final String text;
+    private int index = 0;
+
+    JsonArrayParser(String text) {
+      this.text = text;
+    }
+
+    void parse(List<String> values) {
+      expect('[');
+      skipWhitespace();
+      if (peek() == ']') {
+        index++;
+      } else {
+        while (true) {
+          values.add(value());
+          skipWhitespace();
+          char c = text.charAt(index++);
+          if (c == ']') {
+            break;
+          }
+          if (c != ',') {
+            throw new IllegalArgumentException("Unexpected '" + c + "' at " + (index - 1));
+          }
+        }
+      }
+      skipWhitespace();
+      if (index != text.length()) {
+        throw new IllegalArgumentException("Unexpected content at " + index);
+      }
+    }
+
+    private String value() {
+      skipWhitespace();
+      char c = peek();
+      if (c == '"') {
+        return string();
+      }
+      int start = index;
+      while (index < text.length() && ",] \t".indexOf(text.charAt(index)) < 0) {
+        index++;
+      }
+      String literal = text.substring(start, index);
+      if (literal.isEmpty() || literal.startsWith("[") || literal.startsWith("{")) {
+        throw new IllegalArgumentException("Expected a scalar value at " + start);
+      }
+      return "null".equals(literal) ? null : literal;
+    }
+
+    private String string() {
+      expect('"');
+      StringBuilder sb = new StringBuilder();
+      while (true) {
+        char c = text.charAt(index++);
+        if (c == '"') {
+          return sb.toString();
+        }
+        if (c != '\\') {
+          sb.append(c);
+          continue;
+        }
+        char escaped = text.charAt(index++);
+        switch (escaped) {
+          case 'b':
+            sb.append('\b');
+            break;
+          case 'f':
+            sb.append('\f');
+            break;
+          case 'n':
+            sb.append('\n');
+            break;
+          case 'r':
+            sb.append('\r');
+            break;
+          case 't':
+            sb.append('\t');
+            break;
+          case 'u':
+            sb.append((char) Integer.parseInt(text.substring(index, index + 4), 16));
+            index += 4;
+            break;
+          default:
+            sb.append(escaped);
+        }
+      }
+    }
+
+    private void expect(char expected) {
+      skipWhitespace();
+      if (peek() != expected) {
+        throw new IllegalArgumentException("Expected '" + expected + "' at " + index);
+      }
+      index++;
+    }
+
+    private char peek() {
+      if (index >= text.length()) {
+        throw new IllegalArgumentException("Unexpected end of line");
+      }
+      return text.charAt(index);
+    }
+
+    private void skipWhitespace() {
+      while (index < text.length() && Character.isWhitespace(text.charAt(index))) {
+        index++;
+      }
+    }
+  }
+}
@@ -160,6 +160,12 @@ public class MethodGroupsHelper {
     Map<String, String> runningGroups =
         Arrays.stream(includedGroups).collect(Collectors.toMap(g -> g, g -> g));
 
+    GroupIndex groupIndex = new GroupIndex(allMethods.toArray(new ITestNGMethod[0]));
+    Map<String, ITestNGMethod> methodsByName = Maps.newHashMap();
+    for (ITestNGMethod m : allMethods) {
+      methodsByName.putIfAbsent(m.getQualifiedName(), m);
+    }
+
     boolean keepGoing = true;
 
     Map<ITestNGMethod, ITestNGMethod> newMethods = Maps.newHashMap();
@@ -176,9 +182,10 @@ public class MethodGroupsHelper {
             // Found a new included group, add all the methods it contains to
             // our outMethod closure
             runningGroups.put(g, g);
-            ITestNGMethod[] im =
-                MethodGroupsHelper.findMethodsThatBelongToGroup(
-                    m, allMethods.toArray(new ITestNGMethod[0]), g);
+            List<ITestNGMethod> im = groupIndex.getMethodsInGroupsMatching(g);
+            if (im.isEmpty()) {
+              m.setMissingGroup(g);
+            }
             for (ITestNGMethod thisMethod : im) {
               if (!runningMethods.containsKey(thisMethod)) {
                 runningMethods.put(thisMethod, thisMethod);
@@ -194,7 +201,7 @@ public class MethodGroupsHelper {
         //
         String[] mdu = m.getMethodsDependedUpon();
         for (String tm : mdu) {
-          ITestNGMethod thisMethod = MethodGroupsHelper.findMethodNamed(tm, allMethods);
+          ITestNGMethod thisMethod = methodsByName.get(tm);
           if (thisMethod != null && !runningMethods.containsKey(thisMethod)) {
             runningMethods.put(thisMethod, thisMethod);
             newMethods.put(thisMethod, thisMethod);
@@ -215,13 +222,6 @@ public class MethodGroupsHelper {
     outGroups.addAll(runningGroups.keySet());
   }
 
-  private static ITestNGMethod findMethodNamed(String tm, List<ITestNGMethod> allMethods) {
-    return allMethods.stream()
-        .filter(m -> m.getQualifiedName().equals(tm))
-        .findFirst()
-        .orElse(null);
-  }
-
   /**
    * Only used if a group is missing to flag an error on that method
    *
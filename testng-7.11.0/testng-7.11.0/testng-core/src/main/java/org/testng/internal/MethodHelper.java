@@ -10,7 +10,6 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -28,7 +27,6 @@ import org.testng.internal.annotations.AnnotationHelper;
 import org.testng.internal.annotations.IAnnotationFinder;
 import org.testng.internal.collections.Pair;
 import org.testng.internal.invokers.IInvocationStatus;
-import org.testng.util.TimeUtils;
 import org.testng.xml.XmlTest;
 
 /** Collection of helper methods to help sort and arrange methods. */
@@ -57,26 +55,16 @@ public class MethodHelper {
       boolean unique,
       List<ITestNGMethod> outExcludedMethods,
       Comparator<ITestNGMethod> comparator) {
-    AtomicReference<ITestNGMethod[]> results = new AtomicReference<>();
     List<ITestNGMethod> includedMethods = Lists.newArrayList();
-    TimeUtils.computeAndShowTime(
-        "MethodGroupsHelper.collectMethodsByGroup()",
-        () ->
-            MethodGroupsHelper.collectMethodsByGroup(
-                methods.toArray(new ITestNGMethod[0]),
-                forTests,
-                includedMethods,
-                outExcludedMethods,
-                runInfo,
-                finder,
-                unique));
-    TimeUtils.computeAndShowTime(
-        "MethodGroupsHelper.sortMethods()",
-        () ->
-            results.set(
-                sortMethods(forTests, includedMethods, comparator)
-                    .toArray(new ITestNGMethod[] {})));
-    return results.get();
+    MethodGroupsHelper.collectMethodsByGroup(
+        methods.toArray(new ITestNGMethod[0]),
+        forTests,
+        includedMethods,
+        outExcludedMethods,
+        runInfo,
+        finder,
+        unique);
+    return sortMethods(forTests, includedMethods, comparator).toArray(new ITestNGMethod[] {});
   }
 
   /**
@@ -1,7 +1,7 @@
 package org.testng.internal;
 
 public class ParameterInfo implements IParameterInfo {
-  private Object instance;
+  private volatile Object instance;
   private final int index;
   private Object[] parameters;
 
@@ -16,6 +16,11 @@ public class ParameterInfo implements IParameterInfo {
     return instance;
   }
 
+  /** Drops the reference to the instance, but keeps its index and parameters. */
+  void release() {
+    instance = null;
+  }
+
   @Override
   public int getIndex() {
     return index;
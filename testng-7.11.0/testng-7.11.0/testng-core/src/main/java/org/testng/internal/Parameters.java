@@ -4,7 +4,6 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
-import java.lang.reflect.Parameter;
 import java.util.*;
 import org.testng.DataProviderHolder;
 import org.testng.IDataProviderInterceptor;
@@ -18,6 +17,7 @@ import org.testng.ITestObjectFactory;
 import org.testng.ITestResult;
 import org.testng.TestNGException;
 import org.testng.annotations.*;
+import org.testng.collections.IntHashSet;
 import org.testng.collections.Lists;
 import org.testng.collections.Maps;
 import org.testng.internal.annotations.AnnotationHelper;
@@ -32,11 +32,11 @@ import org.testng.internal.objects.IObjectDispenser;
 import org.testng.internal.objects.pojo.BasicAttributes;
 import org.testng.internal.objects.pojo.CreationAttributes;
 import org.testng.internal.reflect.DataProviderMethodMatcher;
-import org.testng.internal.reflect.InjectableParameter;
+import org.testng.internal.reflect.InjectionPlan;
 import org.testng.internal.reflect.MethodMatcher;
 import org.testng.internal.reflect.MethodMatcherContext;
-import org.testng.internal.reflect.ReflectionRecipes;
 import org.testng.util.Strings;
+import org.testng.xml.ParameterScope;
 import org.testng.xml.XmlSuite;
 import org.testng.xml.XmlTest;
 
@@ -152,10 +152,10 @@ public class Parameters {
     Method currentTestMeth =
         currentTestMethod != null ? currentTestMethod.getConstructorOrMethod().getMethod() : null;
 
-    Map<String, String> methodParams =
+    ParameterScope methodParams =
         currentTestMethod != null
-            ? currentTestMethod.findMethodParameters(ctx.getCurrentXmlTest())
-            : Collections.emptyMap();
+            ? findMethodParameterScope(currentTestMethod, ctx.getCurrentXmlTest())
+            : ParameterScope.EMPTY;
 
     Class<? extends Annotation> annotation = retrieveConfigAnnotation(m);
     String name = annotation == null ? "" : annotation.getSimpleName();
@@ -163,7 +163,11 @@ public class Parameters {
     return createParameters(
         new ConstructorOrMethod(m),
         new MethodParameters(
-            params, methodParams, parameterValues, currentTestMeth, ctx, testResult),
+            methodParams.over(ParameterScope.from(params)),
+            parameterValues,
+            currentTestMeth,
+            ctx,
+            testResult),
         finder,
         xmlSuite,
         name);
@@ -192,15 +196,9 @@ public class Parameters {
     List<Object> vResult = Lists.newArrayList();
 
     if (canInject(methodAnnotation)) {
-      Parameter[] paramsArray = ReflectionRecipes.getConstructorParameters(constructor);
       Object[] inject =
-          ReflectionRecipes.inject(
-              paramsArray,
-              InjectableParameter.Assistant.ALL_INJECTS,
-              new Object[0],
-              constructor,
-              params.context,
-              params.testResult);
+          InjectionPlan.of(constructor)
+              .inject(new Object[0], constructor, params.context, params.testResult);
       if (inject != null) {
         vResult.addAll(Arrays.asList(inject));
       }
@@ -359,15 +357,13 @@ public class Parameters {
             params,
             xmlSuite);
     if (canInject(methodAnnotation)) {
-      Parameter[] paramsArray = extractParameters(method);
       Object[] inject =
-          ReflectionRecipes.inject(
-              paramsArray,
-              InjectableParameter.Assistant.ALL_INJECTS,
-              consParams.toArray(new Object[0]),
-              params.currentTestMethod,
-              params.context,
-              params.testResult);
+          injectionPlanOf(method)
+              .inject(
+                  consParams.toArray(new Object[0]),
+                  params.currentTestMethod,
+                  params.context,
+                  params.testResult);
       if (inject != null) {
         vResult.addAll(Arrays.asList(inject));
       }
@@ -377,11 +373,11 @@ public class Parameters {
     return vResult.toArray(new Object[0]);
   }
 
-  private static Parameter[] extractParameters(ConstructorOrMethod method) {
+  private static InjectionPlan injectionPlanOf(ConstructorOrMethod method) {
     if (method.getMethod() != null) {
-      return ReflectionRecipes.getMethodParameters(method.getMethod());
+      return InjectionPlan.of(method.getMethod());
     }
-    return ReflectionRecipes.getConstructorParameters(method.getConstructor());
+    return InjectionPlan.of(method.getConstructor());
   }
 
   private static boolean canInject(String annotation) {
@@ -488,6 +484,20 @@ public class Parameters {
     return builder.toString();
   }
 
+  static IDataProviderMethod findDataProvider(
+      ITestObjectFactory objectFactory,
+      ITestNGMethod testMethod,
+      IAnnotationFinder finder,
+      ITestContext context) {
+    return findDataProvider(
+        objectFactory,
+        testMethod.getInstance(),
+        testMethod.getTestClass(),
+        testMethod.getConstructorOrMethod(),
+        finder,
+        context);
+  }
+
   private static IDataProviderMethod findDataProvider(
       ITestObjectFactory objectFactory,
       Object instance,
@@ -785,70 +795,24 @@ public class Parameters {
         String n = "param" + i;
         allParameterNames.put(n, n);
       }
-      Class<?> retryClass = dataProviderMethod.retryUsing();
-      boolean shouldRetry = !retryClass.equals(IRetryDataProvider.DisableDataProviderRetries.class);
-      IRetryDataProvider retry = null;
-      if (shouldRetry) {
-        IObjectDispenser dispenser = Dispenser.newInstance(objectFactory);
-        BasicAttributes basic = new BasicAttributes(testMethod.getTestClass(), retryClass);
-        CreationAttributes attributes = new CreationAttributes(methodParams.context, basic, null);
-        retry = (IRetryDataProvider) dispenser.dispense(attributes);
-      }
-
-      Iterator<Object[]> initParams = null;
-      RuntimeException thrownException;
-      do {
-
-        for (IDataProviderListener dataProviderListener : holder.getListeners()) {
-          dataProviderListener.beforeDataProviderExecution(
-              dataProviderMethod, testMethod, methodParams.context);
-        }
-
-        try {
-          initParams =
-              MethodInvocationHelper.invokeDataProvider(
-                  dataProviderMethod
-                      .getInstance(), /* a test instance or null if the data provider is static*/
-                  dataProviderMethod.getMethod(),
-                  testMethod,
-                  methodParams.context,
-                  fedInstance,
-                  annotationFinder);
-          shouldRetry = false;
-          thrownException = null;
-        } catch (RuntimeException e) {
-          for (IDataProviderListener each : holder.getListeners()) {
-            each.onDataProviderFailure(testMethod, methodParams.context, e);
-          }
-          if (shouldRetry) {
-            shouldRetry = retry.retry(dataProviderMethod);
-            thrownException = e;
-          } else {
-            throw e;
-          }
-        }
-      } while (shouldRetry);
-
-      if (thrownException != null) {
-        // The only time when this will be true is when the following happens:
-        // 1. A Retry was involved with the data provider
-        // 2. The retry mechanism immediately returned false and thus causing
-        // a retry to not happen
-        // 3. Since a retry was not recommended the while loop would have exited but
-        // we still should have been failing the test since the data provider invocation
-        // failed.
-        throw thrownException;
-      }
-
-      for (IDataProviderListener dataProviderListener : holder.getListeners()) {
-        dataProviderListener.afterDataProviderExecution(
-            dataProviderMethod, testMethod, methodParams.context);
+      Iterator<Object[]> initParams = DataProviderPrefetcher.take(testMethod, fedInstance);
+      if (initParams == null) {
+        initParams =
+            invokeDataProvider(
+                objectFactory,
+                dataProviderMethod,
+                testMethod,
+                methodParams.context,
+                fedInstance,
+                annotationFinder,
+                holder);
       }
 
       // If the data provider is restricting the indices to return, filter them out
-      final List<Integer> allIndices = new ArrayList<>();
-      allIndices.addAll(testMethod.getInvocationNumbers());
-      allIndices.addAll(dataProviderMethod.getIndices());
+      IntHashSet allIndices = IntHashSet.of(testMethod.getInvocationNumbers());
+      for (Integer index : dataProviderMethod.getIndices()) {
+        allIndices.add(index);
+      }
 
       Iterator<Object[]> filteredParameters =
           new FilteredParameters(initParams, testMethod, dataProviderMethod.getName(), allIndices);
@@ -878,7 +842,7 @@ public class Parameters {
     //
     // Normal case: we have only one set of parameters coming from testng.xml
     //
-    allParameterNames.putAll(methodParams.xmlParameters);
+    methodParams.xmlParameters.forEach(allParameterNames::put);
     // Create an Object[][] containing just one row of parameters
     Object[][] allParameterValuesArray = new Object[1][];
     allParameterValuesArray[0] =
@@ -899,6 +863,80 @@ public class Parameters {
     return new ParameterHolder(parameters, origin, null);
   }
 
+  /**
+   * Invokes a data provider (retrying it if it asks for it), along with the {@link
+   * IDataProviderListener}s.
+   *
+   * @return the rows of the data provider
+   */
+  static Iterator<Object[]> invokeDataProvider(
+      ITestObjectFactory objectFactory,
+      IDataProviderMethod dataProviderMethod,
+      ITestNGMethod testMethod,
+      ITestContext context,
+      Object fedInstance,
+      IAnnotationFinder annotationFinder,
+      DataProviderHolder holder) {
+    Class<?> retryClass = dataProviderMethod.retryUsing();
+    boolean shouldRetry = !retryClass.equals(IRetryDataProvider.DisableDataProviderRetries.class);
+    IRetryDataProvider retry = null;
+    if (shouldRetry) {
+      IObjectDispenser dispenser = Dispenser.newInstance(objectFactory);
+      BasicAttributes basic = new BasicAttributes(testMethod.getTestClass(), retryClass);
+      CreationAttributes attributes = new CreationAttributes(context, basic, null);
+      retry = (IRetryDataProvider) dispenser.dispense(attributes);
+    }
+
+    Iterator<Object[]> initParams = null;
+    RuntimeException thrownException;
+    do {
+
+      for (IDataProviderListener dataProviderListener : holder.getListeners()) {
+        dataProviderListener.beforeDataProviderExecution(dataProviderMethod, testMethod, context);
+      }
+
+      try {
+        initParams =
+            MethodInvocationHelper.invokeDataProvider(
+                dataProviderMethod
+                    .getInstance(), /* a test instance or null if the data provider is static*/
+                dataProviderMethod.getMethod(),
+                testMethod,
+                context,
+                fedInstance,
+                annotationFinder);
+        shouldRetry = false;
+        thrownException = null;
+      } catch (RuntimeException e) {
+        for (IDataProviderListener each : holder.getListeners()) {
+          each.onDataProviderFailure(testMethod, context, e);
+        }
+        if (shouldRetry) {
+          shouldRetry = retry.retry(dataProviderMethod);
+          thrownException = e;
+        } else {
+          throw e;
+        }
+      }
+    } while (shouldRetry);
+
+    if (thrownException != null) {
+      // The only time when this will be true is when the following happens:
+      // 1. A Retry was involved with the data provider
+      // 2. The retry mechanism immediately returned false and thus causing
+      // a retry to not happen
+      // 3. Since a retry was not recommended the while loop would have exited but
+      // we still should have been failing the test since the data provider invocation
+      // failed.
+      throw thrownException;
+    }
+
+    for (IDataProviderListener dataProviderListener : holder.getListeners()) {
+      dataProviderListener.afterDataProviderExecution(dataProviderMethod, testMethod, context);
+    }
+    return initParams;
+  }
+
   /**
    * Gets an array of parameter values returned by data provider or the ones that are injected based
    * on parameter type. The method also checks for {@code NoInjection} annotation
@@ -909,15 +947,33 @@ public class Parameters {
    */
   public static Object[] injectParameters(
       Object[] parameterValues, Method method, ITestContext context) throws TestNGException {
+    if (method != null) {
+      Object[] result = InjectionPlan.of(method).injectRow(parameterValues, context, null);
+      if (result != null) {
+        return result;
+      }
+    }
+    // Let the matcher explain why the values do not fit the method
     MethodMatcherContext matcherContext =
         new MethodMatcherContext(method, parameterValues, context, null);
     final MethodMatcher matcher = new DataProviderMethodMatcher(matcherContext);
     return matcher.getConformingArguments();
   }
 
+  /**
+   * @return the parameters that apply to the method in the given test. Unlike {@link
+   *     ITestNGMethod#findMethodParameters(XmlTest)}, this does not copy them into a new map.
+   */
+  public static ParameterScope findMethodParameterScope(ITestNGMethod m, XmlTest test) {
+    if (m instanceof BaseTestMethod) {
+      return ((BaseTestMethod) m).findMethodParameterScope(test);
+    }
+    return ParameterScope.of(m.findMethodParameters(test));
+  }
+
   /** A parameter passing helper class. */
   public static class MethodParameters {
-    private final Map<String, String> xmlParameters;
+    private final ParameterScope xmlParameters;
     private final Method currentTestMethod;
     private final ITestContext context;
     private final Object[] parameterValues;
@@ -929,10 +985,11 @@ public class Parameters {
 
     public static MethodParameters newInstance(
         Map<String, String> params, ITestNGMethod testNGMethod, ITestContext context) {
-      Map<String, String> methodParams =
-          testNGMethod.findMethodParameters(context.getCurrentXmlTest());
+      ParameterScope methodParams =
+          findMethodParameterScope(testNGMethod, context.getCurrentXmlTest());
       Method method = testNGMethod.getConstructorOrMethod().getMethod();
-      return new MethodParameters(params, methodParams, null, method, context, null);
+      return new MethodParameters(
+          methodParams.over(ParameterScope.from(params)), null, method, context, null);
     }
 
     /**
@@ -950,10 +1007,12 @@ public class Parameters {
         Method m,
         ITestContext ctx,
         ITestResult tr) {
-      Map<String, String> allParams = Maps.newHashMap();
-      allParams.putAll(params);
-      allParams.putAll(methodParams);
-      xmlParameters = allParams;
+      this(ParameterScope.from(params).with(methodParams), pv, m, ctx, tr);
+    }
+
+    private MethodParameters(
+        ParameterScope params, Object[] pv, Method m, ITestContext ctx, ITestResult tr) {
+      xmlParameters = params;
       currentTestMethod = m;
       context = ctx;
       parameterValues = pv;
@@ -0,0 +1,124 @@
+package org.testng.internal;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.testng.collections.Lists;
+import org.testng.collections.Sets;
+
+/**
+ * A set of regular expressions that values are matched against (as a whole), compiled once so that
+ * matching a value does not compile every pattern again. Patterns without any regular expression
+ * construct are looked up in a hash set, and the remaining ones are combined into a single
+ * alternation. The few constructs that would not survive being combined (back references, inline
+ * flags and groups, quotations) are matched one pattern at a time.
+ *
+ * <p>When one of the patterns cannot be compiled, the set matches values the way TestNG always did
+ * (compiling the patterns as it goes), so that the {@link PatternSyntaxException} is raised at the
+ * same point as before.
+ */
+public final class PatternSet {
+
+  private static final String META_CHARACTERS = "\\^$.|?*+()[]{}";
+  private static final Pattern NOT_COMBINABLE = Pattern.compile("\\\\[1-9kQE]|\\(\\?");
+
+  private final List<String> patterns;
+  private final Set<String> literals = Sets.newHashSet();
+  private final List<Pattern> separate = Lists.newArrayList();
+  private Pattern combined;
+  private boolean compiled = true;
+
+  /** @param patterns - The regular expressions to match values against */
+  public PatternSet(Collection<String> patterns) {
+    this.patterns = Collections.unmodifiableList(Lists.newArrayList(patterns));
+    StringJoiner alternation = new StringJoiner("|");
+    int combinable = 0;
+    try {
+      for (String each : this.patterns) {
+        String literal = toLiteral(each);
+        if (literal != null) {
+          literals.add(literal);
+          continue;
+        }
+        Pattern pattern = Pattern.compile(each);
+        if (NOT_COMBINABLE.matcher(each).find()) {
+          separate.add(pattern);
+        } else {
+          alternation.add("(?:" + each + ")");
+          combinable++;
+        }
+      }
+    } catch (PatternSyntaxException e) {
+      compiled = false;
+      return;
+    }
+    if (combinable > 0) {
+      combined = Pattern.compile(alternation.toString());
+    }
+  }
+
+  public boolean isEmpty() {
+    return patterns.isEmpty();
+  }
+
+  /**
+   * @param values - The values to be matched
+   * @return <code>true</code> if at least one of the values matches at least one of the patterns.
+   */
+  public boolean matchesAny(String... values) {
+    for (String value : values) {
+      if (!compiled) {
+        for (String each : patterns) {
+          if (Pattern.matches(each, value)) {
+            return true;
+          }
+        }
+      } else if (matches(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean matches(String value) {
+    if (literals.contains(value)) {
+      return true;
+    }
+    if (combined != null && combined.matcher(value).matches()) {
+      return true;
+    }
+    for (Pattern each : separate) {
+      if (each.matcher(value).matches()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the text that the pattern matches if it is made of plain (or escaped) characters only,
+   *     <code>null</code> otherwise.
+   */
+  private static String toLiteral(String pattern) {
+    StringBuilder result = new StringBuilder(pattern.length());
+    for (int i = 0; i < pattern.length(); i++) {
+      char c = pattern.charAt(i);
+      if (c == '\\') {
+        // A backslash before anything but a letter or a digit stands for the character itself
+        if (i + 1 == pattern.length() || Character.isLetterOrDigit(pattern.charAt(i + 1))) {
+          return null;
+        }
+        result.append(pattern.charAt(++i));
+      } else if (META_CHARACTERS.indexOf(c) != -1) {
+        return null;
+      } else {
+        result.append(c);
+      }
+    }
+    return result.toString();
+  }
+}
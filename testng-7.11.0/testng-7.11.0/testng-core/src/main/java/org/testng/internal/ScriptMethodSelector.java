@@ -1,22 +1,36 @@
 package org.testng.internal;
 
-import java.lang.reflect.Method;
 import java.util.Map;
-import javax.script.ScriptContext;
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
 import javax.script.ScriptEngine;
 import javax.script.ScriptException;
+import javax.script.SimpleBindings;
 import org.testng.ITestNGMethod;
 import org.testng.TestNGException;
 import org.testng.collections.Maps;
 
+/**
+ * Selects methods by evaluating a script expression. The expression is compiled once (provided the
+ * engine is {@link Compilable}) and every evaluation gets {@link Bindings} of its own, so that the
+ * engine itself is never modified and evaluations can run concurrently. Engines that do not declare
+ * themselves as thread safe (through their <code>THREADING</code> parameter) are still only used by
+ * one thread at a time.
+ */
 class ScriptMethodSelector {
 
   private final ScriptEngine engine;
   private final String expression;
+  // Held only while evaluating with an engine that is not thread safe, or null
+  private final Object engineLock;
+  private volatile CompiledScript compiledScript;
+  private volatile boolean compiled;
 
   ScriptMethodSelector(ScriptEngine engine, String expression) {
     this.engine = engine;
     this.expression = expression.trim();
+    this.engineLock = engine.getFactory().getParameter("THREADING") == null ? new Object() : null;
   }
 
   boolean includeMethodFromExpression(ITestNGMethod tm) {
@@ -24,39 +38,47 @@ class ScriptMethodSelector {
     for (String group : tm.getGroups()) {
       groups.put(group, group);
     }
-    try {
-      setContext(engine, groups, tm);
-      Object evalResult = engine.eval(expression);
-      if (evalResult == null) {
-        String msg =
-            String.format(
-                "The "
-                    + engine.getFactory().getLanguageName()
-                    + " expression [%s] evaluated to null.",
-                expression);
-        throw new TestNGException(msg);
+    Bindings bindings = new SimpleBindings();
+    bindings.put("method", tm.getConstructorOrMethod().getMethod());
+    bindings.put("groups", groups);
+    bindings.put("testngMethod", tm);
+    Object evalResult;
+    if (engineLock == null) {
+      evalResult = evaluate(bindings);
+    } else {
+      synchronized (engineLock) {
+        evalResult = evaluate(bindings);
       }
-      return (Boolean) evalResult;
-    } catch (ScriptException e) {
-      throw new TestNGException(e);
-    } finally {
-      resetContext(engine);
     }
+    if (evalResult == null) {
+      String msg =
+          String.format(
+              "The "
+                  + engine.getFactory().getLanguageName()
+                  + " expression [%s] evaluated to null.",
+              expression);
+      throw new TestNGException(msg);
+    }
+    return (Boolean) evalResult;
   }
 
-  private static void setContext(
-      ScriptEngine engine, Map<String, String> groups, ITestNGMethod tm) {
-    ScriptContext context = engine.getContext();
-    Method method = tm.getConstructorOrMethod().getMethod();
-    context.setAttribute("method", method, ScriptContext.ENGINE_SCOPE);
-    context.setAttribute("groups", groups, ScriptContext.ENGINE_SCOPE);
-    context.setAttribute("testngMethod", tm, ScriptContext.ENGINE_SCOPE);
+  private Object evaluate(Bindings bindings) {
+    try {
+      CompiledScript script = compiledScript();
+      return script == null ? engine.eval(expression, bindings) : script.eval(bindings);
+    } catch (ScriptException e) {
+      throw new TestNGException(e);
+    }
   }
 
-  private static void resetContext(ScriptEngine engine) {
-    ScriptContext context = engine.getContext();
-    context.removeAttribute("method", ScriptContext.ENGINE_SCOPE);
-    context.removeAttribute("groups", ScriptContext.ENGINE_SCOPE);
-    context.removeAttribute("testngMethod", ScriptContext.ENGINE_SCOPE);
+  private CompiledScript compiledScript() throws ScriptException {
+    if (!compiled) {
+      // Threads racing here each compile the expression, and any of the scripts will do
+      if (engine instanceof Compilable) {
+        compiledScript = ((Compilable) engine).compile(expression);
+      }
+      compiled = true;
+    }
+    return compiledScript;
   }
 }
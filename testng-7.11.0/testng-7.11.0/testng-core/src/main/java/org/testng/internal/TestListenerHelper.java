@@ -17,6 +17,7 @@ import org.testng.ListenerComparator;
 import org.testng.TestNGException;
 import org.testng.annotations.IListenersAnnotation;
 import org.testng.internal.annotations.IAnnotationFinder;
+import org.testng.internal.jfr.FlightRecorderEvents;
 
 /** A helper class that internally houses some of the listener related actions support. */
 public final class TestListenerHelper {
@@ -34,15 +35,26 @@ public final class TestListenerHelper {
     List<IConfigurationListener> original = ListenerOrderDeterminer.order(listeners, comparator);
 
     for (IConfigurationListener icl : original) {
-      icl.beforeConfiguration(tr);
+      FlightRecorderEvents.Scope scope =
+          FlightRecorderEvents.listener(icl, "beforeConfiguration");
       try {
-        icl.beforeConfiguration(tr, tm);
-      } catch (Exception e) {
-        ignoreInternalGradleException(e);
+        runPreConfigurationListener(tr, tm, icl);
+      } finally {
+        scope.close();
       }
     }
   }
 
+  private static void runPreConfigurationListener(
+      ITestResult tr, ITestNGMethod tm, IConfigurationListener icl) {
+    icl.beforeConfiguration(tr);
+    try {
+      icl.beforeConfiguration(tr, tm);
+    } catch (Exception e) {
+      ignoreInternalGradleException(e);
+    }
+  }
+
   public static void runPostConfigurationListeners(
       ITestResult tr,
       ITestNGMethod tm,
@@ -53,37 +65,59 @@ public final class TestListenerHelper {
         ListenerOrderDeterminer.reversedOrder(listeners, comparator);
     listenersreversed.add(internal);
     for (IConfigurationListener icl : listenersreversed) {
-      switch (tr.getStatus()) {
-        case ITestResult.SKIP:
-          icl.onConfigurationSkip(tr);
-          try {
-            icl.onConfigurationSkip(tr, tm);
-          } catch (Exception e) {
-            ignoreInternalGradleException(e);
-          }
-          break;
-        case ITestResult.FAILURE:
-          icl.onConfigurationFailure(tr);
-          try {
-            icl.onConfigurationFailure(tr, tm);
-          } catch (Exception e) {
-            ignoreInternalGradleException(e);
-          }
-          break;
-        case ITestResult.SUCCESS:
-          icl.onConfigurationSuccess(tr);
-          try {
-            icl.onConfigurationSuccess(tr, tm);
-          } catch (Exception e) {
-            ignoreInternalGradleException(e);
-          }
-          break;
-        default:
-          throw new AssertionError("Unexpected value: " + tr.getStatus());
+      FlightRecorderEvents.Scope scope =
+          FlightRecorderEvents.listener(icl, configurationCallback(tr));
+      try {
+        runPostConfigurationListener(tr, tm, icl);
+      } finally {
+        scope.close();
       }
     }
   }
 
+  private static void runPostConfigurationListener(
+      ITestResult tr, ITestNGMethod tm, IConfigurationListener icl) {
+    switch (tr.getStatus()) {
+      case ITestResult.SKIP:
+        icl.onConfigurationSkip(tr);
+        try {
+          icl.onConfigurationSkip(tr, tm);
+        } catch (Exception e) {
+          ignoreInternalGradleException(e);
+        }
+        break;
+      case ITestResult.FAILURE:
+        icl.onConfigurationFailure(tr);
+        try {
+          icl.onConfigurationFailure(tr, tm);
+        } catch (Exception e) {
+          ignoreInternalGradleException(e);
+        }
+        break;
+      case ITestResult.SUCCESS:
+        icl.onConfigurationSuccess(tr);
+        try {
+          icl.onConfigurationSuccess(tr, tm);
+        } catch (Exception e) {
+          ignoreInternalGradleException(e);
+        }
+        break;
+      default:
+        throw new AssertionError("Unexpected value: " + tr.getStatus());
+    }
+  }
+
+  private static String configurationCallback(ITestResult tr) {
+    switch (tr.getStatus()) {
+      case ITestResult.SKIP:
+        return "onConfigurationSkip";
+      case ITestResult.FAILURE:
+        return "onConfigurationFailure";
+      default:
+        return "onConfigurationSuccess";
+    }
+  }
+
   // This method is added because Gradle which builds TestNG seems to be using an older version
   // of TestNG that doesn't know about the new methods that we added and so it causes
   // the TestNG build to keep failing.
@@ -101,32 +135,41 @@ public final class TestListenerHelper {
    */
   public static void runTestListeners(ITestResult tr, List<ITestListener> listeners) {
     for (ITestListener itl : listeners) {
-      switch (tr.getStatus()) {
-        case ITestResult.SKIP:
-          itl.onTestSkipped(tr);
-          break;
-        case ITestResult.SUCCESS_PERCENTAGE_FAILURE:
-          itl.onTestFailedButWithinSuccessPercentage(tr);
-          break;
-        case ITestResult.FAILURE:
-          if (ITestResult.wasFailureDueToTimeout(tr)) {
-            itl.onTestFailedWithTimeout(tr);
-          } else {
-            itl.onTestFailure(tr);
-          }
-          break;
-        case ITestResult.SUCCESS:
-          itl.onTestSuccess(tr);
-          break;
-        case ITestResult.STARTED:
-          itl.onTestStart(tr);
-          break;
-        default:
-          throw new AssertionError("Unknown status: " + tr.getStatus());
+      FlightRecorderEvents.Scope scope = FlightRecorderEvents.testListener(itl, tr);
+      try {
+        runTestListener(tr, itl);
+      } finally {
+        scope.close();
       }
     }
   }
 
+  private static void runTestListener(ITestResult tr, ITestListener itl) {
+    switch (tr.getStatus()) {
+      case ITestResult.SKIP:
+        itl.onTestSkipped(tr);
+        break;
+      case ITestResult.SUCCESS_PERCENTAGE_FAILURE:
+        itl.onTestFailedButWithinSuccessPercentage(tr);
+        break;
+      case ITestResult.FAILURE:
+        if (ITestResult.wasFailureDueToTimeout(tr)) {
+          itl.onTestFailedWithTimeout(tr);
+        } else {
+          itl.onTestFailure(tr);
+        }
+        break;
+      case ITestResult.SUCCESS:
+        itl.onTestSuccess(tr);
+        break;
+      case ITestResult.STARTED:
+        itl.onTestStart(tr);
+        break;
+      default:
+        throw new AssertionError("Unknown status: " + tr.getStatus());
+    }
+  }
+
   /**
    * @return all the @Listeners annotations found in the current class and its superclasses and
    *     inherited interfaces.
@@ -38,6 +38,7 @@ public class TestNGClassFinder extends BaseClassFinder {
   private final DataProviderHolder holder;
   private final ITestObjectFactory objectFactory;
   private final IAnnotationFinder annotationFinder;
+  private final ClassMetadataRegistry registry;
 
   private String m_factoryCreationFailedMessage = null;
 
@@ -51,12 +52,23 @@ public class TestNGClassFinder extends BaseClassFinder {
       IConfiguration configuration,
       ITestContext testContext,
       DataProviderHolder holder) {
+    this(cim, instanceMap, configuration, testContext, holder, new ClassMetadataRegistry());
+  }
+
+  public TestNGClassFinder(
+      ClassInfoMap cim,
+      Map<Class<?>, List<IObject.IdentifiableObject>> instanceMap,
+      IConfiguration configuration,
+      ITestContext testContext,
+      DataProviderHolder holder,
+      ClassMetadataRegistry registry) {
     if (instanceMap == null) {
       throw new IllegalArgumentException("instanceMap must not be null");
     }
 
     m_testContext = testContext;
     this.holder = holder;
+    this.registry = registry;
     annotationFinder = configuration.getAnnotationFinder();
 
     // Find all the new classes and their corresponding instances
@@ -90,7 +102,8 @@ public class TestNGClassFinder extends BaseClassFinder {
       return;
     }
 
-    if (isNotTestNGClass(cls, annotationFinder)) { // if not TestNG class
+    // if not TestNG class
+    if (!registry.isTestNGClass(cls, c -> isTestNGClass(c, annotationFinder))) {
       Utils.log(PREFIX, 3, "SKIPPING CLASS " + cls + " no TestNG annotations found");
       return;
     }
@@ -146,7 +159,8 @@ public class TestNGClassFinder extends BaseClassFinder {
             m_instanceMap,
             configuration,
             m_testContext,
-            new DataProviderHolder(configuration));
+            new DataProviderHolder(configuration),
+            registry);
 
     for (IClass ic2 : finder.findTestClasses()) {
       putIClass(ic2.getRealClass(), ic2);
@@ -176,7 +190,9 @@ public class TestNGClassFinder extends BaseClassFinder {
     }
 
     // If the factory returned IInstanceInfo, get the class from it,
-    // otherwise, just call getClass() on the returned instances
+    // otherwise, just call getClass() on the returned instances.
+    // Every instance is needed up front: the test methods and the method graph are built from all
+    // of them before anything runs, so there is nothing to gain from streaming the factory output.
     int i = 0;
     for (IParameterInfo o : fm.invoke()) {
       if (o == null) {
@@ -263,10 +279,6 @@ public class TestNGClassFinder extends BaseClassFinder {
     return fallback;
   }
 
-  private static boolean isNotTestNGClass(Class<?> c, IAnnotationFinder annotationFinder) {
-    return (!isTestNGClass(c, annotationFinder));
-  }
-
   /**
    * @return true if this class contains TestNG annotations (either on itself or on a superclass).
    */
@@ -26,6 +26,7 @@ public class TestNGMethod extends BaseTestMethod {
   private boolean isDataDriven = false;
   private CustomAttribute[] m_attributes = {};
   private IDataProviderMethod dataProviderMethod = null;
+  private DataProviderPrefetcher.Prefetch prefetch = null;
 
   /** Constructs a <code>TestNGMethod</code> */
   public TestNGMethod(
@@ -171,7 +172,7 @@ public class TestNGMethod extends BaseTestMethod {
             getAnnotationFinder(),
             false,
             getXmlTest(),
-            new IObject.IdentifiableObject(getInstance(), getInstanceId()));
+            embeddedInstance());
     ITestClass tc = getTestClass();
     NoOpTestClass testClass = new NoOpTestClass(tc);
     testClass.setBeforeTestMethods(clone(tc.getBeforeTestMethods()));
@@ -223,4 +224,20 @@ public class TestNGMethod extends BaseTestMethod {
   public void setDataProviderMethod(IDataProviderMethod dataProviderMethod) {
     this.dataProviderMethod = dataProviderMethod;
   }
+
+  /** @return <code>false</code> if the data provider of this method is already to be prefetched. */
+  synchronized boolean offerPrefetch(DataProviderPrefetcher.Prefetch prefetch) {
+    if (this.prefetch != null) {
+      return false;
+    }
+    this.prefetch = prefetch;
+    return true;
+  }
+
+  /** @return the prefetched data provider of this method (only once), or <code>null</code>. */
+  synchronized DataProviderPrefetcher.Prefetch takePrefetch() {
+    DataProviderPrefetcher.Prefetch result = prefetch;
+    prefetch = null;
+    return result;
+  }
 }
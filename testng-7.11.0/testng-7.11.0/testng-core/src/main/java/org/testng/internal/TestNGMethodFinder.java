@@ -5,7 +5,6 @@ import static org.testng.internal.TestNGMethodFinder.MethodType.*;
 import java.lang.reflect.Method;
 import java.util.Comparator;
 import java.util.List;
-import java.util.Set;
 import org.testng.ITestMethodFinder;
 import org.testng.ITestNGMethod;
 import org.testng.ITestObjectFactory;
@@ -14,6 +13,7 @@ import org.testng.annotations.ITestAnnotation;
 import org.testng.collections.Lists;
 import org.testng.internal.annotations.AnnotationHelper;
 import org.testng.internal.annotations.IAnnotationFinder;
+import org.testng.internal.collections.Pair;
 import org.testng.xml.XmlTest;
 
 /** The default strategy for finding test methods: look up annotations @Test in front of methods. */
@@ -37,6 +37,7 @@ public class TestNGMethodFinder implements ITestMethodFinder {
   private final RunInfo runInfo;
   private final IAnnotationFinder annotationFinder;
   private final Comparator<ITestNGMethod> comparator;
+  private final ClassMetadataRegistry registry;
 
   public TestNGMethodFinder(
       ITestObjectFactory objectFactory, RunInfo runInfo, IAnnotationFinder annotationFinder) {
@@ -48,16 +49,29 @@ public class TestNGMethodFinder implements ITestMethodFinder {
       RunInfo runInfo,
       IAnnotationFinder annotationFinder,
       Comparator<ITestNGMethod> comparator) {
+    this(objectFactory, runInfo, annotationFinder, comparator, new ClassMetadataRegistry());
+  }
+
+  public TestNGMethodFinder(
+      ITestObjectFactory objectFactory,
+      RunInfo runInfo,
+      IAnnotationFinder annotationFinder,
+      Comparator<ITestNGMethod> comparator,
+      ClassMetadataRegistry registry) {
     this.objectFactory = objectFactory;
     this.runInfo = runInfo;
     this.annotationFinder = annotationFinder;
     this.comparator = comparator;
+    this.registry = registry;
   }
 
   @Override
   public ITestNGMethod[] getTestMethods(Class<?> clazz, XmlTest xmlTest) {
-    return AnnotationHelper.findMethodsWithAnnotation(
-        objectFactory, clazz, ITestAnnotation.class, annotationFinder, xmlTest);
+    return AnnotationHelper.createTestNGMethods(
+        objectFactory,
+        registry.getMethodsWithAnnotation(clazz, ITestAnnotation.class, annotationFinder),
+        annotationFinder,
+        xmlTest);
   }
 
   @Override
@@ -114,15 +128,10 @@ public class TestNGMethodFinder implements ITestMethodFinder {
       final Class<?> clazz, final MethodType configurationType) {
     List<ITestNGMethod> vResult = Lists.newArrayList();
 
-    Set<Method> methods = ClassHelper.getAvailableMethodsExcludingDefaults(clazz);
-
-    for (Method m : methods) {
-      IConfigurationAnnotation configuration =
-          AnnotationHelper.findConfiguration(annotationFinder, m);
-
-      if (null == configuration) {
-        continue;
-      }
+    for (Pair<Method, IConfigurationAnnotation> each :
+        registry.getConfigurationMethods(clazz, annotationFinder)) {
+      Method m = each.first();
+      IConfigurationAnnotation configuration = each.second();
 
       boolean create;
       boolean isBeforeSuite = false;
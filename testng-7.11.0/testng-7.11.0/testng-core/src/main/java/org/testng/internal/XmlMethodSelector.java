@@ -5,10 +5,12 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
@@ -49,6 +51,11 @@ public class XmlMethodSelector implements IMethodSelector {
   // Group inclusions override
   private boolean m_overrideIncludedMethods = false;
 
+  // The include/exclude patterns, compiled once and only again when the groups change
+  private GroupPatterns m_groupPatterns;
+  private final Map<XmlClass, MethodPatterns> m_methodPatterns =
+      Collections.synchronizedMap(new IdentityHashMap<>());
+
   @Override
   public boolean includeMethod(
       IMethodSelectorContext context, ITestNGMethod tm, boolean isTestMethod) {
@@ -104,8 +111,9 @@ public class XmlMethodSelector implements IMethodSelector {
               .flatMap(Arrays::stream)
               .distinct()
               .toArray(String[]::new);
-      boolean isIncludedInGroups = isIncluded(m_includedGroups.values(), noGroupsSpecified, groups);
-      boolean isExcludedInGroups = isExcluded(m_excludedGroups.values(), groups);
+      GroupPatterns groupPatterns = groupPatterns();
+      boolean isIncludedInGroups = groupPatterns.isIncluded(noGroupsSpecified, groups);
+      boolean isExcludedInGroups = groupPatterns.isExcluded(groups);
 
       // Calculate the run methods by groups first
       if (isIncludedInGroups && !isExcludedInGroups) {
@@ -133,13 +141,11 @@ public class XmlMethodSelector implements IMethodSelector {
             continue;
           }
 
-          List<String> includedMethods =
-              createQualifiedMethodNames(xmlClass, toStringList(xmlClass.getIncludedMethods()));
+          MethodPatterns methodPatterns =
+              m_methodPatterns.computeIfAbsent(xmlClass, MethodPatterns::new);
           boolean isIncludedInMethods =
-              isIncluded(includedMethods, noGroupsSpecified, fullMethodName);
-          List<String> excludedMethods =
-              createQualifiedMethodNames(xmlClass, xmlClass.getExcludedMethods());
-          boolean isExcludedInMethods = isExcluded(excludedMethods, fullMethodName);
+              isIncluded(methodPatterns.included, noGroupsSpecified, fullMethodName);
+          boolean isExcludedInMethods = methodPatterns.excluded.matchesAny(fullMethodName);
           if (result) {
             // If we're about to include this method by group, make sure
             // it's included by method and not excluded by method
@@ -205,12 +211,15 @@ public class XmlMethodSelector implements IMethodSelector {
 
   private static List<String> createQualifiedMethodNames(XmlClass xmlClass, List<String> methods) {
     List<String> vResult = Lists.newArrayList();
+    List<Pattern> patterns = Lists.newArrayList();
+    for (String im : methods) {
+      patterns.add(Pattern.compile(methodName(im)));
+    }
     Class<?> cls = xmlClass.getSupportClass();
 
-    while (cls != null) {
-      for (String im : methods) {
-        Pattern pattern = Pattern.compile(methodName(im));
-        Method[] allMethods = ReflectionHelper.getLocalMethods(cls);
+    while (cls != null && !patterns.isEmpty()) {
+      Method[] allMethods = ReflectionHelper.getLocalMethods(cls);
+      for (Pattern pattern : patterns) {
         for (Method m : allMethods) {
           if (pattern.matcher(m.getName()).matches()) {
             vResult.add(makeMethodName(m.getDeclaringClass().getName(), m.getName()));
@@ -253,6 +262,7 @@ public class XmlMethodSelector implements IMethodSelector {
 
   public void setXmlClasses(List<XmlClass> classes) {
     m_classes = classes;
+    m_methodPatterns.clear();
     for (XmlClass c : classes) {
       for (XmlInclude m : c.getIncludedMethods()) {
         checkMethod(c.getSupportClass(), m.getName());
@@ -283,32 +293,28 @@ public class XmlMethodSelector implements IMethodSelector {
   }
 
   private static boolean isIncluded(
-      Collection<String> includedGroups, boolean noGroupsSpecified, String... groups) {
+      PatternSet includedGroups, boolean noGroupsSpecified, String... groups) {
     if (noGroupsSpecified) {
-      return isMemberOf(includedGroups, groups);
+      return includedGroups.matchesAny(groups);
     }
-    return includedGroups.isEmpty() || isMemberOf(includedGroups, groups);
+    return includedGroups.isEmpty() || includedGroups.matchesAny(groups);
   }
 
-  private static boolean isExcluded(Collection<String> excludedGroups, String... groups) {
-    return isMemberOf(excludedGroups, groups);
+  private static PatternSet compile(Collection<String> regexps) {
+    List<String> patterns = Lists.newArrayList();
+    for (String each : regexps) {
+      patterns.add(methodName(each));
+    }
+    return new PatternSet(patterns);
   }
 
-  /**
-   * @param groups Array of groups on the method
-   * @param list Map of regexps of groups to be run
-   */
-  private static boolean isMemberOf(Collection<String> list, String... groups) {
-    for (String group : groups) {
-      for (String o : list) {
-        String regexpStr = methodName(o);
-        if (Pattern.matches(regexpStr, group)) {
-          return true;
-        }
-      }
+  private GroupPatterns groupPatterns() {
+    GroupPatterns result = m_groupPatterns;
+    if (result == null || !result.isCurrent(m_includedGroups, m_excludedGroups)) {
+      result = new GroupPatterns(m_includedGroups, m_excludedGroups);
+      m_groupPatterns = result;
     }
-
-    return false;
+    return result;
   }
 
   private static void log(String s) {
@@ -372,4 +378,76 @@ public class XmlMethodSelector implements IMethodSelector {
       }
     }
   }
+
+  /**
+   * The compiled include and exclude group patterns, along with the outcome of matching every
+   * distinct set of groups that was looked up so far (test methods tend to share a few of them).
+   */
+  private static final class GroupPatterns {
+
+    private final Map<String, String> includedGroups;
+    private final Map<String, String> excludedGroups;
+    private final int includedCount;
+    private final int excludedCount;
+    private final PatternSet included;
+    private final PatternSet excluded;
+    private final Map<List<String>, Boolean> includedMatches = new ConcurrentHashMap<>();
+    private final Map<List<String>, Boolean> excludedMatches = new ConcurrentHashMap<>();
+
+    GroupPatterns(Map<String, String> includedGroups, Map<String, String> excludedGroups) {
+      this.includedGroups = includedGroups;
+      this.excludedGroups = excludedGroups;
+      this.includedCount = includedGroups.size();
+      this.excludedCount = excludedGroups.size();
+      this.included = compile(includedGroups.values());
+      this.excluded = compile(excludedGroups.values());
+    }
+
+    /**
+     * @return <code>false</code> if other maps were set since, or if groups were added to them (as
+     *     happens once the transitive closure of the included groups is known).
+     */
+    boolean isCurrent(Map<String, String> includedGroups, Map<String, String> excludedGroups) {
+      return this.includedGroups == includedGroups
+          && this.excludedGroups == excludedGroups
+          && includedCount == includedGroups.size()
+          && excludedCount == excludedGroups.size();
+    }
+
+    boolean isIncluded(boolean noGroupsSpecified, String... groups) {
+      if (!noGroupsSpecified && included.isEmpty()) {
+        return true;
+      }
+      return matches(included, includedMatches, groups);
+    }
+
+    boolean isExcluded(String... groups) {
+      return matches(excluded, excludedMatches, groups);
+    }
+
+    private static boolean matches(
+        PatternSet patterns, Map<List<String>, Boolean> matches, String... groups) {
+      List<String> key = Arrays.asList(groups);
+      Boolean result = matches.get(key);
+      if (result == null) {
+        result = patterns.matchesAny(groups);
+        matches.put(key, result);
+      }
+      return result;
+    }
+  }
+
+  /** The fully qualified names of the methods that a class includes and excludes, compiled. */
+  private static final class MethodPatterns {
+
+    private final PatternSet included;
+    private final PatternSet excluded;
+
+    MethodPatterns(XmlClass xmlClass) {
+      this.included =
+          compile(
+              createQualifiedMethodNames(xmlClass, toStringList(xmlClass.getIncludedMethods())));
+      this.excluded = compile(createQualifiedMethodNames(xmlClass, xmlClass.getExcludedMethods()));
+    }
+  }
 }
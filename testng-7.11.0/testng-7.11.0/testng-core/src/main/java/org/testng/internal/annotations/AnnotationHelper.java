@@ -8,6 +8,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletionStage;
 import java.util.function.Predicate;
 import org.testng.ITestNGMethod;
 import org.testng.ITestObjectFactory;
@@ -17,6 +18,7 @@ import org.testng.annotations.IDataProviderAnnotation;
 import org.testng.annotations.IFactoryAnnotation;
 import org.testng.annotations.IParametersAnnotation;
 import org.testng.annotations.ITestAnnotation;
+import org.testng.collections.Lists;
 import org.testng.collections.Maps;
 import org.testng.internal.ConstructorOrMethod;
 import org.testng.internal.TestNGMethod;
@@ -224,12 +226,27 @@ public class AnnotationHelper {
       Class<? extends IAnnotation> annotationClass,
       IAnnotationFinder annotationFinder,
       XmlTest xmlTest) {
-    // Keep a map of the methods we saw so that we ignore a method in a superclass if it's
-    // already been seen in a child class
-    Map<String, ITestNGMethod> vResult = Maps.newHashMap();
+    return createTestNGMethods(
+        objectFactory,
+        findMethodsWithAnnotation(rootClass, annotationClass, annotationFinder),
+        annotationFinder,
+        xmlTest);
+  }
+
+  /**
+   * @param rootClass - The class to look up methods in (along with its superclasses)
+   * @param annotationClass - The annotation that the methods should carry
+   * @param annotationFinder - The annotation finder to be used
+   * @return the methods that carry the annotation, from the class up to its topmost superclass
+   *     (methods that a subclass overrides are listed more than once).
+   */
+  public static List<Method> findMethodsWithAnnotation(
+      Class<?> rootClass,
+      Class<? extends IAnnotation> annotationClass,
+      IAnnotationFinder annotationFinder) {
+    List<Method> vResult = Lists.newArrayList();
 
     try {
-      vResult = Maps.newHashMap();
       //    Class[] classes = rootClass.getTestClasses();
       Class<?> cls = rootClass;
 
@@ -271,19 +288,6 @@ public class AnnotationHelper {
               continue;
             }
 
-            // Skip the method if it has a return type
-            if (m.getReturnType() != void.class && !xmlTest.getAllowReturnValues()) {
-              Utils.log(
-                  "",
-                  2,
-                  "Method "
-                      + m
-                      + " has a @Test annotation"
-                      + " but also a return value:"
-                      + " ignoring it. Use <suite allow-return-values=\"true\"> to fix this");
-              continue;
-            }
-
             if (Arrays.stream(m.getAnnotations())
                 .anyMatch(a -> a.annotationType().getName().equals("groovy.transform.Internal"))) {
               Utils.log(
@@ -291,9 +295,7 @@ public class AnnotationHelper {
               continue;
             }
 
-            String key = createMethodKey(m);
-            vResult.computeIfAbsent(
-                key, k -> new TestNGMethod(objectFactory, m, annotationFinder, xmlTest, null));
+            vResult.add(m);
           }
         } // for
         // Now explore the superclass
@@ -303,6 +305,48 @@ public class AnnotationHelper {
     } catch (SecurityException e) {
       LOGGER.error(e.getMessage(), e);
     }
+    return vResult;
+  }
+
+  /**
+   * @param objectFactory - The object factory of the test
+   * @param methods - The methods found by {@link #findMethodsWithAnnotation(Class, Class,
+   *     IAnnotationFinder)}
+   * @param annotationFinder - The annotation finder to be used
+   * @param xmlTest - The test that the methods belong to
+   * @return the test methods of the given <code>&lt;test&gt;</code> (a method that is overridden by
+   *     a subclass is only kept once).
+   */
+  public static ITestNGMethod[] createTestNGMethods(
+      ITestObjectFactory objectFactory,
+      List<Method> methods,
+      IAnnotationFinder annotationFinder,
+      XmlTest xmlTest) {
+    // Keep a map of the methods we saw so that we ignore a method in a superclass if it's
+    // already been seen in a child class
+    Map<String, ITestNGMethod> vResult = Maps.newHashMap();
+    for (Method m : methods) {
+      // Skip the method if it has a return type (unless it is an asynchronous test that
+      // returns a CompletionStage, which TestNG waits for)
+      boolean hasReturnValue =
+          m.getReturnType() != void.class
+              && !CompletionStage.class.isAssignableFrom(m.getReturnType());
+      if (hasReturnValue && !xmlTest.getAllowReturnValues()) {
+        Utils.log(
+            "",
+            2,
+            "Method "
+                + m
+                + " has a @Test annotation"
+                + " but also a return value:"
+                + " ignoring it. Use <suite allow-return-values=\"true\"> to fix this");
+        continue;
+      }
+
+      String key = createMethodKey(m);
+      vResult.computeIfAbsent(
+          key, k -> new TestNGMethod(objectFactory, m, annotationFinder, xmlTest, null));
+    }
     return vResult.values().toArray(new ITestNGMethod[0]);
   }
 
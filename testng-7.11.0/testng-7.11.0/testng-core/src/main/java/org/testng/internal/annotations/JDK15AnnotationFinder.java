@@ -8,7 +8,9 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 import org.testng.IAnnotationTransformer;
 import org.testng.ITestNGMethod;
 import org.testng.annotations.AfterClass;
@@ -39,16 +41,28 @@ import org.testng.annotations.Optional;
 import org.testng.annotations.Parameters;
 import org.testng.annotations.Test;
 import org.testng.annotations.TestInstance;
+import org.testng.collections.Sets;
 import org.testng.internal.ConstructorOrMethod;
-import org.testng.internal.collections.Pair;
+import org.testng.internal.profiling.Counter;
+import org.testng.internal.profiling.PhaseProfiler;
 
-/** This class implements IAnnotationFinder with JDK5 annotations */
+/**
+ * This class implements IAnnotationFinder with JDK5 annotations.
+ *
+ * <p>Resolved annotations are cached per annotated element (class, method or constructor) and then
+ * per annotation type, so that looking up an annotation that was already resolved (and transformed)
+ * neither allocates nor runs the {@link IAnnotationTransformer} again. The hits and misses of the
+ * cache are counted, and reported by the {@link PhaseProfiler} of the run.
+ */
 public class JDK15AnnotationFinder implements IAnnotationFinder {
 
   private final JDK15TagFactory m_tagFactory = new JDK15TagFactory();
   private final Map<Class<? extends IAnnotation>, Class<? extends Annotation>> m_annotationMap =
       new ConcurrentHashMap<>();
-  private final Map<String, IAnnotation> m_annotations = new ConcurrentHashMap<>();
+  private final Map<Object, Map<Class<? extends IAnnotation>, ResolvedAnnotation>> m_annotations =
+      new ConcurrentHashMap<>();
+  private final LongAdder m_cacheHits = new LongAdder();
+  private final LongAdder m_cacheMisses = new LongAdder();
 
   private final IAnnotationTransformer m_transformer;
 
@@ -74,6 +88,30 @@ public class JDK15AnnotationFinder implements IAnnotationFinder {
     m_annotationMap.put(IAfterMethod.class, AfterMethod.class);
   }
 
+  /**
+   * @return <code>true</code> if annotations are only ever transformed by TestNG itself, whose
+   *     transformer holds no state, so that they can safely be looked up from several threads.
+   */
+  public boolean hasStatelessTransformer() {
+    return !m_transformer.isEnabled()
+        || m_transformer.getClass() == DefaultAnnotationTransformer.class;
+  }
+
+  /**
+   * @param counter - The event to look up.
+   * @return - How many times the event occurred in this finder.
+   */
+  public long getCount(Counter counter) {
+    switch (counter) {
+      case ANNOTATION_CACHE_HITS:
+        return m_cacheHits.sum();
+      case ANNOTATION_CACHE_MISSES:
+        return m_cacheMisses.sum();
+      default:
+        throw new AssertionError("Unknown counter: " + counter);
+    }
+  }
+
   private <A extends Annotation> A findAnnotationInSuperClasses(Class<?> cls, Class<A> a) {
     // Hack for @Listeners: we don't look in superclasses for this annotation
     // because inheritance of this annotation causes aggregation instead of
@@ -111,14 +149,7 @@ public class JDK15AnnotationFinder implements IAnnotationFinder {
     }
     Annotation annotation = AnnotationHelper.getAnnotationFromMethod(m, a);
     return findAnnotation(
-        m.getDeclaringClass(),
-        annotation,
-        annotationClass,
-        null,
-        null,
-        m,
-        new Pair<>(annotation, m),
-        clazz);
+        m.getDeclaringClass(), annotation, annotationClass, null, null, m, m, clazz);
   }
 
   @Override
@@ -137,8 +168,7 @@ public class JDK15AnnotationFinder implements IAnnotationFinder {
     if (annotation == null) {
       annotation = AnnotationHelper.getAnnotationFromClass(testClass, a);
     }
-    return findAnnotation(
-        testClass, annotation, annotationClass, null, null, m, new Pair<>(annotation, m), null);
+    return findAnnotation(testClass, annotation, annotationClass, null, null, m, m, null);
   }
 
   @Override
@@ -194,8 +224,7 @@ public class JDK15AnnotationFinder implements IAnnotationFinder {
           "Java @Annotation class for '" + annotationClass + "' not found.");
     }
     Annotation annotation = findAnnotationInSuperClasses(cls, a);
-    return findAnnotation(
-        cls, annotation, annotationClass, cls, null, null, new Pair<>(annotation, cls), null);
+    return findAnnotation(cls, annotation, annotationClass, cls, null, null, cls, null);
   }
 
   @Override
@@ -207,14 +236,7 @@ public class JDK15AnnotationFinder implements IAnnotationFinder {
     }
     Annotation annotation = AnnotationHelper.getAnnotationFromConstructor(cons, a);
     return findAnnotation(
-        cons.getDeclaringClass(),
-        annotation,
-        annotationClass,
-        null,
-        cons,
-        null,
-        new Pair<>(annotation, cons),
-        null);
+        cons.getDeclaringClass(), annotation, annotationClass, null, cons, null, cons, null);
   }
 
   @Override
@@ -244,23 +266,21 @@ public class JDK15AnnotationFinder implements IAnnotationFinder {
       Class<A> annotationClass,
       Class<? extends Annotation> a,
       List<A> annotations) {
-    if (inter.getAnnotation(a) != null) {
+    Annotation annotation = inter.getAnnotation(a);
+    if (annotation != null) {
       annotations.add(
-          findAnnotation(
-              cls,
-              inter.getAnnotation(a),
-              annotationClass,
-              cls,
-              null,
-              null,
-              new Pair<>(inter.getAnnotation(a), annotationClass),
-              null));
+          findAnnotation(cls, annotation, annotationClass, cls, null, null, inter, null));
     }
     for (Class<?> superInterface : inter.getInterfaces()) {
       findSuperInterface(cls, superInterface, annotationClass, a, annotations);
     }
   }
 
+  /**
+   * @param element - The class, method or constructor that the annotation was found on (or the
+   *     interface, for inherited annotations) which, along with the annotation type, is the key
+   *     that the resolved annotation is cached with.
+   */
   private <A extends IAnnotation> A findAnnotation(
       Class<?> cls,
       Annotation a,
@@ -268,25 +288,40 @@ public class JDK15AnnotationFinder implements IAnnotationFinder {
       Class<?> testClass,
       Constructor<?> testConstructor,
       Method testMethod,
-      Pair<Annotation, ?> p,
+      Object element,
       Class<?> whichClass) {
     if (a == null) {
       return null;
     }
 
-    IAnnotation result =
-        m_annotations.computeIfAbsent(
-            p.toString(),
-            key -> {
-              IAnnotation obj = m_tagFactory.createTag(cls, testMethod, a, annotationClass);
-              transform(obj, testClass, testConstructor, testMethod, whichClass);
-              return obj;
-            });
-    if (whichClass == null && testClass != null) {
-      transform(result, testClass, testConstructor, testMethod, whichClass);
+    Map<Class<? extends IAnnotation>, ResolvedAnnotation> resolvedByType =
+        m_annotations.get(element);
+    if (resolvedByType == null) {
+      resolvedByType = m_annotations.computeIfAbsent(element, k -> new ConcurrentHashMap<>(4));
+    }
+    ResolvedAnnotation result = ResolvedAnnotation.find(resolvedByType.get(annotationClass), a);
+    if (result != null) {
+      m_cacheHits.increment();
+    } else {
+      m_cacheMisses.increment();
+      ResolvedAnnotation head =
+          resolvedByType.compute(
+              annotationClass,
+              (key, existing) -> {
+                if (ResolvedAnnotation.find(existing, a) != null) {
+                  return existing;
+                }
+                IAnnotation obj = m_tagFactory.createTag(cls, testMethod, a, annotationClass);
+                transform(obj, testClass, testConstructor, testMethod, whichClass);
+                return new ResolvedAnnotation(a, obj, existing);
+              });
+      result = ResolvedAnnotation.find(head, a);
+    }
+    if (whichClass == null && testClass != null && result.markTransformed(testClass)) {
+      transform(result.annotation, testClass, testConstructor, testMethod, whichClass);
     }
     //noinspection unchecked
-    return (A) result;
+    return (A) result.annotation;
   }
 
   @Override
@@ -325,4 +360,57 @@ public class JDK15AnnotationFinder implements IAnnotationFinder {
     }
     return result;
   }
+
+  /**
+   * An annotation that was resolved from a JDK annotation and transformed. An element usually has
+   * a single annotation of a given type, but a method can also be resolved with the annotation of
+   * the class it is looked up from, so resolved annotations are chained.
+   */
+  private static final class ResolvedAnnotation {
+
+    private final Annotation source;
+    private final IAnnotation annotation;
+    private final ResolvedAnnotation next;
+    private volatile Class<?> lastTransformedFor;
+    private Set<Class<?>> transformedFor;
+
+    ResolvedAnnotation(Annotation source, IAnnotation annotation, ResolvedAnnotation next) {
+      this.source = source;
+      this.annotation = annotation;
+      this.next = next;
+    }
+
+    static ResolvedAnnotation find(ResolvedAnnotation head, Annotation source) {
+      for (ResolvedAnnotation each = head; each != null; each = each.next) {
+        if (each.source == source) {
+          return each;
+        }
+      }
+      // JDK annotations are usually canonical, but fall back to comparing them by value
+      for (ResolvedAnnotation each = head; each != null; each = each.next) {
+        if (each.source.equals(source)) {
+          return each;
+        }
+      }
+      return null;
+    }
+
+    /**
+     * @return <code>true</code> if the annotation was not yet transformed on behalf of the given
+     *     test class (which it then is considered to be).
+     */
+    boolean markTransformed(Class<?> testClass) {
+      if (lastTransformedFor == testClass) {
+        return false;
+      }
+      synchronized (this) {
+        if (transformedFor == null) {
+          transformedFor = Sets.newHashSet();
+        }
+        boolean added = transformedFor.add(testClass);
+        lastTransformedFor = testClass;
+        return added;
+      }
+    }
+  }
 }
@@ -0,0 +1,249 @@
+package org.testng.internal.index;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import org.testng.collections.Lists;
+import org.testng.collections.Maps;
+import org.testng.collections.Sets;
+
+/**
+ * An annotation processor that writes a {@link TestIndex} of the TestNG classes being compiled into
+ * {@value TestIndex#LOCATION} of the compilation output. TestNG then discovers the classes of a
+ * <code>&lt;package&gt;</code> from the index instead of walking directories and jars, and skips
+ * the reflective lookup of configuration (and test) methods that a class does not have.
+ *
+ * <p>The processor is not registered as a service, so it has to be asked for explicitly, for e.g.,
+ * with <code>javac -processor org.testng.internal.index.TestIndexProcessor</code>. When only some
+ * of the sources are recompiled, their entries are merged into the existing index.
+ */
+@SupportedAnnotationTypes("*")
+public class TestIndexProcessor extends AbstractProcessor {
+
+  private static final String ANNOTATIONS_PACKAGE = "org.testng.annotations";
+
+  /** The annotation attributes that are worth recording (the rest are only needed at runtime). */
+  private static final Set<String> ATTRIBUTES =
+      Sets.newHashSet(
+          "value",
+          "name",
+          "groups",
+          "dependsOnGroups",
+          "dependsOnMethods",
+          "dataProvider",
+          "dataProviderClass",
+          "enabled",
+          "alwaysRun");
+
+  private final Map<String, IndexedClass> classes = Maps.newHashMap();
+  private final Set<String> compiled = Sets.newHashSet();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (roundEnv.processingOver()) {
+      writeIndex();
+    } else {
+      for (Element each : roundEnv.getRootElements()) {
+        collect(each);
+      }
+    }
+    // Never claim the annotations, other processors may be interested in them as well
+    return false;
+  }
+
+  private void collect(Element element) {
+    if (!(element instanceof TypeElement)) {
+      return;
+    }
+    TypeElement type = (TypeElement) element;
+    if (type.getKind() == ElementKind.CLASS) {
+      String name = elements().getBinaryName(type).toString();
+      compiled.add(name);
+      IndexedClass indexedClass = index(type, name);
+      if (indexedClass != null) {
+        classes.put(name, indexedClass);
+      }
+    }
+    for (Element enclosed : type.getEnclosedElements()) {
+      collect(enclosed);
+    }
+  }
+
+  private IndexedClass index(TypeElement type, String name) {
+    Set<String> kinds = Sets.newLinkedHashSet();
+    Set<String> supertypes = Sets.newLinkedHashSet();
+    List<IndexedAnnotation> annotations = annotationsOf(type);
+    annotations.forEach(it -> kinds.add(it.getAnnotation()));
+    collectSupertypes(type, kinds, supertypes);
+    if (kinds.isEmpty()) {
+      return null;
+    }
+    int declaredMethods =
+        (int)
+            type.getEnclosedElements().stream()
+                .filter(it -> it.getKind() == ElementKind.METHOD)
+                .count();
+    return new IndexedClass("", name, declaredMethods, kinds, supertypes, annotations);
+  }
+
+  private void collectSupertypes(TypeElement type, Set<String> kinds, Set<String> supertypes) {
+    for (TypeMirror each : typeUtils().directSupertypes(type.asType())) {
+      if (each.getKind() != TypeKind.DECLARED) {
+        continue;
+      }
+      TypeElement supertype = (TypeElement) ((DeclaredType) each).asElement();
+      String name = elements().getBinaryName(supertype).toString();
+      if (Object.class.getName().equals(name) || !supertypes.add(name)) {
+        continue;
+      }
+      annotationsOf(supertype).forEach(it -> kinds.add(it.getAnnotation()));
+      collectSupertypes(supertype, kinds, supertypes);
+    }
+  }
+
+  /** @return the TestNG annotations on the type and on the methods and constructors it declares. */
+  private List<IndexedAnnotation> annotationsOf(TypeElement type) {
+    List<IndexedAnnotation> result = Lists.newArrayList();
+    addAnnotations(type, IndexedAnnotation.CLASS, result);
+    for (Element each : type.getEnclosedElements()) {
+      if (each.getKind() == ElementKind.METHOD) {
+        addAnnotations(each, each.getSimpleName().toString(), result);
+      } else if (each.getKind() == ElementKind.CONSTRUCTOR) {
+        addAnnotations(each, IndexedAnnotation.CONSTRUCTOR, result);
+      }
+    }
+    return result;
+  }
+
+  private void addAnnotations(Element element, String name, List<IndexedAnnotation> result) {
+    for (AnnotationMirror mirror : element.getAnnotationMirrors()) {
+      TypeElement annotationType = (TypeElement) mirror.getAnnotationType().asElement();
+      String packageName = elements().getPackageOf(annotationType).getQualifiedName().toString();
+      if (!ANNOTATIONS_PACKAGE.equals(packageName)) {
+        continue;
+      }
+      Map<String, String> attributes = Maps.newLinkedHashMap();
+      for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> each :
+          mirror.getElementValues().entrySet()) {
+        String attribute = each.getKey().getSimpleName().toString();
+        if (ATTRIBUTES.contains(attribute)) {
+          attributes.put(attribute, valueOf(each.getValue().getValue()));
+        }
+      }
+      result.add(
+          new IndexedAnnotation(annotationType.getSimpleName().toString(), name, attributes));
+    }
+  }
+
+  private String valueOf(Object value) {
+    if (value instanceof List) {
+      return ((List<?>) value)
+          .stream()
+          .map(it -> valueOf(((AnnotationValue) it).getValue()))
+          .collect(Collectors.joining(","));
+    }
+    if (value instanceof DeclaredType) {
+      TypeElement type = (TypeElement) ((DeclaredType) value).asElement();
+      return elements().getBinaryName(type).toString();
+    }
+    if (value instanceof VariableElement) {
+      return ((VariableElement) value).getSimpleName().toString();
+    }
+    return String.valueOf(value);
+  }
+
+  private void writeIndex() {
+    Filer filer = processingEnv.getFiler();
+    Map<String, IndexedClass> merged = new TreeMap<>();
+    for (IndexedClass each : readExistingIndex(filer)) {
+      // Classes that were not part of this compilation keep their entries as long as they exist
+      if (!compiled.contains(each.getName()) && classFileExists(filer, each)) {
+        merged.put(each.getName(), each);
+      }
+    }
+    merged.putAll(classes);
+    if (merged.isEmpty()) {
+      return;
+    }
+    try {
+      FileObject index =
+          filer.createResource(StandardLocation.CLASS_OUTPUT, "", TestIndex.LOCATION);
+      try (Writer writer = new OutputStreamWriter(index.openOutputStream(), UTF_8)) {
+        TestIndex.write(merged.values(), writer);
+      }
+    } catch (IOException e) {
+      processingEnv
+          .getMessager()
+          .printMessage(Diagnostic.Kind.WARNING, "Could not write the TestNG test index: " + e);
+    }
+  }
+
+  private static List<IndexedClass> readExistingIndex(Filer filer) {
+    try {
+      FileObject index = filer.getResource(StandardLocation.CLASS_OUTPUT, "", TestIndex.LOCATION);
+      try (Reader reader = new InputStreamReader(index.openInputStream(), UTF_8)) {
+        return TestIndex.read("", reader);
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      // There is no (usable) index yet
+      return Lists.newArrayList();
+    }
+  }
+
+  private static boolean classFileExists(Filer filer, IndexedClass indexedClass) {
+    try {
+      FileObject classFile =
+          filer.getResource(
+              StandardLocation.CLASS_OUTPUT,
+              indexedClass.getPackageName(),
+              indexedClass.getSimpleBinaryName() + ".class");
+      classFile.openInputStream().close();
+      return true;
+    } catch (IOException | IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  private Elements elements() {
+    return processingEnv.getElementUtils();
+  }
+
+  private Types typeUtils() {
+    return processingEnv.getTypeUtils();
+  }
+}
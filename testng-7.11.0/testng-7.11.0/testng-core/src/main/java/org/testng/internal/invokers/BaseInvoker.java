@@ -17,6 +17,8 @@ import org.testng.internal.ITestResultNotifier;
 import org.testng.internal.ListenerOrderDeterminer;
 import org.testng.internal.Utils;
 import org.testng.internal.annotations.IAnnotationFinder;
+import org.testng.internal.profiling.Phase;
+import org.testng.internal.profiling.PhaseProfiler;
 
 class BaseInvoker {
 
@@ -62,7 +64,21 @@ class BaseInvoker {
     if (noListenersPresent()) {
       return;
     }
+    PhaseProfiler.Sample sample =
+        m_configuration
+            .getPhaseProfiler()
+            .start(Phase.LISTENER_DISPATCH, testResult.getTestContext());
+    try {
+      runInvokedMethodListenersInternal(listenerMethod, invokedMethod, testResult);
+    } finally {
+      sample.close();
+    }
+  }
 
+  private void runInvokedMethodListenersInternal(
+      InvokedMethodListenerMethod listenerMethod,
+      IInvokedMethod invokedMethod,
+      ITestResult testResult) {
     InvokedMethodListenerInvoker invoker =
         new InvokedMethodListenerInvoker(listenerMethod, testResult, testResult.getTestContext());
     // For BEFORE_INVOCATION method, still run as insert order, but regarding AFTER_INVOCATION, it
@@ -11,6 +11,7 @@ import org.testng.ITestNGMethod;
 import org.testng.collections.Lists;
 import org.testng.collections.Sets;
 import org.testng.internal.MethodInstance;
+import org.testng.internal.Parameters;
 import org.testng.thread.IWorker;
 import org.testng.xml.XmlSuite;
 import org.testng.xml.XmlTest;
@@ -115,6 +116,6 @@ class ClassBasedParallelWorker extends AbstractParallelWorker {
 
   private static Map<String, String> getParameters(IMethodInstance im) {
     XmlTest xmlTest = im.getMethod().getXmlTest();
-    return im.getMethod().findMethodParameters(xmlTest);
+    return Parameters.findMethodParameterScope(im.getMethod(), xmlTest).asMap();
   }
 }
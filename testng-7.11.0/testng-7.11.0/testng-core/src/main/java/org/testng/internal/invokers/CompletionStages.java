@@ -0,0 +1,200 @@
+package org.testng.internal.invokers;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.testng.ITestNGMethod;
+import org.testng.internal.thread.ThreadTimeoutException;
+import org.testng.internal.thread.ThreadUtil;
+
+/**
+ * Helps with test and configuration methods that return a {@link CompletionStage} (for e.g., a
+ * {@link CompletableFuture}). Such a method is considered to have completed only when the stage it
+ * returned completes, and an exceptional completion is treated as if the method had thrown the
+ * exception itself.
+ *
+ * <p>A test method can be invoked without waiting for its stage (see {@link #invoke(Callable,
+ * ITestNGMethod, long)}), in which case its time out is enforced by a timer rather than by a thread
+ * that waits for it.
+ */
+final class CompletionStages {
+
+  private CompletionStages() {
+    // Utility class. Defeat instantiation.
+  }
+
+  /** @return <code>true</code> if the method hands back a {@link CompletionStage}. */
+  static boolean isAsync(Method method) {
+    return method != null && CompletionStage.class.isAssignableFrom(method.getReturnType());
+  }
+
+  /**
+   * Waits for <code>result</code> to complete, if it is a {@link CompletionStage}. If the wait is
+   * interrupted (for e.g., because the method timed out), the stage is cancelled.
+   *
+   * @throws InvocationTargetException - If the stage completed exceptionally (the cause being the
+   *     exception the stage completed with) or if the wait was interrupted.
+   */
+  static void await(Object result) throws InvocationTargetException {
+    if (!(result instanceof CompletionStage)) {
+      return;
+    }
+    CompletableFuture<?> future = toFuture((CompletionStage<?>) result);
+    try {
+      future.get();
+    } catch (ExecutionException e) {
+      throw new InvocationTargetException(unwrap(e.getCause()));
+    } catch (InterruptedException e) {
+      future.cancel(true);
+      Thread.currentThread().interrupt();
+      throw new InvocationTargetException(e);
+    }
+  }
+
+  /**
+   * Invokes a method that hands back a {@link CompletionStage}, without waiting for the stage. If
+   * the method has a time out, a timer enforces it: the thread running the method is interrupted
+   * if the method has not returned yet, and the stage is cancelled otherwise.
+   *
+   * @param invocation - Invokes the method
+   * @param tm - The method
+   * @param timeOutMillis - The time out of the method, or <code>0</code> if it has none
+   * @return a future that completes along with the stage, or exceptionally with the exception the
+   *     method threw, the exception the stage completed with or a {@link ThreadTimeoutException}
+   *     if the method timed out.
+   */
+  static CompletableFuture<Void> invoke(
+      Callable<Object> invocation, ITestNGMethod tm, long timeOutMillis) {
+    Outcome outcome = new Outcome(Thread.currentThread());
+    if (timeOutMillis > 0) {
+      ScheduledFuture<?> timer =
+          Timer.INSTANCE.schedule(
+              () -> outcome.timeOut(new ThreadTimeoutException(tm, timeOutMillis)),
+              timeOutMillis,
+              TimeUnit.MILLISECONDS);
+      outcome.whenComplete((ignored, error) -> timer.cancel(false));
+    }
+    Object result = null;
+    try {
+      result = invocation.call();
+    } catch (InvocationTargetException e) {
+      outcome.completeExceptionally(e.getCause());
+    } catch (Throwable t) {
+      outcome.completeExceptionally(t);
+    } finally {
+      outcome.returned();
+    }
+    if (result instanceof CompletionStage) {
+      outcome.follow(toFuture((CompletionStage<?>) result));
+    } else {
+      outcome.complete(null);
+    }
+    return outcome;
+  }
+
+  private static CompletableFuture<?> toFuture(CompletionStage<?> stage) {
+    try {
+      return stage.toCompletableFuture();
+    } catch (UnsupportedOperationException e) {
+      // Not every CompletionStage implementation can be converted.
+      CompletableFuture<Object> future = new CompletableFuture<>();
+      stage.whenComplete(
+          (value, error) -> {
+            if (error == null) {
+              future.complete(value);
+            } else {
+              future.completeExceptionally(error);
+            }
+          });
+      return future;
+    }
+  }
+
+  private static Throwable unwrap(Throwable t) {
+    Throwable cause = t;
+    while ((cause instanceof CompletionException || cause instanceof ExecutionException)
+        && cause.getCause() != null) {
+      cause = cause.getCause();
+    }
+    return cause;
+  }
+
+  /** The outcome of a method that hands back a stage, which its time out may cut short. */
+  private static final class Outcome extends CompletableFuture<Void> {
+
+    // The thread running the method, until the method returns
+    private Thread caller;
+    private boolean callerInterrupted;
+    private volatile CompletableFuture<?> stage;
+
+    Outcome(Thread caller) {
+      this.caller = caller;
+    }
+
+    synchronized void returned() {
+      caller = null;
+      if (callerInterrupted) {
+        // The time out is reported through the outcome already
+        Thread.interrupted();
+      }
+    }
+
+    void follow(CompletableFuture<?> stage) {
+      this.stage = stage;
+      if (isDone()) {
+        // Timed out before the method returned the stage
+        stage.cancel(true);
+      }
+      stage.whenComplete(
+          (value, error) -> {
+            if (error == null) {
+              complete(null);
+            } else {
+              completeExceptionally(unwrap(error));
+            }
+          });
+    }
+
+    void timeOut(ThreadTimeoutException exception) {
+      if (!completeExceptionally(exception)) {
+        return;
+      }
+      synchronized (this) {
+        if (caller != null) {
+          callerInterrupted = true;
+          caller.interrupt();
+        }
+      }
+      CompletableFuture<?> current = stage;
+      if (current != null) {
+        current.cancel(true);
+      }
+    }
+  }
+
+  // A single thread is enough, since all it does is to time out methods
+  private static final class Timer {
+
+    private static final ScheduledThreadPoolExecutor INSTANCE = newTimer();
+
+    private static ScheduledThreadPoolExecutor newTimer() {
+      ScheduledThreadPoolExecutor timer =
+          new ScheduledThreadPoolExecutor(
+              1,
+              r -> {
+                Thread thread = new Thread(r, ThreadUtil.THREAD_NAME + "-CompletionStageTimer");
+                thread.setDaemon(true);
+                return thread;
+              });
+      timer.setRemoveOnCancelPolicy(true);
+      return timer;
+    }
+  }
+}
@@ -21,6 +21,7 @@ import org.testng.ITestClass;
 import org.testng.ITestContext;
 import org.testng.ITestNGMethod;
 import org.testng.ITestResult;
+import org.testng.InvocationMetrics;
 import org.testng.ListenerComparator;
 import org.testng.Reporter;
 import org.testng.SuiteRunState;
@@ -42,6 +43,9 @@ import org.testng.internal.TestResult;
 import org.testng.internal.Utils;
 import org.testng.internal.annotations.AnnotationHelper;
 import org.testng.internal.invokers.ConfigMethodArguments.Builder;
+import org.testng.internal.jfr.FlightRecorderEvents;
+import org.testng.internal.profiling.Phase;
+import org.testng.internal.profiling.PhaseProfiler;
 import org.testng.internal.thread.ThreadUtil;
 import org.testng.xml.XmlClass;
 import org.testng.xml.XmlSuite;
@@ -233,7 +237,15 @@ class ConfigInvoker extends BaseInvoker implements IConfigInvoker {
       log(5, "No configuration methods found");
       return;
     }
+    PhaseProfiler.Sample sample = profileConfigurations(arguments.getConfigMethods());
+    try {
+      invokeConfigurationsInternal(arguments);
+    } finally {
+      sample.close();
+    }
+  }
 
+  private void invokeConfigurationsInternal(ConfigMethodArguments arguments) {
     ITestNGMethod[] methods =
         TestNgMethodUtils.filterMethods(
             null, arguments.getTestClass(), arguments.getConfigMethods(), SAME_CLASS);
@@ -327,10 +339,12 @@ class ConfigInvoker extends BaseInvoker implements IConfigInvoker {
         boolean isFirstTimeOnlyConfigMethod = isConfigMethodEligibleForScrutiny(tm);
         if (isFirstTimeOnlyConfigMethod) {
           if (m_executedConfigMethods.add(arguments.getTestMethod())) {
-            invokeConfigurationMethod(newInstance, tm, parameters, testResult);
+            invokeConfigurationMethod(
+                newInstance, tm, parameters, testResult, arguments.getTestMethodResult());
           }
         } else {
-          invokeConfigurationMethod(newInstance, tm, parameters, testResult);
+          invokeConfigurationMethod(
+              newInstance, tm, parameters, testResult, arguments.getTestMethodResult());
         }
         copyAttributesFromNativelyInjectedTestResult(parameters, arguments.getTestMethodResult());
         if (!isFirstTimeOnlyConfigMethod) {
@@ -356,11 +370,39 @@ class ConfigInvoker extends BaseInvoker implements IConfigInvoker {
     } // for methods
   }
 
+  private PhaseProfiler.Sample profileConfigurations(ITestNGMethod[] configMethods) {
+    PhaseProfiler profiler = m_configuration.getPhaseProfiler();
+    if (configMethods[0].isBeforeSuiteConfiguration()
+        || configMethods[0].isAfterSuiteConfiguration()) {
+      return profiler.start(Phase.CONFIGURATION_INVOCATION, m_testContext.getSuite());
+    }
+    return profiler.start(Phase.CONFIGURATION_INVOCATION, m_testContext);
+  }
+
   /** Effectively invokes a configuration method on all passed in instances. */
   // TODO: Change this method to be more like invokeMethod() so that we can handle calls to {@code
   // IInvokedMethodListener} better.
   private void invokeConfigurationMethod(
-      Object targetInstance, ITestNGMethod tm, Object[] params, ITestResult testResult)
+      Object targetInstance,
+      ITestNGMethod tm,
+      Object[] params,
+      ITestResult testResult,
+      ITestResult testMethodResult)
+      throws InvocationTargetException, IllegalAccessException {
+    FlightRecorderEvents.Scope scope = FlightRecorderEvents.configuration(tm);
+    try {
+      invokeConfigurationMethodInternal(targetInstance, tm, params, testResult, testMethodResult);
+    } finally {
+      scope.close();
+    }
+  }
+
+  private void invokeConfigurationMethodInternal(
+      Object targetInstance,
+      ITestNGMethod tm,
+      Object[] params,
+      ITestResult testResult,
+      ITestResult testMethodResult)
       throws InvocationTargetException, IllegalAccessException {
     // Mark this method with the current thread id
     tm.setId(ThreadUtil.currentThreadInfo());
@@ -381,6 +423,7 @@ class ConfigInvoker extends BaseInvoker implements IConfigInvoker {
       Reporter.setCurrentTestResult(null);
       return;
     }
+    InvocationMetricsProbe probe = InvocationMetricsProbe.NOOP;
     try {
       Reporter.setCurrentTestResult(testResult);
       ConstructorOrMethod method = tm.getConstructorOrMethod();
@@ -392,6 +435,11 @@ class ConfigInvoker extends BaseInvoker implements IConfigInvoker {
       }
       boolean willfullyIgnored = false;
       boolean usesConfigurableInstance = configurableInstance != null;
+      // Only a method run directly on this thread is charged the CPU time and allocations of it
+      probe =
+          usesConfigurableInstance || MethodHelper.calculateTimeOut(tm) > 0
+              ? InvocationMetricsProbe.startWallClock()
+              : InvocationMetricsProbe.start();
       if (usesConfigurableInstance) {
         willfullyIgnored =
             !MethodInvocationHelper.invokeConfigurable(
@@ -400,6 +448,7 @@ class ConfigInvoker extends BaseInvoker implements IConfigInvoker {
         MethodInvocationHelper.invokeMethodConsideringTimeout(
             tm, method, targetInstance, params, testResult, m_configuration);
       }
+      probe.stop();
       boolean testStatusRemainedUnchanged = testResult.isNotRunning();
       boolean throwException = !RuntimeBehavior.ignoreCallbackInvocationSkips();
       if (throwException
@@ -421,12 +470,30 @@ class ConfigInvoker extends BaseInvoker implements IConfigInvoker {
       throw new TestNGException(ex);
     } finally {
       testResult.setEndMillis(System.currentTimeMillis());
+      recordInvocationMetrics(tm, probe.stop(), testResult, testMethodResult);
       Reporter.setCurrentTestResult(testResult);
       runInvokedMethodListeners(AFTER_INVOCATION, invokedMethod, testResult);
       Reporter.setCurrentTestResult(null);
     }
   }
 
+  private static void recordInvocationMetrics(
+      ITestNGMethod tm,
+      InvocationMetrics metrics,
+      ITestResult testResult,
+      ITestResult testMethodResult) {
+    if (!metrics.isCaptured()) {
+      return;
+    }
+    if (testResult instanceof TestResult) {
+      ((TestResult) testResult).setInvocationMetrics(metrics);
+    }
+    boolean isMethodLevel = tm.isBeforeMethodConfiguration() || tm.isAfterMethodConfiguration();
+    if (isMethodLevel && testMethodResult instanceof TestResult) {
+      ((TestResult) testMethodResult).addConfigurationMetrics(metrics);
+    }
+  }
+
   private void throwConfigurationFailure(ITestResult testResult, Throwable ex) {
     testResult.setStatus(ITestResult.FAILURE);
     testResult.setThrowable(ex.getCause() == null ? ex : ex.getCause());
@@ -440,6 +507,16 @@ class ConfigInvoker extends BaseInvoker implements IConfigInvoker {
   }
 
   private void runConfigurationListeners(ITestResult tr, ITestNGMethod tm, boolean before) {
+    PhaseProfiler.Sample sample =
+        m_configuration.getPhaseProfiler().start(Phase.LISTENER_DISPATCH, tr.getTestContext());
+    try {
+      runConfigurationListenersInternal(tr, tm, before);
+    } finally {
+      sample.close();
+    }
+  }
+
+  private void runConfigurationListenersInternal(ITestResult tr, ITestNGMethod tm, boolean before) {
     ListenerComparator comparator = m_configuration.getListenerComparator();
     if (before) {
       TestListenerHelper.runPreConfigurationListeners(
@@ -559,6 +636,15 @@ class ConfigInvoker extends BaseInvoker implements IConfigInvoker {
 
   private final AutoCloseableLock internalLock = new AutoCloseableLock();
 
+  @Override
+  public void releaseInstance(Object instance) {
+    try (AutoCloseableLock ignore = internalLock.lock()) {
+      for (Set<Object> instances : m_classInvocationResults.values()) {
+        instances.remove(instance);
+      }
+    }
+  }
+
   private void setClassInvocationFailure(Class<?> clazz, Object instance) {
     try (AutoCloseableLock ignore = internalLock.lock()) {
       Set<Object> instances =
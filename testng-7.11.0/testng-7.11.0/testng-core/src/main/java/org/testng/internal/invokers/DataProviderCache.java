@@ -0,0 +1,418 @@
+package org.testng.internal.invokers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.testng.IAttributes;
+import org.testng.ITestContext;
+import org.testng.collections.Lists;
+import org.testng.collections.Maps;
+import org.testng.internal.RuntimeBehavior;
+import org.testng.internal.Utils;
+
+/**
+ * Shares the rows of a data provider between all the test methods that use it (within a <code>
+ * &lt;test&gt;</code> or a suite), so that it is only invoked once for all of them rather than
+ * once per test method. Enabled with <code>-Dtestng.dataprovider.cache=test</code> (or <code>
+ * suite</code>), which is only safe for data providers whose rows do not change from one
+ * invocation to the next, and whose rows are not modified by the test methods.
+ *
+ * <p>The rows are keyed by the data provider, the instance it is invoked on and the values that
+ * its parameters are resolved to. The rows of a data provider that takes the {@link Method} (or the
+ * {@link org.testng.ITestNGMethod}...) it provides rows for are therefore only reused by that
+ * method, and those of a data provider that takes the {@link ITestContext} only within that <code>
+ * &lt;test&gt;</code>, whatever the scope.
+ *
+ * <p>The rows of a data provider that returns an {@link Iterator} are cached as they are consumed,
+ * so that the test methods that use it share the rows consumed so far and consume the rest of them
+ * from the same iterator. Should the iterator fail, its rows are evicted and the data provider is
+ * invoked afresh for the test methods that need its rows next. The number of rows that are cached
+ * is capped: the least recently used data providers are evicted beyond it, or spilled to a file
+ * (outside the lock of the cache) if <code>-Dtestng.dataprovider.cache.spill=true</code> and all of
+ * their values are {@link Serializable}.
+ */
+public final class DataProviderCache {
+
+  private static final String ATTRIBUTE = "testng.data-provider-cache";
+
+  private final long maxRows;
+  private final boolean spill;
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<Key, Path> spilled = Maps.newHashMap();
+  // Evicted entries that are being written to a file
+  private final Map<Key, Entry> spilling = Maps.newHashMap();
+  private long cachedRows = 0;
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong evictions = new AtomicLong();
+  private final AtomicLong spills = new AtomicLong();
+
+  private DataProviderCache(long maxRows, boolean spill) {
+    this.maxRows = maxRows;
+    this.spill = spill;
+  }
+
+  /**
+   * @param context - The <code>&lt;test&gt;</code> that data providers are invoked for
+   * @return the cache that the rows of the data providers invoked for the <code>&lt;test&gt;</code>
+   *     are shared with, or <code>null</code> if they are not cached.
+   */
+  public static DataProviderCache of(ITestContext context) {
+    String scope = RuntimeBehavior.getDataProviderCacheScope();
+    IAttributes owner;
+    if ("test".equalsIgnoreCase(scope)) {
+      owner = context;
+    } else if ("suite".equalsIgnoreCase(scope)) {
+      owner = context.getSuite();
+    } else {
+      return null;
+    }
+    synchronized (owner) {
+      DataProviderCache cache = (DataProviderCache) owner.getAttribute(ATTRIBUTE);
+      if (cache == null) {
+        cache =
+            new DataProviderCache(
+                RuntimeBehavior.getDataProviderCacheMaxRows(),
+                RuntimeBehavior.spillDataProviderCache());
+        owner.setAttribute(ATTRIBUTE, cache);
+      }
+      return cache;
+    }
+  }
+
+  /** @return - The number of data provider invocations that were served from the cache. */
+  public long getHits() {
+    return hits.get();
+  }
+
+  /** @return - The number of data provider invocations that had to invoke the data provider. */
+  public long getMisses() {
+    return misses.get();
+  }
+
+  /** @return - The number of times the rows of a data provider were evicted from memory. */
+  public long getEvictions() {
+    return evictions.get();
+  }
+
+  /** @return - The number of times the rows of a data provider were spilled to a file. */
+  public long getSpills() {
+    return spills.get();
+  }
+
+  Iterator<Object[]> rows(
+      Method dataProvider,
+      Object instance,
+      List<Object> parameters,
+      Supplier<Iterator<Object[]>> invocation) {
+    Key key = new Key(dataProvider, instance, parameters);
+    Entry entry;
+    Path file = null;
+    List<Entry> evicted = Collections.emptyList();
+    synchronized (this) {
+      entry = entries.get(key);
+      if (entry == null) {
+        // Taken back before it got written
+        entry = spilling.remove(key);
+        if (entry != null) {
+          evicted = add(entry);
+        } else {
+          file = spilled.remove(key);
+        }
+      }
+    }
+    spill(evicted);
+    if (entry == null && file != null) {
+      entry = unspill(key, file);
+    }
+    if (entry != null) {
+      hits.incrementAndGet();
+      return entry.iterator();
+    }
+    misses.incrementAndGet();
+    // Invoked outside the lock, the way it would be without the cache (failures are not cached)
+    entry = new Entry(key, invocation.get());
+    synchronized (this) {
+      Entry existing = entries.get(key);
+      if (existing != null) {
+        // Another thread invoked it at the same time
+        entry = existing;
+      } else {
+        evicted = add(entry);
+      }
+    }
+    spill(evicted);
+    return entry.iterator();
+  }
+
+  /** @return the entries that were evicted to make room for the entry, and are to be spilled. */
+  private List<Entry> add(Entry entry) {
+    entries.put(entry.key, entry);
+    cachedRows += entry.size();
+    return evictIfNeeded();
+  }
+
+  private void consumed(Entry entry) {
+    List<Entry> evicted;
+    synchronized (this) {
+      if (entries.get(entry.key) != entry) {
+        return;
+      }
+      cachedRows++;
+      evicted = evictIfNeeded();
+    }
+    spill(evicted);
+  }
+
+  private synchronized void failed(Entry entry) {
+    // The next invocation gets rows of its own, rather than those of the failed iterator
+    if (entries.remove(entry.key, entry)) {
+      cachedRows -= entry.size();
+    }
+  }
+
+  private List<Entry> evictIfNeeded() {
+    List<Entry> evicted = Collections.emptyList();
+    Iterator<Entry> it = entries.values().iterator();
+    // Keeps the most recently used one, however big it is
+    while (cachedRows > maxRows && entries.size() > 1 && it.hasNext()) {
+      Entry eldest = it.next();
+      it.remove();
+      cachedRows -= eldest.size();
+      evictions.incrementAndGet();
+      if (spill && eldest.completeRows() != null) {
+        if (evicted.isEmpty()) {
+          evicted = Lists.newArrayList();
+        }
+        evicted.add(eldest);
+        spilling.put(eldest.key, eldest);
+      }
+    }
+    return evicted;
+  }
+
+  // Invoked outside the lock, so that other data providers are not kept waiting for the file
+  private void spill(List<Entry> evicted) {
+    for (Entry entry : evicted) {
+      Path file = write(entry);
+      synchronized (this) {
+        if (spilling.remove(entry.key, entry) && file != null) {
+          spilled.put(entry.key, file);
+          spills.incrementAndGet();
+          continue;
+        }
+      }
+      if (file != null) {
+        // It was needed again in the meantime
+        delete(file);
+      }
+    }
+  }
+
+  private static Path write(Entry entry) {
+    List<Object[]> rows = entry.completeRows();
+    if (!isSerializable(rows)) {
+      return null;
+    }
+    Path file = null;
+    try {
+      file = Files.createTempFile("testng-data-provider-", ".ser");
+      file.toFile().deleteOnExit();
+      try (OutputStream os = Files.newOutputStream(file);
+          ObjectOutputStream oos = new ObjectOutputStream(os)) {
+        oos.writeObject(new ArrayList<>(rows));
+      }
+      return file;
+    } catch (IOException e) {
+      // Invoked again when it is needed
+      Utils.log("DataProviderCache", 2, "Could not spill " + entry.key + ": " + e.getMessage());
+      if (file != null) {
+        delete(file);
+      }
+      return null;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private Entry unspill(Key key, Path file) {
+    Entry entry;
+    try (InputStream is = Files.newInputStream(file);
+        ObjectInputStream ois = new ObjectInputStream(is)) {
+      entry = new Entry(key, (List<Object[]>) ois.readObject());
+    } catch (IOException | ClassNotFoundException e) {
+      Utils.log("DataProviderCache", 2, "Could not read " + key + " back: " + e.getMessage());
+      return null;
+    } finally {
+      delete(file);
+    }
+    List<Entry> evicted = Collections.emptyList();
+    synchronized (this) {
+      Entry existing = entries.get(key);
+      if (existing != null) {
+        entry = existing;
+      } else {
+        evicted = add(entry);
+      }
+    }
+    spill(evicted);
+    return entry;
+  }
+
+  private static void delete(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException ignored) {
+      // Deleted on exit
+    }
+  }
+
+  private static boolean isSerializable(List<Object[]> rows) {
+    for (Object[] row : rows) {
+      for (Object value : row) {
+        if (value != null && !(value instanceof Serializable)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static final class Key {
+    private final Method dataProvider;
+    private final Object instance;
+    private final List<Object> parameters;
+
+    Key(Method dataProvider, Object instance, List<Object> parameters) {
+      this.dataProvider = dataProvider;
+      this.instance = instance;
+      this.parameters = parameters;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) o;
+      // The rows of a data provider may depend on the state of its instance
+      return instance == key.instance
+          && dataProvider.equals(key.dataProvider)
+          && parameters.equals(key.parameters);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(dataProvider, System.identityHashCode(instance), parameters);
+    }
+
+    @Override
+    public String toString() {
+      return dataProvider.getDeclaringClass().getName() + "." + dataProvider.getName() + "()";
+    }
+  }
+
+  /** The rows of a data provider, consumed from its iterator as they are first needed. */
+  private final class Entry {
+    private final Key key;
+    private final List<Object[]> rows;
+    private Iterator<Object[]> source;
+    // What the source failed with, if it did
+    private RuntimeException failure;
+
+    Entry(Key key, Iterator<Object[]> source) {
+      this.key = key;
+      this.rows = new ArrayList<>();
+      this.source = source;
+    }
+
+    Entry(Key key, List<Object[]> rows) {
+      this.key = key;
+      this.rows = rows;
+      this.source = null;
+    }
+
+    synchronized int size() {
+      return rows.size();
+    }
+
+    synchronized List<Object[]> completeRows() {
+      return source == null ? rows : null;
+    }
+
+    /** @return whether there is a row at the index, consuming it from the source if needed. */
+    private boolean hasRow(int index) {
+      RuntimeException error;
+      synchronized (this) {
+        if (index < rows.size()) {
+          return true;
+        }
+        if (failure != null) {
+          throw failure;
+        }
+        if (source == null) {
+          return false;
+        }
+        try {
+          if (!source.hasNext()) {
+            source = null;
+            return false;
+          }
+          rows.add(source.next());
+          error = null;
+        } catch (RuntimeException e) {
+          failure = e;
+          error = e;
+        }
+      }
+      if (error != null) {
+        failed(this);
+        throw error;
+      }
+      consumed(this);
+      return true;
+    }
+
+    private synchronized Object[] row(int index) {
+      return rows.get(index);
+    }
+
+    Iterator<Object[]> iterator() {
+      return new Iterator<Object[]>() {
+        private int index = 0;
+
+        @Override
+        public boolean hasNext() {
+          return hasRow(index);
+        }
+
+        @Override
+        public Object[] next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          return row(index++);
+        }
+      };
+    }
+  }
+}
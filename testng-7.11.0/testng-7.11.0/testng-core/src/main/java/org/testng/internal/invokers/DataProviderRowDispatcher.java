@@ -0,0 +1,218 @@
+package org.testng.internal.invokers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.testng.ITestResult;
+
+/**
+ * Runs the rows of a data provider that runs in parallel. Rather than handing every row over to the
+ * executor as a task of its own, it runs a task per thread (at most) that pulls rows from a queue
+ * and runs them back to back, in chunks. The size of the chunks adapts to how long the rows take,
+ * so that the handing over of a task costs little compared to running the rows of a chunk, while
+ * the thread of a task is given back to the executor often enough to balance the rows between the
+ * threads (and with the other tasks of a shared executor).
+ *
+ * <p>If the executor rejects a task, the rows that no task is going to run are given up on, and
+ * {@link #awaitResults()} reports the rejection once the rows that were already running are done.
+ */
+final class DataProviderRowDispatcher {
+
+  private static final int MAX_CHUNK_SIZE = 256;
+
+  private final ExecutorService service;
+  private final int parallelism;
+  private final long chunkDurationNanos;
+
+  private final List<Row> rows = new ArrayList<>();
+  private final Queue<Row> pending = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger runningTasks = new AtomicInteger();
+  // The rows that have not run yet, plus one until all of them were added
+  private final AtomicInteger remaining = new AtomicInteger(1);
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+  private final CompletableFuture<Void> done = new CompletableFuture<>();
+  private volatile long averageRowNanos = -1;
+
+  /**
+   * @param service - The executor to run the rows with
+   * @param parallelism - The number of threads of the executor, which is the most tasks it runs
+   * @param chunkDurationMicros - How long a chunk of rows should take to run, or <code>0</code> to
+   *     run each row as a task of its own
+   */
+  DataProviderRowDispatcher(ExecutorService service, int parallelism, long chunkDurationMicros) {
+    this.service = service;
+    this.parallelism = Math.max(parallelism, 1);
+    this.chunkDurationNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(chunkDurationMicros, 0));
+  }
+
+  /** Queues up a row, which starts running as soon as a thread is available. */
+  void dispatch(TestMethodWithDataProviderMethodWorker worker) {
+    Row row = new Row(worker);
+    rows.add(row);
+    remaining.incrementAndGet();
+    if (tryStartTask()) {
+      // A task of its own, so that the rows are spread over as many threads as there are rows (up
+      // to the parallelism), however fast they run
+      execute(new ChunkTask(row, worker));
+    } else {
+      pending.add(row);
+      startTaskIfNeeded();
+    }
+  }
+
+  /**
+   * Waits for all the rows to have run.
+   *
+   * @return the results of the rows, in the order of the rows.
+   * @throws CompletionException - If a row threw an exception, or the executor rejected a task.
+   */
+  List<ITestResult> awaitResults() {
+    rowDone();
+    done.join();
+    Throwable t = failure.get();
+    if (t != null) {
+      throw new CompletionException(t);
+    }
+    List<ITestResult> result = new ArrayList<>();
+    for (Row row : rows) {
+      result.addAll(row.results);
+    }
+    return result;
+  }
+
+  private boolean tryStartTask() {
+    while (true) {
+      int running = runningTasks.get();
+      if (running >= parallelism) {
+        return false;
+      }
+      if (runningTasks.compareAndSet(running, running + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private void startTaskIfNeeded() {
+    // Otherwise a running task will pick the rows up
+    while (!pending.isEmpty() && tryStartTask()) {
+      Row first = pending.poll();
+      if (first == null) {
+        runningTasks.decrementAndGet();
+      } else {
+        execute(new ChunkTask(first, first.worker));
+        return;
+      }
+    }
+  }
+
+  private void execute(ChunkTask task) {
+    try {
+      service.execute(task);
+    } catch (RejectedExecutionException e) {
+      runningTasks.decrementAndGet();
+      failure.compareAndSet(null, e);
+      giveUp(task);
+    }
+  }
+
+  /**
+   * Gives up on the rows of a task that was rejected, along with the queued up rows that no task
+   * might run anymore. The rows that other tasks are running are still waited for.
+   */
+  private void giveUp(ChunkTask task) {
+    if (task.first != null) {
+      task.first = null;
+      rowDone();
+    }
+    while (pending.poll() != null) {
+      rowDone();
+    }
+  }
+
+  private int chunkSize() {
+    long average = averageRowNanos;
+    if (chunkDurationNanos == 0 || average < 0) {
+      return 1;
+    }
+    long size = chunkDurationNanos / Math.max(average, 1);
+    return (int) Math.max(1, Math.min(size, MAX_CHUNK_SIZE));
+  }
+
+  private void measured(long rowNanos) {
+    long average = averageRowNanos;
+    // An exponential moving average, so that the chunks follow rows whose duration changes
+    averageRowNanos = average < 0 ? rowNanos : average + (rowNanos - average) / 4;
+  }
+
+  private void rowDone() {
+    if (remaining.decrementAndGet() == 0) {
+      done.complete(null);
+    }
+  }
+
+  private static final class Row {
+    private final TestMethodWithDataProviderMethodWorker worker;
+    private List<ITestResult> results;
+
+    Row(TestMethodWithDataProviderMethodWorker worker) {
+      this.worker = worker;
+    }
+  }
+
+  private class ChunkTask implements Runnable, Comparable<ChunkTask> {
+
+    private final TestMethodWithDataProviderMethodWorker worker;
+    private Row first;
+
+    ChunkTask(Row first, TestMethodWithDataProviderMethodWorker worker) {
+      this.first = first;
+      this.worker = worker;
+    }
+
+    @Override
+    public void run() {
+      int size = chunkSize();
+      for (int i = 0; i < size; i++) {
+        Row row = first == null ? pending.poll() : first;
+        first = null;
+        if (row == null) {
+          break;
+        }
+        run(row);
+      }
+      if (pending.isEmpty()) {
+        runningTasks.decrementAndGet();
+        // Rows may have been queued up after the last poll, while this task was still running
+        startTaskIfNeeded();
+      } else {
+        // Give the thread back to the executor between chunks
+        execute(this);
+      }
+    }
+
+    private void run(Row row) {
+      long start = System.nanoTime();
+      try {
+        row.results = row.worker.call();
+      } catch (Throwable t) {
+        failure.compareAndSet(null, t);
+      } finally {
+        measured(System.nanoTime() - start);
+        rowDone();
+      }
+    }
+
+    @Override
+    public int compareTo(ChunkTask o) {
+      return worker.compareTo(o.worker);
+    }
+  }
+}
@@ -23,4 +23,11 @@ public interface IConfigInvoker {
   void invokeConfigurations(ConfigMethodArguments arguments);
 
   IConfiguration getConfiguration();
+
+  /**
+   * Forgets the configuration failures recorded for an instance whose last method has run.
+   *
+   * @param instance The test instance
+   */
+  void releaseInstance(Object instance);
 }
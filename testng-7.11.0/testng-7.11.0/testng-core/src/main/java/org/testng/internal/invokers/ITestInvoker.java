@@ -30,6 +30,24 @@ public interface ITestInvoker {
       Object instance,
       ITestContext context);
 
+  /**
+   * Invokes the test methods like {@link #invokeTestMethods(ITestNGMethod,
+   * ConfigurationGroupMethods, Object, ITestContext)} does, except that the invocation of a method
+   * may be suspended rather than keeping the thread waiting for the method to complete.
+   *
+   * @param results - Where the results go, once the invocation (or its resumption) is over
+   * @return the suspended invocation, or <code>null</code> if the invocation is over.
+   */
+  default SuspendedInvocation invokeTestMethods(
+      ITestNGMethod testMethod,
+      ConfigurationGroupMethods groupMethods,
+      Object instance,
+      ITestContext context,
+      List<ITestResult> results) {
+    results.addAll(invokeTestMethods(testMethod, groupMethods, instance, context));
+    return null;
+  }
+
   ITestResult invokeTestMethod(
       TestMethodArguments arguments, XmlSuite suite, FailureContext failureContext);
 
@@ -0,0 +1,67 @@
+package org.testng.internal.invokers;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds the method to invoke on an instance whose class is not the one TestNG found the method in,
+ * which happens when the instance was created by an {@link org.testng.ITestObjectFactory} that
+ * loads classes from another class loader (TESTNG-326). Looking the method up again by name and
+ * parameter types is done once per method and class of instance, rather than every time the method
+ * is invoked.
+ */
+final class InstanceMethodResolver {
+
+  private static final ClassValue<Map<Method, Method>> RESOLVED =
+      new ClassValue<>() {
+        @Override
+        protected Map<Method, Method> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
+  private InstanceMethodResolver() {}
+
+  /**
+   * @param thisMethod - A non static method that cannot be invoked on the instance as is
+   * @param instance - The instance to invoke the method on
+   * @return the method with the same name and parameter types in the class of the instance.
+   */
+  static Method resolve(Method thisMethod, Object instance) {
+    Map<Method, Method> resolved = RESOLVED.get(instance.getClass());
+    Method result = resolved.get(thisMethod);
+    if (result == null) {
+      result = find(thisMethod, instance);
+      resolved.put(thisMethod, result);
+    }
+    return result;
+  }
+
+  private static Method find(Method thisMethod, Object instance) {
+    // not static, so grab a method with the same name and signature in this case
+    Class<?> clazz = instance.getClass();
+    try {
+      return clazz.getMethod(thisMethod.getName(), thisMethod.getParameterTypes());
+    } catch (Exception e) {
+      // ignore, the method may be private
+      for (; clazz != null; clazz = clazz.getSuperclass()) {
+        try {
+          return clazz.getDeclaredMethod(thisMethod.getName(), thisMethod.getParameterTypes());
+        } catch (Exception e2) {
+        }
+      }
+      // should we assert here? Or just allow it to fail on invocation?
+      if (thisMethod.getDeclaringClass().equals(instance.getClass())) {
+        throw new RuntimeException(
+            "Can't invoke method " + thisMethod + ", probably due to classloader mismatch");
+      }
+      throw new RuntimeException(
+          "Can't invoke method "
+              + thisMethod
+              + " on this instance of "
+              + instance.getClass()
+              + " due to class mismatch");
+    }
+  }
+}
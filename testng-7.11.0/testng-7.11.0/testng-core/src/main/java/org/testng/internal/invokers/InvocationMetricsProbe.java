@@ -0,0 +1,115 @@
+package org.testng.internal.invokers;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import org.testng.InvocationMetrics;
+import org.testng.internal.RuntimeBehavior;
+
+/**
+ * Captures {@link InvocationMetrics} for the current thread. A probe must be started and stopped on
+ * the same thread, which must also be the one that runs the method. When metrics capturing is
+ * disabled, a no-op probe is handed out so that callers don't have to sprinkle null checks on the
+ * invocation path.
+ */
+class InvocationMetricsProbe {
+
+  static final InvocationMetricsProbe NOOP =
+      new InvocationMetricsProbe(-1L, -1L, -1L) {
+        @Override
+        InvocationMetrics stop() {
+          return InvocationMetrics.NONE;
+        }
+      };
+
+  private final long startNanos;
+  private final long startCpuNanos;
+  private final long startAllocatedBytes;
+  private InvocationMetrics stopped;
+
+  private InvocationMetricsProbe(long startNanos, long startCpuNanos, long startAllocatedBytes) {
+    this.startNanos = startNanos;
+    this.startCpuNanos = startCpuNanos;
+    this.startAllocatedBytes = startAllocatedBytes;
+  }
+
+  static InvocationMetricsProbe start() {
+    if (!RuntimeBehavior.captureInvocationMetrics()) {
+      return NOOP;
+    }
+    return new InvocationMetricsProbe(
+        System.nanoTime(), Beans.currentThreadCpuTime(), Beans.currentThreadAllocatedBytes());
+  }
+
+  /**
+   * Only captures the wall clock time, for methods that run on another thread than the current one
+   * (because of a time out) or that are run by an {@link org.testng.IHookable} or an {@link
+   * org.testng.IConfigurable}: the CPU time and allocations of the current thread are not theirs.
+   */
+  static InvocationMetricsProbe startWallClock() {
+    if (!RuntimeBehavior.captureInvocationMetrics()) {
+      return NOOP;
+    }
+    return new InvocationMetricsProbe(System.nanoTime(), -1L, -1L);
+  }
+
+  /** @return the metrics captured up to the first time that the probe was stopped. */
+  InvocationMetrics stop() {
+    if (stopped == null) {
+      long duration = System.nanoTime() - startNanos;
+      stopped =
+          new InvocationMetrics(
+              duration,
+              delta(startCpuNanos, Beans.currentThreadCpuTime()),
+              delta(startAllocatedBytes, Beans.currentThreadAllocatedBytes()));
+    }
+    return stopped;
+  }
+
+  private static long delta(long start, long end) {
+    if (start < 0 || end < 0) {
+      return -1L;
+    }
+    return end - start;
+  }
+
+  /** Lazily resolves the MX beans so that nothing is loaded unless metrics are captured. */
+  private static final class Beans {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final boolean CPU_TIME_SUPPORTED = isCpuTimeSupported();
+    private static final com.sun.management.ThreadMXBean ALLOCATIONS = allocationsBean();
+
+    private static boolean isCpuTimeSupported() {
+      try {
+        return THREADS.isCurrentThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+      } catch (UnsupportedOperationException e) {
+        return false;
+      }
+    }
+
+    private static com.sun.management.ThreadMXBean allocationsBean() {
+      try {
+        if (!(THREADS instanceof com.sun.management.ThreadMXBean)) {
+          return null;
+        }
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREADS;
+        if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+          return bean;
+        }
+      } catch (UnsupportedOperationException | LinkageError e) {
+        // jdk.management is not available in this runtime
+      }
+      return null;
+    }
+
+    static long currentThreadCpuTime() {
+      return CPU_TIME_SUPPORTED ? THREADS.getCurrentThreadCpuTime() : -1L;
+    }
+
+    static long currentThreadAllocatedBytes() {
+      if (ALLOCATIONS == null) {
+        return -1L;
+      }
+      return ALLOCATIONS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+  }
+}
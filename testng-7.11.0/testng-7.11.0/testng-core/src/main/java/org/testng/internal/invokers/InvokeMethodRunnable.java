@@ -44,7 +44,7 @@ public class InvokeMethodRunnable implements Callable<Boolean> {
         ConstructorOrMethod m = m_method.getConstructorOrMethod();
         if (m_hookable == null) {
           invoked = true;
-          MethodInvocationHelper.invokeMethod(m.getMethod(), m_instance, m_parameters);
+          MethodInvocationHelper.invokeMethodAndAwait(m.getMethod(), m_instance, m_parameters);
         } else {
           invoked =
               MethodInvocationHelper.invokeHookable(
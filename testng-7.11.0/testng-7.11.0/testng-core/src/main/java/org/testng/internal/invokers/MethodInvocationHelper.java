@@ -11,6 +11,7 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
@@ -39,6 +40,7 @@ import org.testng.internal.collections.OneToTwoDimArrayIterator;
 import org.testng.internal.collections.OneToTwoDimIterator;
 import org.testng.internal.collections.Pair;
 import org.testng.internal.invokers.InvokeMethodRunnable.TestNGRuntimeException;
+import org.testng.internal.jfr.FlightRecorderEvents;
 import org.testng.internal.thread.TestNGThreadFactory;
 import org.testng.internal.thread.ThreadExecutionException;
 import org.testng.internal.thread.ThreadTimeoutException;
@@ -68,7 +70,7 @@ public class MethodInvocationHelper {
       IConfiguration config)
       throws Throwable {
     if (MethodHelper.calculateTimeOut(tm) <= 0) {
-      MethodInvocationHelper.invokeMethod(method.getMethod(), targetInstance, params);
+      MethodInvocationHelper.invokeMethodAndAwait(method.getMethod(), targetInstance, params);
     } else {
       MethodInvocationHelper.invokeWithTimeout(config, tm, targetInstance, params, testResult);
       if (!testResult.isSuccess()) {
@@ -86,6 +88,35 @@ public class MethodInvocationHelper {
     return invokeMethod(thisMethod, instance, parameters.toArray(new Object[0]));
   }
 
+  /**
+   * Invokes the method and, if it returned a {@link java.util.concurrent.CompletionStage}, waits
+   * for the stage to complete. An exceptional completion is reported as an {@link
+   * InvocationTargetException}, just like an exception that was thrown by the method itself.
+   */
+  protected static Object invokeMethodAndAwait(
+      Method thisMethod, Object instance, Object[] parameters)
+      throws InvocationTargetException, IllegalAccessException {
+    Object result = invokeMethod(thisMethod, instance, parameters);
+    CompletionStages.await(result);
+    return result;
+  }
+
+  /**
+   * Invokes a test method that returns a {@link java.util.concurrent.CompletionStage}, without
+   * waiting for the stage to complete. The time out of the method, if any, is enforced by a timer.
+   *
+   * @return a future that completes along with the stage, or exceptionally with what the method
+   *     threw, what the stage completed with, or a {@link ThreadTimeoutException} if the method
+   *     timed out.
+   */
+  protected static CompletableFuture<Void> invokeMethodAsync(
+      ITestNGMethod tm, Object instance, Object[] parameters) {
+    return CompletionStages.invoke(
+        () -> invokeMethod(tm.getConstructorOrMethod().getMethod(), instance, parameters),
+        tm,
+        MethodHelper.calculateTimeOut(tm));
+  }
+
   protected static Object invokeMethod(Method thisMethod, Object instance, Object[] parameters)
       throws InvocationTargetException, IllegalAccessException {
     Utils.checkInstanceOrStatic(instance, thisMethod);
@@ -98,36 +129,7 @@ public class MethodInvocationHelper {
       // is it static?
       boolean isStatic = Modifier.isStatic(thisMethod.getModifiers());
       if (!isStatic) {
-        // not static, so grab a method with the same name and signature in this case
-        Class<?> clazz = instance.getClass();
-        try {
-          thisMethod = clazz.getMethod(thisMethod.getName(), thisMethod.getParameterTypes());
-        } catch (Exception e) {
-          // ignore, the method may be private
-          boolean found = false;
-          for (; clazz != null; clazz = clazz.getSuperclass()) {
-            try {
-              thisMethod =
-                  clazz.getDeclaredMethod(thisMethod.getName(), thisMethod.getParameterTypes());
-              found = true;
-              break;
-            } catch (Exception e2) {
-            }
-          }
-          if (!found) {
-            // should we assert here? Or just allow it to fail on invocation?
-            if (thisMethod.getDeclaringClass().equals(instance.getClass())) {
-              throw new RuntimeException(
-                  "Can't invoke method " + thisMethod + ", probably due to classloader mismatch");
-            }
-            throw new RuntimeException(
-                "Can't invoke method "
-                    + thisMethod
-                    + " on this instance of "
-                    + instance.getClass()
-                    + " due to class mismatch");
-          }
-        }
+        thisMethod = InstanceMethodResolver.resolve(thisMethod, instance);
       }
     }
 
@@ -146,7 +148,6 @@ public class MethodInvocationHelper {
     return thisMethod.isAccessible();
   }
 
-  @SuppressWarnings("unchecked")
   public static Iterator<Object[]> invokeDataProvider(
       Object instance,
       Method dataProvider,
@@ -154,8 +155,39 @@ public class MethodInvocationHelper {
       ITestContext testContext,
       Object fedInstance,
       IAnnotationFinder annotationFinder) {
+    FlightRecorderEvents.Scope scope =
+        FlightRecorderEvents.dataProvider(dataProvider.getName(), method);
+    try {
+      return invokeDataProviderInternal(
+          instance, dataProvider, method, testContext, fedInstance, annotationFinder);
+    } finally {
+      scope.close();
+    }
+  }
+
+  private static Iterator<Object[]> invokeDataProviderInternal(
+      Object instance,
+      Method dataProvider,
+      ITestNGMethod method,
+      ITestContext testContext,
+      Object fedInstance,
+      IAnnotationFinder annotationFinder) {
     List<Object> parameters =
         getParameters(dataProvider, method, testContext, fedInstance, annotationFinder);
+    DataProviderCache cache = DataProviderCache.of(testContext);
+    if (cache == null) {
+      return invokeDataProvider(instance, dataProvider, parameters);
+    }
+    return cache.rows(
+        dataProvider,
+        instance,
+        parameters,
+        () -> invokeDataProvider(instance, dataProvider, parameters));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Iterator<Object[]> invokeDataProvider(
+      Object instance, Method dataProvider, List<Object> parameters) {
     Object result = invokeMethodNoCheckedException(dataProvider, instance, parameters);
     if (result == null) {
       throw new TestNGException("Data Provider " + dataProvider + " returned a null value");
@@ -257,7 +289,7 @@ public class MethodInvocationHelper {
           public void runTestMethod(ITestResult tr) {
             try {
               wasCalled.set(true);
-              invokeMethod(thisMethod, testInstance, parameters);
+              invokeMethodAndAwait(thisMethod, testInstance, parameters);
               error[0] = null;
               tr.setThrowable(null);
             } catch (Throwable t) {
@@ -459,7 +491,7 @@ public class MethodInvocationHelper {
           public void runConfigurationMethod(ITestResult tr) {
             try {
               wasCalled.set(true);
-              invokeMethod(thisMethod, instance, parameters);
+              invokeMethodAndAwait(thisMethod, instance, parameters);
               error[0] = null;
               tr.setThrowable(null);
             } catch (Throwable t) {
@@ -1,28 +1,22 @@
 package org.testng.internal.invokers;
 
-import static java.util.concurrent.CompletableFuture.allOf;
-
-import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
 import org.testng.ITestContext;
 import org.testng.ITestResult;
 import org.testng.collections.CollectionUtils;
 import org.testng.collections.Lists;
 import org.testng.internal.ObjectBag;
 import org.testng.internal.Parameters;
+import org.testng.internal.RuntimeBehavior;
 import org.testng.internal.invokers.ITestInvoker.FailureContext;
 import org.testng.internal.invokers.TestMethodArguments.Builder;
-import org.testng.internal.thread.Async;
 import org.testng.internal.thread.TestNGThreadFactory;
 import org.testng.xml.XmlSuite;
 
@@ -112,7 +106,11 @@ public class MethodRunner implements IMethodRunner {
     boolean reUse = suite.isShareThreadPoolForDataProviders() || suite.useGlobalThreadPool();
 
     ExecutorService service = getOrCreate(reUse, suite, objectBag);
-    List<CompletableFuture<List<ITestResult>>> all = new ArrayList<>();
+    int threadCount =
+        suite.useGlobalThreadPool() ? suite.getThreadCount() : suite.getDataProviderThreadCount();
+    DataProviderRowDispatcher dispatcher =
+        new DataProviderRowDispatcher(
+            service, threadCount, RuntimeBehavior.getDataProviderChunkDuration());
     for (Object[] next : CollectionUtils.asIterable(allParamValues)) {
       if (next == null) {
         // skipped value
@@ -140,25 +138,13 @@ public class MethodRunner implements IMethodRunner {
               invocationCount.get(),
               failure.count.get(),
               testInvoker.getNotifier());
-      all.add(Async.run(w, service));
+      dispatcher.dispatch(w);
       // testng387: increment the param index in the bag.
       parametersIndex += 1;
     }
 
-    // don't block on execution of any of the completablefuture
-    CompletableFuture<Void> combined = allOf(all.toArray(new CompletableFuture[0]));
-
-    // Now start processing the results of each of the CompletableFutures as and when they
-    // become available
-    List<ITestResult> result =
-        combined
-            .thenApply(
-                ignored ->
-                    all.stream()
-                        .map(CompletableFuture::join)
-                        .flatMap(Collection::stream)
-                        .collect(Collectors.toList()))
-            .join();
+    // Wait for all the rows, whose results are in the order of the rows
+    List<ITestResult> result = dispatcher.awaitResults();
     if (!reUse) {
       service.shutdown();
     }
@@ -0,0 +1,36 @@
+package org.testng.internal.invokers;
+
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * The invocation of a test method that handed back a {@link CompletionStage} and that was
+ * suspended, rather than keeping its thread waiting for the stage to complete. Once the stage has
+ * completed, the invocation is resumed to finish the test result (its status, the listeners, the
+ * after-methods and the retries, if any).
+ */
+public final class SuspendedInvocation {
+
+  private final CompletionStage<?> stage;
+  private final Supplier<SuspendedInvocation> resumption;
+
+  SuspendedInvocation(CompletionStage<?> stage, Supplier<SuspendedInvocation> resumption) {
+    this.stage = stage;
+    this.resumption = resumption;
+  }
+
+  /** @return the stage whose completion the invocation waits for. */
+  public CompletionStage<?> getStage() {
+    return stage;
+  }
+
+  /**
+   * Resumes the invocation, on the thread that is to go on with it, once its stage has completed.
+   *
+   * @return the invocation, if it got suspended again (for e.g., to retry the method), or <code>
+   *     null</code> if it is over.
+   */
+  public SuspendedInvocation resume() {
+    return resumption.get();
+  }
+}
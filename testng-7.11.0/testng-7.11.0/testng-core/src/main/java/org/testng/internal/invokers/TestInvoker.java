@@ -7,7 +7,6 @@ import static org.testng.internal.invokers.ParameterHandler.*;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -17,8 +16,10 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.testng.DataProviderHolder;
 import org.testng.IClassListener;
@@ -50,6 +51,9 @@ import org.testng.internal.*;
 import org.testng.internal.IObject;
 import org.testng.internal.invokers.GroupConfigMethodArguments.Builder;
 import org.testng.internal.invokers.InvokeMethodRunnable.TestNGRuntimeException;
+import org.testng.internal.jfr.FlightRecorderEvents;
+import org.testng.internal.profiling.Phase;
+import org.testng.internal.profiling.PhaseProfiler;
 import org.testng.internal.thread.ThreadExecutionException;
 import org.testng.internal.thread.ThreadUtil;
 import org.testng.thread.IWorker;
@@ -61,6 +65,8 @@ class TestInvoker extends BaseInvoker implements ITestInvoker {
   private final DataProviderHolder holder;
   private final List<IClassListener> m_classListeners;
   private final boolean m_skipFailedInvocationCounts;
+  private final ParameterRetention m_parameterRetention = ParameterRetention.current();
+  private final int m_parameterSnapshotLength = RuntimeBehavior.getParameterSnapshotLength();
 
   public TestInvoker(
       ITestResultNotifier m_notifier,
@@ -96,6 +102,35 @@ class TestInvoker extends BaseInvoker implements ITestInvoker {
       ConfigurationGroupMethods groupMethods,
       Object instance,
       ITestContext context) {
+    List<ITestResult> results = Lists.newArrayList();
+    invokeTestMethods(testMethod, groupMethods, instance, context, results, false);
+    return results;
+  }
+
+  /**
+   * Same as {@link #invokeTestMethods(ITestNGMethod, ConfigurationGroupMethods, Object,
+   * ITestContext)}, except that a test method that hands back a {@link
+   * java.util.concurrent.CompletionStage} has its invocation suspended rather than its thread kept
+   * waiting for the stage. Only a method that is invoked once, with parameters that do not come
+   * from a data provider and without an {@link IHookable}, is suspended this way.
+   */
+  @Override
+  public SuspendedInvocation invokeTestMethods(
+      ITestNGMethod testMethod,
+      ConfigurationGroupMethods groupMethods,
+      Object instance,
+      ITestContext context,
+      List<ITestResult> results) {
+    return invokeTestMethods(testMethod, groupMethods, instance, context, results, true);
+  }
+
+  private SuspendedInvocation invokeTestMethods(
+      ITestNGMethod testMethod,
+      ConfigurationGroupMethods groupMethods,
+      Object instance,
+      ITestContext context,
+      List<ITestResult> results,
+      boolean suspendable) {
     // Potential bug here if the test method was declared on a parent class
     if (testMethod.getTestClass() == null) {
       throw new IllegalArgumentException(
@@ -105,10 +140,11 @@ class TestInvoker extends BaseInvoker implements ITestInvoker {
     if (!MethodHelper.isEnabled(
         testMethod.getConstructorOrMethod().getMethod(), annotationFinder())) {
       // return if the method is not enabled. No need to do any more calculations
-      return Collections.emptyList();
+      return null;
     }
 
-    Map<String, String> parameters = testMethod.findMethodParameters(context.getCurrentXmlTest());
+    Map<String, String> parameters =
+        Parameters.findMethodParameterScope(testMethod, context.getCurrentXmlTest()).asMap();
     // By the time this testMethod to be invoked,
     // all dependencies should be already run or we need to skip this method,
     // so invocation count should not affect dependencies check
@@ -118,7 +154,6 @@ class TestInvoker extends BaseInvoker implements ITestInvoker {
       //
       // Not okToProceed. Test is being skipped
       //
-      List<ITestResult> results = new ArrayList<>();
       Consumer<ITestResult> resultProcessor =
           result -> {
             m_notifier.addSkippedTest(testMethod, result);
@@ -154,6 +189,8 @@ class TestInvoker extends BaseInvoker implements ITestInvoker {
           results.add(result);
         }
       } else {
+        // Its data provider is not going to be invoked
+        DataProviderPrefetcher.discard(testMethod);
         ITestResult result =
             registerSkippedTestResult(
                 testMethod, System.currentTimeMillis(), new Throwable(okToProceed));
@@ -169,12 +206,13 @@ class TestInvoker extends BaseInvoker implements ITestInvoker {
               .withParameters(parameters)
               .build();
       this.invoker.invokeAfterGroupsConfigurations(args);
-      return Collections.unmodifiableList(results);
+      return null;
     }
 
     // For invocationCount > 1 and threadPoolSize > 1 run this method in its own pool thread.
     if (testMethod.getInvocationCount() > 1 && testMethod.getThreadPoolSize() > 1) {
-      return invokePooledTestMethods(testMethod, parameters, groupMethods, context);
+      results.addAll(invokePooledTestMethods(testMethod, parameters, groupMethods, context));
+      return null;
     }
 
     long timeOutInvocationCount = testMethod.getInvocationTimeOut();
@@ -199,11 +237,29 @@ class TestInvoker extends BaseInvoker implements ITestInvoker {
             .usingGroupMethods(groupMethods)
             .build();
     MethodInvocationAgent agent = new MethodInvocationAgent(arguments, this, context);
+    if (suspendable && invocationCount == 1 && canSuspend(testMethod, instance)) {
+      return agent.invokeSuspendable(results);
+    }
     while (invocationCount-- > 0) {
       invocationCount = agent.invoke(invocationCount);
     }
 
-    return agent.getResult();
+    results.addAll(agent.getResult());
+    return null;
+  }
+
+  private boolean canSuspend(ITestNGMethod testMethod, Object instance) {
+    return !testMethod.isDataDriven()
+        && testMethod.getInvocationTimeOut() <= 0
+        && !RuntimeBehavior.isDryRun()
+        && hookableFor(testMethod, instance) == null
+        && CompletionStages.isAsync(testMethod.getConstructorOrMethod().getMethod());
+  }
+
+  private IHookable hookableFor(ITestNGMethod testMethod, Object instance) {
+    return IHookable.class.isAssignableFrom(testMethod.getRealClass())
+        ? (IHookable) instance
+        : m_configuration.getHookable();
   }
 
   /**
@@ -240,38 +296,56 @@ class TestInvoker extends BaseInvoker implements ITestInvoker {
     failure.representsRetriedMethod.set(true);
     do {
       failure.instances = Lists.newArrayList();
-      boolean cacheData =
-          Optional.ofNullable(arguments.getTestMethod().getDataProviderMethod())
-              .map(IDataProviderMethod::cacheDataForTestRetries)
-              .orElse(false);
-      if (!cacheData) {
-        Map<String, String> allParameters = Maps.newHashMap();
-        int verbose = testContext.getCurrentXmlTest().getVerbose();
-        ParameterHandler handler =
-            new ParameterHandler(
-                m_configuration.getObjectFactory(), annotationFinder(), this.holder, verbose);
-
-        ParameterBag bag =
-            handler.createParameters(
-                arguments.getTestMethod(), arguments.getParameters(), allParameters, testContext);
-        if (bag.hasErrors()) {
-          continue;
-        }
+      TestMethodArguments tma = argumentsForRetry(arguments, testContext);
+      if (tma == null) {
+        continue;
       }
-      Object[] parameterValues = arguments.getParameterValues();
-      TestMethodArguments tma =
-          new TestMethodArguments.Builder()
-              .usingArguments(arguments)
-              .withParameterValues(parameterValues)
-              .withParameters(arguments.getParameters())
-              .build();
 
       result.add(invokeMethod(tma, testContext.getSuite().getXmlSuite(), failure));
     } while (!failure.instances.isEmpty());
     return failure;
   }
 
+  /** @return the arguments to retry a method with, or null if its parameters have errors now. */
+  private TestMethodArguments argumentsForRetry(
+      TestMethodArguments arguments, ITestContext testContext) {
+    boolean cacheData =
+        Optional.ofNullable(arguments.getTestMethod().getDataProviderMethod())
+            .map(IDataProviderMethod::cacheDataForTestRetries)
+            .orElse(false);
+    if (!cacheData) {
+      Map<String, String> allParameters = Maps.newHashMap();
+      int verbose = testContext.getCurrentXmlTest().getVerbose();
+      ParameterHandler handler =
+          new ParameterHandler(
+              m_configuration.getObjectFactory(), annotationFinder(), this.holder, verbose);
+
+      ParameterBag bag =
+          handler.createParameters(
+              arguments.getTestMethod(), arguments.getParameters(), allParameters, testContext);
+      if (bag.hasErrors()) {
+        return null;
+      }
+    }
+    Object[] parameterValues = arguments.getParameterValues();
+    return new TestMethodArguments.Builder()
+        .usingArguments(arguments)
+        .withParameterValues(parameterValues)
+        .withParameters(arguments.getParameters())
+        .build();
+  }
+
   public void runTestResultListener(ITestResult tr) {
+    PhaseProfiler.Sample sample =
+        m_configuration.getPhaseProfiler().start(Phase.LISTENER_DISPATCH, tr.getTestContext());
+    try {
+      runTestResultListenerInternal(tr);
+    } finally {
+      sample.close();
+    }
+  }
+
+  private void runTestResultListenerInternal(ITestResult tr) {
     // For onTestStart method, still run as insert order
     // but regarding
     // onTestSkipped/onTestFailedButWithinSuccessPercentage/onTestFailedWithTimeout/onTestFailure/onTestSuccess, it should be reverse order.
@@ -538,6 +612,84 @@ class TestInvoker extends BaseInvoker implements ITestInvoker {
     int status;
   }
 
+  /** Takes over an invocation that gets suspended until the stage of its method completes. */
+  private static class Suspension {
+
+    private CompletableFuture<Void> outcome;
+    private Runnable completion;
+
+    boolean isSuspended() {
+      return outcome != null;
+    }
+
+    void suspend(CompletableFuture<Void> outcome, Runnable completion) {
+      this.outcome = outcome;
+      this.completion = completion;
+    }
+
+    void andThen(Runnable next) {
+      Runnable previous = completion;
+      completion =
+          () -> {
+            try {
+              previous.run();
+            } finally {
+              next.run();
+            }
+          };
+    }
+  }
+
+  /**
+   * Invokes a method, suspending the invocation if the method hands back a stage that has not
+   * completed yet.
+   *
+   * @param then - Goes on with the result, once the invocation is over
+   * @return the suspended invocation, or whatever <code>then</code> returned if the invocation was
+   *     not suspended.
+   */
+  private SuspendedInvocation invokeSuspendable(
+      TestMethodArguments arguments,
+      ITestContext context,
+      FailureContext failure,
+      Function<ITestResult, SuspendedInvocation> then) {
+    Suspension suspension = new Suspension();
+    ITestResult result =
+        invokeMethod(arguments, context.getSuite().getXmlSuite(), failure, suspension);
+    if (!suspension.isSuspended()) {
+      return then.apply(result);
+    }
+    return new SuspendedInvocation(
+        suspension.outcome,
+        () -> {
+          suspension.completion.run();
+          return then.apply(result);
+        });
+  }
+
+  /** Retries a suspendable invocation for as long as its retry analyzer asks for it. */
+  private SuspendedInvocation retrySuspendable(
+      TestMethodArguments arguments,
+      ITestContext context,
+      FailureContext failure,
+      List<ITestResult> results) {
+    failure.instances = Lists.newArrayList();
+    TestMethodArguments tma = argumentsForRetry(arguments, context);
+    if (tma == null) {
+      return null;
+    }
+    return invokeSuspendable(
+        tma,
+        context,
+        failure,
+        result -> {
+          results.add(result);
+          return failure.instances.isEmpty()
+              ? null
+              : retrySuspendable(arguments, context, failure, results);
+        });
+  }
+
   private void handleInvocationResult(
       ITestNGMethod testMethod,
       ITestResult testResult,
@@ -581,6 +733,42 @@ class TestInvoker extends BaseInvoker implements ITestInvoker {
   // pass both paramValues and paramIndex to be thread safe in case parallel=true + dataprovider.
   private ITestResult invokeMethod(
       TestMethodArguments arguments, XmlSuite suite, FailureContext failureContext) {
+    return invokeMethod(arguments, suite, failureContext, null);
+  }
+
+  /**
+   * @param suspension - Takes the invocation over if the method hands back a stage that has not
+   *     completed yet, or <code>null</code> to wait for the stage
+   * @return the result of the invocation, which is only complete if it was not suspended.
+   */
+  private ITestResult invokeMethod(
+      TestMethodArguments arguments,
+      XmlSuite suite,
+      FailureContext failureContext,
+      Suspension suspension) {
+    FlightRecorderEvents.Scope scope =
+        FlightRecorderEvents.testInvocation(
+            arguments.getTestMethod(), arguments.getParametersIndex());
+    boolean suspended = false;
+    try {
+      ITestResult result = invokeMethodInternal(arguments, suite, failureContext, suspension);
+      if (suspension != null && suspension.isSuspended()) {
+        suspended = true;
+        suspension.andThen(scope::close);
+      }
+      return result;
+    } finally {
+      if (!suspended) {
+        scope.close();
+      }
+    }
+  }
+
+  private ITestResult invokeMethodInternal(
+      TestMethodArguments arguments,
+      XmlSuite suite,
+      FailureContext failureContext,
+      Suspension suspension) {
     TestResult testResult = TestResult.newEmptyTestResult();
     testResult.setParameters(arguments.getParameterValues());
     testResult.setParameterIndex(arguments.getParametersIndex());
@@ -626,6 +814,8 @@ class TestInvoker extends BaseInvoker implements ITestInvoker {
       return result;
     }
 
+    InvocationMetricsProbe probe = InvocationMetricsProbe.NOOP;
+    boolean suspended = false;
     //
     // Create the ExtraOutput for this method
     //
@@ -666,14 +856,43 @@ class TestInvoker extends BaseInvoker implements ITestInvoker {
       }
 
       // If this method is a IHookable, invoke its run() method
-      IHookable hookableInstance =
-          IHookable.class.isAssignableFrom(arguments.getTestMethod().getRealClass())
-              ? (IHookable) arguments.getInstance()
-              : m_configuration.getHookable();
+      IHookable hookableInstance = hookableFor(arguments.getTestMethod(), arguments.getInstance());
 
       boolean willfullyIgnored = false;
       boolean usesHookableInstance = hookableInstance != null;
-      if (MethodHelper.calculateTimeOut(arguments.getTestMethod()) <= 0) {
+      boolean timesOut = MethodHelper.calculateTimeOut(arguments.getTestMethod()) > 0;
+      // A method that hands back a stage has its time out (if any) enforced by a timer instead
+      boolean async =
+          !usesHookableInstance
+              && arguments.getTestMethod().getInvocationTimeOut() <= 0
+              && CompletionStages.isAsync(thisMethod);
+      // Only a method run directly on this thread is charged the CPU time and allocations of it
+      probe =
+          timesOut || usesHookableInstance || async
+              ? InvocationMetricsProbe.startWallClock()
+              : InvocationMetricsProbe.start();
+      if (async) {
+        CompletableFuture<Void> outcome =
+            MethodInvocationHelper.invokeMethodAsync(
+                arguments.getTestMethod(), arguments.getInstance(), arguments.getParameterValues());
+        if (suspension != null && !outcome.isDone()) {
+          suspended = true;
+          TestResult result = testResult;
+          InvokedMethod invoked = invokedMethod;
+          InvocationMetricsProbe metrics = probe;
+          suspension.suspend(
+              outcome,
+              () ->
+                  resumeInvocation(
+                      arguments, suite, failureContext, result, invoked, metrics, outcome));
+          // The thread goes on with other work until the stage completes
+          Reporter.setCurrentTestResult(null);
+          return testResult;
+        }
+        CompletionStages.await(outcome);
+        probe.stop();
+        setTestStatus(testResult, ITestResult.SUCCESS);
+      } else if (!timesOut) {
         if (usesHookableInstance) {
           willfullyIgnored =
               !MethodInvocationHelper.invokeHookable(
@@ -684,9 +903,10 @@ class TestInvoker extends BaseInvoker implements ITestInvoker {
                   testResult);
         } else {
           // Not a IHookable, invoke directly
-          MethodInvocationHelper.invokeMethod(
+          MethodInvocationHelper.invokeMethodAndAwait(
               thisMethod, arguments.getInstance(), arguments.getParameterValues());
         }
+        probe.stop();
         if (!willfullyIgnored) {
           setTestStatus(testResult, ITestResult.SUCCESS);
         }
@@ -700,6 +920,7 @@ class TestInvoker extends BaseInvoker implements ITestInvoker {
                 arguments.getParameterValues(),
                 testResult,
                 hookableInstance);
+        probe.stop();
       }
       boolean testStatusRemainedUnchanged = testResult.isNotRunning();
       boolean throwException = !RuntimeBehavior.ignoreCallbackInvocationSkips();
@@ -730,65 +951,102 @@ class TestInvoker extends BaseInvoker implements ITestInvoker {
       }
       setTestStatus(testResult, status);
     } finally {
-      // Set end time ASAP
-      testResult.setEndMillis(System.currentTimeMillis());
-      cleanInterruptStatus();
-      ExpectedExceptionsHolder expectedExceptionClasses =
-          new ExpectedExceptionsHolder(
-              annotationFinder(),
-              arguments.getTestMethod(),
-              new RegexpExpectedExceptionsHolder(annotationFinder(), arguments.getTestMethod()));
-      StatusHolder holder =
-          considerExceptions(
-              arguments.getTestMethod(), testResult, expectedExceptionClasses, failureContext);
-      // After considering exceptions, the test status may have gotten updated.
-      // So lets update our test status with the latest status obtained from StatusHolder
-      testResult.setStatus(holder.status);
-      runInvokedMethodListeners(AFTER_INVOCATION, invokedMethod, testResult);
-      updateStatusHolderAccordingToTestResult(testResult, holder);
-      boolean willRetryMethod =
-          shouldRetryTestMethod(arguments.getTestMethod(), testResult, failureContext, holder);
-      handleInvocationResult(
-          arguments.getTestMethod(), testResult, failureContext, holder, willRetryMethod);
-
-      // If this method has a data provider and just failed, memorize the number
-      // at which it failed.
-      // Note: we're not exactly testing that this method has a data provider, just
-      // that it has parameters, so might have to revisit this if bugs get reported
-      // for the case where this method has parameters that don't come from a data
-      // provider
-      if (testResult.getThrowable() != null
-          && (arguments.getParameterValues().length > 0
-              || testResult.getFactoryParameters().length > 0)) {
-        int parametersIndex = arguments.getParametersIndex();
-        if (null != testResult.getMethod().getFactoryMethodParamsInfo()) {
-          parametersIndex = testResult.getMethod().getFactoryMethodParamsInfo().getIndex();
-        }
-        if (!willRetryMethod) {
-          arguments.getTestMethod().addFailedInvocationNumber(parametersIndex);
-        }
+      if (!suspended) {
+        finishInvocation(arguments, suite, failureContext, testResult, invokedMethod, probe);
       }
+    }
 
-      //
-      // Increment the invocation count for this method
-      //
-      arguments.getTestMethod().incrementCurrentInvocationCount();
-
-      runTestResultListener(testResult);
+    return testResult;
+  }
 
-      collectResults(arguments.getTestMethod(), testResult);
+  /** Finishes the invocation of a method that was suspended until its stage completed. */
+  private void resumeInvocation(
+      TestMethodArguments arguments,
+      XmlSuite suite,
+      FailureContext failureContext,
+      TestResult testResult,
+      InvokedMethod invokedMethod,
+      InvocationMetricsProbe probe,
+      CompletableFuture<Void> outcome) {
+    Reporter.setCurrentTestResult(testResult);
+    try {
+      // The stage has completed already
+      CompletionStages.await(outcome);
+      setTestStatus(testResult, ITestResult.SUCCESS);
+    } catch (InvocationTargetException ite) {
+      testResult.setThrowable(ite.getCause());
+      setTestStatus(testResult, ITestResult.FAILURE);
+    } finally {
+      finishInvocation(arguments, suite, failureContext, testResult, invokedMethod, probe);
+    }
+  }
 
-      runAfterConfigurations(arguments, suite, testResult);
+  private void finishInvocation(
+      TestMethodArguments arguments,
+      XmlSuite suite,
+      FailureContext failureContext,
+      TestResult testResult,
+      InvokedMethod invokedMethod,
+      InvocationMetricsProbe probe) {
+    // Set end time ASAP
+    testResult.setEndMillis(System.currentTimeMillis());
+    testResult.setInvocationMetrics(probe.stop());
+    cleanInterruptStatus();
+    ExpectedExceptionsHolder expectedExceptionClasses =
+        new ExpectedExceptionsHolder(
+            annotationFinder(),
+            arguments.getTestMethod(),
+            new RegexpExpectedExceptionsHolder(annotationFinder(), arguments.getTestMethod()));
+    StatusHolder holder =
+        considerExceptions(
+            arguments.getTestMethod(), testResult, expectedExceptionClasses, failureContext);
+    // After considering exceptions, the test status may have gotten updated.
+    // So lets update our test status with the latest status obtained from StatusHolder
+    testResult.setStatus(holder.status);
+    runInvokedMethodListeners(AFTER_INVOCATION, invokedMethod, testResult);
+    updateStatusHolderAccordingToTestResult(testResult, holder);
+    boolean willRetryMethod =
+        shouldRetryTestMethod(arguments.getTestMethod(), testResult, failureContext, holder);
+    handleInvocationResult(
+        arguments.getTestMethod(), testResult, failureContext, holder, willRetryMethod);
+
+    // If this method has a data provider and just failed, memorize the number
+    // at which it failed.
+    // Note: we're not exactly testing that this method has a data provider, just
+    // that it has parameters, so might have to revisit this if bugs get reported
+    // for the case where this method has parameters that don't come from a data
+    // provider
+    if (testResult.getThrowable() != null
+        && (arguments.getParameterValues().length > 0
+            || testResult.getFactoryParameters().length > 0)) {
+      int parametersIndex = arguments.getParametersIndex();
+      if (null != testResult.getMethod().getFactoryMethodParamsInfo()) {
+        parametersIndex = testResult.getMethod().getFactoryMethodParamsInfo().getIndex();
+      }
       if (!willRetryMethod) {
-        runAfterGroupsConfigurations(arguments);
+        arguments.getTestMethod().addFailedInvocationNumber(parametersIndex);
       }
+    }
+
+    //
+    // Increment the invocation count for this method
+    //
+    arguments.getTestMethod().incrementCurrentInvocationCount();
+
+    runTestResultListener(testResult);
 
-      // Reset the test result last. If we do this too early, Reporter.log()
-      // invocations from listeners will be discarded
-      Reporter.setCurrentTestResult(null);
+    collectResults(arguments.getTestMethod(), testResult);
+
+    runAfterConfigurations(arguments, suite, testResult);
+    if (!willRetryMethod) {
+      runAfterGroupsConfigurations(arguments);
+      // Nothing reads the parameters during the run any more, only reporters at the end of it
+      testResult.retainParameters(m_parameterRetention, m_parameterSnapshotLength);
     }
 
-    return testResult;
+    // Reset the test result last. If we do this too early, Reporter.log()
+    // invocations from listeners will be discarded
+    Reporter.setCurrentTestResult(null);
   }
 
   private static void cleanInterruptStatus() {
@@ -936,40 +1194,9 @@ class TestInvoker extends BaseInvoker implements ITestInvoker {
       AtomicInteger invocationCount = new AtomicInteger(invCount);
       long start = System.currentTimeMillis();
 
-      Map<String, String> allParameterNames = Maps.newHashMap();
-      int verbose = context.getCurrentXmlTest().getVerbose();
-      ParameterHandler handler =
-          new ParameterHandler(
-              m_configuration.getObjectFactory(),
-              annotationFinder(),
-              buildDataProviderHolder(),
-              verbose);
-
-      ParameterBag bag =
-          handler.createParameters(
-              arguments.getTestMethod(),
-              arguments.getParameters(),
-              allParameterNames,
-              context,
-              arguments.getInstance());
-
+      ParameterBag bag = createParameters();
       if (bag.hasErrors()) {
-        ITestResult tr = bag.errorResult;
-        Throwable throwable = Objects.requireNonNull(tr).getThrowable();
-        boolean bubbleUpFailures =
-            m_configuration.isPropagateDataProviderFailureAsTestFailure()
-                || bag.isBubbleUpFailures();
-
-        if (!(throwable instanceof SkipException)
-            && (throwable instanceof TestNGException || bubbleUpFailures)) {
-          tr.setStatus(ITestResult.FAILURE);
-          m_notifier.addFailedTest(arguments.getTestMethod(), tr);
-        } else {
-          tr.setStatus(ITestResult.SKIP);
-          m_notifier.addSkippedTest(arguments.getTestMethod(), tr);
-        }
-        runTestResultListener(tr);
-        result.add(tr);
+        reportParameterErrors(bag);
         return invocationCount.get();
       }
 
@@ -1015,5 +1242,89 @@ class TestInvoker extends BaseInvoker implements ITestInvoker {
       } // catch
       return invocationCount.get();
     }
+
+    /**
+     * Invokes a method that is invoked once, with parameters that do not come from a data
+     * provider, suspending the invocation if the method hands back a stage that has not completed
+     * yet.
+     *
+     * @return the suspended invocation, or <code>null</code> if the invocation is over.
+     */
+    SuspendedInvocation invokeSuspendable(List<ITestResult> results) {
+      ParameterBag bag = createParameters();
+      if (bag.hasErrors()) {
+        reportParameterErrors(bag);
+        results.addAll(result);
+        return null;
+      }
+      Iterator<Object[]> allParameterValues =
+          Objects.requireNonNull(bag.parameterHolder).parameters;
+      Object[] next = allParameterValues.hasNext() ? allParameterValues.next() : null;
+      if (next == null) {
+        return null;
+      }
+      Object[] parameterValues =
+          Parameters.injectParameters(
+              next, arguments.getTestMethod().getConstructorOrMethod().getMethod(), context);
+      TestMethodArguments tmArguments =
+          new TestMethodArguments.Builder()
+              .usingArguments(arguments)
+              .withParameterValues(parameterValues)
+              .withParametersIndex(0)
+              .build();
+      tmArguments.getTestMethod().setId(ThreadUtil.currentThreadInfo());
+      return TestInvoker.this.invokeSuspendable(
+          tmArguments,
+          context,
+          failure,
+          tmpResult -> {
+            if (failure.instances.isEmpty() || tmpResult.getStatus() == ITestResult.SUCCESS) {
+              results.add(tmpResult);
+              return null;
+            }
+            // Same as retryFailed()
+            FailureContext retry = new FailureContext();
+            retry.count.set(failure.count.get());
+            retry.representsRetriedMethod.set(true);
+            return retrySuspendable(tmArguments, context, retry, results);
+          });
+    }
+
+    private ParameterBag createParameters() {
+      Map<String, String> allParameterNames = Maps.newHashMap();
+      int verbose = context.getCurrentXmlTest().getVerbose();
+      ParameterHandler handler =
+          new ParameterHandler(
+              m_configuration.getObjectFactory(),
+              annotationFinder(),
+              buildDataProviderHolder(),
+              verbose);
+
+      return handler.createParameters(
+          arguments.getTestMethod(),
+          arguments.getParameters(),
+          allParameterNames,
+          context,
+          arguments.getInstance());
+    }
+
+    private void reportParameterErrors(ParameterBag bag) {
+      ITestResult tr = bag.errorResult;
+      Throwable throwable = Objects.requireNonNull(tr).getThrowable();
+      boolean bubbleUpFailures =
+          m_configuration.isPropagateDataProviderFailureAsTestFailure()
+              || bag.isBubbleUpFailures();
+
+      if (!(throwable instanceof SkipException)
+          && (throwable instanceof TestNGException || bubbleUpFailures)) {
+        tr.setStatus(ITestResult.FAILURE);
+        m_notifier.addFailedTest(arguments.getTestMethod(), tr);
+      } else {
+        tr.setStatus(ITestResult.SKIP);
+        m_notifier.addSkippedTest(arguments.getTestMethod(), tr);
+      }
+      runTestResultListener(tr);
+      result.add(tr);
+    }
   }
 }
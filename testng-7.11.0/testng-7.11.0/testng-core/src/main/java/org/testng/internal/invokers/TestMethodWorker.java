@@ -4,10 +4,12 @@ import static org.testng.ListenerComparator.sort;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 import javax.annotation.Nonnull;
 import org.testng.ClassMethodMap;
 import org.testng.IClassListener;
@@ -20,6 +22,10 @@ import org.testng.collections.Lists;
 import org.testng.collections.Sets;
 import org.testng.internal.*;
 import org.testng.internal.invokers.ConfigMethodArguments.Builder;
+import org.testng.internal.jfr.FlightRecorderEvents;
+import org.testng.internal.profiling.Phase;
+import org.testng.internal.profiling.PhaseProfiler;
+import org.testng.internal.thread.graph.ISuspendableWorker;
 import org.testng.thread.IWorker;
 
 /**
@@ -30,7 +36,7 @@ import org.testng.thread.IWorker;
  * <p>This class implements Runnable and will invoke the ITestMethod passed in its constructor on
  * its run() method.
  */
-public class TestMethodWorker implements IWorker<ITestNGMethod> {
+public class TestMethodWorker implements ISuspendableWorker<ITestNGMethod> {
 
   // Map of the test methods and their associated instances
   // It has to be a set because the same method can be passed several times
@@ -47,6 +53,12 @@ public class TestMethodWorker implements IWorker<ITestNGMethod> {
   private boolean completed = true;
   private final ITestInvoker m_testInvoker;
   private final IConfigInvoker m_configInvoker;
+  private final boolean m_releaseFinishedInstances = RuntimeBehavior.releaseFinishedInstances();
+  // The method instances left to run and the invocation that is suspended, if any, when the worker
+  // is run through runUntilSuspended()
+  private Iterator<IMethodInstance> m_pending;
+  private IMethodInstance m_current;
+  private SuspendedInvocation m_suspended;
 
   private static final KeyAwareAutoCloseableLock lock = new KeyAwareAutoCloseableLock();
 
@@ -140,6 +152,71 @@ public class TestMethodWorker implements IWorker<ITestNGMethod> {
     }
   }
 
+  /**
+   * Runs all the ITestNGMethods passed in through the constructor, like {@link #run()} does, except
+   * that the worker is suspended while a method waits for the {@link
+   * java.util.concurrent.CompletionStage} it handed back, rather than keeping the thread waiting.
+   */
+  @Override
+  public CompletionStage<?> runUntilSuspended() {
+    if (m_pending == null) {
+      if (RuntimeBehavior.enforceThreadAffinity()) {
+        // Resuming on another thread would defeat the affinity
+        run();
+        return null;
+      }
+      this.currentThreadId = Thread.currentThread().getId();
+      m_pending = m_methodInstances.iterator();
+    } else {
+      SuspendedInvocation suspended = m_suspended;
+      m_suspended = null;
+      try {
+        m_suspended = suspended.resume();
+      } finally {
+        if (m_suspended == null) {
+          invokeAfterClassMethods(m_current);
+        }
+      }
+      if (m_suspended != null) {
+        return m_suspended.getStage();
+      }
+    }
+
+    while (m_pending.hasNext()) {
+      m_current = m_pending.next();
+      ITestNGMethod testMethod = m_current.getMethod();
+      if (canInvokeBeforeClassMethods()) {
+        Object key = Objects.requireNonNull(IInstanceIdentity.getInstanceId(testMethod));
+        try (KeyAwareAutoCloseableLock.AutoReleasable ignored = lock.lockForObject(key)) {
+          invokeBeforeClassMethods(testMethod.getTestClass(), m_current);
+        }
+      }
+
+      // Invoke test method
+      try {
+        m_suspended =
+            m_testInvoker.invokeTestMethods(
+                testMethod, m_groupMethods, testMethod.getInstance(), m_testContext, m_testResults);
+      } finally {
+        if (m_suspended == null) {
+          invokeAfterClassMethods(m_current);
+        }
+      }
+      if (m_suspended != null) {
+        return m_suspended.getStage();
+      }
+    }
+    return null;
+  }
+
+  private void invokeAfterClassMethods(IMethodInstance testMethodInstance) {
+    ITestNGMethod testMethod = testMethodInstance.getMethod();
+    Object key = Objects.requireNonNull(IInstanceIdentity.getInstanceId(testMethod));
+    try (KeyAwareAutoCloseableLock.AutoReleasable ignored = lock.lockForObject(key)) {
+      invokeAfterClassMethods(testMethod.getTestClass(), testMethodInstance);
+    }
+  }
+
   private boolean doesTaskHavePreRequisites() {
     return threadIdToRunOn != -1;
   }
@@ -171,24 +248,30 @@ public class TestMethodWorker implements IWorker<ITestNGMethod> {
     Object instance = mi.getInstance();
     if (!instances.contains(instance)) {
       instances.add(instance);
-      List<IClassListener> original =
-          sort(m_listeners, m_configInvoker.getConfiguration().getListenerComparator());
-      for (IClassListener listener : original) {
-        listener.onBeforeClass(testClass);
+      FlightRecorderEvents.Scope scope =
+          FlightRecorderEvents.testClass(testClass.getRealClass(), "start");
+      try {
+        invokeBeforeClass(testClass, instance);
+      } finally {
+        scope.close();
       }
-      ConfigMethodArguments attributes =
-          new Builder()
-              .forTestClass(testClass)
-              .usingConfigMethodsAs(
-                  ((ITestClassConfigInfo) testClass).getInstanceBeforeClassMethods(instance))
-              .forSuite(m_testContext.getSuite().getXmlSuite())
-              .usingParameters(m_parameters)
-              .usingInstance(instance)
-              .build();
-      m_configInvoker.invokeConfigurations(attributes);
     }
   }
 
+  private void invokeBeforeClass(ITestClass testClass, Object instance) {
+    invokeListenersOnBeforeClass(testClass, m_listeners);
+    ConfigMethodArguments attributes =
+        new Builder()
+            .forTestClass(testClass)
+            .usingConfigMethodsAs(
+                ((ITestClassConfigInfo) testClass).getInstanceBeforeClassMethods(instance))
+            .forSuite(m_testContext.getSuite().getXmlSuite())
+            .usingParameters(m_parameters)
+            .usingInstance(instance)
+            .build();
+    m_configInvoker.invokeConfigurations(attributes);
+  }
+
   /** Invoke the @AfterClass methods if not done already */
   protected void invokeAfterClassMethods(ITestClass testClass, IMethodInstance mi) {
     // if no BeforeClass than return immediately
@@ -215,6 +298,19 @@ public class TestMethodWorker implements IWorker<ITestNGMethod> {
       invokeInstances.add(inst);
     }
 
+    FlightRecorderEvents.Scope scope =
+        FlightRecorderEvents.testClass(testClass.getRealClass(), "end");
+    try {
+      invokeAfterClass(testClass, invokeInstances);
+    } finally {
+      scope.close();
+    }
+    if (m_releaseFinishedInstances) {
+      releaseInstance(testClass, tm, inst);
+    }
+  }
+
+  private void invokeAfterClass(ITestClass testClass, List<Object> invokeInstances) {
     if (RuntimeBehavior.useSymmetricListenerExecution()) {
       invokeAfterClassConfigurations(testClass, invokeInstances);
       invokeListenersOnAfterClass(testClass, m_listeners);
@@ -224,6 +320,22 @@ public class TestMethodWorker implements IWorker<ITestNGMethod> {
     }
   }
 
+  /**
+   * Drops the references that TestNG holds to an instance whose last method and @AfterClass
+   * methods have run, so that it can be garbage collected before the end of the run.
+   */
+  private void releaseInstance(ITestClass testClass, ITestNGMethod tm, Object instance) {
+    m_classMethodMap.release(testClass, instance);
+    if (testClass instanceof ITestClassConfigInfo) {
+      ((ITestClassConfigInfo) testClass).releaseInstance(instance);
+    }
+    m_configInvoker.releaseInstance(instance);
+    if (tm instanceof BaseTestMethod) {
+      // Also releases the instance from the other methods of the instance, as they share it
+      ((BaseTestMethod) tm).releaseInstance();
+    }
+  }
+
   private void invokeAfterClassConfigurations(ITestClass testClass, List<Object> invokeInstances) {
     for (Object invokeInstance : invokeInstances) {
       ConfigMethodArguments attributes =
@@ -239,14 +351,55 @@ public class TestMethodWorker implements IWorker<ITestNGMethod> {
     }
   }
 
+  private void invokeListenersOnBeforeClass(ITestClass testClass, List<IClassListener> listeners) {
+    if (listeners.isEmpty()) {
+      return;
+    }
+    List<IClassListener> original =
+        sort(listeners, m_configInvoker.getConfiguration().getListenerComparator());
+    PhaseProfiler.Sample sample = startListenerDispatch();
+    try {
+      for (IClassListener listener : original) {
+        FlightRecorderEvents.Scope scope = FlightRecorderEvents.listener(listener, "onBeforeClass");
+        try {
+          listener.onBeforeClass(testClass);
+        } finally {
+          scope.close();
+        }
+      }
+    } finally {
+      sample.close();
+    }
+  }
+
   private void invokeListenersOnAfterClass(ITestClass testClass, List<IClassListener> listeners) {
+    if (listeners.isEmpty()) {
+      return;
+    }
     List<IClassListener> original =
         sort(listeners, m_configInvoker.getConfiguration().getListenerComparator());
-    for (IClassListener listener : original) {
-      listener.onAfterClass(testClass);
+    PhaseProfiler.Sample sample = startListenerDispatch();
+    try {
+      for (IClassListener listener : original) {
+        FlightRecorderEvents.Scope scope = FlightRecorderEvents.listener(listener, "onAfterClass");
+        try {
+          listener.onAfterClass(testClass);
+        } finally {
+          scope.close();
+        }
+      }
+    } finally {
+      sample.close();
     }
   }
 
+  private PhaseProfiler.Sample startListenerDispatch() {
+    return m_configInvoker
+        .getConfiguration()
+        .getPhaseProfiler()
+        .start(Phase.LISTENER_DISPATCH, m_testContext);
+  }
+
   protected int indexOf(ITestNGMethod tm, ITestNGMethod[] allTestMethods) {
     for (int i = 0; i < allTestMethods.length; i++) {
       if (allTestMethods[i] == tm) {
@@ -0,0 +1,133 @@
+package org.testng.internal.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The Java Flight Recorder event types emitted by TestNG. They are instantiated only via {@link
+ * FlightRecorderEvents}, which makes sure that no event is created unless a recording is active.
+ */
+final class Events {
+
+  private static final String CATEGORY = "TestNG";
+
+  private Events() {
+    // Defeat instantiation.
+  }
+
+  /** Base class for all TestNG events. Closing the scope commits the event. */
+  @Category(CATEGORY)
+  @StackTrace(false)
+  abstract static class TestNGEvent extends Event implements FlightRecorderEvents.Scope {
+
+    @Override
+    public void close() {
+      commit();
+    }
+  }
+
+  @Name("org.testng.Suite")
+  @Label("Suite")
+  @Description("Execution of a <suite>")
+  static final class Suite extends TestNGEvent {
+    @Label("Suite")
+    String suite;
+  }
+
+  @Name("org.testng.Test")
+  @Label("Test")
+  @Description("Execution of a <test>")
+  static final class Test extends TestNGEvent {
+    @Label("Suite")
+    String suite;
+
+    @Label("Test")
+    String test;
+  }
+
+  @Name("org.testng.TestClass")
+  @Label("Test Class")
+  @Description("Class level lifecycle: @BeforeClass (start) and @AfterClass (end) processing")
+  static final class TestClass extends TestNGEvent {
+    @Label("Test Class")
+    Class<?> testClass;
+
+    @Label("Phase")
+    String phase;
+  }
+
+  @Name("org.testng.ConfigurationInvocation")
+  @Label("Configuration Invocation")
+  @Description("Invocation of a configuration method")
+  static final class ConfigurationInvocation extends TestNGEvent {
+    @Label("Test Class")
+    Class<?> testClass;
+
+    @Label("Method")
+    String method;
+  }
+
+  @Name("org.testng.TestInvocation")
+  @Label("Test Invocation")
+  @Description("Invocation of a test method including its @BeforeMethod and @AfterMethod")
+  static final class TestInvocation extends TestNGEvent {
+    @Label("Test Class")
+    Class<?> testClass;
+
+    @Label("Method")
+    String method;
+
+    @Label("Parameter Index")
+    int parameterIndex;
+  }
+
+  @Name("org.testng.DataProvider")
+  @Label("Data Provider")
+  @Description("Evaluation of a data provider")
+  static final class DataProvider extends TestNGEvent {
+    @Label("Data Provider")
+    String dataProvider;
+
+    @Label("Test Class")
+    Class<?> testClass;
+
+    @Label("Method")
+    String method;
+  }
+
+  @Name("org.testng.Listener")
+  @Label("Listener")
+  @Description("Invocation of a listener callback")
+  static final class Listener extends TestNGEvent {
+    @Label("Listener Class")
+    Class<?> listenerClass;
+
+    @Label("Callback")
+    String callback;
+  }
+
+  @Name("org.testng.QueueWait")
+  @Label("Queue Wait")
+  @Description("Time spent by scheduled work waiting for a worker thread")
+  static final class QueueWait extends TestNGEvent {
+    @Label("Tasks")
+    String tasks;
+
+    @Label("Wait Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long waitTime;
+  }
+
+  @Name("org.testng.Reporter")
+  @Label("Reporter")
+  @Description("Report generation by an IReporter")
+  static final class Reporter extends TestNGEvent {
+    @Label("Reporter Class")
+    Class<?> reporterClass;
+  }
+}
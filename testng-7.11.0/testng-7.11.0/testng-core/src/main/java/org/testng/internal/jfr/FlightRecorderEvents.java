@@ -0,0 +1,237 @@
+package org.testng.internal.jfr;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.testng.IReporter;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+/**
+ * Emits TestNG specific Java Flight Recorder events so that the test code, the framework overhead
+ * and lock contention can be seen on the same timeline of a recording.
+ *
+ * <p>Events are only created while a recording is active. At all other times every factory method
+ * returns a shared no-op {@link Scope}, so the cost on the invocation path is a volatile read.
+ *
+ * <p>Usage:
+ *
+ * <pre>
+ * FlightRecorderEvents.Scope scope = FlightRecorderEvents.testInvocation(method, index);
+ * try {
+ *   // do work
+ * } finally {
+ *   scope.close();
+ * }
+ * </pre>
+ */
+public final class FlightRecorderEvents {
+
+  /** Represents a span of work that ends (and is committed) when closed. */
+  public interface Scope extends AutoCloseable {
+
+    @Override
+    void close();
+  }
+
+  private static final Scope NOOP = () -> {};
+
+  private FlightRecorderEvents() {
+    // Utility class. Defeat instantiation.
+  }
+
+  /** @return - <code>true</code> if there is at least one Flight Recording that is running. */
+  public static boolean isRecording() {
+    return RecordingTracker.isRecording();
+  }
+
+  public static Scope suite(String suiteName) {
+    if (!isRecording()) {
+      return NOOP;
+    }
+    Events.Suite event = new Events.Suite();
+    event.suite = suiteName;
+    event.begin();
+    return event;
+  }
+
+  public static Scope test(String suiteName, String testName) {
+    if (!isRecording()) {
+      return NOOP;
+    }
+    Events.Test event = new Events.Test();
+    event.suite = suiteName;
+    event.test = testName;
+    event.begin();
+    return event;
+  }
+
+  /**
+   * @param testClass - The test class.
+   * @param phase - Either <code>start</code> (@BeforeClass) or <code>end</code> (@AfterClass)
+   * @return - A {@link Scope} that records the class level lifecycle phase.
+   */
+  public static Scope testClass(Class<?> testClass, String phase) {
+    if (!isRecording()) {
+      return NOOP;
+    }
+    Events.TestClass event = new Events.TestClass();
+    event.testClass = testClass;
+    event.phase = phase;
+    event.begin();
+    return event;
+  }
+
+  public static Scope configuration(ITestNGMethod method) {
+    if (!isRecording()) {
+      return NOOP;
+    }
+    Events.ConfigurationInvocation event = new Events.ConfigurationInvocation();
+    event.testClass = method.getRealClass();
+    event.method = method.getMethodName();
+    event.begin();
+    return event;
+  }
+
+  public static Scope testInvocation(ITestNGMethod method, int parameterIndex) {
+    if (!isRecording()) {
+      return NOOP;
+    }
+    Events.TestInvocation event = new Events.TestInvocation();
+    event.testClass = method.getRealClass();
+    event.method = method.getMethodName();
+    event.parameterIndex = parameterIndex;
+    event.begin();
+    return event;
+  }
+
+  public static Scope dataProvider(String dataProvider, ITestNGMethod method) {
+    if (!isRecording()) {
+      return NOOP;
+    }
+    Events.DataProvider event = new Events.DataProvider();
+    event.dataProvider = dataProvider;
+    event.testClass = method.getRealClass();
+    event.method = method.getMethodName();
+    event.begin();
+    return event;
+  }
+
+  public static Scope listener(Object listener, String callback) {
+    if (!isRecording()) {
+      return NOOP;
+    }
+    Events.Listener event = new Events.Listener();
+    event.listenerClass = listener.getClass();
+    event.callback = callback;
+    event.begin();
+    return event;
+  }
+
+  /**
+   * @param listener - The listener being invoked.
+   * @param result - The result whose status determines which <code>ITestListener</code> callback
+   *     is invoked.
+   * @return - A {@link Scope} that records the listener callback.
+   */
+  public static Scope testListener(Object listener, ITestResult result) {
+    if (!isRecording()) {
+      return NOOP;
+    }
+    return listener(listener, testListenerCallback(result.getStatus()));
+  }
+
+  /**
+   * Records the time that some work waited for a thread. A JFR event has to begin and end on the
+   * same thread, so it is recorded once a thread starts working on it, from the time that it was
+   * handed over to the executor.
+   *
+   * @param work - The work that was queued. Its <code>toString()</code> is only computed while
+   *     recording.
+   * @param queuedAtNanos - The {@link System#nanoTime()} at which the work was handed over to the
+   *     executor.
+   */
+  public static void queueWait(Object work, long queuedAtNanos) {
+    if (!isRecording()) {
+      return;
+    }
+    Events.QueueWait event = new Events.QueueWait();
+    event.tasks = String.valueOf(work);
+    event.waitTime = System.nanoTime() - queuedAtNanos;
+    event.commit();
+  }
+
+  public static Scope reporter(IReporter reporter) {
+    if (!isRecording()) {
+      return NOOP;
+    }
+    Events.Reporter event = new Events.Reporter();
+    event.reporterClass = reporter.getClass();
+    event.begin();
+    return event;
+  }
+
+  private static String testListenerCallback(int status) {
+    switch (status) {
+      case ITestResult.SKIP:
+        return "onTestSkipped";
+      case ITestResult.SUCCESS_PERCENTAGE_FAILURE:
+        return "onTestFailedButWithinSuccessPercentage";
+      case ITestResult.FAILURE:
+        return "onTestFailure";
+      case ITestResult.SUCCESS:
+        return "onTestSuccess";
+      case ITestResult.STARTED:
+        return "onTestStart";
+      default:
+        return "unknown";
+    }
+  }
+
+  /**
+   * Keeps track of the recordings that are running. The JFR module is optional at runtime, so if
+   * it cannot be found, recording is considered to be permanently off.
+   */
+  private static final class RecordingTracker {
+
+    private static final Set<Long> running = ConcurrentHashMap.newKeySet();
+    private static volatile boolean recording = false;
+
+    static {
+      try {
+        register();
+      } catch (LinkageError | SecurityException | IllegalStateException e) {
+        // jdk.jfr is not available (or not permitted). Nothing to record.
+      }
+    }
+
+    static boolean isRecording() {
+      return recording;
+    }
+
+    private static void register() {
+      FlightRecorder.addListener(
+          new FlightRecorderListener() {
+            @Override
+            public void recordingStateChanged(Recording r) {
+              update(r);
+            }
+          });
+      if (FlightRecorder.isInitialized()) {
+        FlightRecorder.getFlightRecorder().getRecordings().forEach(RecordingTracker::update);
+      }
+    }
+
+    private static void update(Recording r) {
+      if (r.getState() == RecordingState.RUNNING) {
+        running.add(r.getId());
+      } else {
+        running.remove(r.getId());
+      }
+      recording = !running.isEmpty();
+    }
+  }
+}
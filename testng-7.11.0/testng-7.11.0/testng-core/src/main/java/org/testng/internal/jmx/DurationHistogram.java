@@ -0,0 +1,46 @@
+package org.testng.internal.jmx;
+
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/** A fixed bucket histogram of durations (in milliseconds) backed by striped counters. */
+final class DurationHistogram {
+
+  private static final long[] UPPER_BOUNDS = {
+    1, 5, 10, 50, 100, 500, 1_000, 5_000, 10_000, 60_000, Long.MAX_VALUE
+  };
+
+  private static final String[] LABELS = labels();
+
+  private final LongAdder[] buckets = new LongAdder[UPPER_BOUNDS.length];
+
+  DurationHistogram() {
+    for (int i = 0; i < buckets.length; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  void record(long millis) {
+    int i = 0;
+    while (millis > UPPER_BOUNDS[i]) {
+      i++;
+    }
+    buckets[i].increment();
+  }
+
+  /** Adds the counts of this histogram to the (bucket label keyed) <code>snapshot</code>. */
+  void addTo(Map<String, Long> snapshot) {
+    for (int i = 0; i < buckets.length; i++) {
+      snapshot.merge(LABELS[i], buckets[i].sum(), Long::sum);
+    }
+  }
+
+  private static String[] labels() {
+    String[] labels = new String[UPPER_BOUNDS.length];
+    for (int i = 0; i < UPPER_BOUNDS.length - 1; i++) {
+      labels[i] = "<=" + UPPER_BOUNDS[i] + "ms";
+    }
+    labels[labels.length - 1] = ">" + UPPER_BOUNDS[UPPER_BOUNDS.length - 2] + "ms";
+    return labels;
+  }
+}
@@ -0,0 +1,41 @@
+package org.testng.internal.jmx;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link DurationHistogram} that only remembers the current and the previous time window. A
+ * window is rotated lazily by whichever thread first notices that it has expired.
+ */
+final class RollingDurationHistogram {
+
+  private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+  private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+  private volatile DurationHistogram current = new DurationHistogram();
+  private volatile DurationHistogram previous = new DurationHistogram();
+
+  void record(long millis) {
+    rotateIfNeeded();
+    current.record(millis);
+  }
+
+  void addTo(Map<String, Long> snapshot) {
+    rotateIfNeeded();
+    previous.addTo(snapshot);
+    current.addTo(snapshot);
+  }
+
+  private void rotateIfNeeded() {
+    long now = System.nanoTime();
+    long start = windowStart.get();
+    long elapsed = now - start;
+    if (elapsed < WINDOW_NANOS || !windowStart.compareAndSet(start, now)) {
+      return;
+    }
+    // If more than two windows went by without any activity, the current window is stale too.
+    previous = elapsed < 2 * WINDOW_NANOS ? current : new DurationHistogram();
+    current = new DurationHistogram();
+  }
+}
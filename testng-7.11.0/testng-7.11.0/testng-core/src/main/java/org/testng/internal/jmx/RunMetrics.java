@@ -0,0 +1,340 @@
+package org.testng.internal.jmx;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.testng.IDynamicGraph;
+import org.testng.ITestResult;
+import org.testng.collections.Maps;
+import org.testng.collections.Sets;
+import org.testng.internal.RuntimeBehavior;
+import org.testng.log4testng.Logger;
+
+/**
+ * Collects live metrics for a run, a &lt;suite&gt; or a &lt;test&gt; and exposes them as an MXBean.
+ * All counters are {@link LongAdder}s so that worker threads recording results don't contend with
+ * each other.
+ *
+ * <p>Every run is given an id of its own (the <code>run</code> key of the names of its MBeans), so
+ * that runs that overlap (a run started from within a test for e.g.,) don't clash. Within a run,
+ * suites (or tests) that share a name are told apart by an <code>instance</code> key.
+ *
+ * <p>When JMX metrics are disabled, {@link #newInstance()} hands out a shared instance on which all
+ * operations are no-ops.
+ */
+public final class RunMetrics implements RunMetricsMXBean {
+
+  public static final String DOMAIN = "org.testng";
+
+  private static final Logger LOGGER = Logger.getLogger(RunMetrics.class);
+
+  private static final RunMetrics DISABLED = new RunMetrics(false);
+
+  private static final AtomicLong RUN_IDS = new AtomicLong();
+
+  private final boolean enabled;
+  private final LongAdder passed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder skipped = new LongAdder();
+  private final DurationHistogram durations = new DurationHistogram();
+  private final RollingDurationHistogram recentDurations = new RollingDurationHistogram();
+  private final Set<RunMetrics> children = Sets.newConcurrentHashSet();
+  // The node counts of the children that are done, which are no longer kept track of
+  private final LongAdder retiredReady = new LongAdder();
+  private final LongAdder retiredRunning = new LongAdder();
+  private final LongAdder retiredFinished = new LongAdder();
+
+  private volatile long runId;
+  private volatile RunMetrics parent;
+  private volatile ObjectName objectName;
+  private volatile long startNanos = System.nanoTime();
+  private volatile long endNanos = -1;
+  private volatile ThreadPoolExecutor pool;
+  private volatile BlockingQueue<?> queue;
+  private volatile IDynamicGraph<?> graph;
+  private volatile int ready;
+  private volatile int running;
+  private volatile int finished;
+
+  private RunMetrics(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /** @return - A new {@link RunMetrics} or a no-op instance if JMX metrics are disabled. */
+  public static RunMetrics newInstance() {
+    if (!RuntimeBehavior.exposeRunMetricsViaJmx()) {
+      return DISABLED;
+    }
+    return new RunMetrics(true);
+  }
+
+  public static String runObjectName(long runId) {
+    return DOMAIN + ":type=Run,run=" + runId;
+  }
+
+  public static String suiteObjectName(long runId, String suiteName) {
+    return DOMAIN
+        + ":type=Suite,run="
+        + runId
+        + ",name="
+        + ObjectName.quote(String.valueOf(suiteName));
+  }
+
+  public static String testObjectName(long runId, String suiteName, String testName) {
+    return DOMAIN
+        + ":type=Test,run="
+        + runId
+        + ",suite="
+        + ObjectName.quote(String.valueOf(suiteName))
+        + ",name="
+        + ObjectName.quote(String.valueOf(testName));
+  }
+
+  /** @return - The id of the run that this instance belongs to. */
+  public synchronized long getRunId() {
+    if (runId == 0) {
+      runId = RUN_IDS.incrementAndGet();
+    }
+    return runId;
+  }
+
+  /**
+   * Results recorded here are also recorded in the parent and the gauges of this instance are
+   * included in the ones of the parent. This instance becomes part of the run of the parent.
+   */
+  public void setParent(RunMetrics parent) {
+    if (!enabled || !parent.enabled || this.parent == parent) {
+      return;
+    }
+    this.parent = parent;
+    this.runId = parent.getRunId();
+    parent.children.add(this);
+  }
+
+  public void registerRun() {
+    register(runObjectName(getRunId()));
+  }
+
+  public void registerSuite(String suiteName) {
+    register(suiteObjectName(getRunId(), suiteName));
+  }
+
+  public void registerTest(String suiteName, String testName) {
+    register(testObjectName(getRunId(), suiteName, testName));
+  }
+
+  /** Starts the clock and registers this instance with the platform MBean server. */
+  private void register(String name) {
+    if (!enabled) {
+      return;
+    }
+    startNanos = System.nanoTime();
+    endNanos = -1;
+    try {
+      ObjectName candidate = new ObjectName(name);
+      for (int instance = 2; objectName == null; instance++) {
+        try {
+          platformServer().registerMBean(this, candidate);
+          objectName = candidate;
+        } catch (InstanceAlreadyExistsException e) {
+          candidate = new ObjectName(name + ",instance=" + instance);
+        }
+      }
+    } catch (JMException | SecurityException e) {
+      LOGGER.warn("Unable to register the TestNG MBean " + name + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Stops the clock, freezes the gauges to their final values (which are handed over to the parent)
+   * and un-registers this instance from the platform MBean server.
+   */
+  public void unregister() {
+    if (!enabled) {
+      return;
+    }
+    endNanos = System.nanoTime();
+    IDynamicGraph<?> current = graph;
+    if (current != null) {
+      ready = current.getNodeCountWithStatus(IDynamicGraph.Status.READY);
+      running = current.getNodeCountWithStatus(IDynamicGraph.Status.RUNNING);
+      finished = current.getNodeCountWithStatus(IDynamicGraph.Status.FINISHED);
+    }
+    graph = null;
+    pool = null;
+    queue = null;
+    for (RunMetrics child : children) {
+      retire(child, this);
+    }
+    RunMetrics owner = parent;
+    if (owner != null) {
+      retire(this, owner);
+    }
+    ObjectName name = objectName;
+    objectName = null;
+    if (name == null) {
+      return;
+    }
+    try {
+      platformServer().unregisterMBean(name);
+    } catch (JMException | SecurityException e) {
+      LOGGER.warn("Unable to unregister the TestNG MBean " + name + ": " + e.getMessage());
+    }
+  }
+
+  /** Hands the (final) node counts of a child over to its parent, which stops keeping track of it. */
+  private static void retire(RunMetrics child, RunMetrics parent) {
+    if (parent.children.remove(child)) {
+      parent.retiredReady.add(child.getReadyNodes());
+      parent.retiredRunning.add(child.getRunningNodes());
+      parent.retiredFinished.add(child.getFinishedNodes());
+    }
+  }
+
+  public void watch(ExecutorService service, BlockingQueue<?> queue) {
+    if (!enabled) {
+      return;
+    }
+    this.queue = queue;
+    if (service instanceof ThreadPoolExecutor) {
+      this.pool = (ThreadPoolExecutor) service;
+    }
+  }
+
+  public void watch(IDynamicGraph<?> graph) {
+    if (enabled) {
+      this.graph = graph;
+    }
+  }
+
+  public void onTestResult(ITestResult result) {
+    if (!enabled) {
+      return;
+    }
+    long duration = Math.max(0, result.getEndMillis() - result.getStartMillis());
+    for (RunMetrics each = this; each != null; each = each.parent) {
+      each.record(result.getStatus(), duration);
+    }
+  }
+
+  private void record(int status, long duration) {
+    switch (status) {
+      case ITestResult.SUCCESS:
+        passed.increment();
+        break;
+      case ITestResult.SKIP:
+        skipped.increment();
+        break;
+      default:
+        failed.increment();
+        break;
+    }
+    durations.record(duration);
+    recentDurations.record(duration);
+  }
+
+  @Override
+  public long getPassedCount() {
+    return passed.sum();
+  }
+
+  @Override
+  public long getFailedCount() {
+    return failed.sum();
+  }
+
+  @Override
+  public long getSkippedCount() {
+    return skipped.sum();
+  }
+
+  @Override
+  public long getCompletedCount() {
+    return getPassedCount() + getFailedCount() + getSkippedCount();
+  }
+
+  @Override
+  public double getTestsPerSecond() {
+    long end = endNanos == -1 ? System.nanoTime() : endNanos;
+    long elapsed = Math.max(1, end - startNanos);
+    return getCompletedCount() * (double) TimeUnit.SECONDS.toNanos(1) / elapsed;
+  }
+
+  @Override
+  public int getActiveWorkers() {
+    return sum(
+        each -> {
+          ThreadPoolExecutor current = each.pool;
+          return current == null ? 0 : current.getActiveCount();
+        });
+  }
+
+  @Override
+  public int getQueuedWorkers() {
+    return sum(
+        each -> {
+          BlockingQueue<?> current = each.queue;
+          return current == null ? 0 : current.size();
+        });
+  }
+
+  @Override
+  public int getReadyNodes() {
+    return sum(each -> each.nodes(IDynamicGraph.Status.READY, each.ready, each.retiredReady));
+  }
+
+  @Override
+  public int getRunningNodes() {
+    return sum(each -> each.nodes(IDynamicGraph.Status.RUNNING, each.running, each.retiredRunning));
+  }
+
+  @Override
+  public int getFinishedNodes() {
+    return sum(
+        each -> each.nodes(IDynamicGraph.Status.FINISHED, each.finished, each.retiredFinished));
+  }
+
+  @Override
+  public Map<String, Long> getDurationHistogram() {
+    Map<String, Long> snapshot = Maps.newLinkedHashMap();
+    durations.addTo(snapshot);
+    return snapshot;
+  }
+
+  @Override
+  public Map<String, Long> getRecentDurationHistogram() {
+    Map<String, Long> snapshot = Maps.newLinkedHashMap();
+    recentDurations.addTo(snapshot);
+    return snapshot;
+  }
+
+  private int nodes(IDynamicGraph.Status status, int frozen, LongAdder retired) {
+    IDynamicGraph<?> current = graph;
+    // The graph is mutated under the lock of its orchestrator, so this is a (racy) best effort read.
+    int count = current == null ? frozen : current.getNodeCountWithStatus(status);
+    return count + retired.intValue();
+  }
+
+  private int sum(ToIntFunction<RunMetrics> gauge) {
+    int total = gauge.applyAsInt(this);
+    for (RunMetrics child : children) {
+      total += child.sum(gauge);
+    }
+    return total;
+  }
+
+  private static MBeanServer platformServer() {
+    return ManagementFactory.getPlatformMBeanServer();
+  }
+}
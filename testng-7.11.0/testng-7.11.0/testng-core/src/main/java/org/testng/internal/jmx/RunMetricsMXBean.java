@@ -0,0 +1,52 @@
+package org.testng.internal.jmx;
+
+import java.util.Map;
+
+/**
+ * Live view of a TestNG run (a whole run, a &lt;suite&gt; or a &lt;test&gt;) that is exposed via
+ * JMX when TestNG is started with <code>-Dtestng.jmx=true</code>.
+ *
+ * <p>Counters of a &lt;suite&gt; include the counters of all its &lt;test&gt; tags. Gauges (workers
+ * and graph nodes) are summed up across the node and all its children.
+ */
+public interface RunMetricsMXBean {
+
+  /** @return - The number of test method invocations that passed so far. */
+  long getPassedCount();
+
+  /** @return - The number of test method invocations that failed so far. */
+  long getFailedCount();
+
+  /** @return - The number of test method invocations that were skipped so far. */
+  long getSkippedCount();
+
+  /** @return - The number of test method invocations that completed so far. */
+  long getCompletedCount();
+
+  /** @return - The average number of completed test method invocations per second. */
+  double getTestsPerSecond();
+
+  /** @return - The number of threads that are actively running workers. */
+  int getActiveWorkers();
+
+  /** @return - The number of workers waiting in an executor queue for a thread. */
+  int getQueuedWorkers();
+
+  /** @return - The number of graph nodes that are ready to be run. */
+  int getReadyNodes();
+
+  /** @return - The number of graph nodes that are currently running. */
+  int getRunningNodes();
+
+  /** @return - The number of graph nodes that have finished running. */
+  int getFinishedNodes();
+
+  /** @return - A histogram (bucket upper bound to count) of all test method durations. */
+  Map<String, Long> getDurationHistogram();
+
+  /**
+   * @return - A histogram (bucket upper bound to count) of the test method durations observed in
+   *     the last one to two minutes.
+   */
+  Map<String, Long> getRecentDurationHistogram();
+}
@@ -0,0 +1,17 @@
+package org.testng.internal.profiling;
+
+/** The events that the {@link PhaseProfiler} counts along with the time spent in each phase. */
+public enum Counter {
+  ANNOTATION_CACHE_HITS("Annotation cache hits"),
+  ANNOTATION_CACHE_MISSES("Annotation cache misses");
+
+  private final String displayName;
+
+  Counter(String displayName) {
+    this.displayName = displayName;
+  }
+
+  public String getDisplayName() {
+    return displayName;
+  }
+}
@@ -0,0 +1,24 @@
+package org.testng.internal.profiling;
+
+/** The phases of a TestNG run that are measured by the {@link PhaseProfiler}. */
+public enum Phase {
+  SUITE_PARSING("Suite parsing"),
+  CLASS_DISCOVERY("Class discovery"),
+  ANNOTATION_SCANNING("Annotation scanning"),
+  METHOD_SELECTION("Method selection"),
+  GRAPH_BUILDING("Graph building"),
+  SCHEDULING("Scheduling"),
+  CONFIGURATION_INVOCATION("Configuration invocation"),
+  LISTENER_DISPATCH("Listener dispatch"),
+  REPORTING("Reporting");
+
+  private final String displayName;
+
+  Phase(String displayName) {
+    this.displayName = displayName;
+  }
+
+  public String getDisplayName() {
+    return displayName;
+  }
+}
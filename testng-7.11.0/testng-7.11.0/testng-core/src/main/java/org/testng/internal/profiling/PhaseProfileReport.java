@@ -0,0 +1,137 @@
+package org.testng.internal.profiling;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.testng.internal.Utils;
+import org.testng.internal.profiling.PhaseProfiler.Key;
+
+/** Renders the statistics gathered by the {@link PhaseProfiler}. */
+final class PhaseProfileReport {
+
+  static final String FILE_NAME = "testng-phase-profile.json";
+
+  private static final Comparator<Map.Entry<Key, PhaseStatistics>> ORDER =
+      Comparator.comparing((Map.Entry<Key, PhaseStatistics> e) -> e.getKey().suite)
+          .thenComparing(e -> e.getKey().test)
+          .thenComparing(e -> e.getKey().phase);
+
+  private final List<Map.Entry<Key, PhaseStatistics>> entries;
+  private final Map<Counter, Long> counters;
+
+  PhaseProfileReport(Map<Key, PhaseStatistics> statistics, Map<Counter, Long> counters) {
+    this.entries = new ArrayList<>(statistics.entrySet());
+    this.entries.sort(ORDER);
+    this.counters = counters;
+  }
+
+  void writeJson(String outputDirectory) {
+    StringBuilder json = new StringBuilder("{\n  \"phases\": [");
+    String separator = "\n";
+    for (Map.Entry<Key, PhaseStatistics> entry : entries) {
+      Key key = entry.getKey();
+      PhaseStatistics stats = entry.getValue();
+      json.append(separator)
+          .append("    {\"suite\": ")
+          .append(quote(key.suite))
+          .append(", \"test\": ")
+          .append(quote(key.test))
+          .append(", \"phase\": \"")
+          .append(key.phase.name())
+          .append("\", \"count\": ")
+          .append(stats.getCount())
+          .append(", \"selfNanos\": ")
+          .append(stats.getSelfNanos())
+          .append(", \"totalNanos\": ")
+          .append(stats.getTotalNanos())
+          .append(", \"maxNanos\": ")
+          .append(stats.getMaxNanos())
+          .append("}");
+      separator = ",\n";
+    }
+    json.append("\n  ],\n  \"counters\": {");
+    separator = "\n";
+    for (Map.Entry<Counter, Long> entry : counters.entrySet()) {
+      json.append(separator)
+          .append("    \"")
+          .append(entry.getKey().name())
+          .append("\": ")
+          .append(entry.getValue());
+      separator = ",\n";
+    }
+    json.append("\n  }\n}\n");
+    Utils.writeUtf8File(outputDirectory, FILE_NAME, json.toString());
+  }
+
+  void printSummary(PrintStream out) {
+    Map<Phase, long[]> perPhase = new EnumMap<>(Phase.class);
+    long grandTotal = 0;
+    for (Map.Entry<Key, PhaseStatistics> entry : entries) {
+      PhaseStatistics stats = entry.getValue();
+      long[] totals = perPhase.computeIfAbsent(entry.getKey().phase, k -> new long[3]);
+      totals[0] += stats.getCount();
+      totals[1] += stats.getSelfNanos();
+      totals[2] = Math.max(totals[2], stats.getMaxNanos());
+      grandTotal += stats.getSelfNanos();
+    }
+
+    String line = "===============================================================================";
+    out.println(line);
+    out.println("TestNG phase profile (self time excludes nested phases)");
+    out.println(line);
+    out.printf("%-28s %10s %14s %14s %8s%n", "Phase", "Count", "Self (ms)", "Max (ms)", "%");
+    for (Map.Entry<Phase, long[]> entry : perPhase.entrySet()) {
+      long[] totals = entry.getValue();
+      out.printf(
+          "%-28s %10d %14.3f %14.3f %7.1f%%%n",
+          entry.getKey().getDisplayName(),
+          totals[0],
+          millis(totals[1]),
+          millis(totals[2]),
+          grandTotal == 0 ? 0.0 : 100.0 * totals[1] / grandTotal);
+    }
+    out.println(line);
+    out.printf("%-50s %-28s %14s%n", "Suite / Test", "Phase", "Self (ms)");
+    for (Map.Entry<Key, PhaseStatistics> entry : entries) {
+      Key key = entry.getKey();
+      String scope = key.test.isEmpty() ? key.suite : key.suite + " / " + key.test;
+      out.printf(
+          "%-50s %-28s %14.3f%n",
+          scope, key.phase.getDisplayName(), millis(entry.getValue().getSelfNanos()));
+    }
+    out.println(line);
+    for (Map.Entry<Counter, Long> entry : counters.entrySet()) {
+      out.printf("%-50s %14d%n", entry.getKey().getDisplayName(), entry.getValue());
+    }
+    out.println(line);
+  }
+
+  private static double millis(long nanos) {
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  private static String quote(String text) {
+    StringBuilder result = new StringBuilder("\"");
+    for (char c : text.toCharArray()) {
+      switch (c) {
+        case '"':
+          result.append("\\\"");
+          break;
+        case '\\':
+          result.append("\\\\");
+          break;
+        default:
+          if (c < 0x20) {
+            result.append(String.format("\\u%04x", (int) c));
+          } else {
+            result.append(c);
+          }
+      }
+    }
+    return result.append('"').toString();
+  }
+}
@@ -0,0 +1,186 @@
+package org.testng.internal.profiling;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.testng.ISuite;
+import org.testng.ITestContext;
+import org.testng.internal.RuntimeBehavior;
+import org.testng.internal.annotations.IAnnotationFinder;
+import org.testng.internal.annotations.JDK15AnnotationFinder;
+
+/**
+ * Measures how much time TestNG spends in each {@link Phase} of a run, broken down per suite and
+ * per test. Profiling is enabled via <code>-Dtestng.phase.profile=true</code>, in which case a
+ * <code>testng-phase-profile.json</code> file is written to the output directory and a summary
+ * table is printed at the end of the run.
+ *
+ * <p>Every run of {@link org.testng.TestNG} owns its own profiler (see {@link
+ * org.testng.internal.IConfiguration#getPhaseProfiler()}), so that nested or concurrent runs do
+ * not mix up their statistics. Whether profiling is enabled is decided once, when the profiler is
+ * created.
+ *
+ * <p>Phases can be nested (for e.g., method selection that is triggered lazily while scheduling).
+ * The time of a nested phase is only attributed to the innermost phase, so that the self times of
+ * all the phases add up to the wall clock time spent on a thread.
+ *
+ * <p>A few {@link Counter}s (such as the hits and misses of the annotation cache) are reported
+ * along with the phases.
+ *
+ * <p>Usage:
+ *
+ * <pre>
+ * PhaseProfiler.Sample sample = profiler.start(Phase.GRAPH_BUILDING, testContext);
+ * try {
+ *   // do work
+ * } finally {
+ *   sample.close();
+ * }
+ * </pre>
+ */
+public final class PhaseProfiler {
+
+  /** A measurement that ends when closed. */
+  public interface Sample extends AutoCloseable {
+
+    @Override
+    void close();
+  }
+
+  /** A profiler that measures nothing. */
+  public static final PhaseProfiler DISABLED = new PhaseProfiler(false);
+
+  static final String RUN = "<run>";
+
+  private static final Sample NOOP = () -> {};
+
+  private static final ThreadLocal<RunningSample> current = new ThreadLocal<>();
+
+  private final boolean enabled;
+
+  private final Map<Key, PhaseStatistics> statistics = new ConcurrentHashMap<>();
+
+  private PhaseProfiler(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * @return - a new profiler if profiling is enabled, or {@link #DISABLED} otherwise.
+   */
+  public static PhaseProfiler newProfiler() {
+    return RuntimeBehavior.profilePhases() ? new PhaseProfiler(true) : DISABLED;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /** Starts measuring a phase that belongs to the run as a whole. */
+  public Sample start(Phase phase) {
+    if (!enabled) {
+      return NOOP;
+    }
+    return new RunningSample(this, new Key(RUN, "", phase));
+  }
+
+  public Sample start(Phase phase, ISuite suite) {
+    if (!enabled) {
+      return NOOP;
+    }
+    if (suite == null) {
+      return start(phase);
+    }
+    return new RunningSample(this, new Key(suite.getName(), "", phase));
+  }
+
+  public Sample start(Phase phase, ITestContext context) {
+    if (!enabled) {
+      return NOOP;
+    }
+    if (context == null) {
+      return start(phase);
+    }
+    String suiteName = context.getSuite() == null ? RUN : context.getSuite().getName();
+    return new RunningSample(this, new Key(suiteName, context.getName(), phase));
+  }
+
+  /**
+   * Writes the profile file into <code>outputDirectory</code> and prints the summary table, if
+   * profiling is enabled.
+   *
+   * @param outputDirectory - The directory to write the profile file to.
+   * @param finder - The annotation finder of the run, whose {@link Counter}s are reported.
+   */
+  public void report(String outputDirectory, IAnnotationFinder finder) {
+    if (!enabled) {
+      return;
+    }
+    Map<Counter, Long> counts = new EnumMap<>(Counter.class);
+    if (finder instanceof JDK15AnnotationFinder) {
+      for (Counter counter : Counter.values()) {
+        counts.put(counter, ((JDK15AnnotationFinder) finder).getCount(counter));
+      }
+    }
+    PhaseProfileReport report = new PhaseProfileReport(statistics, counts);
+    report.writeJson(outputDirectory);
+    report.printSummary(System.out);
+  }
+
+  private static final class RunningSample implements Sample {
+    private final PhaseProfiler profiler;
+    private final Key key;
+    private final RunningSample parent;
+    private final long start = System.nanoTime();
+    private long nestedNanos;
+
+    RunningSample(PhaseProfiler profiler, Key key) {
+      this.profiler = profiler;
+      this.key = key;
+      this.parent = current.get();
+      current.set(this);
+    }
+
+    @Override
+    public void close() {
+      long total = System.nanoTime() - start;
+      if (parent == null) {
+        current.remove();
+      } else {
+        parent.nestedNanos += total;
+        current.set(parent);
+      }
+      PhaseStatistics stats = profiler.statistics.computeIfAbsent(key, k -> new PhaseStatistics());
+      stats.record(total - nestedNanos, total);
+    }
+  }
+
+  static final class Key {
+    final String suite;
+    final String test;
+    final Phase phase;
+
+    Key(String suite, String test, Phase phase) {
+      this.suite = suite;
+      this.test = test;
+      this.phase = phase;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return suite.equals(that.suite) && test.equals(that.test) && phase == that.phase;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(suite, test, phase);
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package org.testng.internal.profiling;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Aggregated timings of one {@link Phase} within one scope (the run, a suite or a test). */
+final class PhaseStatistics {
+
+  private final LongAdder count = new LongAdder();
+  private final LongAdder selfNanos = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+  void record(long self, long total) {
+    count.increment();
+    selfNanos.add(self);
+    totalNanos.add(total);
+    maxNanos.accumulate(total);
+  }
+
+  long getCount() {
+    return count.sum();
+  }
+
+  /** @return - The time spent in this phase, excluding the time spent in nested phases. */
+  long getSelfNanos() {
+    return selfNanos.sum();
+  }
+
+  /** @return - The time spent in this phase, including the time spent in nested phases. */
+  long getTotalNanos() {
+    return totalNanos.sum();
+  }
+
+  long getMaxNanos() {
+    return maxNanos.get();
+  }
+}
@@ -0,0 +1,241 @@
+package org.testng.internal.reflect;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Parameter;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+
+/**
+ * How the arguments of a method (or constructor) are assembled: which of its parameters receive an
+ * injected object ({@link InjectableParameter}) and which ones receive the next user supplied
+ * argument. Working this out takes reflection (parameter types and {@link
+ * org.testng.annotations.NoInjection} annotations), so it is done once per method and the plan is
+ * then applied to every set of arguments by merely filling an array.
+ *
+ * <p>The plan also remembers the shape (the classes of the values) of the last data provider row it
+ * was matched against, along with how that row had to be laid out, so that the following rows of
+ * the same shape are not matched against the parameter types again.
+ *
+ * @see ReflectionRecipes#inject(Parameter[], java.util.Set, Object[], java.lang.reflect.Method,
+ *     ITestContext, ITestResult)
+ * @see DataProviderMethodMatcher
+ */
+public final class InjectionPlan {
+
+  // Kept per declaring class so that the plans go away along with the class (and its loader)
+  private static final ClassValue<Map<Executable, InjectionPlan>> PLANS =
+      new ClassValue<>() {
+        @Override
+        protected Map<Executable, InjectionPlan> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<>();
+        }
+      };
+
+  private final Executable executable;
+  // The object injected into every parameter, or null for parameters that take the next argument
+  private final InjectableParameter[] slots;
+  // The types of the parameters that take arguments
+  private final Class<?>[] argumentTypes;
+  private final Class<?>[] parameterTypes;
+  private volatile RowShape lastShape;
+
+  private InjectionPlan(Executable executable, Parameter[] parameters) {
+    this.executable = executable;
+    this.slots = new InjectableParameter[parameters.length];
+    boolean firstMethodFound = false;
+    int arguments = 0;
+    for (int i = 0; i < parameters.length; i++) {
+      for (InjectableParameter each : InjectableParameter.values()) {
+        if (!ReflectionRecipes.canInject(parameters[i], each)) {
+          continue;
+        }
+        if (each == InjectableParameter.CURRENT_TEST_METHOD) {
+          // Only the first Method parameter receives the current test method
+          if (firstMethodFound) {
+            continue;
+          }
+          firstMethodFound = true;
+        }
+        slots[i] = each;
+        break;
+      }
+      if (slots[i] == null) {
+        arguments++;
+      }
+    }
+    this.parameterTypes = ReflectionRecipes.classesFromParameters(parameters);
+    this.argumentTypes = new Class<?>[arguments];
+    for (int i = 0, j = 0; i < slots.length; i++) {
+      if (slots[i] == null) {
+        argumentTypes[j++] = parameterTypes[i];
+      }
+    }
+  }
+
+  /** @return the plan of the method or constructor, which is only worked out the first time. */
+  public static InjectionPlan of(Executable executable) {
+    return PLANS
+        .get(executable.getDeclaringClass())
+        .computeIfAbsent(executable, key -> new InjectionPlan(key, key.getParameters()));
+  }
+
+  /**
+   * @param parameters - All the parameters of a method or constructor
+   * @return the plan of the method or constructor that the parameters belong to.
+   */
+  static InjectionPlan of(Parameter[] parameters) {
+    if (parameters.length == 0) {
+      return new InjectionPlan(null, parameters);
+    }
+    Executable executable = parameters[0].getDeclaringExecutable();
+    if (executable.getParameterCount() != parameters.length) {
+      return new InjectionPlan(executable, parameters);
+    }
+    return of(executable);
+  }
+
+  /**
+   * Merges the user supplied arguments with the injected objects.
+   *
+   * @param args - The user supplied arguments, in the order of the parameters that take them
+   * @param injectionMethod - The method (or constructor) injected into a {@link
+   *     java.lang.reflect.Method} parameter
+   * @param context - The current test context
+   * @param testResult - The on going test result
+   * @return the arguments to invoke the method with.
+   * @see ReflectionRecipes#inject(Parameter[], java.util.Set, Object[], java.lang.reflect.Method,
+   *     ITestContext, ITestResult)
+   */
+  public Object[] inject(
+      Object[] args, Object injectionMethod, ITestContext context, ITestResult testResult) {
+    int size = slots.length;
+    if (args.length < argumentTypes.length) {
+      // Parameters left without an argument are left out, as they always were
+      size -= argumentTypes.length - args.length;
+    }
+    Object[] result = new Object[size];
+    int next = 0;
+    int j = 0;
+    for (InjectableParameter slot : slots) {
+      if (slot == null) {
+        if (next < args.length) {
+          result[j++] = args[next++];
+        }
+        continue;
+      }
+      switch (slot) {
+        case CURRENT_TEST_METHOD:
+          result[j++] = injectionMethod;
+          break;
+        case ITEST_CONTEXT:
+          result[j++] = context;
+          break;
+        case ITEST_RESULT:
+          result[j++] = testResult;
+          break;
+        case XML_TEST:
+          result[j++] = context != null ? context.getCurrentXmlTest() : null;
+          break;
+        default:
+          break;
+      }
+    }
+    if (next < args.length) {
+      ReflectionRecipes.reportUnusedArguments(
+          injectionMethod, Arrays.copyOfRange(args, next, args.length));
+    }
+    return result;
+  }
+
+  /**
+   * Lays out a data provider row and merges it with the injected objects.
+   *
+   * @return the arguments to invoke the method with, or <code>null</code> if the row conforms to
+   *     none of the ways it can be passed to the method.
+   * @see DataProviderMethodMatcher
+   */
+  public Object[] injectRow(Object[] row, ITestContext context, ITestResult testResult) {
+    RowShape shape = lastShape;
+    if (shape == null || !shape.matches(row)) {
+      shape = new RowShape(row, layoutOf(row));
+      lastShape = shape;
+    }
+    switch (shape.layout) {
+      case PASS_THROUGH:
+        return row;
+      case AS_IS:
+        return inject(row, executable, context, testResult);
+      case ARRAY_ENDING:
+        return inject(arrayEnding(row), executable, context, testResult);
+      default:
+        return null;
+    }
+  }
+
+  private Layout layoutOf(Object[] row) {
+    if (ReflectionRecipes.exactMatch(argumentTypes, row)) {
+      return Layout.AS_IS;
+    }
+    if (ReflectionRecipes.exactMatch(parameterTypes, row)) {
+      return Layout.PASS_THROUGH;
+    }
+    if (ReflectionRecipes.matchArrayEnding(argumentTypes, row)) {
+      return Layout.ARRAY_ENDING;
+    }
+    return Layout.NONE;
+  }
+
+  private Object[] arrayEnding(Object[] row) {
+    int last = argumentTypes.length - 1;
+    Object[] result = new Object[argumentTypes.length];
+    System.arraycopy(row, 0, result, 0, last);
+    Object array = Array.newInstance(argumentTypes[last].getComponentType(), row.length - last);
+    for (int i = last; i < row.length; i++) {
+      Array.set(array, i - last, row[i]);
+    }
+    result[last] = array;
+    return result;
+  }
+
+  private enum Layout {
+    /** The row supplies every parameter, including the injectable ones, and is passed unchanged. */
+    PASS_THROUGH,
+    /** The row supplies the parameters that take arguments and is merged with the injected ones. */
+    AS_IS,
+    /** The trailing values of the row are gathered into the last (array) parameter. */
+    ARRAY_ENDING,
+    /** The row cannot be passed to the method. */
+    NONE
+  }
+
+  /** The classes of the values of a row (<code>null</code> for null values). */
+  private static final class RowShape {
+
+    private final Class<?>[] classes;
+    private final Layout layout;
+
+    RowShape(Object[] row, Layout layout) {
+      this.classes = new Class<?>[row.length];
+      for (int i = 0; i < row.length; i++) {
+        classes[i] = row[i] == null ? null : row[i].getClass();
+      }
+      this.layout = layout;
+    }
+
+    boolean matches(Object[] row) {
+      if (row.length != classes.length) {
+        return false;
+      }
+      for (int i = 0; i < row.length; i++) {
+        if (classes[i] != (row[i] == null ? null : row[i].getClass())) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
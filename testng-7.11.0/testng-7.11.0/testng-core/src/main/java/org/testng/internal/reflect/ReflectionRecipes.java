@@ -355,6 +355,9 @@ public final class ReflectionRecipes {
     if (filters == null || filters.isEmpty()) {
       return args;
     }
+    if (InjectableParameter.Assistant.ALL_INJECTS.equals(filters)) {
+      return InjectionPlan.of(parameters).inject(args, injectionMethod, context, testResult);
+    }
     final ArrayList<Object> arguments = new ArrayList<>(args.length);
     final ListBackedImmutableQueue<Object> queue = new ListBackedImmutableQueue<>(args);
     boolean firstMethodInjected = false;
@@ -397,33 +400,39 @@ public final class ReflectionRecipes {
       }
     }
     if (!queue.backingList.isEmpty()) {
-      String prefix =
-          "Missing one or more parameters that are being injected by the data provider. "
-              + "Please add the below arguments to the ";
-      String msg = null;
-      if (injectionMethod instanceof Method) {
-        msg =
-            MethodMatcherException.generateMessage(
-                prefix + "method.", (Method) injectionMethod, queue.backingList.toArray());
-      } else if (injectionMethod instanceof Constructor) {
-        msg =
-            MethodMatcherException.generateMessage(
-                prefix + "constructor.",
-                (Constructor<?>) injectionMethod,
-                queue.backingList.toArray());
-      }
-
-      boolean block = RuntimeBehavior.useStrictParameterMatching();
-      if (block) {
-        throw new MethodMatcherException(msg);
-      } else {
-        System.err.println(":::WARNING:::\n" + msg);
-      }
+      reportUnusedArguments(injectionMethod, queue.backingList.toArray());
     }
     final Object[] injectedArray = new Object[arguments.size()];
     return arguments.toArray(injectedArray);
   }
 
+  /**
+   * Warns about (or, with strict parameter matching, fails because of) data provider values that
+   * none of the parameters of the method or constructor takes.
+   */
+  static void reportUnusedArguments(final Object injectionMethod, final Object[] unused) {
+    String prefix =
+        "Missing one or more parameters that are being injected by the data provider. "
+            + "Please add the below arguments to the ";
+    String msg = null;
+    if (injectionMethod instanceof Method) {
+      msg =
+          MethodMatcherException.generateMessage(
+              prefix + "method.", (Method) injectionMethod, unused);
+    } else if (injectionMethod instanceof Constructor) {
+      msg =
+          MethodMatcherException.generateMessage(
+              prefix + "constructor.", (Constructor<?>) injectionMethod, unused);
+    }
+
+    boolean block = RuntimeBehavior.useStrictParameterMatching();
+    if (block) {
+      throw new MethodMatcherException(msg);
+    } else {
+      System.err.println(":::WARNING:::\n" + msg);
+    }
+  }
+
   /**
    * Injects appropriate arguments.
    *
@@ -445,7 +454,7 @@ public final class ReflectionRecipes {
     return nativelyInject(parameters, filters, args, constructor, context, testResult);
   }
 
-  private static boolean canInject(
+  static boolean canInject(
       final Parameter parameter, final InjectableParameter injectableParameter) {
     boolean canInject = false;
     if (parameter != null) {
@@ -55,7 +55,7 @@ public class GraphOrchestrator<T> {
       mapNodeToParent(freeNodes);
       setStatus(worker, IDynamicGraph.Status.RUNNING);
       try {
-        TestNGFutureTask<T> task = new TestNGFutureTask<>(worker, this::afterExecute);
+        TestNGFutureTask<T> task = new TestNGFutureTask<>(worker, this::afterExecute, service);
         service.execute(task);
       } catch (Exception ex) {
         Logger.getLogger(GraphOrchestrator.class).error(ex.getMessage(), ex);
@@ -0,0 +1,19 @@
+package org.testng.internal.thread.graph;
+
+import java.util.concurrent.CompletionStage;
+import org.testng.thread.IWorker;
+
+/**
+ * A worker that can give its thread back while it waits for something to complete, to be resumed
+ * (by being run again) once that something has completed.
+ */
+public interface ISuspendableWorker<T> extends IWorker<T> {
+
+  /**
+   * Runs the worker, or resumes it if it was suspended.
+   *
+   * @return <code>null</code> if the worker is done, or the stage whose completion the worker is to
+   *     be resumed upon.
+   */
+  CompletionStage<?> runUntilSuspended();
+}
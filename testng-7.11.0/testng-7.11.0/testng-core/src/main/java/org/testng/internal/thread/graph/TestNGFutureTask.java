@@ -1,24 +1,51 @@
 package org.testng.internal.thread.graph;
 
 import java.util.List;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.function.BiConsumer;
+import org.testng.internal.jfr.FlightRecorderEvents;
 import org.testng.thread.IWorker;
 
 public class TestNGFutureTask<T> extends FutureTask<IWorker<T>> implements IWorker<T> {
 
   private final IWorker<T> worker;
   private final BiConsumer<IWorker<T>, Throwable> callback;
+  private final Executor resumeOn;
+  private final Step<T> step;
+  private final long queuedAtNanos = System.nanoTime();
 
   public TestNGFutureTask(IWorker<T> worker, BiConsumer<IWorker<T>, Throwable> callback) {
-    super(worker, worker);
+    this(worker, callback, null);
+  }
+
+  /**
+   * @param resumeOn - Where to resume the worker, if it is a {@link ISuspendableWorker} that got
+   *     suspended, or <code>null</code> to run the worker without suspending it
+   */
+  public TestNGFutureTask(
+      IWorker<T> worker, BiConsumer<IWorker<T>, Throwable> callback, Executor resumeOn) {
+    this(new Step<>(worker, resumeOn != null), worker, callback, resumeOn);
+  }
+
+  private TestNGFutureTask(
+      Step<T> step,
+      IWorker<T> worker,
+      BiConsumer<IWorker<T>, Throwable> callback,
+      Executor resumeOn) {
+    super(step, worker);
+    this.step = step;
     this.callback = callback;
     this.worker = worker;
+    this.resumeOn = resumeOn;
   }
 
   @Override
   public void run() {
+    FlightRecorderEvents.queueWait(worker, queuedAtNanos);
     super.run();
   }
 
@@ -31,9 +58,23 @@ public class TestNGFutureTask<T> extends FutureTask<IWorker<T>> implements IWork
     } catch (InterruptedException | ExecutionException e) {
       throwable = e;
     }
+    CompletionStage<?> suspension = step.suspension;
+    if (throwable == null && suspension != null) {
+      // The worker gave its thread back until the stage completes
+      suspension.whenComplete((ignored, error) -> resume());
+      return;
+    }
     callback.accept(result, throwable);
   }
 
+  private void resume() {
+    try {
+      resumeOn.execute(new TestNGFutureTask<>(worker, callback, resumeOn));
+    } catch (RejectedExecutionException e) {
+      callback.accept(worker, e);
+    }
+  }
+
   @Override
   public List<T> getTasks() {
     return worker.getTasks();
@@ -53,4 +94,26 @@ public class TestNGFutureTask<T> extends FutureTask<IWorker<T>> implements IWork
   public int compareTo(IWorker<T> o) {
     return this.worker.compareTo(o);
   }
+
+  /** Runs the worker, until it gets suspended if it can be. */
+  private static class Step<T> implements Runnable {
+
+    private final IWorker<T> worker;
+    private final boolean suspendable;
+    private CompletionStage<?> suspension;
+
+    Step(IWorker<T> worker, boolean suspendable) {
+      this.worker = worker;
+      this.suspendable = suspendable && worker instanceof ISuspendableWorker;
+    }
+
+    @Override
+    public void run() {
+      if (suspendable) {
+        suspension = ((ISuspendableWorker<T>) worker).runUntilSuspended();
+      } else {
+        worker.run();
+      }
+    }
+  }
 }
@@ -19,10 +19,12 @@ import org.testng.ISuite;
 import org.testng.ISuiteResult;
 import org.testng.ITestContext;
 import org.testng.ITestResult;
+import org.testng.InvocationMetrics;
 import org.testng.Reporter;
 import org.testng.annotations.CustomAttribute;
 import org.testng.collections.Lists;
 import org.testng.internal.Utils;
+import org.testng.internal.collections.Pair;
 import org.testng.log4testng.Logger;
 import org.testng.xml.XmlSuite;
 import org.testng.xml.XmlSuite.ParallelMode;
@@ -31,6 +33,9 @@ import org.testng.xml.XmlSuite.ParallelMode;
 public class EmailableReporter2 implements IReporter {
   private static final Logger LOG = Logger.getLogger(EmailableReporter2.class);
 
+  /** The maximum number of test results listed in the hotspots section. */
+  private static final int MAX_HOTSPOTS = 20;
+
   protected PrintWriter writer;
 
   protected final List<SuiteResult> suiteResults = Lists.newArrayList();
@@ -116,6 +121,7 @@ public class EmailableReporter2 implements IReporter {
   protected void writeBody() {
     writer.println("<body>");
     writeSuiteSummary();
+    writeHotspots();
     writeScenarioSummary();
     writeScenarioDetails();
     writer.println("</body>");
@@ -222,6 +228,84 @@ public class EmailableReporter2 implements IReporter {
     writer.println("</table>");
   }
 
+  /**
+   * Writes the test methods that took the longest, ordered by the time spent in the test body. This
+   * section is only written when TestNG ran with invocation metrics enabled.
+   */
+  protected void writeHotspots() {
+    List<Pair<String, ITestResult>> hotspots = Lists.newArrayList();
+    for (SuiteResult suiteResult : suiteResults) {
+      for (TestResult testResult : suiteResult.getTestResults()) {
+        List<List<ClassResult>> all =
+            Arrays.asList(
+                testResult.getFailedTestResults(),
+                testResult.getSkippedTestResults(),
+                testResult.getRetriedTestResults(),
+                testResult.getPassedTestResults());
+        for (List<ClassResult> classResults : all) {
+          for (ClassResult classResult : classResults) {
+            for (MethodResult methodResult : classResult.getMethodResults()) {
+              for (ITestResult result : methodResult.getResults()) {
+                if (result.getInvocationMetrics().isCaptured()) {
+                  hotspots.add(new Pair<>(testResult.getTestName(), result));
+                }
+              }
+            }
+          }
+        }
+      }
+    }
+    if (hotspots.isEmpty()) {
+      return;
+    }
+    hotspots.sort(
+        Comparator.comparingLong(
+                (Pair<String, ITestResult> each) ->
+                    each.second().getInvocationMetrics().getDurationNanos())
+            .reversed());
+
+    NumberFormat millisFormat = NumberFormat.getNumberInstance();
+    millisFormat.setMinimumFractionDigits(3);
+    millisFormat.setMaximumFractionDigits(3);
+    NumberFormat integerFormat = NumberFormat.getIntegerInstance();
+
+    writer.print("<table id='hotspots'>");
+    writer.print("<tr><th colspan=\"6\">Hotspots</th></tr>");
+    writer.print("<tr>");
+    writer.print("<th>Test</th>");
+    writer.print("<th>Method</th>");
+    writer.print("<th>Time (ms)</th>");
+    writer.print("<th>CPU (ms)</th>");
+    writer.print("<th>Allocated (bytes)</th>");
+    writer.print("<th>Before/After Method (ms)</th>");
+    writer.println("</tr>");
+    int rowIndex = 0;
+    int limit = Math.min(MAX_HOTSPOTS, hotspots.size());
+    for (Pair<String, ITestResult> hotspot : hotspots.subList(0, limit)) {
+      ITestResult result = hotspot.second();
+      InvocationMetrics metrics = result.getInvocationMetrics();
+      InvocationMetrics configMetrics = result.getConfigurationMetrics();
+      writer.print("<tr");
+      if ((rowIndex++ % 2) == 1) {
+        writer.print(" class=\"stripe\"");
+      }
+      writer.print(">");
+      writeTableData(Utils.escapeHtml(hotspot.first()));
+      writeTableData(Utils.escapeHtml(result.getTestClass().getName() + "#" + result.getName()));
+      writeTableData(millisFormat.format(metrics.getDurationNanos() / 1_000_000d), "num");
+      writeTableData(formatNanos(millisFormat, metrics.getCpuTimeNanos()), "num");
+      long allocated = metrics.getAllocatedBytes();
+      writeTableData(allocated < 0 ? "-" : integerFormat.format(allocated), "num");
+      writeTableData(formatNanos(millisFormat, configMetrics.getDurationNanos()), "num");
+      writer.println("</tr>");
+    }
+    writer.println("</table>");
+  }
+
+  private static String formatNanos(NumberFormat format, long nanos) {
+    return nanos < 0 ? "-" : format.format(nanos / 1_000_000d);
+  }
+
   /** Writes a summary of all the test scenarios. */
   protected void writeScenarioSummary() {
     writer.print("<table id='summary'>");
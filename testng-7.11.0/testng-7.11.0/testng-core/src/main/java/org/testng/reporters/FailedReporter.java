@@ -24,10 +24,13 @@ import org.testng.collections.Lists;
 import org.testng.collections.Maps;
 import org.testng.collections.Sets;
 import org.testng.internal.ConstructorOrMethod;
+import org.testng.internal.IInstanceIdentity;
 import org.testng.internal.LiteWeightTestNGMethod;
 import org.testng.internal.MethodHelper;
 import org.testng.internal.MethodSorting;
+import org.testng.internal.ParameterRetention;
 import org.testng.internal.RuntimeBehavior;
+import org.testng.internal.TestResult;
 import org.testng.internal.Utils;
 import org.testng.xml.XmlClass;
 import org.testng.xml.XmlInclude;
@@ -97,7 +100,18 @@ public class FailedReporter implements IReporter {
   }
 
   private static String key(ITestResult it) {
-    String prefix = it.getMethod().getQualifiedName() + it.getInstance().toString();
+    Object instance = it.getInstance();
+    if (instance == null) {
+      // The instance was released (see RuntimeBehavior#RELEASE_FINISHED_INSTANCES)
+      instance = IInstanceIdentity.getInstanceId(it.getMethod());
+    }
+    String prefix = it.getMethod().getQualifiedName() + instance;
+    if (it.getMethod().isDataDriven()
+        && it instanceof TestResult
+        && ParameterRetention.current() != ParameterRetention.FULL) {
+      // The parameters may have been dropped or cut short, unlike the index of the row
+      return prefix + "#" + ((TestResult) it).getParameterIndex();
+    }
     if (it.getParameters().length != 0) {
       return prefix + Arrays.toString(it.getParameters());
     }
@@ -232,7 +246,7 @@ public class FailedReporter implements IReporter {
             method ->
                 context.getPassedTests().getAllMethods().stream()
                     .map(ITestNGMethod::getInstance)
-                    .noneMatch(i -> i.equals(method.getInstance())))
+                    .noneMatch(i -> i != null && i.equals(method.getInstance())))
         .filter(
             method ->
                 Arrays.stream(m.getGroups())
@@ -27,6 +27,7 @@ import org.testng.collections.Lists;
 import org.testng.collections.Maps;
 import org.testng.collections.SetMultiMap;
 import org.testng.collections.Sets;
+import org.testng.internal.IInstanceIdentity;
 import org.testng.internal.Utils;
 import org.testng.xml.XmlSuite;
 
@@ -51,10 +52,10 @@ public class JUnitReportReporter implements IReporter {
         addResults(tc.getFailedConfigurations().getAllResults(), results);
         for (ITestResult tr : tc.getPassedConfigurations().getAllResults()) {
           if (tr.getMethod().isBeforeMethodConfiguration()) {
-            befores.put(tr.getInstance(), tr);
+            befores.put(instanceOf(tr), tr);
           }
           if (tr.getMethod().isAfterMethodConfiguration()) {
-            afters.put(tr.getInstance(), tr);
+            afters.put(instanceOf(tr), tr);
           }
         }
       }
@@ -265,7 +266,7 @@ public class JUnitReportReporter implements IReporter {
       ListMultiMap<Object, ITestResult> configurations, ITestResult tr) {
     long result = 0;
 
-    List<ITestResult> confResults = configurations.get(tr.getInstance());
+    List<ITestResult> confResults = configurations.get(instanceOf(tr));
     Map<ITestNGMethod, ITestResult> seen = Maps.newHashMap();
     for (ITestResult r : confResults) {
       if (!seen.containsKey(r.getMethod())) {
@@ -278,6 +279,15 @@ public class JUnitReportReporter implements IReporter {
     return result;
   }
 
+  private static Object instanceOf(ITestResult tr) {
+    Object instance = tr.getInstance();
+    if (instance == null) {
+      // The instance was released (see RuntimeBehavior#RELEASE_FINISHED_INSTANCES)
+      return IInstanceIdentity.getInstanceId(tr.getMethod());
+    }
+    return instance;
+  }
+
   protected String getFileName(Class cls) {
     return "TEST-" + cls.getName() + ".xml";
   }
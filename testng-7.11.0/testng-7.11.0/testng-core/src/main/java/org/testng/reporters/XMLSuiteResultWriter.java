@@ -14,6 +14,7 @@ import org.testng.IResultMap;
 import org.testng.ISuiteResult;
 import org.testng.ITestContext;
 import org.testng.ITestResult;
+import org.testng.InvocationMetrics;
 import org.testng.Reporter;
 import org.testng.annotations.CustomAttribute;
 import org.testng.collections.Lists;
@@ -209,6 +210,18 @@ public class XMLSuiteResultWriter {
     long duration = testResult.getEndMillis() - testResult.getStartMillis();
     String strDuration = Long.toString(duration);
     attributes.setProperty(XMLReporterConfig.ATTR_DURATION_MS, strDuration);
+    addInvocationMetrics(
+        attributes,
+        testResult.getInvocationMetrics(),
+        XMLReporterConfig.ATTR_DURATION_NS,
+        XMLReporterConfig.ATTR_CPU_TIME_NS,
+        XMLReporterConfig.ATTR_ALLOCATED_BYTES);
+    addInvocationMetrics(
+        attributes,
+        testResult.getConfigurationMetrics(),
+        XMLReporterConfig.ATTR_CONFIG_DURATION_NS,
+        XMLReporterConfig.ATTR_CONFIG_CPU_TIME_NS,
+        XMLReporterConfig.ATTR_CONFIG_ALLOCATED_BYTES);
 
     if (config.isGenerateGroupsAttribute()) {
       String groupNamesStr = Utils.arrayToString(testResult.getMethod().getGroups());
@@ -242,6 +255,24 @@ public class XMLSuiteResultWriter {
     return attributes;
   }
 
+  private static void addInvocationMetrics(
+      Properties attributes,
+      InvocationMetrics metrics,
+      String durationAttr,
+      String cpuTimeAttr,
+      String allocatedAttr) {
+    if (!metrics.isCaptured()) {
+      return;
+    }
+    attributes.setProperty(durationAttr, Long.toString(metrics.getDurationNanos()));
+    if (metrics.getCpuTimeNanos() >= 0) {
+      attributes.setProperty(cpuTimeAttr, Long.toString(metrics.getCpuTimeNanos()));
+    }
+    if (metrics.getAllocatedBytes() >= 0) {
+      attributes.setProperty(allocatedAttr, Long.toString(metrics.getAllocatedBytes()));
+    }
+  }
+
   private String removeClassName(String methodSignature) {
     int firstParanthesisPos = methodSignature.indexOf("(");
     int dotAferClassPos = methodSignature.substring(0, firstParanthesisPos).lastIndexOf(".");
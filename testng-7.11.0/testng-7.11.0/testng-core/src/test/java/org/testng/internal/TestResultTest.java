@@ -0,0 +1,73 @@
+package org.testng.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.internal.testresult.NamedSample;
+import test.SimpleBaseTest;
+
+public class TestResultTest extends SimpleBaseTest {
+
+  @Test
+  public void idsAreUnique() {
+    TestResult first = TestResult.newEmptyTestResult();
+    TestResult second = TestResult.newEmptyTestResult();
+
+    assertThat(first.id()).isNotEqualTo(second.id()).isEqualTo(first.id());
+  }
+
+  @Test
+  public void attributesCanBeReadBeforeAnyIsSet() {
+    TestResult result = TestResult.newEmptyTestResult();
+    assertThat(result.getAttributeNames()).isEmpty();
+    assertThat(result.getAttribute("name")).isNull();
+    assertThat(result.removeAttribute("name")).isNull();
+
+    result.setAttribute("name", "value");
+
+    assertThat(result.getAttributeNames()).containsExactly("name");
+    assertThat(result.getAttribute("name")).isEqualTo("value");
+    assertThat(result.removeAttribute("name")).isEqualTo("value");
+  }
+
+  @Test
+  public void resultsAreNamedAfterTheOverriddenToString() {
+    List<ITestResult> results = run();
+
+    assertThat(results)
+        .extracting(ITestResult::getName)
+        .containsExactlyInAnyOrder("test on sample", "test on sample", "test on sample");
+    assertThat(results).extracting(ITestResult::getInstanceName).containsOnly("sample");
+  }
+
+  @Test
+  public void snapshotsOfTheSameMethodShareWhatDoesNotChange() {
+    ITestNGMethod method = run().get(0).getMethod();
+
+    LiteWeightTestNGMethod.Snapshots snapshots = new LiteWeightTestNGMethod.Snapshots();
+    LiteWeightTestNGMethod first = snapshots.snapshotOf(method);
+    LiteWeightTestNGMethod second = snapshots.snapshotOf(method);
+
+    assertThat(second).isNotSameAs(first).isEqualTo(first);
+    assertThat(second.getGroups()).isSameAs(first.getGroups());
+    assertThat(second.toString()).isSameAs(first.toString());
+    assertThat(second.getDataProviderMethod()).isSameAs(first.getDataProviderMethod());
+
+    second.addMethodDependedUpon("other");
+    assertThat(second.getMethodsDependedUpon()).containsExactly("other");
+    assertThat(first.getMethodsDependedUpon()).isEmpty();
+  }
+
+  private static List<ITestResult> run() {
+    TestNG testng = create(NamedSample.class);
+    TestListenerAdapter listener = new TestListenerAdapter();
+    testng.addListener(listener);
+    testng.run();
+    return listener.getPassedTests();
+  }
+}
@@ -0,0 +1,96 @@
+package org.testng.internal.invokers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.ITestResult;
+import org.testng.annotations.Test;
+
+public class DataProviderRowDispatcherTest {
+
+  @Test(description = "A rejected task should only fail the rows once the running ones are done")
+  public void ensureRunningRowsAreWaitedForWhenATaskIsRejected() {
+    AtomicInteger started = new AtomicInteger();
+    AtomicInteger finished = new AtomicInteger();
+    AtomicInteger accepted = new AtomicInteger();
+    ExecutorService pool = Executors.newFixedThreadPool(2);
+    try {
+      ExecutorService service =
+          new AbstractExecutorService() {
+            @Override
+            public void execute(Runnable command) {
+              if (accepted.incrementAndGet() > 2) {
+                throw new RejectedExecutionException("Only two tasks are accepted");
+              }
+              pool.execute(command);
+            }
+
+            @Override
+            public void shutdown() {}
+
+            @Override
+            public List<Runnable> shutdownNow() {
+              return Collections.emptyList();
+            }
+
+            @Override
+            public boolean isShutdown() {
+              return false;
+            }
+
+            @Override
+            public boolean isTerminated() {
+              return false;
+            }
+
+            @Override
+            public boolean awaitTermination(long timeout, TimeUnit unit) {
+              return false;
+            }
+          };
+      DataProviderRowDispatcher dispatcher = new DataProviderRowDispatcher(service, 2, 1);
+      for (int i = 0; i < 10; i++) {
+        dispatcher.dispatch(new SleepingWorker(started, finished));
+      }
+      assertThatThrownBy(dispatcher::awaitResults)
+          .isInstanceOf(CompletionException.class)
+          .hasCauseInstanceOf(RejectedExecutionException.class);
+      assertThat(finished.get()).isEqualTo(started.get()).isEqualTo(2);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private static class SleepingWorker extends TestMethodWithDataProviderMethodWorker {
+
+    private final AtomicInteger started;
+    private final AtomicInteger finished;
+
+    SleepingWorker(AtomicInteger started, AtomicInteger finished) {
+      super(null, null, 0, null, null, null, null, null, null, null, null, false, 0, 0, null);
+      this.started = started;
+      this.finished = finished;
+    }
+
+    @Override
+    public List<ITestResult> call() {
+      started.incrementAndGet();
+      try {
+        Thread.sleep(50);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      finished.incrementAndGet();
+      return Collections.emptyList();
+    }
+  }
+}
@@ -0,0 +1,41 @@
+package org.testng.internal.invokers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import org.testng.annotations.Test;
+
+public class InstanceMethodResolverTest {
+
+  @Test(description = "TESTNG-326: methods are looked up once in the class of the instance")
+  public void ensureMethodsAreResolvedOncePerClass() throws Exception {
+    URL classes = ResolverSample.class.getProtectionDomain().getCodeSource().getLocation();
+    try (URLClassLoader loader = new URLClassLoader(new URL[] {classes}, null)) {
+      Class<?> other = loader.loadClass(ResolverSample.class.getName());
+      assertThat(other).isNotSameAs(ResolverSample.class);
+      Object instance = other.getDeclaredConstructor().newInstance();
+
+      Method method = ResolverSample.class.getMethod("publicMethod");
+      Method resolved = InstanceMethodResolver.resolve(method, instance);
+      assertThat(resolved.getDeclaringClass()).isSameAs(other);
+      assertThat(InstanceMethodResolver.resolve(method, instance)).isSameAs(resolved);
+      assertThat(MethodInvocationHelper.invokeMethod(method, instance, new Object[0]))
+          .isEqualTo(1);
+
+      Method privateMethod = ResolverSample.class.getDeclaredMethod("privateMethod");
+      assertThat(MethodInvocationHelper.invokeMethod(privateMethod, instance, new Object[0]))
+          .isEqualTo(2);
+    }
+  }
+
+  @Test
+  public void ensureMissingMethodsAreReported() throws Exception {
+    Method method = ResolverSample.class.getMethod("publicMethod");
+    assertThatThrownBy(() -> InstanceMethodResolver.resolve(method, "not a sample"))
+        .isInstanceOf(RuntimeException.class)
+        .hasMessageContaining("due to class mismatch");
+  }
+}
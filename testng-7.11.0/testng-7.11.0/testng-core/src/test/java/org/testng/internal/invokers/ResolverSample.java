@@ -0,0 +1,12 @@
+package org.testng.internal.invokers;
+
+public class ResolverSample {
+
+  public int publicMethod() {
+    return 1;
+  }
+
+  private int privateMethod() {
+    return 2;
+  }
+}
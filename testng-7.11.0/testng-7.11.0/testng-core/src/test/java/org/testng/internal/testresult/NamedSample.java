@@ -0,0 +1,14 @@
+package org.testng.internal.testresult;
+
+import org.testng.annotations.Test;
+
+public class NamedSample {
+
+  @Test(invocationCount = 3, groups = "sample")
+  public void test() {}
+
+  @Override
+  public String toString() {
+    return "sample";
+  }
+}
@@ -0,0 +1,47 @@
+package test.annotationtransformer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.annotations.Test;
+import org.testng.internal.annotations.JDK15AnnotationFinder;
+import org.testng.internal.profiling.Counter;
+import test.SimpleBaseTest;
+
+public class AnnotationFinderCacheTest extends SimpleBaseTest {
+
+  @Test(description = "Resolved annotations should be cached and transformed only once")
+  public void ensureAnnotationsAreTransformedOnce() throws NoSuchMethodException {
+    CountingTransformer transformer = new CountingTransformer();
+    JDK15AnnotationFinder finder = new JDK15AnnotationFinder(transformer);
+    Method method = AnnotationTransformerSampleTest.class.getMethod("two");
+
+    ITestAnnotation first = finder.findAnnotation(method, ITestAnnotation.class);
+    int invocations = transformer.getInvocations();
+    long hits = finder.getCount(Counter.ANNOTATION_CACHE_HITS);
+    for (int i = 0; i < 10; i++) {
+      Method copy = AnnotationTransformerSampleTest.class.getMethod("two");
+      assertThat(finder.findAnnotation(copy, ITestAnnotation.class)).isSameAs(first);
+    }
+    assertThat(transformer.getInvocations()).isEqualTo(invocations);
+    assertThat(finder.getCount(Counter.ANNOTATION_CACHE_HITS)).isEqualTo(hits + 10);
+  }
+
+  @Test(description = "Class level annotations should be transformed once per test class")
+  public void ensureClassAnnotationsAreTransformedOncePerClass() {
+    CountingTransformer transformer = new CountingTransformer();
+    JDK15AnnotationFinder finder = new JDK15AnnotationFinder(transformer);
+
+    ITestAnnotation first =
+        finder.findAnnotation(AnnotationTransformerClassSampleTest.class, ITestAnnotation.class);
+    int invocations = transformer.getInvocations();
+    for (int i = 0; i < 10; i++) {
+      assertThat(
+              finder.findAnnotation(
+                  AnnotationTransformerClassSampleTest.class, ITestAnnotation.class))
+          .isSameAs(first);
+    }
+    assertThat(transformer.getInvocations()).isEqualTo(invocations);
+  }
+}
@@ -0,0 +1,22 @@
+package test.annotationtransformer;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.IAnnotationTransformer;
+import org.testng.annotations.ITestAnnotation;
+
+public class CountingTransformer implements IAnnotationTransformer {
+
+  private final AtomicInteger invocations = new AtomicInteger();
+
+  @Override
+  public void transform(
+      ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+    invocations.incrementAndGet();
+  }
+
+  public int getInvocations() {
+    return invocations.get();
+  }
+}
@@ -0,0 +1,71 @@
+package test.async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+public class CompletionStageSample {
+
+  private ScheduledExecutorService scheduler;
+  private volatile boolean setupCompleted;
+
+  @BeforeClass
+  public CompletionStage<Void> setup() {
+    scheduler = Executors.newSingleThreadScheduledExecutor();
+    return completeAfter(50, null).thenRun(() -> setupCompleted = true);
+  }
+
+  @AfterClass(alwaysRun = true)
+  public void tearDown() {
+    scheduler.shutdownNow();
+  }
+
+  @Test
+  public CompletableFuture<Void> passingTest() {
+    if (!setupCompleted) {
+      throw new AssertionError("@BeforeClass was not waited for");
+    }
+    return completeAfter(20, null);
+  }
+
+  @Test
+  public CompletableFuture<Void> failingTest() {
+    return completeAfter(20, new AssertionError("failed asynchronously"));
+  }
+
+  @Test(expectedExceptions = IllegalStateException.class)
+  public CompletableFuture<Void> expectedExceptionTest() {
+    return completeAfter(20, new IllegalStateException());
+  }
+
+  @Test(timeOut = 100)
+  public CompletableFuture<Void> timedOutTest() {
+    return completeAfter(5_000, null);
+  }
+
+  @Test(timeOut = 100)
+  public CompletableFuture<Void> blockingTimedOutTest() throws InterruptedException {
+    TimeUnit.SECONDS.sleep(5);
+    return CompletableFuture.completedFuture(null);
+  }
+
+  private CompletableFuture<Void> completeAfter(long millis, Throwable error) {
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    scheduler.schedule(
+        () -> {
+          if (error == null) {
+            future.complete(null);
+          } else {
+            future.completeExceptionally(error);
+          }
+        },
+        millis,
+        TimeUnit.MILLISECONDS);
+    return future;
+  }
+}
@@ -0,0 +1,79 @@
+package test.async;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.testng.ITestResult;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.internal.thread.ThreadTimeoutException;
+import org.testng.xml.XmlSuite;
+import test.InvokedMethodNameListener;
+import test.SimpleBaseTest;
+
+public class CompletionStageTest extends SimpleBaseTest {
+
+  @Test(description = "Methods returning a CompletionStage are completed when the stage completes")
+  public void ensureCompletionStagesAreWaitedFor() {
+    runCompletionStageSample(create(CompletionStageSample.class));
+  }
+
+  @Test(description = "Parallel methods returning a CompletionStage are completed the same way")
+  public void ensureSuspendedCompletionStagesAreCompleted() {
+    XmlSuite suite = createXmlSuite("async_suite");
+    createXmlTest(suite, "async_test", CompletionStageSample.class);
+    suite.setParallel(XmlSuite.ParallelMode.METHODS);
+    suite.setThreadCount(2);
+    runCompletionStageSample(create(suite));
+  }
+
+  @Test(description = "Pending stages should not keep the threads of parallel methods waiting")
+  public void ensurePendingStagesDoNotOccupyThreads() {
+    XmlSuite suite = createXmlSuite("async_suite");
+    createXmlTest(suite, "async_test", SuspendedStagesSample.class);
+    suite.setParallel(XmlSuite.ParallelMode.METHODS);
+    suite.setThreadCount(1);
+    TestNG testng = create(suite);
+    InvokedMethodNameListener listener = new InvokedMethodNameListener();
+    testng.addListener(listener);
+    testng.run();
+
+    assertThat(listener.getFailedMethodNames()).isEmpty();
+    assertThat(listener.getSucceedMethodNames())
+        .containsExactlyInAnyOrder(
+            "first",
+            "second",
+            "third",
+            "fourth",
+            "afterMethod",
+            "afterMethod",
+            "afterMethod",
+            "afterMethod",
+            "last",
+            "afterMethod");
+    assertThat(listener.getSucceedMethodNames()).endsWith("last", "afterMethod");
+  }
+
+  private static void runCompletionStageSample(TestNG testng) {
+    TestListenerAdapter listener = new TestListenerAdapter();
+    testng.addListener(listener);
+    testng.run();
+
+    assertThat(listener.getConfigurationFailures()).isEmpty();
+    assertThat(listener.getPassedTests())
+        .extracting(ITestResult::getName)
+        .containsExactlyInAnyOrder("passingTest", "expectedExceptionTest");
+    assertThat(listener.getFailedTests())
+        .extracting(ITestResult::getName)
+        .containsExactlyInAnyOrder("failingTest", "timedOutTest", "blockingTimedOutTest");
+    for (ITestResult result : listener.getFailedTests()) {
+      if (result.getName().equals("failingTest")) {
+        assertThat(result.getThrowable())
+            .isInstanceOf(AssertionError.class)
+            .hasMessage("failed asynchronously");
+      } else {
+        assertThat(result.getThrowable()).isInstanceOf(ThreadTimeoutException.class);
+      }
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package test.async;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+public class SuspendedStagesSample {
+
+  private static final int COUNT = 4;
+
+  private final AtomicInteger started = new AtomicInteger();
+  private final CompletableFuture<Void> allStarted = new CompletableFuture<>();
+  @AfterMethod
+  public void afterMethod() {}
+
+  @Test(timeOut = 10_000)
+  public CompletableFuture<Void> first() {
+    return awaitOthers();
+  }
+
+  @Test(timeOut = 10_000)
+  public CompletableFuture<Void> second() {
+    return awaitOthers();
+  }
+
+  @Test(timeOut = 10_000)
+  public CompletableFuture<Void> third() {
+    return awaitOthers();
+  }
+
+  @Test(timeOut = 10_000)
+  public CompletableFuture<Void> fourth() {
+    return awaitOthers();
+  }
+
+  @Test(dependsOnMethods = {"first", "second", "third", "fourth"})
+  public void last() {}
+
+  // Only completes once all the methods are in flight, which a single thread cannot do if it waits
+  private CompletableFuture<Void> awaitOthers() {
+    if (started.incrementAndGet() == COUNT) {
+      allStarted.complete(null);
+    }
+    return allStarted.thenRun(() -> {});
+  }
+}
@@ -0,0 +1,79 @@
+package test.collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.testng.annotations.Test;
+import org.testng.collections.IntArrayList;
+import org.testng.collections.IntHashSet;
+import org.testng.collections.Object2IntMap;
+
+public class PrimitiveCollectionsTest {
+
+  @Test(description = "An IntArrayList should grow as values are added to it")
+  public void ensureIntArrayListGrows() {
+    IntArrayList list = new IntArrayList();
+    assertThat(list.isEmpty()).isTrue();
+    for (int i = 0; i < 100; i++) {
+      list.add(i * 3);
+    }
+    assertThat(list.size()).isEqualTo(100);
+    assertThat(list.get(99)).isEqualTo(297);
+    assertThat(list.contains(42)).isTrue();
+    assertThat(list.contains(43)).isFalse();
+    assertThat(list.toList()).hasSize(100).startsWith(0, 3, 6);
+    assertThat(IntArrayList.of(1, 2, 3)).isEqualTo(IntArrayList.of(Arrays.asList(1, 2, 3)));
+    assertThatThrownBy(() -> list.get(100)).isInstanceOf(IndexOutOfBoundsException.class);
+  }
+
+  @Test(description = "An IntHashSet should hold 0, negative and colliding values")
+  public void ensureIntHashSetHoldsAnyValue() {
+    IntHashSet set = IntHashSet.of(0, -1, 5);
+    assertThat(set.add(0)).isFalse();
+    assertThat(set.contains(0)).isTrue();
+    assertThat(set.contains(-1)).isTrue();
+    assertThat(set.contains(6)).isFalse();
+    assertThat(set.remove(0)).isTrue();
+    assertThat(set.contains(0)).isFalse();
+    assertThat(set.size()).isEqualTo(2);
+    assertThat(set.toString()).isEqualTo("[-1, 5]");
+  }
+
+  @Test(description = "An IntHashSet should find its values once some were removed")
+  public void ensureIntHashSetKeepsValuesReachable() {
+    IntHashSet set = new IntHashSet();
+    for (int i = 1; i <= 1000; i++) {
+      set.add(i * 1024);
+    }
+    for (int i = 1; i <= 1000; i += 2) {
+      assertThat(set.remove(i * 1024)).isTrue();
+    }
+    assertThat(set.size()).isEqualTo(500);
+    for (int i = 1; i <= 1000; i++) {
+      assertThat(set.contains(i * 1024)).isEqualTo(i % 2 == 0);
+    }
+    assertThat(set.toArray()).hasSize(500);
+  }
+
+  @Test(description = "An Object2IntMap should behave like a map of boxed values")
+  public void ensureObject2IntMapBehavesLikeAMap() {
+    Object2IntMap<String> map = new Object2IntMap<>(-1);
+    Map<String, Integer> expected = new HashMap<>();
+    for (int i = 0; i < 500; i++) {
+      String key = "key" + (i % 200);
+      map.addTo(key, i);
+      expected.put(key, expected.getOrDefault(key, -1) + i);
+    }
+    assertThat(map.size()).isEqualTo(expected.size());
+    expected.forEach((key, value) -> assertThat(map.get(key)).isEqualTo(value));
+    assertThat(map.get("missing")).isEqualTo(-1);
+    assertThat(map.containsKey("missing")).isFalse();
+    assertThat(map.put("key0", 7)).isEqualTo(expected.get("key0"));
+    assertThat(map.computeIfAbsent("key0", String::length)).isEqualTo(7);
+    assertThat(map.computeIfAbsent("other", String::length)).isEqualTo(5);
+    assertThat(map.get("other")).isEqualTo(5);
+  }
+}
@@ -0,0 +1,78 @@
+package test.dataprovider.cache;
+
+import java.lang.reflect.Method;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class DataProviderCacheSample {
+
+  public static final Map<String, AtomicInteger> INVOCATIONS = new ConcurrentHashMap<>();
+  public static final List<Integer> CONSUMED = new CopyOnWriteArrayList<>();
+
+  private static void invoked(String name) {
+    INVOCATIONS.computeIfAbsent(name, k -> new AtomicInteger()).incrementAndGet();
+  }
+
+  @DataProvider
+  public static Object[][] shared() {
+    invoked("shared");
+    return new Object[][] {{1}, {2}, {3}};
+  }
+
+  @DataProvider
+  public static Object[][] perMethod(Method method) {
+    invoked("perMethod");
+    return new Object[][] {{method.getName()}};
+  }
+
+  @DataProvider
+  public static Iterator<Object[]> lazy() {
+    invoked("lazy");
+    return new Iterator<Object[]>() {
+      private int row = 0;
+
+      @Override
+      public boolean hasNext() {
+        return row < 3;
+      }
+
+      @Override
+      public Object[] next() {
+        CONSUMED.add(row);
+        return new Object[] {row++};
+      }
+    };
+  }
+
+  @Test(dataProvider = "shared")
+  public void a(int i) {}
+
+  @Test(dataProvider = "shared")
+  public void b(int i) {}
+
+  @Test(dataProvider = "shared")
+  public void c(int i) {}
+
+  @Test(dataProvider = "perMethod")
+  public void d(String name) {
+    Assert.assertEquals(name, "d");
+  }
+
+  @Test(dataProvider = "perMethod")
+  public void e(String name) {
+    Assert.assertEquals(name, "e");
+  }
+
+  @Test(dataProvider = "lazy")
+  public void f(int i) {}
+
+  @Test(dataProvider = "lazy")
+  public void g(int i) {}
+}
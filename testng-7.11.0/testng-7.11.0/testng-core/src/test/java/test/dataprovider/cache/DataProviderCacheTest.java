@@ -0,0 +1,91 @@
+package test.dataprovider.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.testng.internal.RuntimeBehavior;
+import org.testng.internal.invokers.DataProviderCache;
+import test.SimpleBaseTest;
+
+public class DataProviderCacheTest extends SimpleBaseTest {
+
+  @AfterMethod(alwaysRun = true)
+  public void reset() {
+    System.clearProperty(RuntimeBehavior.DATA_PROVIDER_CACHE);
+    System.clearProperty(RuntimeBehavior.DATA_PROVIDER_CACHE_ROWS);
+    System.clearProperty(RuntimeBehavior.DATA_PROVIDER_CACHE_SPILL);
+    DataProviderCacheSample.INVOCATIONS.clear();
+    DataProviderCacheSample.CONSUMED.clear();
+    FailingDataProviderCacheSample.INVOCATIONS.set(0);
+  }
+
+  @Test
+  public void dataProvidersAreInvokedForEachTestMethodByDefault() {
+    TestListenerAdapter listener = run();
+
+    assertThat(DataProviderCacheSample.INVOCATIONS)
+        .hasEntrySatisfying("shared", count -> assertThat(count).hasValue(3))
+        .hasEntrySatisfying("lazy", count -> assertThat(count).hasValue(2));
+    assertThat(DataProviderCache.of(listener.getTestContexts().get(0))).isNull();
+  }
+
+  @Test
+  public void rowsAreSharedBetweenTestMethods() {
+    System.setProperty(RuntimeBehavior.DATA_PROVIDER_CACHE, "test");
+    TestListenerAdapter listener = run();
+
+    assertThat(DataProviderCacheSample.INVOCATIONS)
+        .hasEntrySatisfying("shared", count -> assertThat(count).hasValue(1))
+        // The data provider takes the test method, so its rows are not shared
+        .hasEntrySatisfying("perMethod", count -> assertThat(count).hasValue(2))
+        .hasEntrySatisfying("lazy", count -> assertThat(count).hasValue(1));
+    assertThat(DataProviderCacheSample.CONSUMED).containsExactly(0, 1, 2);
+    DataProviderCache cache = DataProviderCache.of(listener.getTestContexts().get(0));
+    assertThat(cache.getHits()).isEqualTo(3);
+    assertThat(cache.getMisses()).isEqualTo(4);
+    assertThat(cache.getEvictions()).isZero();
+  }
+
+  @Test
+  public void evictedRowsCanBeSpilled() {
+    System.setProperty(RuntimeBehavior.DATA_PROVIDER_CACHE, "suite");
+    System.setProperty(RuntimeBehavior.DATA_PROVIDER_CACHE_ROWS, "1");
+    System.setProperty(RuntimeBehavior.DATA_PROVIDER_CACHE_SPILL, "true");
+    TestListenerAdapter listener = run();
+
+    DataProviderCache cache = DataProviderCache.of(listener.getTestContexts().get(0));
+    assertThat(cache.getEvictions()).isPositive();
+    assertThat(cache.getSpills()).isPositive().isLessThanOrEqualTo(cache.getEvictions());
+  }
+
+  @Test
+  public void rowsOfAFailedIteratorAreEvicted() {
+    System.setProperty(RuntimeBehavior.DATA_PROVIDER_CACHE, "test");
+    TestNG testng = create(FailingDataProviderCacheSample.class);
+    TestListenerAdapter listener = new TestListenerAdapter();
+    testng.addListener(listener);
+    testng.run();
+
+    // The second test method gets rows of its own rather than those of the failed iterator
+    assertThat(FailingDataProviderCacheSample.INVOCATIONS).hasValue(2);
+    assertThat(listener.getPassedTests())
+        .extracting(it -> it.getMethod().getMethodName() + it.getParameters()[0])
+        .containsExactlyInAnyOrder("a0", "b0", "b1");
+    DataProviderCache cache = DataProviderCache.of(listener.getTestContexts().get(0));
+    assertThat(cache.getHits()).isZero();
+    assertThat(cache.getMisses()).isEqualTo(2);
+  }
+
+  private static TestListenerAdapter run() {
+    TestNG testng = create(DataProviderCacheSample.class);
+    TestListenerAdapter listener = new TestListenerAdapter();
+    testng.addListener(listener);
+    testng.run();
+    assertThat(listener.getPassedTests()).hasSize(17);
+    assertThat(listener.getFailedTests()).isEmpty();
+    return listener;
+  }
+}
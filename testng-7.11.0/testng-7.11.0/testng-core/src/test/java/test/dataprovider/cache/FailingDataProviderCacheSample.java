@@ -0,0 +1,38 @@
+package test.dataprovider.cache;
+
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class FailingDataProviderCacheSample {
+
+  public static final AtomicInteger INVOCATIONS = new AtomicInteger();
+
+  @DataProvider
+  public static Iterator<Object[]> failsTheFirstTime() {
+    boolean fail = INVOCATIONS.incrementAndGet() == 1;
+    return new Iterator<Object[]>() {
+      private int row = 0;
+
+      @Override
+      public boolean hasNext() {
+        if (fail && row == 1) {
+          throw new IllegalStateException("The source went away");
+        }
+        return row < 2;
+      }
+
+      @Override
+      public Object[] next() {
+        return new Object[] {row++};
+      }
+    };
+  }
+
+  @Test(dataProvider = "failsTheFirstTime")
+  public void a(int i) {}
+
+  @Test(dataProvider = "failsTheFirstTime")
+  public void b(int i) {}
+}
@@ -0,0 +1,12 @@
+package test.dataprovider.file;
+
+import org.testng.FileDataProviders;
+import org.testng.annotations.DataFile;
+import org.testng.annotations.Test;
+
+public class DataFileSample {
+
+  @DataFile(value = "src/test/resources/dataprovider/file/orders.csv", header = true)
+  @Test(dataProvider = "file", dataProviderClass = FileDataProviders.class)
+  public void order(String id, int quantity, double price) {}
+}
@@ -0,0 +1,10 @@
+package test.dataprovider.file;
+
+import org.testng.FileDataProviders;
+import org.testng.annotations.Test;
+
+public class FileDataProvidersSample {
+
+  @Test(dataProvider = "file", dataProviderClass = FileDataProviders.class)
+  public void row(String id, int quantity, Double price) {}
+}
@@ -0,0 +1,104 @@
+package test.dataprovider.file;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.testng.FileDataProviders;
+import org.testng.ITestResult;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.collections.Maps;
+import org.testng.xml.XmlSuite;
+import test.SimpleBaseTest;
+
+public class FileDataProvidersTest extends SimpleBaseTest {
+
+  @Test
+  public void rowsAreReadFromTheFileOfTheTest() throws IOException {
+    Path file = write(".csv", "id,quantity,price\r\nA-1,3,1.5\n\n\"B,\"\"2\"\"\",1,\n");
+    Map<String, String> parameters = Maps.newHashMap();
+    parameters.put(FileDataProviders.FILE, file.toString());
+    parameters.put(FileDataProviders.HEADER, "true");
+
+    List<ITestResult> results = run(parameters);
+
+    assertThat(results)
+        .extracting(ITestResult::getParameters)
+        .containsExactly(new Object[] {"A-1", 3, 1.5}, new Object[] {"B,\"2\"", 1, null});
+  }
+
+  @Test
+  public void rowsCanBeJsonArrays() throws IOException {
+    Path file = write(".jsonl", "[\"A-1\", 3, 1.5]\n[\"B\\t2\", 1, null]\n");
+    Map<String, String> parameters = Maps.newHashMap();
+    parameters.put(FileDataProviders.FILE, file.toString());
+
+    List<ITestResult> results = run(parameters);
+
+    assertThat(results)
+        .extracting(ITestResult::getParameters)
+        .containsExactly(new Object[] {"A-1", 3, 1.5}, new Object[] {"B\t2", 1, null});
+  }
+
+  @Test
+  public void rowsCanBeSharded() throws IOException {
+    StringBuilder rows = new StringBuilder();
+    for (int i = 0; i < 100; i++) {
+      rows.append("row-").append(i).append(',').append(i).append(",0.5\n");
+    }
+    Path file = write(".csv", rows.toString());
+    List<Integer> all =
+        IntStream.range(0, 3)
+            .boxed()
+            .flatMap(
+                shard -> {
+                  Map<String, String> parameters = Maps.newHashMap();
+                  parameters.put(FileDataProviders.FILE, file.toString());
+                  parameters.put(FileDataProviders.SHARD, shard + "/3");
+                  return run(parameters).stream();
+                })
+            .map(result -> (Integer) result.getParameters()[1])
+            .collect(Collectors.toList());
+
+    assertThat(all).hasSize(100).doesNotHaveDuplicates();
+  }
+
+  @Test
+  public void fileCanBeNamedByTheTestMethod() {
+    TestNG testng = create(DataFileSample.class);
+    TestListenerAdapter listener = new TestListenerAdapter();
+    testng.addListener(listener);
+    testng.run();
+
+    assertThat(listener.getPassedTests())
+        .extracting(ITestResult::getParameters)
+        .containsExactlyInAnyOrder(new Object[] {"A-1", 3, 1.5}, new Object[] {"B,2", 1, 0.25});
+  }
+
+  private static List<ITestResult> run(Map<String, String> parameters) {
+    XmlSuite suite = createXmlSuite("suite", "test", FileDataProvidersSample.class);
+    suite.setParameters(parameters);
+    TestNG testng = create(suite);
+    TestListenerAdapter listener = new TestListenerAdapter();
+    testng.addListener(listener);
+    testng.run();
+    assertThat(listener.getFailedTests()).isEmpty();
+    assertThat(listener.getSkippedTests()).isEmpty();
+    return listener.getPassedTests();
+  }
+
+  private static Path write(String suffix, String content) throws IOException {
+    Path file = Files.createTempFile("rows", suffix);
+    file.toFile().deleteOnExit();
+    Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    return file;
+  }
+}
@@ -0,0 +1,98 @@
+package test.dataprovider.prefetch;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.testng.IDataProviderListener;
+import org.testng.IDataProviderMethod;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+import org.testng.internal.RuntimeBehavior;
+
+@Listeners(DataProviderPrefetchSample.Listener.class)
+public class DataProviderPrefetchSample {
+
+  public static final List<String> EVENTS = new CopyOnWriteArrayList<>();
+  public static final Map<String, String> THREADS = new ConcurrentHashMap<>();
+  public static final Map<String, Boolean> PREPARED = new ConcurrentHashMap<>();
+  public static volatile CountDownLatch secondInvoked = new CountDownLatch(1);
+  public static volatile boolean prepared;
+
+  private static Object[][] rows(String name) {
+    THREADS.put(name, Thread.currentThread().getName());
+    PREPARED.put(name, prepared);
+    if ("second".equals(name)) {
+      secondInvoked.countDown();
+    }
+    return new Object[][] {{1}, {2}};
+  }
+
+  @BeforeClass
+  public void prepare() {
+    prepared = true;
+  }
+
+  @DataProvider
+  public static Object[][] first() {
+    return rows("first");
+  }
+
+  @DataProvider
+  public static Object[][] second() {
+    return rows("second");
+  }
+
+  @DataProvider
+  public static Object[][] broken() {
+    throw new IllegalStateException("Broken data provider");
+  }
+
+  @DataProvider
+  public Object[][] ofInstance() {
+    return rows("ofInstance");
+  }
+
+  @Test(dataProvider = "first", priority = 1)
+  public void a(int i) throws InterruptedException {
+    if (Boolean.getBoolean(RuntimeBehavior.DATA_PROVIDER_PREFETCH)) {
+      // Only done with the data provider of the next test method if it was prefetched meanwhile
+      secondInvoked.await(10, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test(dataProvider = "second", priority = 2)
+  public void b(int i) {}
+
+  @Test(dataProvider = "broken", priority = 3)
+  public void c(int i) {}
+
+  @Test(dataProvider = "ofInstance", priority = 4)
+  public void d(int i) {}
+
+  public static class Listener implements IDataProviderListener {
+
+    @Override
+    public void beforeDataProviderExecution(
+        IDataProviderMethod dataProviderMethod, ITestNGMethod method, ITestContext context) {
+      EVENTS.add("before " + dataProviderMethod.getMethod().getName());
+    }
+
+    @Override
+    public void afterDataProviderExecution(
+        IDataProviderMethod dataProviderMethod, ITestNGMethod method, ITestContext context) {
+      EVENTS.add("after " + dataProviderMethod.getMethod().getName());
+    }
+
+    @Override
+    public void onDataProviderFailure(ITestNGMethod method, ITestContext ctx, RuntimeException t) {
+      EVENTS.add("failure " + method.getMethodName());
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package test.dataprovider.prefetch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import org.testng.ITestResult;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.testng.internal.RuntimeBehavior;
+import test.SimpleBaseTest;
+
+public class DataProviderPrefetchTest extends SimpleBaseTest {
+
+  @AfterMethod(alwaysRun = true)
+  public void reset() {
+    System.clearProperty(RuntimeBehavior.DATA_PROVIDER_PREFETCH);
+    System.clearProperty(RuntimeBehavior.DATA_PROVIDER_PREFETCH_BUDGET);
+    DataProviderPrefetchSample.EVENTS.clear();
+    DataProviderPrefetchSample.THREADS.clear();
+    DataProviderPrefetchSample.PREPARED.clear();
+    DataProviderPrefetchSample.secondInvoked = new CountDownLatch(1);
+    DataProviderPrefetchSample.prepared = false;
+    SkippedPrefetchSample.THREADS.clear();
+    SkippedPrefetchSample.lastInvoked = new CountDownLatch(1);
+  }
+
+  @Test
+  public void staticDataProvidersArePrefetched() {
+    System.setProperty(RuntimeBehavior.DATA_PROVIDER_PREFETCH, "true");
+    runAndVerify();
+
+    assertThat(DataProviderPrefetchSample.THREADS.get("second"))
+        .startsWith("TestNG-data-provider-prefetch");
+    assertThat(DataProviderPrefetchSample.THREADS.get("ofInstance"))
+        .doesNotStartWith("TestNG-data-provider-prefetch");
+  }
+
+  @Test(description = "A skipped test method should give the budget of its data provider back")
+  public void skippedTestMethodsDoNotHoldOnToTheBudget() {
+    System.setProperty(RuntimeBehavior.DATA_PROVIDER_PREFETCH, "true");
+    System.setProperty(RuntimeBehavior.DATA_PROVIDER_PREFETCH_BUDGET, "1");
+    TestNG testng = create(SkippedPrefetchSample.class);
+    TestListenerAdapter listener = new TestListenerAdapter();
+    testng.addListener(listener);
+    testng.run();
+
+    assertThat(listener.getSkippedTests())
+        .extracting(ITestResult::getName)
+        .containsExactly("skipped");
+    assertThat(SkippedPrefetchSample.THREADS.get("last"))
+        .startsWith("TestNG-data-provider-prefetch");
+  }
+
+  @Test
+  public void dataProvidersAreNotPrefetchedByDefault() {
+    runAndVerify();
+
+    assertThat(DataProviderPrefetchSample.THREADS.values())
+        .noneMatch(name -> name.startsWith("TestNG-data-provider-prefetch"));
+  }
+
+  private static void runAndVerify() {
+    TestNG testng = create(DataProviderPrefetchSample.class);
+    TestListenerAdapter listener = new TestListenerAdapter();
+    testng.addListener(listener);
+    testng.run();
+
+    assertThat(listener.getPassedTests())
+        .extracting(ITestResult::getName)
+        .containsExactlyInAnyOrder("a", "a", "b", "b", "d", "d");
+    assertThat(listener.getSkippedTests()).extracting(ITestResult::getName).containsExactly("c");
+    // The data providers only ran once the @BeforeClass method had
+    assertThat(DataProviderPrefetchSample.PREPARED).doesNotContainValue(false);
+    // Every data provider is invoked once, with the listeners around it
+    assertThat(DataProviderPrefetchSample.EVENTS)
+        .containsExactlyInAnyOrder(
+            "before first",
+            "after first",
+            "before second",
+            "after second",
+            "before broken",
+            "failure c",
+            "before ofInstance",
+            "after ofInstance");
+    assertThat(DataProviderPrefetchSample.EVENTS)
+        .containsSubsequence("before first", "after first")
+        .containsSubsequence("before second", "after second")
+        .containsSubsequence("before broken", "failure c");
+  }
+}
@@ -0,0 +1,53 @@
+package test.dataprovider.prefetch;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class SkippedPrefetchSample {
+
+  public static final Map<String, String> THREADS = new ConcurrentHashMap<>();
+  public static volatile CountDownLatch lastInvoked = new CountDownLatch(1);
+
+  @DataProvider
+  public static Object[][] first() {
+    THREADS.put("first", Thread.currentThread().getName());
+    return new Object[][] {{1}};
+  }
+
+  @DataProvider
+  public static Object[][] skipped() {
+    THREADS.put("skipped", Thread.currentThread().getName());
+    return new Object[][] {{1}};
+  }
+
+  @DataProvider
+  public static Object[][] last() {
+    THREADS.put("last", Thread.currentThread().getName());
+    lastInvoked.countDown();
+    return new Object[][] {{1}};
+  }
+
+  @Test(dataProvider = "first", priority = 1)
+  public void a(int i) {}
+
+  @Test(priority = 2)
+  public void failing() {
+    throw new AssertionError("Fails on purpose");
+  }
+
+  @Test(dataProvider = "skipped", priority = 3, dependsOnMethods = "failing")
+  public void skipped(int i) {}
+
+  @Test(priority = 4)
+  public void waiting() throws InterruptedException {
+    // Only done with the data provider of the last test method if it was prefetched meanwhile
+    lastInvoked.await(10, TimeUnit.SECONDS);
+  }
+
+  @Test(dataProvider = "last", priority = 5)
+  public void last(int i) {}
+}
@@ -0,0 +1,19 @@
+package test.dataprovider.retention;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import test.dataprovider.DataProviderRetryAnalyzer;
+
+public class ParameterRetentionSample {
+
+  @DataProvider
+  public Object[][] rows() {
+    return new Object[][] {{"payload"}, {"failure"}};
+  }
+
+  @Test(dataProvider = "rows", retryAnalyzer = DataProviderRetryAnalyzer.class)
+  public void test(String row) {
+    Assert.assertNotEquals(row, "failure");
+  }
+}
@@ -0,0 +1,67 @@
+package test.dataprovider.retention;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.testng.internal.RuntimeBehavior;
+import test.SimpleBaseTest;
+
+public class ParameterRetentionTest extends SimpleBaseTest {
+
+  @AfterMethod(alwaysRun = true)
+  public void resetRetention() {
+    System.clearProperty(RuntimeBehavior.PARAMETER_RETENTION);
+    System.clearProperty(RuntimeBehavior.PARAMETER_SNAPSHOT_LENGTH);
+  }
+
+  @Test
+  public void parametersAreKeptByDefault() {
+    TestListenerAdapter listener = runSample();
+
+    assertThat(listener.getPassedTests().get(0).getParameters()).containsExactly("payload");
+    assertThat(listener.getFailedTests().get(0).getParameters()).containsExactly("failure");
+  }
+
+  @Test
+  public void parametersCanBeKeptAsBoundedStrings() {
+    System.setProperty(RuntimeBehavior.PARAMETER_RETENTION, "to_string");
+    System.setProperty(RuntimeBehavior.PARAMETER_SNAPSHOT_LENGTH, "3");
+    TestListenerAdapter listener = runSample();
+
+    assertThat(listener.getPassedTests().get(0).getParameters()).containsExactly("pay...");
+    assertThat(listener.getFailedTests().get(0).getParameters()).containsExactly("fai...");
+  }
+
+  @Test
+  public void parametersCanBeKeptForFailuresOnly() {
+    System.setProperty(RuntimeBehavior.PARAMETER_RETENTION, "failures");
+    TestListenerAdapter listener = runSample();
+
+    assertThat(listener.getPassedTests().get(0).getParameters()).isEmpty();
+    assertThat(listener.getFailedTests().get(0).getParameters()).containsExactly("failure");
+  }
+
+  @Test
+  public void parametersCanBeDroppedButNotForRetriedTests() {
+    System.setProperty(RuntimeBehavior.PARAMETER_RETENTION, "none");
+    TestListenerAdapter listener = runSample();
+
+    assertThat(listener.getPassedTests().get(0).getParameters()).isEmpty();
+    assertThat(listener.getFailedTests().get(0).getParameters()).isEmpty();
+    assertThat(listener.getSkippedTests()).hasSize(1);
+    assertThat(listener.getSkippedTests().get(0).getParameters()).containsExactly("failure");
+  }
+
+  private static TestListenerAdapter runSample() {
+    TestNG testng = create(ParameterRetentionSample.class);
+    TestListenerAdapter listener = new TestListenerAdapter();
+    testng.addListener(listener);
+    testng.run();
+    assertThat(listener.getPassedTests()).hasSize(1);
+    assertThat(listener.getFailedTests()).hasSize(1);
+    return listener;
+  }
+}
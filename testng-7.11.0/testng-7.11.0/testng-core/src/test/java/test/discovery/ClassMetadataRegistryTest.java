@@ -0,0 +1,47 @@
+package test.discovery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.internal.ClassMetadataRegistry;
+import org.testng.internal.annotations.DefaultAnnotationTransformer;
+import org.testng.internal.annotations.JDK15AnnotationFinder;
+import org.testng.xml.XmlSuite;
+import test.InvokedMethodNameListener;
+import test.SimpleBaseTest;
+
+public class ClassMetadataRegistryTest extends SimpleBaseTest {
+
+  @Test(description = "The runners of a suite should share a single registry")
+  public void ensureRegistryIsSharedWithinASuite() {
+    JDK15AnnotationFinder finder = new JDK15AnnotationFinder(new DefaultAnnotationTransformer());
+    XmlSuite suite = new XmlSuite();
+    assertThat(ClassMetadataRegistry.forSuite(suite, finder))
+        .isSameAs(ClassMetadataRegistry.forSuite(suite, finder))
+        .isNotSameAs(ClassMetadataRegistry.forSuite(new XmlSuite(), finder));
+  }
+
+  @Test(description = "The registry should not be shared when user transformers are in use")
+  public void ensureRegistryIsNotSharedWithUserTransformers() {
+    JDK15AnnotationFinder finder = new JDK15AnnotationFinder(new UserAnnotationTransformer());
+    XmlSuite suite = new XmlSuite();
+    assertThat(ClassMetadataRegistry.forSuite(suite, finder))
+        .isNotSameAs(ClassMetadataRegistry.forSuite(suite, finder));
+  }
+
+  @Test(description = "Every test of a suite should run its classes in full")
+  public void ensureEveryTestRunsAllItsMethods() {
+    XmlSuite suite = createXmlSuite("registry_suite");
+    createXmlTest(suite, "first", FirstDiscoverySample.class, SecondDiscoverySample.class);
+    createXmlTest(suite, "second", FirstDiscoverySample.class, SecondDiscoverySample.class);
+    TestNG testng = create(suite);
+    InvokedMethodNameListener listener = new InvokedMethodNameListener();
+    testng.addListener(listener);
+    testng.run();
+    assertThat(testng.getStatus()).isZero();
+    assertThat(listener.getSucceedMethodNames())
+        .containsExactlyInAnyOrder(
+            "firstA", "firstB", "secondA", "secondB", "firstA", "firstB", "secondA", "secondB");
+  }
+}
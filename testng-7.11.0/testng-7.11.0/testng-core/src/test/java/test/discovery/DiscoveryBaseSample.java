@@ -0,0 +1,9 @@
+package test.discovery;
+
+import org.testng.annotations.BeforeClass;
+
+public abstract class DiscoveryBaseSample {
+
+  @BeforeClass
+  public void setUp() {}
+}
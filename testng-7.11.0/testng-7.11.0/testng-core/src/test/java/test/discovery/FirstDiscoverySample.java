@@ -0,0 +1,12 @@
+package test.discovery;
+
+import org.testng.annotations.Test;
+
+public class FirstDiscoverySample extends DiscoveryBaseSample {
+
+  @Test
+  public void firstA() {}
+
+  @Test(dependsOnMethods = "firstA")
+  public void firstB() {}
+}
@@ -0,0 +1,12 @@
+package test.discovery;
+
+import org.testng.annotations.Test;
+
+public class SecondDiscoverySample extends DiscoveryBaseSample {
+
+  @Test(priority = 1)
+  public void secondA() {}
+
+  @Test
+  public void secondB() {}
+}
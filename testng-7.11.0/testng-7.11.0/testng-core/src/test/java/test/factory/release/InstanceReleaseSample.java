@@ -0,0 +1,51 @@
+package test.factory.release;
+
+import java.lang.ref.WeakReference;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Factory;
+import org.testng.annotations.Test;
+
+public class InstanceReleaseSample {
+
+  public static final List<WeakReference<InstanceReleaseSample>> CREATED =
+      new CopyOnWriteArrayList<>();
+
+  private final int index;
+  private final byte[] fixture = new byte[1024 * 1024];
+
+  @Factory(dataProvider = "dp")
+  public InstanceReleaseSample(int index) {
+    this.index = index;
+    CREATED.add(new WeakReference<>(this));
+  }
+
+  @DataProvider
+  public static Object[][] dp() {
+    return new Object[][] {{1}, {2}, {3}};
+  }
+
+  @BeforeClass
+  public void beforeClass() {}
+
+  @Test
+  public void a() {}
+
+  @Test
+  public void b() {
+    if (index == 2) {
+      throw new AssertionError("Failing on purpose " + fixture.length);
+    }
+  }
+
+  @AfterClass
+  public void afterClass() {}
+
+  @Override
+  public String toString() {
+    return "sample" + index;
+  }
+}
@@ -0,0 +1,71 @@
+package test.factory.release;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.ref.WeakReference;
+import org.testng.ITestResult;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.testng.internal.RuntimeBehavior;
+import org.testng.xml.XmlSuite;
+import test.SimpleBaseTest;
+
+public class InstanceReleaseTest extends SimpleBaseTest {
+
+  @AfterMethod(alwaysRun = true)
+  public void reset() {
+    System.clearProperty(RuntimeBehavior.RELEASE_FINISHED_INSTANCES);
+    InstanceReleaseSample.CREATED.clear();
+  }
+
+  @Test
+  public void instancesAreKeptByDefault() throws InterruptedException {
+    TestListenerAdapter listener = runSample(XmlSuite.ParallelMode.NONE);
+
+    assertThat(aliveInstances()).isEqualTo(3);
+    assertThat(listener.getFailedTests().get(0).getInstance()).hasToString("sample2");
+  }
+
+  @Test(description = "Instances are released once their last method has run")
+  public void finishedInstancesCanBeReleased() throws InterruptedException {
+    System.setProperty(RuntimeBehavior.RELEASE_FINISHED_INSTANCES, "true");
+    TestListenerAdapter listener = runSample(XmlSuite.ParallelMode.NONE);
+
+    assertThat(aliveInstances()).isZero();
+    ITestResult failure = listener.getFailedTests().get(0);
+    assertThat(failure.getInstance()).isNull();
+    assertThat(failure.getInstanceName()).isEqualTo("sample2");
+    assertThat(failure.getMethod().getFactoryMethodParamsInfo().getParameters())
+        .containsExactly(2);
+  }
+
+  @Test
+  public void finishedInstancesCanBeReleasedWhenRunInParallel() throws InterruptedException {
+    System.setProperty(RuntimeBehavior.RELEASE_FINISHED_INSTANCES, "true");
+    runSample(XmlSuite.ParallelMode.INSTANCES);
+
+    assertThat(aliveInstances()).isZero();
+  }
+
+  private static TestListenerAdapter runSample(XmlSuite.ParallelMode parallel) {
+    TestNG testng = create(InstanceReleaseSample.class);
+    testng.setParallel(parallel);
+    TestListenerAdapter listener = new TestListenerAdapter();
+    testng.addListener(listener);
+    testng.run();
+    assertThat(InstanceReleaseSample.CREATED).hasSize(3);
+    assertThat(listener.getPassedTests()).hasSize(5);
+    assertThat(listener.getFailedTests()).hasSize(1);
+    return listener;
+  }
+
+  private static long aliveInstances() throws InterruptedException {
+    for (int i = 0; i < 5; i++) {
+      System.gc();
+      Thread.sleep(50);
+    }
+    return InstanceReleaseSample.CREATED.stream().filter(it -> it.get() != null).count();
+  }
+}
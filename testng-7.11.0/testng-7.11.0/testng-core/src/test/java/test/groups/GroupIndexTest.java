@@ -0,0 +1,70 @@
+package test.groups;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.BitSet;
+import org.testng.ITestNGMethod;
+import org.testng.annotations.Test;
+import org.testng.internal.GroupIndex;
+import org.testng.internal.paramhandler.FakeTestNGMethod;
+
+public class GroupIndexTest {
+
+  private final ITestNGMethod first = new GroupedMethod("first", "unit", "db");
+  private final ITestNGMethod second = new GroupedMethod("second", "db");
+  private final ITestNGMethod third = new GroupedMethod("third");
+  private final ITestNGMethod fourth = new GroupedMethod("fourth", "a+", "db-slow");
+
+  @Test(description = "Every group should know the positions of its methods")
+  public void ensureGroupsKnowTheirMembers() {
+    GroupIndex index = new GroupIndex(new ITestNGMethod[] {first, second, third, fourth});
+    assertThat(index.getGroupCount()).isEqualTo(4);
+    assertThat(index.idOf("missing")).isEqualTo(-1);
+    assertThat(index.membersOf(index.idOf("db"))).isEqualTo(bits(0, 1));
+    assertThat(index.membersOf(index.idOf("unit"))).isEqualTo(bits(0));
+    assertThat(index.groupsOf(0)).isEqualTo(bits(index.idOf("unit"), index.idOf("db")));
+    assertThat(index.groupsOf(2).isEmpty()).isTrue();
+    assertThat(index.nameOf(index.idOf("a+"))).isEqualTo("a+");
+  }
+
+  @Test(description = "Group names should be matched as regular expressions")
+  public void ensureGroupsAreMatchedAsRegularExpressions() {
+    GroupIndex index = new GroupIndex(new ITestNGMethod[] {first, second, third, fourth});
+    assertThat(index.getMethodsInGroupsMatching("db.*")).containsExactly(first, second, fourth);
+    assertThat(index.getMethodsInGroupsMatching("unit")).containsExactly(first);
+    assertThat(index.getMethodsInGroupsMatching("a+")).isEmpty();
+    assertThat(index.getMethodsInGroupsMatching("a\\+")).containsExactly(fourth);
+    assertThat(index.getMethodsInGroupsMatching("missing")).isEmpty();
+  }
+
+  private static BitSet bits(int... positions) {
+    BitSet result = new BitSet();
+    for (int each : positions) {
+      result.set(each);
+    }
+    return result;
+  }
+
+  public void first() {}
+
+  public void second() {}
+
+  public void third() {}
+
+  public void fourth() {}
+
+  private static class GroupedMethod extends FakeTestNGMethod {
+
+    private final String[] groups;
+
+    GroupedMethod(String methodName, String... groups) {
+      super(GroupIndexTest.class, methodName);
+      this.groups = groups;
+    }
+
+    @Override
+    public String[] getGroups() {
+      return groups;
+    }
+  }
+}
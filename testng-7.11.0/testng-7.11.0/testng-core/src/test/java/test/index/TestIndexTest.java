@@ -0,0 +1,228 @@
+package test.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.testng.ITestMethodFinder;
+import org.testng.ITestNGMethod;
+import org.testng.annotations.Test;
+import org.testng.internal.IndexedTestMethodFinder;
+import org.testng.internal.RuntimeBehavior;
+import org.testng.internal.index.IndexedClass;
+import org.testng.internal.index.TestIndex;
+import org.testng.internal.index.TestIndexProcessor;
+import org.testng.xml.XmlTest;
+import test.SimpleBaseTest;
+
+public class TestIndexTest extends SimpleBaseTest {
+
+  private static final String SAMPLE =
+      "package sample;\n"
+          + "import org.testng.annotations.*;\n"
+          + "public class IndexedSample {\n"
+          + "  @BeforeMethod public void setUp() {}\n"
+          + "  @DataProvider(name = \"numbers\") public Object[][] numbers() {\n"
+          + "    return new Object[][] {{1}, {2}};\n"
+          + "  }\n"
+          + "  @Test(dataProvider = \"numbers\", groups = {\"unit\", \"fast\"})\n"
+          + "  public void first(int i) {}\n"
+          + "  @Test(dependsOnMethods = \"first\") public void second() {}\n"
+          + "}\n";
+
+  private static final String HELPER =
+      "package sample;\n" + "public class Helper {\n" + "  public void help() {}\n" + "}\n";
+
+  @Test(description = "The processor should index TestNG classes along with their annotations")
+  public void ensureProcessorWritesIndex() throws IOException {
+    File output = compileWithProcessor("test-index-processor");
+    List<IndexedClass> classes = readIndex(output);
+    assertThat(classes).extracting(IndexedClass::getName).containsExactly("sample.IndexedSample");
+    IndexedClass sample = classes.get(0);
+    assertThat(sample.getDeclaredMethods()).isEqualTo(4);
+    assertThat(sample.getKinds()).containsOnly("BeforeMethod", "DataProvider", "Test");
+    assertThat(sample.getAnnotations())
+        .filteredOn(it -> it.getElement().equals("first"))
+        .singleElement()
+        .satisfies(
+            it -> {
+              assertThat(it.getValues("groups")).containsExactly("unit", "fast");
+              assertThat(it.getAttributes()).containsEntry("dataProvider", "numbers");
+            });
+    assertThat(sample.getAnnotations())
+        .filteredOn(it -> it.getElement().equals("second"))
+        .singleElement()
+        .satisfies(it -> assertThat(it.getValues("dependsOnMethods")).containsExactly("first"));
+  }
+
+  @Test(description = "The index should survive a round trip through its text format")
+  public void ensureIndexCanBeWrittenAndRead() throws IOException {
+    File output = compileWithProcessor("test-index-round-trip");
+    List<IndexedClass> classes = readIndex(output);
+    StringWriter writer = new StringWriter();
+    TestIndex.write(classes, writer);
+    List<IndexedClass> copy = TestIndex.read("", new StringReader(writer.toString()));
+    assertThat(copy).hasSameSizeAs(classes);
+    assertThat(copy.get(0).getKinds()).isEqualTo(classes.get(0).getKinds());
+    assertThat(copy.get(0).getAnnotations().toString())
+        .isEqualTo(classes.get(0).getAnnotations().toString());
+  }
+
+  @Test(description = "Methods the index says a class does not have should not be looked for")
+  public void ensureMethodFinderSkipsWhatTheIndexRulesOut() throws Exception {
+    File output = compileWithProcessor("test-index-finder");
+    System.setProperty(RuntimeBehavior.USE_TEST_INDEX, "true");
+    try (URLClassLoader loader =
+        new URLClassLoader(new URL[] {output.toURI().toURL()}, getClass().getClassLoader())) {
+      Class<?> sample = loader.loadClass("sample.IndexedSample");
+      TestIndex.Cache testIndices = new TestIndex.Cache();
+      assertThat(testIndices.forClassLoader(loader).find(sample)).isPresent();
+      CountingFinder delegate = new CountingFinder();
+      IndexedTestMethodFinder finder = new IndexedTestMethodFinder(delegate, testIndices);
+      assertThat(finder.getBeforeClassMethods(sample)).isEmpty();
+      assertThat(finder.getAfterSuiteMethods(sample)).isEmpty();
+      assertThat(delegate.calls).hasValue(0);
+      finder.getBeforeTestMethods(sample);
+      finder.getTestMethods(sample, new XmlTest());
+      assertThat(delegate.calls).hasValue(2);
+    } finally {
+      System.clearProperty(RuntimeBehavior.USE_TEST_INDEX);
+    }
+  }
+
+  @Test(description = "The index should only be consulted when enabled")
+  public void ensureIndexIsIgnoredByDefault() throws Exception {
+    File output = compileWithProcessor("test-index-disabled");
+    try (URLClassLoader loader =
+        new URLClassLoader(new URL[] {output.toURI().toURL()}, getClass().getClassLoader())) {
+      Class<?> sample = loader.loadClass("sample.IndexedSample");
+      TestIndex.Cache testIndices = new TestIndex.Cache();
+      assertThat(testIndices.forClassLoader(loader).find(sample)).isEmpty();
+      CountingFinder delegate = new CountingFinder();
+      new IndexedTestMethodFinder(delegate, testIndices).getBeforeClassMethods(sample);
+      assertThat(delegate.calls).hasValue(1);
+    }
+  }
+
+  @Test(description = "Classes that are not in the index should always be searched")
+  public void ensureMethodFinderFallsBackForClassesOutsideTheIndex() {
+    CountingFinder delegate = new CountingFinder();
+    IndexedTestMethodFinder finder = new IndexedTestMethodFinder(delegate, new TestIndex.Cache());
+    finder.getBeforeClassMethods(TestIndexTest.class);
+    assertThat(delegate.calls).hasValue(1);
+  }
+
+  private static File compileWithProcessor(String name) throws IOException {
+    File dir = createDirInTempDir(name);
+    Path sources = Files.createDirectories(dir.toPath().resolve("src/sample"));
+    File output = Files.createDirectories(dir.toPath().resolve("classes")).toFile();
+    Path sample = Files.write(sources.resolve("IndexedSample.java"), bytes(SAMPLE));
+    Path helper = Files.write(sources.resolve("Helper.java"), bytes(HELPER));
+    JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+    String classpath = System.getProperty("java.class.path");
+    int rc =
+        javac.run(
+            null,
+            null,
+            null,
+            "-cp",
+            classpath,
+            "-processorpath",
+            classpath,
+            "-processor",
+            TestIndexProcessor.class.getName(),
+            "-d",
+            output.getAbsolutePath(),
+            sample.toString(),
+            helper.toString());
+    assertThat(rc).isZero();
+    return output;
+  }
+
+  private static List<IndexedClass> readIndex(File output) throws IOException {
+    File index = new File(output, TestIndex.LOCATION);
+    assertThat(index).exists();
+    String contents = new String(Files.readAllBytes(index.toPath()), StandardCharsets.UTF_8);
+    return TestIndex.read("", new StringReader(contents));
+  }
+
+  private static byte[] bytes(String source) {
+    return source.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static class CountingFinder implements ITestMethodFinder {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private ITestNGMethod[] count() {
+      calls.incrementAndGet();
+      return new ITestNGMethod[0];
+    }
+
+    @Override
+    public ITestNGMethod[] getTestMethods(Class<?> cls, XmlTest xmlTest) {
+      return count();
+    }
+
+    @Override
+    public ITestNGMethod[] getBeforeTestMethods(Class<?> cls) {
+      return count();
+    }
+
+    @Override
+    public ITestNGMethod[] getAfterTestMethods(Class<?> cls) {
+      return count();
+    }
+
+    @Override
+    public ITestNGMethod[] getBeforeClassMethods(Class<?> cls) {
+      return count();
+    }
+
+    @Override
+    public ITestNGMethod[] getAfterClassMethods(Class<?> cls) {
+      return count();
+    }
+
+    @Override
+    public ITestNGMethod[] getBeforeSuiteMethods(Class<?> cls) {
+      return count();
+    }
+
+    @Override
+    public ITestNGMethod[] getAfterSuiteMethods(Class<?> cls) {
+      return count();
+    }
+
+    @Override
+    public ITestNGMethod[] getBeforeTestConfigurationMethods(Class<?> cls) {
+      return count();
+    }
+
+    @Override
+    public ITestNGMethod[] getAfterTestConfigurationMethods(Class<?> cls) {
+      return count();
+    }
+
+    @Override
+    public ITestNGMethod[] getBeforeGroupsConfigurationMethods(Class<?> cls) {
+      return count();
+    }
+
+    @Override
+    public ITestNGMethod[] getAfterGroupsConfigurationMethods(Class<?> cls) {
+      return count();
+    }
+  }
+}
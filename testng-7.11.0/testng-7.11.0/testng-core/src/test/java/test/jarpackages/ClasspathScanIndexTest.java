@@ -0,0 +1,143 @@
+package test.jarpackages;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+import org.testng.internal.RuntimeBehavior;
+import org.testng.internal.protocols.ClasspathScanIndex;
+import org.testng.internal.protocols.Input;
+import test.SimpleBaseTest;
+
+public class ClasspathScanIndexTest extends SimpleBaseTest {
+
+  @Test(description = "Packages should be looked up from the index of the jar")
+  public void ensurePackagesAreFoundInJars() throws IOException {
+    File jar = createJar("scan-index-lookup", "com/acme/A", "com/acme/B$Inner", "com/acme/c/C");
+    ClasspathScanIndex index = new ClasspathScanIndex();
+    assertThat(index.findClasses(input("com.acme", emptyList()), url(jar, "com/acme/")))
+        .hasValueSatisfying(it -> assertThat(it).containsOnly("com.acme.A", "com.acme.B$Inner"));
+    assertThat(index.findClasses(input("com.acme.*", emptyList()), url(jar, "com/acme/")))
+        .hasValueSatisfying(
+            it -> assertThat(it).containsOnly("com.acme.A", "com.acme.B$Inner", "com.acme.c.C"));
+    assertThat(
+            index.findClasses(
+                input("com.acme.*", Collections.singletonList("com.acme.c")),
+                url(jar, "com/acme/")))
+        .hasValueSatisfying(it -> assertThat(it).containsOnly("com.acme.A", "com.acme.B$Inner"));
+  }
+
+  @Test(description = "A jar that changed should be scanned again")
+  public void ensureChangedJarsAreScannedAgain() throws IOException {
+    File jar = createJar("scan-index-changed", "org/acme/A");
+    ClasspathScanIndex index = new ClasspathScanIndex();
+    assertThat(index.findClasses(input("org.acme", emptyList()), url(jar, "org/acme/")))
+        .hasValueSatisfying(it -> assertThat(it).containsOnly("org.acme.A"));
+    writeJar(jar, "org/acme/A", "org/acme/B");
+    assertThat(jar.setLastModified(jar.lastModified() + 2000)).isTrue();
+    assertThat(index.findClasses(input("org.acme", emptyList()), url(jar, "org/acme/")))
+        .hasValueSatisfying(it -> assertThat(it).containsOnly("org.acme.A", "org.acme.B"));
+  }
+
+  @Test(description = "Indexed jars should be written to the cache file when one is configured")
+  public void ensureJarsArePersisted() throws IOException {
+    File jar = createJar("scan-index-persisted", "net/acme/A");
+    File cache = new File(createDirInTempDir("scan-index-cache"), "scan-index.txt");
+    System.setProperty(RuntimeBehavior.CLASSPATH_SCAN_CACHE, cache.getAbsolutePath());
+    try {
+      ClasspathScanIndex index = new ClasspathScanIndex();
+      index.findClasses(input("net.acme", emptyList()), url(jar, "net/acme/"));
+      index.persist();
+    } finally {
+      System.clearProperty(RuntimeBehavior.CLASSPATH_SCAN_CACHE);
+    }
+    assertThat(cache).exists();
+    List<String> lines = Files.readAllLines(cache.toPath(), StandardCharsets.UTF_8);
+    assertThat(lines).contains("net.acme.A");
+    assertThat(lines).anyMatch(it -> it.contains(jar.getPath()));
+  }
+
+  @Test(description = "Every index (that is, every run) should walk the directories afresh")
+  public void ensureDirectoriesAreScannedOncePerIndex() throws IOException {
+    Path root = createDirInTempDir("scan-index-directory").toPath();
+    Path acme = Files.createDirectories(root.resolve("dev/acme"));
+    Files.write(acme.resolve("A.class"), new byte[0]);
+    URL url = acme.toUri().toURL();
+    ClasspathScanIndex index = new ClasspathScanIndex();
+    assertThat(index.findClasses(input("dev.acme", emptyList()), url))
+        .hasValueSatisfying(it -> assertThat(it).containsOnly("dev.acme.A"));
+    Files.write(acme.resolve("B.class"), new byte[0]);
+    assertThat(index.findClasses(input("dev.acme", emptyList()), url))
+        .hasValueSatisfying(it -> assertThat(it).containsOnly("dev.acme.A"));
+    assertThat(new ClasspathScanIndex().findClasses(input("dev.acme", emptyList()), url))
+        .hasValueSatisfying(it -> assertThat(it).containsOnly("dev.acme.A", "dev.acme.B"));
+  }
+
+  @Test(description = "Directories should be walked through links, and loops should be skipped")
+  public void ensureLinkedDirectoriesAreFollowed() throws IOException {
+    Path root = createDirInTempDir("scan-index-links").toPath();
+    Path linked = createDirInTempDir("scan-index-linked").toPath();
+    Files.write(linked.resolve("D.class"), new byte[0]);
+    Path acme = Files.createDirectories(root.resolve("io/acme"));
+    Files.write(acme.resolve("A.class"), new byte[0]);
+    try {
+      Files.createSymbolicLink(acme.resolve("sub"), linked);
+      Files.createSymbolicLink(acme.resolve("loop"), acme);
+    } catch (UnsupportedOperationException | IOException e) {
+      throw new SkipException("Symbolic links are not supported: " + e.getMessage());
+    }
+    URL url = root.resolve("io/acme").toUri().toURL();
+    assertThat(new ClasspathScanIndex().findClasses(input("io.acme.*", emptyList()), url))
+        .hasValueSatisfying(it -> assertThat(it).containsOnly("io.acme.A", "io.acme.sub.D"));
+  }
+
+  private static List<String> emptyList() {
+    return Collections.emptyList();
+  }
+
+  private static Input input(String packageName, List<String> excluded) {
+    boolean recursive = packageName.endsWith(".*");
+    String packageOnly =
+        recursive ? packageName.substring(0, packageName.length() - 2) : packageName;
+    return Input.Builder.newBuilder()
+        .forPackageWithoutWildCards(packageOnly)
+        .withRecursive(recursive)
+        .include(emptyList())
+        .exclude(excluded)
+        .withPackageName(packageName)
+        .forPackageDirectory(packageOnly.replace('.', '/') + "/")
+        .build();
+  }
+
+  private static URL url(File jar, String packageDir) throws IOException {
+    return new URL("jar:" + jar.toURI().toURL() + "!/" + packageDir);
+  }
+
+  private static File createJar(String name, String... classes) throws IOException {
+    File jar = new File(createDirInTempDir(name), "classes.jar");
+    writeJar(jar, classes);
+    return jar;
+  }
+
+  private static void writeJar(File jar, String... classes) throws IOException {
+    try (OutputStream out = Files.newOutputStream(jar.toPath());
+        JarOutputStream jarOut = new JarOutputStream(out)) {
+      for (String each : classes) {
+        jarOut.putNextEntry(new JarEntry(each + ".class"));
+        jarOut.write(new byte[] {(byte) 0xCA, (byte) 0xFE, (byte) 0xBA, (byte) 0xBE});
+        jarOut.closeEntry();
+      }
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package test.jfr;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class FlightRecorderEventsSample {
+
+  @BeforeMethod
+  public void beforeMethod() {}
+
+  @DataProvider
+  public Object[][] data() {
+    return new Object[][] {{1}, {2}};
+  }
+
+  @Test(dataProvider = "data")
+  public void testMethod(int value) {}
+}
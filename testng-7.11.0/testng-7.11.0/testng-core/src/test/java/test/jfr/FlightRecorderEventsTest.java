@@ -0,0 +1,79 @@
+package test.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.testng.SkipException;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.internal.jfr.FlightRecorderEvents;
+import test.SimpleBaseTest;
+
+public class FlightRecorderEventsTest extends SimpleBaseTest {
+
+  @Test
+  public void ensureNoOpScopeIsHandedOutWhenNotRecording() {
+    boolean othersRecording =
+        FlightRecorder.isInitialized()
+            && FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .anyMatch(r -> r.getState() == RecordingState.RUNNING);
+    if (othersRecording) {
+      throw new SkipException("A recording that this test did not start is running");
+    }
+    assertThat(FlightRecorderEvents.isRecording()).isFalse();
+    assertThat(FlightRecorderEvents.suite("suite"))
+        .isSameAs(FlightRecorderEvents.test("suite", "test"));
+    try (Recording recording = new Recording()) {
+      recording.start();
+      assertThat(FlightRecorderEvents.isRecording()).isTrue();
+      assertThat(FlightRecorderEvents.suite("suite"))
+          .isNotSameAs(FlightRecorderEvents.test("suite", "test"));
+      recording.stop();
+    }
+    assertThat(FlightRecorderEvents.isRecording()).isFalse();
+  }
+
+  @Test
+  public void ensureEventsAreEmittedWhileRecording() throws IOException {
+    Path dump = Files.createTempFile("testng", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("org.testng.*");
+      recording.start();
+      TestNG testng = create(FlightRecorderEventsSample.class);
+      testng.run();
+      recording.stop();
+      recording.dump(dump);
+      List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+      Map<String, Long> counts =
+          events.stream()
+              .collect(
+                  Collectors.groupingBy(e -> e.getEventType().getName(), Collectors.counting()));
+      assertThat(counts)
+          .containsEntry("org.testng.Suite", 1L)
+          .containsEntry("org.testng.Test", 1L)
+          .containsEntry("org.testng.TestInvocation", 2L)
+          .containsEntry("org.testng.ConfigurationInvocation", 2L)
+          .containsEntry("org.testng.DataProvider", 1L)
+          .containsKey("org.testng.TestClass");
+      List<Integer> indices =
+          events.stream()
+              .filter(e -> e.getEventType().getName().equals("org.testng.TestInvocation"))
+              .map(e -> e.getInt("parameterIndex"))
+              .sorted()
+              .collect(Collectors.toList());
+      assertThat(indices).containsExactly(0, 1);
+    } finally {
+      Files.deleteIfExists(dump);
+    }
+  }
+}
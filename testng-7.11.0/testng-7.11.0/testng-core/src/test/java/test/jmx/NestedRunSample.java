@@ -0,0 +1,14 @@
+package test.jmx;
+
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import test.SimpleBaseTest;
+
+public class NestedRunSample {
+
+  @Test
+  public void runAnotherRun() {
+    TestNG testng = SimpleBaseTest.create(RunMetricsSample.class);
+    testng.run();
+  }
+}
@@ -0,0 +1,28 @@
+package test.jmx;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import org.testng.annotations.Test;
+
+public class RunMetricsSample {
+
+  static final Map<ObjectName, Long> passedCounts = new ConcurrentHashMap<>();
+
+  @Test
+  public void first() {}
+
+  @Test
+  public void second() {}
+
+  @Test(dependsOnMethods = {"first", "second"})
+  public void collect() throws JMException {
+    MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    for (ObjectName name : server.queryNames(new ObjectName("org.testng:*"), null)) {
+      passedCounts.put(name, (Long) server.getAttribute(name, "PassedCount"));
+    }
+  }
+}
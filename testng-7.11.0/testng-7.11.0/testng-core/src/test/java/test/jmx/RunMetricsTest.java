@@ -0,0 +1,75 @@
+package test.jmx;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.management.ManagementFactory;
+import java.util.Set;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import org.testng.TestNG;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.testng.internal.RuntimeBehavior;
+import org.testng.internal.jmx.RunMetrics;
+import test.SimpleBaseTest;
+
+public class RunMetricsTest extends SimpleBaseTest {
+
+  @BeforeMethod
+  public void reset() {
+    RunMetricsSample.passedCounts.clear();
+  }
+
+  @Test
+  public void ensureNoMBeansAreRegisteredByDefault() {
+    TestNG testng = create(RunMetricsSample.class);
+    testng.run();
+    assertThat(RunMetricsSample.passedCounts).isEmpty();
+  }
+
+  @Test
+  public void ensureMBeansExposeLiveCounters() throws JMException {
+    runWithJmx(RunMetricsSample.class);
+    assertThat(RunMetricsSample.passedCounts).hasSize(3).containsValues(2L);
+    long run =
+        Long.parseLong(
+            RunMetricsSample.passedCounts.keySet().iterator().next().getKeyProperty("run"));
+    String suite = TestNG.DEFAULT_COMMAND_LINE_SUITE_NAME;
+    assertThat(RunMetricsSample.passedCounts)
+        .containsEntry(new ObjectName(RunMetrics.runObjectName(run)), 2L)
+        .containsEntry(new ObjectName(RunMetrics.suiteObjectName(run, suite)), 2L)
+        .containsEntry(
+            new ObjectName(
+                RunMetrics.testObjectName(run, suite, TestNG.DEFAULT_COMMAND_LINE_TEST_NAME)),
+            2L);
+    assertThat(registeredNames()).isEmpty();
+  }
+
+  @Test(description = "A run started while another one is running should have MBeans of its own")
+  public void ensureNestedRunsDoNotClash() throws JMException {
+    runWithJmx(NestedRunSample.class);
+    // The inner run sees the MBeans of both runs
+    assertThat(RunMetricsSample.passedCounts).hasSize(6);
+    assertThat(
+            RunMetricsSample.passedCounts.keySet().stream()
+                .map(name -> name.getKeyProperty("run"))
+                .distinct())
+        .hasSize(2);
+    assertThat(registeredNames()).isEmpty();
+  }
+
+  private static void runWithJmx(Class<?> sample) {
+    System.setProperty(RuntimeBehavior.EXPOSE_RUN_METRICS_VIA_JMX, "true");
+    try {
+      TestNG testng = create(sample);
+      testng.run();
+    } finally {
+      System.setProperty(RuntimeBehavior.EXPOSE_RUN_METRICS_VIA_JMX, "false");
+    }
+  }
+
+  private static Set<ObjectName> registeredNames() throws JMException {
+    return ManagementFactory.getPlatformMBeanServer()
+        .queryNames(new ObjectName(RunMetrics.DOMAIN + ":*"), null);
+  }
+}
@@ -0,0 +1,13 @@
+package test.methodselectors;
+
+import org.testng.annotations.Test;
+
+public class InheritedScriptSample {
+
+  @Test
+  public void inherited() {}
+
+  public static class FirstChild extends InheritedScriptSample {}
+
+  public static class SecondChild extends InheritedScriptSample {}
+}
@@ -0,0 +1,92 @@
+package test.methodselectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.testng.TestNG;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.testng.internal.PatternSet;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlInclude;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import test.InvokedMethodNameListener;
+import test.SimpleBaseTest;
+
+public class PatternSetTest extends SimpleBaseTest {
+
+  private static final List<String> VALUES =
+      Arrays.asList(
+          "",
+          "unit",
+          "UNIT",
+          "unit-fast",
+          "integration",
+          "db.slow",
+          "dbxslow",
+          "a$b",
+          "aaa",
+          "test.Foo.bar",
+          "test.Foo$Inner.bar",
+          "test1",
+          "test12");
+
+  @DataProvider
+  public Object[][] patterns() {
+    return new Object[][] {
+      {Arrays.asList("unit", "integration")},
+      {Arrays.asList("unit.*", "db\\.slow")},
+      {Arrays.asList("db.slow", "a\\$b")},
+      {Arrays.asList("(a)\\1\\1", "unit")},
+      {Arrays.asList("(?i)unit", "db.*")},
+      {Arrays.asList("\\Qdb.slow", "test\\d")},
+      {Arrays.asList("^unit$|integration", "test.Foo\\$Inner.bar")},
+      {Arrays.asList("[a-z]+", "")},
+      {Arrays.asList()},
+    };
+  }
+
+  @Test(dataProvider = "patterns", description = "Compiled patterns should match like regexps")
+  public void ensurePatternsMatchLikeRegularExpressions(List<String> patterns) {
+    PatternSet set = new PatternSet(patterns);
+    assertThat(set.isEmpty()).isEqualTo(patterns.isEmpty());
+    for (String value : VALUES) {
+      boolean expected = patterns.stream().anyMatch(it -> Pattern.matches(it, value));
+      assertThat(set.matchesAny(value)).as(patterns + " against " + value).isEqualTo(expected);
+    }
+    assertThat(set.matchesAny(VALUES.toArray(new String[0])))
+        .isEqualTo(VALUES.stream().anyMatch(set::matchesAny));
+  }
+
+  @Test(description = "Invalid patterns should only fail once something is matched")
+  public void ensureInvalidPatternsFailWhenMatched() {
+    PatternSet set = new PatternSet(Arrays.asList("unit", "broken("));
+    assertThat(set.matchesAny()).isFalse();
+    assertThat(set.matchesAny("unit")).isTrue();
+    assertThatThrownBy(() -> set.matchesAny("integration"))
+        .isInstanceOf(PatternSyntaxException.class);
+  }
+
+  @Test(description = "Groups and methods should be selected through the compiled patterns")
+  public void ensureSelectionIsUnchanged() {
+    XmlSuite suite = createXmlSuite("suite");
+    XmlTest test = createXmlTest(suite, "test", SampleTest.class);
+    test.addIncludedGroup("test[12]");
+    test.addExcludedGroup("test2");
+    XmlTest methods = createXmlTest(suite, "methods");
+    XmlClass xmlClass = new XmlClass(SampleTest.class);
+    xmlClass.getIncludedMethods().add(new XmlInclude("test[23]"));
+    xmlClass.getExcludedMethods().add("test3");
+    methods.getXmlClasses().add(xmlClass);
+    TestNG tng = create(suite);
+    InvokedMethodNameListener listener = new InvokedMethodNameListener();
+    tng.addListener(listener);
+    tng.run();
+    assertThat(listener.getSucceedMethodNames()).containsExactlyInAnyOrder("test1", "test2");
+  }
+}
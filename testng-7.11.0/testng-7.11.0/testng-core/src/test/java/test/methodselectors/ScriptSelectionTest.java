@@ -0,0 +1,48 @@
+package test.methodselectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.testng.TestNG;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlScript;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import test.InvokedMethodNameListener;
+import test.SimpleBaseTest;
+
+public class ScriptSelectionTest extends SimpleBaseTest {
+
+  @DataProvider
+  public Object[][] expressions() {
+    return new Object[][] {
+      {"beanshell", "testngMethod.getRealClass().getSimpleName().equals(\"FirstChild\")"},
+      {"groovy", "testngMethod.realClass.simpleName == 'FirstChild' && method.name == 'inherited'"},
+    };
+  }
+
+  @Test(
+      dataProvider = "expressions",
+      description = "Inherited methods should be selected for every class on its own")
+  public void ensureInheritedMethodsAreSelectedPerClass(String language, String expression) {
+    XmlSuite suite = createXmlSuite("suite");
+    XmlTest test =
+        createXmlTest(
+            suite,
+            "test",
+            InheritedScriptSample.FirstChild.class,
+            InheritedScriptSample.SecondChild.class);
+    XmlScript script = new XmlScript();
+    script.setLanguage(language);
+    script.setExpression(expression);
+    test.setScript(script);
+    TestNG tng = create(suite);
+    InvokedMethodNameListener listener = new InvokedMethodNameListener();
+    tng.addListener(listener);
+    tng.run();
+    assertThat(listener.getMethodsForTestClass(InheritedScriptSample.FirstChild.class))
+        .containsExactly("inherited");
+    assertThat(listener.getMethodsForTestClass(InheritedScriptSample.SecondChild.class))
+        .isNullOrEmpty();
+  }
+}
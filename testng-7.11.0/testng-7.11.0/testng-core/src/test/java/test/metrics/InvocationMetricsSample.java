@@ -0,0 +1,22 @@
+package test.metrics;
+
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class InvocationMetricsSample {
+
+  @BeforeMethod
+  public void setup() {}
+
+  @Test
+  public void allocatingTest() {
+    byte[][] chunks = new byte[16][];
+    for (int i = 0; i < chunks.length; i++) {
+      chunks[i] = new byte[64 * 1024];
+    }
+  }
+
+  @AfterMethod
+  public void teardown() {}
+}
@@ -0,0 +1,76 @@
+package test.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.testng.ITestResult;
+import org.testng.InvocationMetrics;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.internal.RuntimeBehavior;
+import test.SimpleBaseTest;
+
+public class InvocationMetricsTest extends SimpleBaseTest {
+
+  @Test
+  public void ensureMetricsAreNotCapturedByDefault() {
+    ITestResult result = runSample();
+    assertThat(result.getInvocationMetrics()).isSameAs(InvocationMetrics.NONE);
+    assertThat(result.getConfigurationMetrics()).isSameAs(InvocationMetrics.NONE);
+  }
+
+  @Test
+  public void ensureMetricsAreCapturedWhenEnabled() {
+    System.setProperty(RuntimeBehavior.CAPTURE_INVOCATION_METRICS, "true");
+    try {
+      ITestResult result = runSample();
+      InvocationMetrics metrics = result.getInvocationMetrics();
+      assertThat(metrics.isCaptured()).isTrue();
+      assertThat(metrics.getDurationNanos()).isPositive();
+      if (metrics.getAllocatedBytes() >= 0) {
+        assertThat(metrics.getAllocatedBytes()).isGreaterThanOrEqualTo(16 * 64 * 1024);
+      }
+      assertThat(result.getConfigurationMetrics().isCaptured()).isTrue();
+    } finally {
+      System.setProperty(RuntimeBehavior.CAPTURE_INVOCATION_METRICS, "false");
+    }
+  }
+
+  @Test(description = "A method run on another thread should only be charged its duration")
+  public void ensureOnlyDurationIsCapturedForTimeOuts() {
+    System.setProperty(RuntimeBehavior.CAPTURE_INVOCATION_METRICS, "true");
+    try {
+      InvocationMetrics metrics = runSample(TimeOutMetricsSample.class).getInvocationMetrics();
+      assertThat(metrics.getDurationNanos()).isPositive();
+      assertThat(metrics.getCpuTimeNanos()).isEqualTo(-1);
+      assertThat(metrics.getAllocatedBytes()).isEqualTo(-1);
+    } finally {
+      System.setProperty(RuntimeBehavior.CAPTURE_INVOCATION_METRICS, "false");
+    }
+  }
+
+  @Test
+  public void ensureMetricsCanBeAdded() {
+    InvocationMetrics first = new InvocationMetrics(10, 5, -1);
+    InvocationMetrics second = new InvocationMetrics(20, 5, 100);
+    InvocationMetrics sum = first.plus(second);
+    assertThat(sum.getDurationNanos()).isEqualTo(30);
+    assertThat(sum.getCpuTimeNanos()).isEqualTo(10);
+    assertThat(sum.getAllocatedBytes()).isEqualTo(100);
+    assertThat(InvocationMetrics.NONE.plus(first)).isSameAs(first);
+    assertThat(first.plus(InvocationMetrics.NONE)).isSameAs(first);
+  }
+
+  private static ITestResult runSample() {
+    return runSample(InvocationMetricsSample.class);
+  }
+
+  private static ITestResult runSample(Class<?> sample) {
+    TestNG testng = create(sample);
+    TestListenerAdapter listener = new TestListenerAdapter();
+    testng.addListener(listener);
+    testng.run();
+    assertThat(listener.getPassedTests()).hasSize(1);
+    return listener.getPassedTests().get(0);
+  }
+}
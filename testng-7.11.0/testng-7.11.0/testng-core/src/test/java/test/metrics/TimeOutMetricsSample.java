@@ -0,0 +1,14 @@
+package test.metrics;
+
+import org.testng.annotations.Test;
+
+public class TimeOutMetricsSample {
+
+  @Test(timeOut = 10_000)
+  public void timedTest() {
+    byte[][] chunks = new byte[16][];
+    for (int i = 0; i < chunks.length; i++) {
+      chunks[i] = new byte[64 * 1024];
+    }
+  }
+}
@@ -0,0 +1,14 @@
+package test.profiling;
+
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import test.SimpleBaseTest;
+
+public class NestedPhaseProfilerSample {
+
+  @Test
+  public void runNested() {
+    TestNG testng = SimpleBaseTest.create(PhaseProfilerSample.class);
+    testng.run();
+  }
+}
@@ -0,0 +1,13 @@
+package test.profiling;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class PhaseProfilerSample {
+
+  @BeforeMethod
+  public void beforeMethod() {}
+
+  @Test
+  public void testMethod() {}
+}
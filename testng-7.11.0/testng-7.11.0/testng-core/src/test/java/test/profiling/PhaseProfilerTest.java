@@ -0,0 +1,64 @@
+package test.profiling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.internal.RuntimeBehavior;
+import org.testng.internal.profiling.Phase;
+import test.SimpleBaseTest;
+
+public class PhaseProfilerTest extends SimpleBaseTest {
+
+  @Test
+  public void ensureNoProfileIsWrittenByDefault() {
+    File outputDir = createDirInTempDir("phase-profile-disabled");
+    TestNG testng = create(outputDir.toPath(), PhaseProfilerSample.class);
+    testng.run();
+    assertThat(new File(outputDir, "testng-phase-profile.json")).doesNotExist();
+  }
+
+  @Test
+  public void ensureProfileIsWrittenWhenEnabled() throws IOException {
+    File outputDir = createDirInTempDir("phase-profile-enabled");
+    System.setProperty(RuntimeBehavior.PROFILE_PHASES, "true");
+    try {
+      TestNG testng = create(outputDir.toPath(), PhaseProfilerSample.class);
+      testng.run();
+    } finally {
+      System.setProperty(RuntimeBehavior.PROFILE_PHASES, "false");
+    }
+    File profile = new File(outputDir, "testng-phase-profile.json");
+    assertThat(profile).exists();
+    String json = new String(Files.readAllBytes(profile.toPath()), StandardCharsets.UTF_8);
+    assertThat(json)
+        .contains("\"test\": \"" + TestNG.DEFAULT_COMMAND_LINE_TEST_NAME + "\"")
+        .contains("\"phase\": \"" + Phase.CLASS_DISCOVERY.name() + "\"")
+        .contains("\"phase\": \"" + Phase.METHOD_SELECTION.name() + "\"")
+        .contains("\"phase\": \"" + Phase.GRAPH_BUILDING.name() + "\"")
+        .contains("\"phase\": \"" + Phase.CONFIGURATION_INVOCATION.name() + "\"")
+        .contains("\"phase\": \"" + Phase.REPORTING.name() + "\"");
+  }
+
+  @Test(description = "A run nested in a test should not discard the profile of the outer run")
+  public void ensureNestedRunsDoNotClash() throws IOException {
+    File outputDir = createDirInTempDir("phase-profile-nested");
+    System.setProperty(RuntimeBehavior.PROFILE_PHASES, "true");
+    try {
+      TestNG testng = createTests(outputDir.toPath(), "outer", NestedPhaseProfilerSample.class);
+      testng.run();
+    } finally {
+      System.setProperty(RuntimeBehavior.PROFILE_PHASES, "false");
+    }
+    File profile = new File(outputDir, "testng-phase-profile.json");
+    String json = new String(Files.readAllBytes(profile.toPath()), StandardCharsets.UTF_8);
+    assertThat(json)
+        .contains("\"suite\": \"outer\"")
+        .contains("\"phase\": \"" + Phase.CLASS_DISCOVERY.name() + "\"")
+        .doesNotContain(TestNG.DEFAULT_COMMAND_LINE_TEST_NAME);
+  }
+}
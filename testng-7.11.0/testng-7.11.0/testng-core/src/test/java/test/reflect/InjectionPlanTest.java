@@ -0,0 +1,89 @@
+package test.reflect;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.Method;
+import org.testng.ITestContext;
+import org.testng.annotations.NoInjection;
+import org.testng.annotations.Test;
+import org.testng.internal.reflect.InjectionPlan;
+
+public class InjectionPlanTest {
+
+  private static final ITestContext CONTEXT = new TestContextJustForTesting();
+
+  @Test
+  public void planIsWorkedOutOncePerMethod() throws NoSuchMethodException {
+    Method method = method("withContext");
+
+    assertThat(InjectionPlan.of(method)).isSameAs(InjectionPlan.of(method("withContext")));
+  }
+
+  @Test
+  public void injectedObjectsAreMergedWithTheArguments() throws NoSuchMethodException {
+    Method method = method("withContext");
+
+    Object[] result = InjectionPlan.of(method).inject(new Object[] {1, "a"}, method, CONTEXT, null);
+
+    assertThat(result).containsExactly(1, CONTEXT, "a");
+  }
+
+  @Test
+  public void onlyTheFirstMethodParameterIsInjected() throws NoSuchMethodException {
+    Method method = method("withMethods");
+    Method other = method("withContext");
+
+    Object[] result = InjectionPlan.of(method).inject(new Object[] {other}, method, CONTEXT, null);
+    assertThat(result).containsExactly(method, other);
+
+    result =
+        InjectionPlan.of(method("withoutInjection"))
+            .inject(new Object[] {other}, method, null, null);
+    assertThat(result).containsExactly(other);
+  }
+
+  @Test
+  public void rowsOfEveryShapeAreLaidOut() throws NoSuchMethodException {
+    InjectionPlan plan = InjectionPlan.of(method("withVarargs"));
+
+    assertThat(plan.injectRow(new Object[] {1, new String[] {"a"}}, CONTEXT, null))
+        .containsExactly(CONTEXT, 1, new String[] {"a"});
+    assertThat(plan.injectRow(new Object[] {2, "b", "c"}, CONTEXT, null))
+        .containsExactly(CONTEXT, 2, new String[] {"b", "c"});
+    assertThat(plan.injectRow(new Object[] {3, "d"}, CONTEXT, null))
+        .containsExactly(CONTEXT, 3, new String[] {"d"});
+    assertThat(plan.injectRow(new Object[] {4, new String[] {"e"}}, CONTEXT, null))
+        .containsExactly(CONTEXT, 4, new String[] {"e"});
+    assertThat(plan.injectRow(new Object[] {"f"}, CONTEXT, null)).isNull();
+  }
+
+  @Test
+  public void rowsSupplyingEveryParameterArePassedThrough() throws NoSuchMethodException {
+    Method method = method("withMethodAndString");
+    Method other = method("withContext");
+    Object[] row = {other, "x"};
+
+    assertThat(InjectionPlan.of(method).injectRow(row, CONTEXT, null)).isSameAs(row);
+    assertThat(InjectionPlan.of(method).injectRow(new Object[] {"y"}, CONTEXT, null))
+        .containsExactly(method, "y");
+  }
+
+  private static Method method(String name) throws NoSuchMethodException {
+    for (Method each : InjectionPlanTest.class.getDeclaredMethods()) {
+      if (each.getName().equals(name)) {
+        return each;
+      }
+    }
+    throw new NoSuchMethodException(name);
+  }
+
+  public void withContext(int i, ITestContext context, String s) {}
+
+  public void withMethods(Method current, Method other) {}
+
+  public void withoutInjection(@NoInjection Method method) {}
+
+  public void withMethodAndString(Method method, String s) {}
+
+  public void withVarargs(ITestContext context, int i, String... values) {}
+}
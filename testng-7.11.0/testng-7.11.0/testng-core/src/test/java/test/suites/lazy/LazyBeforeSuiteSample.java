@@ -0,0 +1,11 @@
+package test.suites.lazy;
+
+import org.testng.annotations.BeforeSuite;
+
+public class LazyBeforeSuiteSample extends LazySuiteRunnerSample {
+
+  @BeforeSuite
+  public void beforeSuite() {
+    EVENTS.add("before suite");
+  }
+}
@@ -0,0 +1,19 @@
+package test.suites.lazy;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.testng.annotations.Test;
+
+public class LazySuiteRunnerSample {
+
+  public static final List<String> EVENTS = new CopyOnWriteArrayList<>();
+
+  public LazySuiteRunnerSample() {
+    EVENTS.add("created");
+  }
+
+  @Test
+  public void test() {
+    EVENTS.add("ran");
+  }
+}
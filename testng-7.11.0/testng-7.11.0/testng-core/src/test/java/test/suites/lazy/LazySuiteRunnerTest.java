@@ -0,0 +1,102 @@
+package test.suites.lazy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.TestRunner;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.testng.internal.RuntimeBehavior;
+import org.testng.xml.XmlSuite;
+import test.SimpleBaseTest;
+
+public class LazySuiteRunnerTest extends SimpleBaseTest {
+
+  @AfterMethod(alwaysRun = true)
+  public void reset() {
+    System.clearProperty(RuntimeBehavior.LAZY_SUITE_RUNNERS);
+    System.clearProperty(RuntimeBehavior.TEAR_DOWN_FINISHED_TESTS);
+    LazySuiteRunnerSample.EVENTS.clear();
+  }
+
+  @Test
+  public void suiteRunnersAreCreatedUpFrontByDefault() {
+    TestListenerAdapter listener = runSuites();
+
+    assertThat(LazySuiteRunnerSample.EVENTS)
+        .containsExactly("created", "created", "created", "ran", "ran", "ran");
+    assertThat(listener.getPassedTests()).hasSize(3);
+  }
+
+  @Test
+  public void suiteRunnersCanBeCreatedWhenTheSuiteRuns() {
+    System.setProperty(RuntimeBehavior.LAZY_SUITE_RUNNERS, "true");
+    TestListenerAdapter listener = runSuites();
+
+    assertThat(LazySuiteRunnerSample.EVENTS)
+        .containsExactly("created", "ran", "created", "ran", "created", "ran");
+    assertThat(listener.getPassedTests()).hasSize(3);
+  }
+
+  @Test(description = "What the reporters need is kept when the tests are torn down")
+  public void finishedTestsCanBeTornDown() {
+    System.setProperty(RuntimeBehavior.TEAR_DOWN_FINISHED_TESTS, "true");
+    TestListenerAdapter listener = runSuites();
+
+    assertThat(listener.getPassedTests()).hasSize(3);
+    assertThat(listener.getTestContexts())
+        .allSatisfy(
+            context -> {
+              assertThat(context.getAllTestMethods()).hasSize(1);
+              assertThat(context.getPassedTests().size()).isEqualTo(1);
+              assertThat(((TestRunner) context).getTestClasses()).isEmpty();
+              assertThat(((TestRunner) context).getInvoker()).isNull();
+            });
+  }
+
+  @Test
+  public void testRunnersAreCreatedUpFrontByDefault() {
+    TestListenerAdapter listener = runTests();
+
+    assertThat(LazySuiteRunnerSample.EVENTS)
+        .containsExactly("created", "created", "before suite", "ran", "ran");
+    assertThat(listener.getPassedTests()).hasSize(2);
+  }
+
+  @Test(description = "The beforeSuite methods of a <test> run right before it")
+  public void testRunnersCanBeCreatedWhenTheTestRuns() {
+    System.setProperty(RuntimeBehavior.LAZY_SUITE_RUNNERS, "true");
+    TestListenerAdapter listener = runTests();
+
+    assertThat(LazySuiteRunnerSample.EVENTS)
+        .containsExactly("created", "ran", "created", "before suite", "ran");
+    assertThat(listener.getPassedTests()).hasSize(2);
+    assertThat(listener.getTestContexts()).hasSize(2);
+  }
+
+  private static TestListenerAdapter runTests() {
+    XmlSuite suite = createXmlSuite("suite");
+    createXmlTest(suite, "first-test", LazySuiteRunnerSample.class);
+    createXmlTest(suite, "second-test", LazyBeforeSuiteSample.class);
+    TestNG testng = create(suite);
+    TestListenerAdapter listener = new TestListenerAdapter();
+    testng.addListener(listener);
+    testng.run();
+    return listener;
+  }
+
+  private static TestListenerAdapter runSuites() {
+    XmlSuite parent = createXmlSuite("parent", "parent-test", LazySuiteRunnerSample.class);
+    XmlSuite child = createXmlSuite("child", "child-test", LazySuiteRunnerSample.class);
+    child.setParentSuite(parent);
+    parent.getChildSuites().add(child);
+    XmlSuite other = createXmlSuite("other", "other-test", LazySuiteRunnerSample.class);
+    TestNG testng = create(List.of(parent, other));
+    TestListenerAdapter listener = new TestListenerAdapter();
+    testng.addListener(listener);
+    testng.run();
+    return listener;
+  }
+}
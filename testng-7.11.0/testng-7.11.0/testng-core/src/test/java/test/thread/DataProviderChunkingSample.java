@@ -0,0 +1,30 @@
+package test.thread;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class DataProviderChunkingSample {
+
+  public static final Set<Long> THREADS = ConcurrentHashMap.newKeySet();
+  public static final Set<Integer> ROWS = ConcurrentHashMap.newKeySet();
+
+  @DataProvider(parallel = true)
+  public Object[][] rows() {
+    Object[][] result = new Object[500][];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = new Object[] {i};
+    }
+    return result;
+  }
+
+  @Test(dataProvider = "rows")
+  public void fastRow(int row) {
+    THREADS.add(Thread.currentThread().getId());
+    ROWS.add(row);
+    if (row % 100 == 42) {
+      throw new AssertionError("Failing row " + row);
+    }
+  }
+}
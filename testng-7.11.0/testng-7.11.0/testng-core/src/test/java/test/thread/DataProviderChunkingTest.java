@@ -0,0 +1,52 @@
+package test.thread;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.testng.ITestResult;
+import org.testng.TestListenerAdapter;
+import org.testng.TestNG;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import org.testng.internal.RuntimeBehavior;
+import test.SimpleBaseTest;
+
+public class DataProviderChunkingTest extends SimpleBaseTest {
+
+  @AfterMethod(alwaysRun = true)
+  public void reset() {
+    System.clearProperty(RuntimeBehavior.DATA_PROVIDER_CHUNK_DURATION);
+    DataProviderChunkingSample.THREADS.clear();
+    DataProviderChunkingSample.ROWS.clear();
+  }
+
+  @Test
+  public void rowsAreRunInChunks() {
+    runAndVerify();
+  }
+
+  @Test
+  public void rowsCanBeRunAsTasksOfTheirOwn() {
+    System.setProperty(RuntimeBehavior.DATA_PROVIDER_CHUNK_DURATION, "0");
+    runAndVerify();
+  }
+
+  private static void runAndVerify() {
+    TestNG testng = create(DataProviderChunkingSample.class);
+    testng.setDataProviderThreadCount(4);
+    TestListenerAdapter listener = new TestListenerAdapter();
+    testng.addListener(listener);
+    testng.run();
+
+    assertThat(DataProviderChunkingSample.ROWS).hasSize(500);
+    assertThat(DataProviderChunkingSample.THREADS).hasSize(4);
+    assertThat(listener.getPassedTests()).hasSize(495);
+    assertThat(listener.getFailedTests())
+        .extracting(ITestResult::getParameters)
+        .containsExactlyInAnyOrder(
+            new Object[] {42},
+            new Object[] {142},
+            new Object[] {242},
+            new Object[] {342},
+            new Object[] {442});
+  }
+}
@@ -0,0 +1,93 @@
+package test.xml;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.Map;
+import org.testng.annotations.Test;
+import org.testng.collections.Maps;
+import org.testng.xml.ParameterScope;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import test.SimpleBaseTest;
+
+public class ParameterScopeTest extends SimpleBaseTest {
+
+  @Test
+  public void moreSpecificParametersOverrideTheOthers() {
+    ParameterScope scope =
+        ParameterScope.of(Maps.newHashMap(Map.of("a", "suite", "b", "suite")))
+            .with(Maps.newHashMap(Map.of("b", "test", "c", "test")));
+
+    assertThat(scope.get("a")).isEqualTo("suite");
+    assertThat(scope.get("b")).isEqualTo("test");
+    assertThat(scope.get("c")).isEqualTo("test");
+    assertThat(scope.get("d")).isNull();
+    assertThat(scope.containsKey("d")).isFalse();
+    assertThat(scope.toMap())
+        .containsOnly(entry("a", "suite"), entry("b", "test"), entry("c", "test"));
+    assertThat(scope.asMap()).isEqualTo(scope.toMap());
+  }
+
+  @Test
+  public void nullValuesShadowTheLessSpecificOnes() {
+    Map<String, String> test = Maps.newHashMap();
+    test.put("a", null);
+    ParameterScope scope = ParameterScope.of(Map.of("a", "suite")).with(test);
+
+    assertThat(scope.get("a")).isNull();
+    assertThat(scope.containsKey("a")).isTrue();
+  }
+
+  @Test
+  public void scopeSeesParametersAddedAfterItWasBuilt() {
+    Map<String, String> suite = Maps.newHashMap();
+    ParameterScope scope = ParameterScope.of(suite).with(Collections.emptyMap());
+    Map<String, String> view = scope.asMap();
+    assertThat(scope.isEmpty()).isTrue();
+
+    suite.put("a", "suite");
+
+    assertThat(view.get("a")).isEqualTo("suite");
+    assertThat(ParameterScope.from(view)).isSameAs(scope);
+    assertThat(scope.over(scope)).isSameAs(scope);
+    assertThat(scope.over(ParameterScope.EMPTY)).isSameAs(scope);
+  }
+
+  @Test
+  public void testScopeIsBuiltOnceAndFollowsReplacedParameters() {
+    XmlSuite suite = createXmlSuite("suite", Map.of("a", "suite", "b", "suite"));
+    XmlTest test = createXmlTest(suite, "test");
+    test.addParameter("b", "test");
+
+    ParameterScope scope = test.getParameterScope();
+    assertThat(test.getParameterScope()).isSameAs(scope);
+    assertThat(scope.get("a")).isEqualTo("suite");
+    assertThat(scope.get("b")).isEqualTo("test");
+
+    suite.setParameters(Map.of("a", "other suite"));
+    assertThat(test.getParameterScope()).isNotSameAs(scope);
+    assertThat(test.getParameter("a")).isEqualTo("other suite");
+    assertThat(test.getParameterScope().get("a")).isEqualTo("other suite");
+
+    test.setParameters(Map.of("a", "test"));
+    assertThat(test.getParameterScope().get("a")).isEqualTo("test");
+    assertThat(test.getParameterScope().get("b")).isNull();
+  }
+
+  @Test
+  public void allParametersAreStillACopy() {
+    XmlSuite suite = createXmlSuite("suite", Map.of("a", "suite"));
+    XmlTest test = createXmlTest(suite, "test");
+
+    Map<String, String> all = test.getAllParameters();
+    all.put("a", "changed");
+
+    assertThat(test.getParameter("a")).isEqualTo("suite");
+    assertThat(test.getParameterScope().get("a")).isEqualTo("suite");
+  }
+
+  private static Map.Entry<String, String> entry(String key, String value) {
+    return Map.entry(key, value);
+  }
+}
@@ -35,4 +35,12 @@ public interface ITestResultNotifier {
   List<IConfigurationListener> getConfigurationListeners();
 
   ITestListener getExitCodeListener();
+
+  /**
+   * @return the snapshots that the results keep of their methods in memory friendly mode, or <code>
+   *     null</code> if every result is to take a snapshot of its own.
+   */
+  default LiteWeightTestNGMethod.Snapshots getMethodSnapshots() {
+    return null;
+  }
 }
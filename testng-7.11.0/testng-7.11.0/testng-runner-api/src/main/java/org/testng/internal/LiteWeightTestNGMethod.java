@@ -1,8 +1,9 @@
 package org.testng.internal;
 
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -27,7 +28,8 @@ public class LiteWeightTestNGMethod implements ITestNGMethod {
   private String missingGroup;
   private final String[] beforeGroups;
   private final String[] afterGroups;
-  private final List<String> methodsDependedUpon = new ArrayList<>();
+  // Never modified in place, as it may be shared with other snapshots of the same method
+  private String[] methodsDependedUpon;
   private int priority;
   private int interceptedPriority;
   private final XmlTest xmlTest;
@@ -78,9 +80,8 @@ public class LiteWeightTestNGMethod implements ITestNGMethod {
     missingGroup = iTestNGMethod.getMissingGroup();
     beforeGroups = iTestNGMethod.getBeforeGroups();
     afterGroups = iTestNGMethod.getAfterGroups();
-    if (iTestNGMethod.getMethodsDependedUpon() != null) {
-      methodsDependedUpon.addAll(Arrays.asList(iTestNGMethod.getMethodsDependedUpon()));
-    }
+    String[] dependedUpon = iTestNGMethod.getMethodsDependedUpon();
+    methodsDependedUpon = dependedUpon != null ? dependedUpon.clone() : new String[0];
     priority = iTestNGMethod.getPriority();
     interceptedPriority = iTestNGMethod.getInterceptedPriority();
     xmlTest = iTestNGMethod.getXmlTest();
@@ -156,6 +157,65 @@ public class LiteWeightTestNGMethod implements ITestNGMethod {
     parameterTypes = iTestNGMethod.getConstructorOrMethod().getParameterTypes();
   }
 
+  /**
+   * Takes a snapshot of a method that shares everything that stays the same from one invocation of
+   * the method to the next (names, groups, signature, parameter types...) with an earlier snapshot
+   * of the same method, and only reads the rest from the method itself.
+   *
+   * @param template - An earlier snapshot of the method
+   * @param iTestNGMethod - The method
+   */
+  LiteWeightTestNGMethod(LiteWeightTestNGMethod template, ITestNGMethod iTestNGMethod) {
+    realClass = template.realClass;
+    testClass = iTestNGMethod.getTestClass();
+    methodName = template.methodName;
+    instance = template.instance;
+    instanceHashCodes = template.instanceHashCodes;
+    groups = template.groups;
+    groupsDependedUpon = template.groupsDependedUpon;
+    missingGroup = iTestNGMethod.getMissingGroup();
+    beforeGroups = template.beforeGroups;
+    afterGroups = template.afterGroups;
+    methodsDependedUpon = template.methodsDependedUpon;
+    priority = iTestNGMethod.getPriority();
+    interceptedPriority = iTestNGMethod.getInterceptedPriority();
+    xmlTest = template.xmlTest;
+    qualifiedName = template.qualifiedName;
+    isBeforeTestConfiguration = template.isBeforeTestConfiguration;
+    isAfterTestConfiguration = template.isAfterTestConfiguration;
+    isBeforeGroupsConfiguration = template.isBeforeGroupsConfiguration;
+    isAfterGroupsConfiguration = template.isAfterGroupsConfiguration;
+    isTest = template.isTest;
+    isBeforeMethodConfiguration = template.isBeforeMethodConfiguration;
+    isAfterMethodConfiguration = template.isAfterMethodConfiguration;
+    isBeforeClassConfiguration = template.isBeforeClassConfiguration;
+    isAfterClassConfiguration = template.isAfterClassConfiguration;
+    isBeforeSuiteConfiguration = template.isBeforeSuiteConfiguration;
+    isAfterSuiteConfiguration = template.isAfterSuiteConfiguration;
+    invocationNumbers = iTestNGMethod.getInvocationNumbers();
+    failedInvocationNumbers = iTestNGMethod.getFailedInvocationNumbers();
+    ignoreMissingDependencies = iTestNGMethod.ignoreMissingDependencies();
+    invocationTimeout = template.invocationTimeout;
+    skipFailedInvocations = iTestNGMethod.skipFailedInvocations();
+    timeout = iTestNGMethod.getTimeOut();
+    invocationCount = iTestNGMethod.getInvocationCount();
+    successPercentage = template.successPercentage;
+    id = iTestNGMethod.getId();
+    date = iTestNGMethod.getDate();
+    isAlwaysRun = template.isAlwaysRun;
+    threadPoolSize = iTestNGMethod.getThreadPoolSize();
+    enabled = template.enabled;
+    description = iTestNGMethod.getDescription();
+    currentInvocationCount = iTestNGMethod.getCurrentInvocationCount();
+    parameterInvocationCount = iTestNGMethod.getParameterInvocationCount();
+    hasMoreInvocation = iTestNGMethod.hasMoreInvocation();
+    retryAnalyzerClass = template.retryAnalyzerClass;
+    toString = template.toString;
+    dataProviderMethod = template.dataProviderMethod;
+    hashCode = template.hashCode;
+    parameterTypes = template.parameterTypes;
+  }
+
   @Override
   public Class<?>[] getParameterTypes() {
     return parameterTypes;
@@ -223,12 +283,14 @@ public class LiteWeightTestNGMethod implements ITestNGMethod {
 
   @Override
   public String[] getMethodsDependedUpon() {
-    return methodsDependedUpon.toArray(new String[0]);
+    return methodsDependedUpon.clone();
   }
 
   @Override
   public void addMethodDependedUpon(String methodName) {
-    methodsDependedUpon.add(methodName);
+    String[] result = Arrays.copyOf(methodsDependedUpon, methodsDependedUpon.length + 1);
+    result[methodsDependedUpon.length] = methodName;
+    methodsDependedUpon = result;
   }
 
   @Override
@@ -537,4 +599,34 @@ public class LiteWeightTestNGMethod implements ITestNGMethod {
     }
     return false;
   }
+
+  /**
+   * The snapshots taken of the methods of a run. The first snapshot of every method is used as the
+   * template of its later snapshots, see {@link #LiteWeightTestNGMethod(LiteWeightTestNGMethod,
+   * ITestNGMethod)}.
+   */
+  public static final class Snapshots {
+
+    private final Map<ITestNGMethod, LiteWeightTestNGMethod> templates =
+        Collections.synchronizedMap(new IdentityHashMap<>());
+
+    /**
+     * @param iTestNGMethod - The method
+     * @return a snapshot of the method.
+     */
+    public LiteWeightTestNGMethod snapshotOf(ITestNGMethod iTestNGMethod) {
+      LiteWeightTestNGMethod template = templates.get(iTestNGMethod);
+      if (template != null) {
+        return new LiteWeightTestNGMethod(template, iTestNGMethod);
+      }
+      LiteWeightTestNGMethod result = new LiteWeightTestNGMethod(iTestNGMethod);
+      templates.putIfAbsent(iTestNGMethod, result);
+      return result;
+    }
+
+    /** Forgets about the templates, once the run is over. */
+    public void clear() {
+      templates.clear();
+    }
+  }
 }
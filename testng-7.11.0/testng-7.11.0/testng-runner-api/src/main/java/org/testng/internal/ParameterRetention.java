@@ -0,0 +1,34 @@
+package org.testng.internal;
+
+import java.util.Locale;
+
+/**
+ * What a {@link TestResult} keeps of the parameters it was invoked with once it is complete (see
+ * {@link RuntimeBehavior#PARAMETER_RETENTION}). Reporters only read the parameters at the end of
+ * the run, so keeping every data provider row until then can fill the heap with test data that has
+ * long been used. Whatever the policy, a result that is about to be retried keeps its parameters.
+ */
+public enum ParameterRetention {
+  /** The parameters are kept as they are. This is the default. */
+  FULL,
+  /**
+   * Each parameter is replaced by its string form, taken when the result completes and cut to at
+   * most {@link RuntimeBehavior#getParameterSnapshotLength()} characters.
+   */
+  TO_STRING,
+  /** Failed results keep their parameters as they are, the other results drop them. */
+  FAILURES,
+  /** The parameters are dropped. */
+  NONE;
+
+  /** @return the policy set for this run, or {@link #FULL} if none (or an unknown one) is set. */
+  public static ParameterRetention current() {
+    String value = RuntimeBehavior.getParameterRetention().trim().toUpperCase(Locale.ROOT);
+    for (ParameterRetention each : values()) {
+      if (each.name().equals(value)) {
+        return each;
+      }
+    }
+    return FULL;
+  }
+}
@@ -5,8 +5,9 @@ import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
-import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
@@ -16,6 +17,7 @@ import org.testng.ITest;
 import org.testng.ITestContext;
 import org.testng.ITestNGMethod;
 import org.testng.ITestResult;
+import org.testng.InvocationMetrics;
 import org.testng.Reporter;
 import org.testng.TestNGException;
 import org.testng.collections.Lists;
@@ -24,8 +26,37 @@ import org.testng.collections.Objects;
 /** This class represents the result of a test. */
 public class TestResult implements ITestResult {
 
+  private static final AtomicLong IDS = new AtomicLong();
+  private static final Object[] NO_PARAMETERS = {};
+
+  // Whether the class overrides Object#toString(), which is then used to name its results
+  private static final ClassValue<Boolean> TO_STRING_OVERRIDDEN =
+      new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+          try {
+            return !Object.class.getMethod("toString").equals(type.getMethod("toString"));
+          } catch (NoSuchMethodException ignore) {
+            return false;
+          }
+        }
+      };
+
+  // The clone() method declared by a Cloneable class, if any
+  private static final ClassValue<Optional<Method>> CLONE_METHOD =
+      new ClassValue<>() {
+        @Override
+        protected Optional<Method> computeValue(Class<?> type) {
+          try {
+            return Optional.of(type.getDeclaredMethod("clone"));
+          } catch (NoSuchMethodException | SecurityException e) {
+            return Optional.empty();
+          }
+        }
+      };
+
   private ITestNGMethod m_method = null;
-  private List<ITestNGMethod> skippedDueTo = Lists.newArrayList();
+  private List<ITestNGMethod> skippedDueTo = Collections.emptyList();
   private boolean skipAnalysed = false;
   private int m_status = CREATED;
   private Throwable m_throwable = null;
@@ -33,13 +64,16 @@ public class TestResult implements ITestResult {
   private long m_endMillis = 0;
   private String m_name = null;
   private String m_host;
-  private Object[] m_parameters = {};
+  private Object[] m_parameters = NO_PARAMETERS;
   private String m_instanceName;
   private ITestContext m_context;
   private int parameterIndex;
   private boolean m_wasRetried;
-  private final IAttributes m_attributes = new Attributes();
-  private final String id = UUID.randomUUID().toString();
+  // Only allocated once an attribute is set
+  private volatile IAttributes m_attributes;
+  private final long id = IDS.incrementAndGet();
+  private InvocationMetrics m_invocationMetrics = InvocationMetrics.NONE;
+  private InvocationMetrics m_configurationMetrics = InvocationMetrics.NONE;
 
   private TestResult() {
     // defeat instantiation. We have factory methods.
@@ -84,6 +118,7 @@ public class TestResult implements ITestResult {
     testResult.setParameterIndex(result.getParameterIndex());
     testResult.init(method, ctx, null, start, 0L);
     TestResult.copyAttributes(result, testResult);
+    testResult.m_configurationMetrics = result.m_configurationMetrics;
     return testResult;
   }
 
@@ -96,7 +131,7 @@ public class TestResult implements ITestResult {
     m_startMillis = start;
     m_endMillis = end;
     if (RuntimeBehavior.isMemoryFriendlyMode()) {
-      m_method = new LiteWeightTestNGMethod(method);
+      m_method = snapshotOf(method, ctx);
     } else {
       m_method = method;
     }
@@ -129,19 +164,23 @@ public class TestResult implements ITestResult {
       m_name = method.getTestClass().getTestName();
       return;
     }
-    String string = instance.toString();
     // Only display toString() if it's been overridden by the user
     m_name = getMethod().getMethodName();
-    try {
-      if (!Object.class.getMethod("toString").equals(instance.getClass().getMethod("toString"))) {
-        m_instanceName = string.startsWith("class ") ? string.substring("class ".length()) : string;
-        m_name = m_name + " on " + m_instanceName;
-      }
-    } catch (NoSuchMethodException ignore) {
-      // ignore
+    if (TO_STRING_OVERRIDDEN.get(instance.getClass())) {
+      String string = instance.toString();
+      m_instanceName = string.startsWith("class ") ? string.substring("class ".length()) : string;
+      m_name = m_name + " on " + m_instanceName;
     }
   }
 
+  private static ITestNGMethod snapshotOf(ITestNGMethod method, ITestContext ctx) {
+    LiteWeightTestNGMethod.Snapshots snapshots =
+        ctx instanceof ITestResultNotifier
+            ? ((ITestResultNotifier) ctx).getMethodSnapshots()
+            : null;
+    return snapshots == null ? new LiteWeightTestNGMethod(method) : snapshots.snapshotOf(method);
+  }
+
   @Override
   public void setEndMillis(long millis) {
     m_endMillis = millis;
@@ -277,17 +316,21 @@ public class TestResult implements ITestResult {
 
   @Override
   public void setParameters(Object[] parameters) {
+    if (parameters.length == 0) {
+      m_parameters = NO_PARAMETERS;
+      return;
+    }
     m_parameters = new Object[parameters.length];
     for (int i = 0; i < parameters.length; i++) {
       // Copy parameter if possible because user may change it later
-      if (parameters[i] instanceof Cloneable) {
+      Optional<Method> clone =
+          parameters[i] instanceof Cloneable
+              ? CLONE_METHOD.get(parameters[i].getClass())
+              : Optional.empty();
+      if (clone.isPresent()) {
         try {
-          Method clone = parameters[i].getClass().getDeclaredMethod("clone");
-          m_parameters[i] = clone.invoke(parameters[i]);
-        } catch (NoSuchMethodException
-            | InvocationTargetException
-            | IllegalAccessException
-            | SecurityException e) {
+          m_parameters[i] = clone.get().invoke(parameters[i]);
+        } catch (InvocationTargetException | IllegalAccessException e) {
           m_parameters[i] = parameters[i];
         }
       } else {
@@ -296,6 +339,48 @@ public class TestResult implements ITestResult {
     }
   }
 
+  /**
+   * Applies a retention policy to the parameters of this result, once it is complete and is not
+   * going to be retried.
+   *
+   * @param retention - What to keep of the parameters
+   * @param snapshotLength - The maximum length of the string form of each parameter, when only that
+   *     is kept
+   */
+  public void retainParameters(ParameterRetention retention, int snapshotLength) {
+    if (m_parameters.length == 0) {
+      return;
+    }
+    switch (retention) {
+      case TO_STRING:
+        Object[] snapshot = new Object[m_parameters.length];
+        for (int i = 0; i < m_parameters.length; i++) {
+          Object parameter = m_parameters[i];
+          snapshot[i] = parameter == null ? null : snapshotOf(parameter, snapshotLength);
+        }
+        m_parameters = snapshot;
+        break;
+      case FAILURES:
+        if (m_status != FAILURE && m_status != SUCCESS_PERCENTAGE_FAILURE) {
+          m_parameters = NO_PARAMETERS;
+        }
+        break;
+      case NONE:
+        m_parameters = NO_PARAMETERS;
+        break;
+      default:
+        break;
+    }
+  }
+
+  private static String snapshotOf(Object parameter, int length) {
+    String result = Utils.toString(parameter);
+    if (result.length() <= length) {
+      return result;
+    }
+    return result.substring(0, Math.max(length, 0)) + "...";
+  }
+
   @Override
   public Object getInstance() {
     return IParameterInfo.embeddedInstance(this.m_method.getInstance());
@@ -312,22 +397,39 @@ public class TestResult implements ITestResult {
 
   @Override
   public Object getAttribute(String name) {
-    return m_attributes.getAttribute(name);
+    IAttributes attributes = m_attributes;
+    return attributes == null ? null : attributes.getAttribute(name);
   }
 
   @Override
   public void setAttribute(String name, Object value) {
-    m_attributes.setAttribute(name, value);
+    attributes().setAttribute(name, value);
   }
 
   @Override
   public Set<String> getAttributeNames() {
-    return m_attributes.getAttributeNames();
+    IAttributes attributes = m_attributes;
+    return attributes == null ? Collections.emptySet() : attributes.getAttributeNames();
   }
 
   @Override
   public Object removeAttribute(String name) {
-    return m_attributes.removeAttribute(name);
+    IAttributes attributes = m_attributes;
+    return attributes == null ? null : attributes.removeAttribute(name);
+  }
+
+  private IAttributes attributes() {
+    IAttributes result = m_attributes;
+    if (result == null) {
+      synchronized (this) {
+        result = m_attributes;
+        if (result == null) {
+          result = new Attributes();
+          m_attributes = result;
+        }
+      }
+    }
+    return result;
   }
 
   @Override
@@ -349,6 +451,25 @@ public class TestResult implements ITestResult {
     return m_instanceName;
   }
 
+  @Override
+  public InvocationMetrics getInvocationMetrics() {
+    return m_invocationMetrics;
+  }
+
+  public void setInvocationMetrics(InvocationMetrics metrics) {
+    m_invocationMetrics = metrics;
+  }
+
+  @Override
+  public InvocationMetrics getConfigurationMetrics() {
+    return m_configurationMetrics;
+  }
+
+  /** @param metrics - The metrics of a @BeforeMethod/@AfterMethod that ran for this result. */
+  public void addConfigurationMetrics(InvocationMetrics metrics) {
+    m_configurationMetrics = m_configurationMetrics.plus(metrics);
+  }
+
   @Override
   public void setTestName(String name) {
     m_name = name;
@@ -376,21 +497,23 @@ public class TestResult implements ITestResult {
     }
     skipAnalysed = true;
     // check if there were any config failures
+    List<ITestNGMethod> causes = Lists.newArrayList();
     Set<ITestResult> skippedConfigs = m_context.getFailedConfigurations().getAllResults();
     for (ITestResult skippedConfig : skippedConfigs) {
       if (isGlobalFailure(skippedConfig) || isRelated(skippedConfig)) {
         // If there's a failure in @BeforeTest/@BeforeSuite/@BeforeClass
         // then the reason is most often just one method.
-        skippedDueTo.add(skippedConfig.getMethod());
+        causes.add(skippedConfig.getMethod());
       }
       if (belongToSameGroup(skippedConfig)) {
         // If its @BeforeGroups then there's a chance that there could be more than one
         // method. So lets add everything.
-        skippedDueTo.add(skippedConfig.getMethod());
+        causes.add(skippedConfig.getMethod());
       }
     }
-    if (!skippedDueTo.isEmpty()) {
+    if (!causes.isEmpty()) {
       // If we found atleast one skipped due to reason, then its time to return back.
+      skippedDueTo = causes;
       return Collections.unmodifiableList(skippedDueTo);
     }
     // Looks like we didnt have any configuration failures. So some upstream method perhaps failed.
@@ -446,8 +569,9 @@ public class TestResult implements ITestResult {
                     || each.matcher(method.getMethodName()).matches());
   }
 
+  /** @return an identifier of the result, unique within the JVM. */
   public String id() {
-    return id;
+    return Long.toString(id);
   }
 
   private static boolean isGlobalFailure(ITestResult result) {
@@ -462,6 +586,10 @@ public class TestResult implements ITestResult {
     }
     Object current = this.getInstance();
     Object thatObject = result.getInstance();
+    if (current == null || thatObject == null) {
+      // Released instances (see RuntimeBehavior#RELEASE_FINISHED_INSTANCES)
+      return false;
+    }
     return current.getClass().isAssignableFrom(thatObject.getClass())
         || thatObject.getClass().isAssignableFrom(current.getClass());
   }
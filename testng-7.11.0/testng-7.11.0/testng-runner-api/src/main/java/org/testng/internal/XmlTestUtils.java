@@ -1,6 +1,7 @@
 package org.testng.internal;
 
 import java.util.Map;
+import org.testng.xml.ParameterScope;
 import org.testng.xml.XmlClass;
 import org.testng.xml.XmlInclude;
 import org.testng.xml.XmlTest;
@@ -11,13 +12,18 @@ final class XmlTestUtils {
 
   static Map<String, String> findMethodParameters(
       XmlTest test, String className, String methodName) {
-    Map<String, String> result = test.getAllParameters();
+    return findMethodParameterScope(test, className, methodName).toMap();
+  }
+
+  static ParameterScope findMethodParameterScope(
+      XmlTest test, String className, String methodName) {
+    ParameterScope result = test.getParameterScope();
     for (XmlClass xmlClass : test.getXmlClasses()) {
       if (xmlClass.getName().equals(className)) {
-        result.putAll(xmlClass.getLocalParameters());
+        result = result.with(xmlClass.getLocalParameters());
         for (XmlInclude include : xmlClass.getIncludedMethods()) {
           if (include.getName().equals(methodName)) {
-            result.putAll(include.getLocalParameters());
+            result = result.with(include.getLocalParameters());
             break;
           }
         }